@@ -0,0 +1,56 @@
+-- =====================================================================
+-- Kedai Kopi - Kunci idempoten checkout (client_key)
+-- PostgreSQL 14+
+--
+-- Jalankan setelah database_schema.sql dan database_partitioning.sql:
+--   \i database_checkout_key.sql
+-- Aman dijalankan ulang; jalankan lagi bila tabel dipartisi belakangan.
+--
+-- - tbl_transaksi_header mendapat kolom client_key: UUID yang dibuat
+--   terminal kasir per keranjang
+-- - Transaksi dengan client_key yang sama hanya tersimpan sekali; percobaan
+--   ulang (BAYAR ditekan lagi, replay jurnal) mendapat id transaksi pertama
+-- - Tabel partisi: unique key wajib memuat kolom partisi, jadi
+--   (client_key, tanggal); terminal memakai tanggal yang sama untuk setiap
+--   percobaan ulang keranjang yang sama
+-- - Transaksi lama tetap NULL dan tidak ikut dicek
+-- =====================================================================
+
+BEGIN;
+
+ALTER TABLE tbl_transaksi_header ADD COLUMN IF NOT EXISTS client_key UUID;
+
+DO $$
+DECLARE
+    archived RECORD;
+BEGIN
+    -- Archived months keep the live table's columns (arsip.v_* use SELECT *)
+    FOR archived IN
+        SELECT c.relname
+          FROM pg_class c
+          JOIN pg_namespace n ON n.oid = c.relnamespace
+         WHERE n.nspname = 'arsip'
+           AND c.relkind = 'r'
+           AND c.relname ~ '^tbl_transaksi_header_p[0-9]{6}$'
+    LOOP
+        EXECUTE format('ALTER TABLE arsip.%I ADD COLUMN IF NOT EXISTS client_key UUID', archived.relname);
+    END LOOP;
+
+    IF to_regclass('public.uq_transaksi_header_client_key') IS NULL THEN
+        IF (SELECT relkind FROM pg_class WHERE oid = 'public.tbl_transaksi_header'::regclass) = 'p' THEN
+            ALTER TABLE tbl_transaksi_header
+                ADD CONSTRAINT uq_transaksi_header_client_key UNIQUE (client_key, tanggal);
+            -- Retries look the key up without knowing the month
+            CREATE INDEX IF NOT EXISTS idx_transaksi_header_client_key ON tbl_transaksi_header (client_key);
+        ELSE
+            ALTER TABLE tbl_transaksi_header
+                ADD CONSTRAINT uq_transaksi_header_client_key UNIQUE (client_key);
+        END IF;
+    END IF;
+
+    IF to_regprocedure('kedaikopi_refresh_archive_views()') IS NOT NULL THEN
+        PERFORM kedaikopi_refresh_archive_views();
+    END IF;
+END $$;
+
+COMMIT;
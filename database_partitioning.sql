@@ -0,0 +1,252 @@
+-- =====================================================================
+-- Kedai Kopi - Partisi bulanan untuk transaksi dan activity log
+-- PostgreSQL 14+
+--
+-- Jalankan sekali setelah database_schema.sql:
+--   \i database_partitioning.sql
+--
+-- - tbl_transaksi_header, tbl_transaksi_detail dan tbl_user_activity_log
+--   dipartisi RANGE per bulan (partisi: <tabel>_pYYYYMM)
+-- - tbl_transaksi_detail mendapat kolom tanggal (= tanggal header) supaya
+--   partisinya sejajar dengan header dan query bisa di-prune
+-- - Partisi bulan depan dibuat dan partisi lama diarsipkan ke schema arsip
+--   oleh PartitionMaintenance di aplikasi, lewat fungsi di bawah
+-- - Data arsip tetap bisa di-query lewat view arsip.v_transaksi_header,
+--   arsip.v_transaksi_detail dan arsip.v_user_activity_log
+-- =====================================================================
+
+BEGIN;
+
+CREATE SCHEMA IF NOT EXISTS arsip;
+
+-- ---------------------------------------------------------------------
+-- Maintenance functions (also called by the application)
+-- ---------------------------------------------------------------------
+
+-- Create the partition of one month if it does not exist yet
+CREATE OR REPLACE FUNCTION kedaikopi_create_month_partition(parent TEXT, month DATE)
+RETURNS TEXT AS $$
+DECLARE
+    first_day DATE := date_trunc('month', month)::DATE;
+    part_name TEXT := parent || '_p' || to_char(first_day, 'YYYYMM');
+BEGIN
+    IF to_regclass('public.' || part_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE public.%I PARTITION OF public.%I FOR VALUES FROM (%L) TO (%L)',
+                       part_name, parent, first_day, (first_day + INTERVAL '1 month')::DATE);
+    END IF;
+    RETURN part_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Rebuild arsip.v_* views: live rows plus every archived month
+CREATE OR REPLACE FUNCTION kedaikopi_refresh_archive_views()
+RETURNS VOID AS $$
+DECLARE
+    parent TEXT;
+    archived TEXT;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY['tbl_transaksi_header', 'tbl_transaksi_detail', 'tbl_user_activity_log'] LOOP
+        SELECT string_agg(format(' UNION ALL SELECT * FROM arsip.%I', c.relname), '' ORDER BY c.relname)
+          INTO archived
+          FROM pg_class c
+          JOIN pg_namespace n ON n.oid = c.relnamespace
+         WHERE n.nspname = 'arsip'
+           AND c.relkind = 'r'
+           AND c.relname ~ ('^' || parent || '_p[0-9]{6}$');
+
+        EXECUTE format('CREATE OR REPLACE VIEW arsip.%I AS SELECT * FROM public.%I%s',
+                       'v_' || substr(parent, 5), parent, COALESCE(archived, ''));
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detach the partitions of one month and move them to schema arsip.
+-- Detail goes first because its foreign key points at the header partition;
+-- foreign keys of archived tables are dropped so they never block changes
+-- on live tables.
+CREATE OR REPLACE FUNCTION kedaikopi_archive_month(month DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    suffix TEXT := '_p' || to_char(date_trunc('month', month), 'YYYYMM');
+    parent TEXT;
+    part_name TEXT;
+    fk RECORD;
+    archived INTEGER := 0;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY['tbl_transaksi_detail', 'tbl_transaksi_header', 'tbl_user_activity_log'] LOOP
+        part_name := parent || suffix;
+        CONTINUE WHEN to_regclass('public.' || part_name) IS NULL;
+
+        EXECUTE format('ALTER TABLE public.%I DETACH PARTITION public.%I', parent, part_name);
+        FOR fk IN SELECT conname FROM pg_constraint
+                   WHERE conrelid = ('public.' || part_name)::regclass AND contype = 'f' LOOP
+            EXECUTE format('ALTER TABLE public.%I DROP CONSTRAINT %I', part_name, fk.conname);
+        END LOOP;
+        EXECUTE format('ALTER TABLE public.%I SET SCHEMA arsip', part_name);
+        archived := archived + 1;
+    END LOOP;
+
+    IF archived > 0 THEN
+        PERFORM kedaikopi_refresh_archive_views();
+    END IF;
+    RETURN archived;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ---------------------------------------------------------------------
+-- One-off conversion helpers
+-- ---------------------------------------------------------------------
+
+-- Re-add foreign keys of the old table on the new one, except those that
+-- point at a table being converted (they are recreated explicitly)
+CREATE FUNCTION pg_temp.copy_foreign_keys(old_table TEXT, new_table TEXT)
+RETURNS VOID AS $$
+DECLARE
+    fk RECORD;
+BEGIN
+    FOR fk IN SELECT pg_get_constraintdef(oid) AS def FROM pg_constraint
+               WHERE conrelid = old_table::regclass AND contype = 'f'
+                 AND confrelid::regclass::text NOT LIKE '%\_old' LOOP
+        EXECUTE format('ALTER TABLE %I ADD %s', new_table, fk.def);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Keep the id sequence when the old table is dropped
+CREATE FUNCTION pg_temp.move_sequence(old_table TEXT, new_table TEXT, id_column TEXT)
+RETURNS VOID AS $$
+DECLARE
+    seq TEXT := pg_get_serial_sequence(old_table, id_column);
+BEGIN
+    IF seq IS NOT NULL THEN
+        EXECUTE format('ALTER SEQUENCE %s OWNED BY %I.%I', seq, new_table, id_column);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Point views that used the old table at the new one
+CREATE FUNCTION pg_temp.rebind_views(old_table TEXT, new_table TEXT)
+RETURNS VOID AS $$
+DECLARE
+    v RECORD;
+BEGIN
+    FOR v IN SELECT DISTINCT r.ev_class::regclass AS view_name
+               FROM pg_depend d
+               JOIN pg_rewrite r ON r.oid = d.objid
+              WHERE d.refobjid = old_table::regclass AND r.ev_class <> old_table::regclass LOOP
+        EXECUTE format('CREATE OR REPLACE VIEW %s AS %s', v.view_name,
+                       replace(pg_get_viewdef(v.view_name), old_table, new_table));
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions from the oldest row up to two months ahead, plus a default
+-- partition as a safety net
+CREATE FUNCTION pg_temp.create_partitions(parent TEXT, oldest TIMESTAMP)
+RETURNS VOID AS $$
+DECLARE
+    m TIMESTAMP;
+BEGIN
+    FOR m IN SELECT generate_series(date_trunc('month', COALESCE(oldest, CURRENT_DATE)),
+                                    date_trunc('month', CURRENT_DATE) + INTERVAL '2 months',
+                                    INTERVAL '1 month') LOOP
+        PERFORM kedaikopi_create_month_partition(parent, m::DATE);
+    END LOOP;
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', parent || '_default', parent);
+END;
+$$ LANGUAGE plpgsql;
+
+-- ---------------------------------------------------------------------
+-- tbl_transaksi_header
+-- ---------------------------------------------------------------------
+ALTER TABLE tbl_transaksi_header RENAME TO tbl_transaksi_header_old;
+ALTER INDEX IF EXISTS tbl_transaksi_header_pkey RENAME TO tbl_transaksi_header_old_pkey;
+
+CREATE TABLE tbl_transaksi_header (
+    LIKE tbl_transaksi_header_old INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING STORAGE
+) PARTITION BY RANGE (tanggal);
+
+ALTER TABLE tbl_transaksi_header ALTER COLUMN tanggal SET NOT NULL;
+ALTER TABLE tbl_transaksi_header ADD PRIMARY KEY (id_transaksi_header, tanggal);
+CREATE INDEX idx_transaksi_header_tanggal ON tbl_transaksi_header (tanggal);
+CREATE INDEX idx_transaksi_header_user_tanggal ON tbl_transaksi_header (id_user, tanggal);
+
+SELECT pg_temp.create_partitions('tbl_transaksi_header', (SELECT MIN(tanggal) FROM tbl_transaksi_header_old));
+INSERT INTO tbl_transaksi_header SELECT * FROM tbl_transaksi_header_old;
+SELECT pg_temp.copy_foreign_keys('tbl_transaksi_header_old', 'tbl_transaksi_header');
+SELECT pg_temp.move_sequence('tbl_transaksi_header_old', 'tbl_transaksi_header', 'id_transaksi_header');
+
+-- ---------------------------------------------------------------------
+-- tbl_transaksi_detail (+ tanggal, same type as the header column)
+-- ---------------------------------------------------------------------
+ALTER TABLE tbl_transaksi_detail RENAME TO tbl_transaksi_detail_old;
+ALTER INDEX IF EXISTS tbl_transaksi_detail_pkey RENAME TO tbl_transaksi_detail_old_pkey;
+
+DO $$
+BEGIN
+    EXECUTE format('CREATE TABLE tbl_transaksi_detail ( '
+                   '    LIKE tbl_transaksi_detail_old INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING STORAGE, '
+                   '    tanggal %s NOT NULL '
+                   ') PARTITION BY RANGE (tanggal)',
+                   (SELECT format_type(atttypid, atttypmod) FROM pg_attribute
+                     WHERE attrelid = 'tbl_transaksi_header'::regclass AND attname = 'tanggal'));
+END $$;
+
+ALTER TABLE tbl_transaksi_detail ADD PRIMARY KEY (id_transaksi_detail, tanggal);
+ALTER TABLE tbl_transaksi_detail ADD FOREIGN KEY (id_transaksi_header, tanggal)
+    REFERENCES tbl_transaksi_header (id_transaksi_header, tanggal) ON DELETE CASCADE;
+CREATE INDEX idx_transaksi_detail_header ON tbl_transaksi_detail (id_transaksi_header);
+CREATE INDEX idx_transaksi_detail_menu_tanggal ON tbl_transaksi_detail (id_menu, tanggal);
+
+SELECT pg_temp.create_partitions('tbl_transaksi_detail', (SELECT MIN(tanggal) FROM tbl_transaksi_header_old));
+INSERT INTO tbl_transaksi_detail
+SELECT d.*, h.tanggal
+  FROM tbl_transaksi_detail_old d
+  JOIN tbl_transaksi_header_old h ON h.id_transaksi_header = d.id_transaksi_header;
+SELECT pg_temp.copy_foreign_keys('tbl_transaksi_detail_old', 'tbl_transaksi_detail');
+SELECT pg_temp.move_sequence('tbl_transaksi_detail_old', 'tbl_transaksi_detail', 'id_transaksi_detail');
+
+-- ---------------------------------------------------------------------
+-- tbl_user_activity_log
+-- ---------------------------------------------------------------------
+ALTER TABLE tbl_user_activity_log RENAME TO tbl_user_activity_log_old;
+ALTER INDEX IF EXISTS tbl_user_activity_log_pkey RENAME TO tbl_user_activity_log_old_pkey;
+
+CREATE TABLE tbl_user_activity_log (
+    LIKE tbl_user_activity_log_old INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING STORAGE
+) PARTITION BY RANGE (activity_time);
+
+ALTER TABLE tbl_user_activity_log ALTER COLUMN activity_time SET NOT NULL;
+ALTER TABLE tbl_user_activity_log ADD PRIMARY KEY (id_activity, activity_time);
+CREATE INDEX idx_user_activity_log_time ON tbl_user_activity_log (activity_time);
+CREATE INDEX idx_user_activity_log_user_time ON tbl_user_activity_log (id_user, activity_time);
+
+SELECT pg_temp.create_partitions('tbl_user_activity_log',
+                                 (SELECT MIN(activity_time) FROM tbl_user_activity_log_old));
+INSERT INTO tbl_user_activity_log SELECT * FROM tbl_user_activity_log_old;
+SELECT pg_temp.copy_foreign_keys('tbl_user_activity_log_old', 'tbl_user_activity_log');
+SELECT pg_temp.move_sequence('tbl_user_activity_log_old', 'tbl_user_activity_log', 'id_activity');
+
+-- ---------------------------------------------------------------------
+-- Views, verification, cleanup
+-- ---------------------------------------------------------------------
+SELECT pg_temp.rebind_views('tbl_transaksi_header_old', 'tbl_transaksi_header');
+SELECT pg_temp.rebind_views('tbl_transaksi_detail_old', 'tbl_transaksi_detail');
+SELECT pg_temp.rebind_views('tbl_user_activity_log_old', 'tbl_user_activity_log');
+
+DO $$
+BEGIN
+    IF (SELECT COUNT(*) FROM tbl_transaksi_header) <> (SELECT COUNT(*) FROM tbl_transaksi_header_old)
+       OR (SELECT COUNT(*) FROM tbl_transaksi_detail) <> (SELECT COUNT(*) FROM tbl_transaksi_detail_old)
+       OR (SELECT COUNT(*) FROM tbl_user_activity_log) <> (SELECT COUNT(*) FROM tbl_user_activity_log_old) THEN
+        RAISE EXCEPTION 'Row count mismatch after partitioning, nothing was changed';
+    END IF;
+END $$;
+
+DROP TABLE tbl_transaksi_detail_old;
+DROP TABLE tbl_transaksi_header_old;
+DROP TABLE tbl_user_activity_log_old;
+
+SELECT kedaikopi_refresh_archive_views();
+
+COMMIT;
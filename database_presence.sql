@@ -0,0 +1,43 @@
+-- =====================================================================
+-- Kedai Kopi - Presence terminal (siapa yang sedang online)
+-- PostgreSQL 14+
+--
+-- Jalankan sekali setelah database_schema.sql:
+--   \i database_presence.sql
+--
+-- - tbl_presence: satu baris per sesi login yang sedang berjalan; terminal
+--   memperbarui expires_at (heartbeat) selama user masih login
+-- - Logout menghapus barisnya; terminal yang crash berhenti heartbeat dan
+--   sesinya tidak dihitung lagi setelah expires_at, lalu dibersihkan
+--   oleh aplikasi
+-- - Jumlah kasir online dan daftar sesi aktif dibaca dari sini, bukan dari
+--   scan tbl_user_activity_log (yang tetap menjadi riwayat login/logout)
+-- - v_active_kasir dibuat ulang di atas tbl_presence untuk laporan lama
+-- =====================================================================
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS tbl_presence (
+    session_key UUID         PRIMARY KEY,
+    id_user     INTEGER      NOT NULL REFERENCES tbl_user (id_user) ON DELETE CASCADE,
+    terminal    VARCHAR(100),
+    login_time  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at  TIMESTAMP    NOT NULL
+);
+
+DROP VIEW IF EXISTS v_active_kasir;
+
+CREATE VIEW v_active_kasir AS
+SELECT DISTINCT ON (p.id_user)
+       p.id_user,
+       u.username,
+       u.nama_lengkap,
+       p.terminal,
+       p.login_time
+  FROM tbl_presence p
+  JOIN tbl_user u ON u.id_user = p.id_user
+ WHERE u.role = 'Kasir'
+   AND p.expires_at > CURRENT_TIMESTAMP
+ ORDER BY p.id_user, p.login_time DESC;
+
+COMMIT;
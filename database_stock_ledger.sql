@@ -0,0 +1,44 @@
+-- =====================================================================
+-- Kedai Kopi - Stok per terminal (striped counters)
+-- PostgreSQL 14+
+--
+-- Jalankan sekali setelah database_schema.sql:
+--   \i database_stock_ledger.sql
+--
+-- - tbl_menu_stok_stripe: sub-counter stok per menu per terminal; penjualan
+--   hanya mengurangi stripe terminalnya sendiri, jadi kasir-kasir yang menjual
+--   menu yang sama tidak saling menunggu lock baris tbl_menu
+-- - tbl_menu.stok menjadi cadangan; stok sebenarnya = cadangan + semua stripe
+-- - v_menu: tbl_menu dengan stok sebenarnya, dipakai semua query baca
+-- - Stripe yang menganggur dikembalikan ke tbl_menu.stok oleh aplikasi
+--   (StockCompaction)
+-- =====================================================================
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS tbl_menu_stok_stripe (
+    id_menu    INTEGER   NOT NULL REFERENCES tbl_menu (id_menu) ON DELETE CASCADE,
+    stripe     SMALLINT  NOT NULL,
+    qty        INTEGER   NOT NULL CHECK (qty >= 0),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id_menu, stripe)
+) WITH (fillfactor = 50); -- Room for HOT updates, every sale rewrites a row
+
+-- No index on updated_at on purpose: it would rule out HOT updates, and the
+-- table is tiny (menus x terminals)
+
+CREATE OR REPLACE VIEW v_menu AS
+SELECT m.id_menu,
+       m.nama_menu,
+       m.id_kategori,
+       m.harga,
+       (m.stok + COALESCE((SELECT SUM(s.qty) FROM tbl_menu_stok_stripe s
+                            WHERE s.id_menu = m.id_menu), 0))::INTEGER AS stok,
+       m.image_path,
+       m.deskripsi,
+       m.is_active,
+       m.created_at,
+       m.updated_at
+  FROM tbl_menu m;
+
+COMMIT;
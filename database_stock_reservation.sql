@@ -0,0 +1,29 @@
+-- =====================================================================
+-- Kedai Kopi - Reservasi stok keranjang
+-- PostgreSQL 14+
+--
+-- Jalankan sekali setelah database_stock_ledger.sql:
+--   \i database_stock_reservation.sql
+--
+-- - tbl_stok_reservasi: stok yang sedang ditahan keranjang kasir yang masih
+--   terbuka, satu baris per keranjang per menu
+-- - Reservasi diambil saat menu masuk keranjang, diperpanjang selama
+--   keranjang terbuka, dan dihapus dalam transaksi penjualan yang sama
+-- - Reservasi yang lewat expires_at (keranjang ditinggal, terminal mati)
+--   tidak dihitung lagi dan dibersihkan oleh aplikasi (StockCompaction)
+-- =====================================================================
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS tbl_stok_reservasi (
+    cart_key   UUID      NOT NULL,
+    id_menu    INTEGER   NOT NULL REFERENCES tbl_menu (id_menu) ON DELETE CASCADE,
+    qty        INTEGER   NOT NULL CHECK (qty > 0),
+    expires_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (cart_key, id_menu)
+);
+
+-- Reserving sums the other carts' holds on one menu
+CREATE INDEX IF NOT EXISTS idx_stok_reservasi_menu ON tbl_stok_reservasi (id_menu, expires_at);
+
+COMMIT;
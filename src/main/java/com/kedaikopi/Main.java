@@ -2,6 +2,13 @@ package com.kedaikopi;
 
 import com.formdev.flatlaf.FlatLightLaf;
 import com.kedaikopi.ui.LoginForm;
+import com.kedaikopi.util.ActivityLogWriter;
+import com.kedaikopi.util.PartitionMaintenance;
+import com.kedaikopi.util.PresenceHeartbeat;
+import com.kedaikopi.util.PrintSpooler;
+import com.kedaikopi.util.SalesJournal;
+import com.kedaikopi.util.StartupWarmup;
+import com.kedaikopi.util.StockCompaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +41,27 @@ public class Main {
         // Logo aplikasi di console
         printApplicationBanner();
 
+        // Pool, catalog and logo warmed up in the background while the UI is built
+        StartupWarmup.getInstance().start();
+
+        // Resume receipts left in the print spool by the previous run
+        PrintSpooler.getInstance().start();
+
+        // Store sales left in the offline journal by the previous run
+        SalesJournal.getInstance().start();
+
+        // Monthly partitions ahead, archive of expired months (daily, background)
+        PartitionMaintenance.getInstance().start();
+
+        // Idle terminal stock stripes back into tbl_menu.stok (background)
+        StockCompaction.getInstance().start();
+
+        // Login/logout history written behind; sends what an earlier run spilled
+        ActivityLogWriter.getInstance().start();
+
+        // Online presence of the user logged in here (heartbeat while logged in)
+        PresenceHeartbeat.getInstance().start();
+
         // Launch application in EDT
         SwingUtilities.invokeLater(() -> {
             try {
@@ -8,6 +8,8 @@ import org.slf4j.LoggerFactory;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Database Configuration dengan Connection Pooling menggunakan HikariCP
@@ -18,6 +20,7 @@ public class DatabaseConfig {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseConfig.class);
     private static DatabaseConfig instance;
     private HikariDataSource dataSource;
+    private HikariDataSource reportingDataSource;
 
     // Database configuration
     private static final String DB_URL = "jdbc:postgresql://localhost:5432/db_kedai_kopi";
@@ -27,10 +30,21 @@ public class DatabaseConfig {
     // Connection pool configuration
     private static final int MAXIMUM_POOL_SIZE = 10;
     private static final int MINIMUM_IDLE = 2;
-    private static final long CONNECTION_TIMEOUT = 30000; // 30 seconds
+    // Short waits: a LAN database answers in milliseconds, longer means it is
+    // down (DatabaseHealth then fails fast until it is back)
+    private static final long CONNECTION_TIMEOUT = 5000; // 5 seconds
+    private static final int SOCKET_CONNECT_TIMEOUT_SECONDS = 5;
+    // A statement without any answer for this long fails (SQLState 08006)
+    // instead of hanging its thread on a dead socket
+    private static final int SOCKET_TIMEOUT_SECONDS = 30;
+    private static final int REPORTING_SOCKET_TIMEOUT_SECONDS = 300; // long report queries
     private static final long IDLE_TIMEOUT = 600000; // 10 minutes
     private static final long MAX_LIFETIME = 1800000; // 30 minutes
 
+    // Reporting pool - few read-only connections so long report queries never
+    // take connections away from the cash register
+    public static final int REPORTING_POOL_SIZE = 3;
+
     /**
      * Private constructor - Singleton pattern
      */
@@ -53,32 +67,7 @@ public class DatabaseConfig {
      */
     private void initializeDataSource() {
         try {
-            HikariConfig config = new HikariConfig();
-
-            // JDBC settings
-            config.setJdbcUrl(DB_URL);
-            config.setUsername(DB_USER);
-            config.setPassword(DB_PASSWORD);
-            config.setDriverClassName("org.postgresql.Driver");
-
-            // Pool settings
-            config.setMaximumPoolSize(MAXIMUM_POOL_SIZE);
-            config.setMinimumIdle(MINIMUM_IDLE);
-            config.setConnectionTimeout(CONNECTION_TIMEOUT);
-            config.setIdleTimeout(IDLE_TIMEOUT);
-            config.setMaxLifetime(MAX_LIFETIME);
-
-            // Pool name
-            config.setPoolName("KedaiKopiPool");
-
-            // Performance settings
-            config.addDataSourceProperty("cachePrepStmts", "true");
-            config.addDataSourceProperty("prepStmtCacheSize", "250");
-            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-            config.addDataSourceProperty("useServerPrepStmts", "true");
-
-            // Auto-commit
-            config.setAutoCommit(true);
+            HikariConfig config = createConfig("KedaiKopiPool", MAXIMUM_POOL_SIZE, MINIMUM_IDLE);
 
             // Create datasource
             dataSource = new HikariDataSource(config);
@@ -91,6 +80,41 @@ public class DatabaseConfig {
         }
     }
 
+    private HikariConfig createConfig(String poolName, int maximumPoolSize, int minimumIdle) {
+        HikariConfig config = new HikariConfig();
+
+        // JDBC settings
+        config.setJdbcUrl(DB_URL);
+        config.setUsername(DB_USER);
+        config.setPassword(DB_PASSWORD);
+        config.setDriverClassName("org.postgresql.Driver");
+
+        // Pool settings
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(minimumIdle);
+        config.setConnectionTimeout(CONNECTION_TIMEOUT);
+        config.setIdleTimeout(IDLE_TIMEOUT);
+        config.setMaxLifetime(MAX_LIFETIME);
+
+        // Start even when the database is down (offline checkout, DatabaseHealth probes)
+        config.setInitializationFailTimeout(-1);
+        config.addDataSourceProperty("connectTimeout", String.valueOf(SOCKET_CONNECT_TIMEOUT_SECONDS));
+        config.addDataSourceProperty("socketTimeout", String.valueOf(SOCKET_TIMEOUT_SECONDS));
+
+        // Pool name
+        config.setPoolName(poolName);
+
+        // Performance settings
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+
+        // Auto-commit
+        config.setAutoCommit(true);
+        return config;
+    }
+
     /**
      * Get DataSource
      */
@@ -99,15 +123,63 @@ public class DatabaseConfig {
     }
 
     /**
-     * Get Database Connection
+     * Get Database Connection - fails fast while DatabaseHealth has the
+     * circuit open
      */
     public Connection getConnection() throws SQLException {
+        DatabaseHealth health = DatabaseHealth.getInstance();
+        health.checkAvailable();
+        try {
+            Connection conn = getPooledConnection();
+            health.recordSuccess();
+            return conn;
+        } catch (SQLException e) {
+            health.recordFailure(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Connection straight from the pool, bypassing the circuit breaker (probes)
+     */
+    Connection getPooledConnection() throws SQLException {
         if (dataSource == null || dataSource.isClosed()) {
             throw new SQLException("DataSource is not initialized or already closed");
         }
         return dataSource.getConnection();
     }
 
+    /**
+     * Get read-only connection from the reporting pool (created on first use)
+     */
+    public Connection getReportingConnection() throws SQLException {
+        DatabaseHealth health = DatabaseHealth.getInstance();
+        health.checkAvailable();
+        HikariDataSource reporting;
+        synchronized (this) {
+            if (reportingDataSource == null || reportingDataSource.isClosed()) {
+                HikariConfig config = createConfig("KedaiKopiReportPool", REPORTING_POOL_SIZE, 0);
+                config.setReadOnly(true);
+                config.addDataSourceProperty("socketTimeout", String.valueOf(REPORTING_SOCKET_TIMEOUT_SECONDS));
+                try {
+                    reportingDataSource = new HikariDataSource(config);
+                } catch (RuntimeException e) {
+                    throw new SQLException("Reporting pool initialization failed", e);
+                }
+                logger.info("Reporting connection pool initialized");
+            }
+            reporting = reportingDataSource;
+        }
+        try {
+            Connection conn = reporting.getConnection();
+            health.recordSuccess();
+            return conn;
+        } catch (SQLException e) {
+            health.recordFailure(e);
+            throw e;
+        }
+    }
+
     /**
      * Test database connection
      */
@@ -121,6 +193,39 @@ public class DatabaseConfig {
         }
     }
 
+    /**
+     * Open the idle connections now and check each one (startup, off the EDT),
+     * so the first login and the first sale find them ready
+     *
+     * @return whether every connection answered
+     */
+    public boolean warmUp() {
+        List<Connection> borrowed = new ArrayList<>(MINIMUM_IDLE);
+        try {
+            for (int i = 0; i < MINIMUM_IDLE; i++) {
+                Connection conn = getConnection(); // Held together, so the pool has to open each
+                borrowed.add(conn);
+                if (!conn.isValid(SOCKET_CONNECT_TIMEOUT_SECONDS)) {
+                    logger.warn("Database connection failed validation during warm-up");
+                    return false;
+                }
+            }
+            logger.info("{} database connections warmed up", borrowed.size());
+            return true;
+        } catch (SQLException e) {
+            logger.error("Database warm-up failed", e);
+            return false;
+        } finally {
+            for (Connection conn : borrowed) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.warn("Could not return warm-up connection", e);
+                }
+            }
+        }
+    }
+
     /**
      * Get connection pool statistics
      */
@@ -140,6 +245,11 @@ public class DatabaseConfig {
      * Close connection pool - call this on application shutdown
      */
     public void closePool() {
+        synchronized (this) {
+            if (reportingDataSource != null && !reportingDataSource.isClosed()) {
+                reportingDataSource.close();
+            }
+        }
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
             logger.info("Database connection pool closed");
@@ -0,0 +1,150 @@
+package com.kedaikopi.config;
+
+import com.kedaikopi.event.DatabaseStateChanged;
+import com.kedaikopi.event.EventBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database Health - circuit breaker koneksi database
+ * Singleton pattern
+ *
+ * - FAILURE_THRESHOLD kali berturut-turut gagal mendapat koneksi (server
+ *   mati, jaringan putus) membuka circuit; koneksi yang berhasil me-reset hitungan
+ * - Selama circuit terbuka, getConnection() langsung gagal tanpa menunggu
+ *   timeout pool; data referensi dilayani dari cache
+ * - Probe di background dengan backoff; circuit ditutup begitu probe berhasil
+ * - Perubahan status diumumkan lewat EventBus (DatabaseStateChanged)
+ *
+ * Only connection-level failures count: SQLState class 08 from the driver.
+ * A pool that is merely exhausted (every connection busy, Hikari times out
+ * without a driver error) and query errors such as constraint violations
+ * leave the circuit alone.
+ */
+public class DatabaseHealth {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseHealth.class);
+    private static DatabaseHealth instance;
+
+    private static final long PROBE_BASE_MILLIS = 1_000;
+    private static final long PROBE_MAX_MILLIS = 30_000;
+    private static final int VALID_TIMEOUT_SECONDS = 2;
+    private static final int FAILURE_THRESHOLD = 2; // one blip does not take the app offline
+
+    private volatile boolean open = false;
+    private volatile String reason;
+    private volatile int failures; // consecutive, guarded by this for increments
+    private int probes; // probe thread only
+
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "db-health");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private DatabaseHealth() {
+    }
+
+    public static synchronized DatabaseHealth getInstance() {
+        if (instance == null) {
+            instance = new DatabaseHealth();
+        }
+        return instance;
+    }
+
+    /**
+     * False while the circuit is open
+     */
+    public boolean isAvailable() {
+        return !open;
+    }
+
+    /**
+     * Fail fast while the circuit is open
+     */
+    void checkAvailable() throws SQLException {
+        if (open) {
+            throw new SQLTransientConnectionException("Database tidak terhubung: " + reason, "08001");
+        }
+    }
+
+    /**
+     * A connection was handed out: the failures so far were not in a row
+     */
+    void recordSuccess() {
+        if (failures != 0) {
+            failures = 0;
+        }
+    }
+
+    /**
+     * Open the circuit if the error means the database cannot be reached
+     * (FAILURE_THRESHOLD times in a row)
+     */
+    void recordFailure(SQLException e) {
+        if (!isConnectionFailure(e)) {
+            return;
+        }
+        synchronized (this) {
+            if (open) {
+                return;
+            }
+            if (++failures < FAILURE_THRESHOLD) {
+                logger.warn("Database connection failed ({} in a row): {}", failures, e.getMessage());
+                return;
+            }
+            open = true;
+            failures = 0;
+            reason = e.getMessage();
+            probes = 0;
+        }
+        logger.warn("Database unreachable, circuit opened: {}", e.getMessage());
+        EventBus.getInstance().publish(new DatabaseStateChanged(false, reason));
+        prober.schedule(this::probe, PROBE_BASE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void probe() {
+        try (Connection conn = DatabaseConfig.getInstance().getPooledConnection()) {
+            if (!conn.isValid(VALID_TIMEOUT_SECONDS)) {
+                throw new SQLTransientConnectionException("Connection not valid", "08006");
+            }
+        } catch (SQLException | RuntimeException e) {
+            probes++;
+            long delay = Math.min(PROBE_MAX_MILLIS, PROBE_BASE_MILLIS << Math.min(probes, 10));
+            logger.debug("Database probe {} failed, next in {} ms: {}", probes, delay, e.getMessage());
+            prober.schedule(this::probe, delay, TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        synchronized (this) {
+            open = false;
+            reason = null;
+        }
+        logger.info("Database reachable again after {} probe(s), circuit closed", probes + 1);
+        EventBus.getInstance().publish(new DatabaseStateChanged(true, null));
+    }
+
+    /**
+     * Hikari's connection timeout carries the driver's SQLState (and the
+     * driver error as cause) when the pool could not open connections; it has
+     * none when the pool was only exhausted
+     */
+    private static boolean isConnectionFailure(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                String state = ((SQLException) t).getSQLState();
+                if (state != null && state.startsWith("08")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
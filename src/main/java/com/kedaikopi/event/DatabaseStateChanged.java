@@ -0,0 +1,31 @@
+package com.kedaikopi.event;
+
+/**
+ * Database terputus atau terhubung kembali (see DatabaseHealth)
+ */
+public final class DatabaseStateChanged {
+
+    private final boolean available;
+    private final String reason;
+
+    public DatabaseStateChanged(boolean available, String reason) {
+        this.available = available;
+        this.reason = reason;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Error that opened the circuit, null when available
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseStateChanged " + (available ? "available" : "unavailable: " + reason);
+    }
+}
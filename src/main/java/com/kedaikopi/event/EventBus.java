@@ -0,0 +1,166 @@
+package com.kedaikopi.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Event Bus - domain event in-process (SaleCompleted, StockChanged, ...)
+ * Singleton pattern
+ *
+ * Model classes publish after commit; views subscribe and apply deltas
+ * instead of reloading. Two kinds of subscribers:
+ * - subscribe(): called synchronously on the publishing thread (keep it cheap)
+ * - subscribeOnEdt(): events are queued and delivered as one batch on the EDT
+ *   at most once per frame, so a burst of changes causes a single UI update
+ */
+public class EventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventBus.class);
+    private static EventBus instance;
+
+    private static final int FRAME_MILLIS = 16;
+
+    private final List<Subscriber<?>> subscribers = new CopyOnWriteArrayList<>();
+
+    private EventBus() {
+    }
+
+    public static synchronized EventBus getInstance() {
+        if (instance == null) {
+            instance = new EventBus();
+        }
+        return instance;
+    }
+
+    /**
+     * Handle events of a type on the publishing thread
+     */
+    public <E> Subscription subscribe(Class<E> type, Consumer<? super E> handler) {
+        Subscriber<E> subscriber = new DirectSubscriber<>(type, handler);
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    /**
+     * Handle events of a type on the EDT, coalesced per frame
+     */
+    public <E> Subscription subscribeOnEdt(Class<E> type, Consumer<List<E>> handler) {
+        Subscriber<E> subscriber = new EdtSubscriber<>(type, handler);
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    /**
+     * Publish event to all subscribers of its type (any thread)
+     */
+    public void publish(Object event) {
+        for (Subscriber<?> subscriber : subscribers) {
+            if (subscriber.type.isInstance(event)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Handle returned by subscribe - call unsubscribe() when the view goes away
+     */
+    public interface Subscription {
+        void unsubscribe();
+    }
+
+    private abstract class Subscriber<E> implements Subscription {
+        final Class<E> type;
+        volatile boolean active = true;
+
+        Subscriber(Class<E> type) {
+            this.type = type;
+        }
+
+        void offer(Object event) {
+            if (active) {
+                deliver(type.cast(event));
+            }
+        }
+
+        abstract void deliver(E event);
+
+        @Override
+        public void unsubscribe() {
+            active = false;
+            subscribers.remove(this);
+        }
+    }
+
+    private class DirectSubscriber<E> extends Subscriber<E> {
+        private final Consumer<? super E> handler;
+
+        DirectSubscriber(Class<E> type, Consumer<? super E> handler) {
+            super(type);
+            this.handler = handler;
+        }
+
+        @Override
+        void deliver(E event) {
+            try {
+                handler.accept(event);
+            } catch (RuntimeException e) {
+                logger.error("Event handler failed for {}", event, e);
+            }
+        }
+    }
+
+    private class EdtSubscriber<E> extends Subscriber<E> {
+        private final Consumer<List<E>> handler;
+        private final Queue<E> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private final Timer frameTimer;
+
+        EdtSubscriber(Class<E> type, Consumer<List<E>> handler) {
+            super(type);
+            this.handler = handler;
+            this.frameTimer = new Timer(FRAME_MILLIS, e -> flush());
+            this.frameTimer.setRepeats(false);
+        }
+
+        @Override
+        void deliver(E event) {
+            pending.add(event);
+            if (scheduled.compareAndSet(false, true)) {
+                if (SwingUtilities.isEventDispatchThread()) {
+                    frameTimer.start();
+                } else {
+                    SwingUtilities.invokeLater(frameTimer::start);
+                }
+            }
+        }
+
+        private void flush() {
+            scheduled.set(false);
+
+            List<E> batch = new ArrayList<>();
+            E event;
+            while ((event = pending.poll()) != null) {
+                batch.add(event);
+            }
+            if (batch.isEmpty() || !active) {
+                return;
+            }
+
+            try {
+                handler.accept(batch);
+            } catch (RuntimeException e) {
+                logger.error("Event handler failed for {} x{}", type.getSimpleName(), batch.size(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.kedaikopi.event;
+
+/**
+ * Menu ditambah, diubah atau dihapus (published after commit)
+ */
+public final class MenuUpdated {
+
+    public enum Change {
+        INSERTED, UPDATED, DELETED
+    }
+
+    private final int idMenu;
+    private final Change change;
+
+    public MenuUpdated(int idMenu, Change change) {
+        this.idMenu = idMenu;
+        this.change = change;
+    }
+
+    public int getIdMenu() {
+        return idMenu;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    @Override
+    public String toString() {
+        return "MenuUpdated menu " + idMenu + " " + change;
+    }
+}
@@ -0,0 +1,28 @@
+package com.kedaikopi.event;
+
+/**
+ * Sesi presence terminal ini dibuat atau dihapus di database (see PresenceHeartbeat)
+ */
+public final class PresenceChanged {
+
+    private final int idUser;
+    private final boolean online;
+
+    public PresenceChanged(int idUser, boolean online) {
+        this.idUser = idUser;
+        this.online = online;
+    }
+
+    public int getIdUser() {
+        return idUser;
+    }
+
+    public boolean isOnline() {
+        return online;
+    }
+
+    @Override
+    public String toString() {
+        return "PresenceChanged " + idUser + (online ? " online" : " offline");
+    }
+}
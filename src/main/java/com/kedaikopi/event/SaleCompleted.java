@@ -0,0 +1,77 @@
+package com.kedaikopi.event;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Transaksi tersimpan (published after commit)
+ */
+public final class SaleCompleted {
+
+    private final int idTransaksi;
+    private final int idUser;
+    private final Timestamp tanggal;
+    private final long grandTotalSen;
+    private final List<Line> lines;
+
+    public SaleCompleted(int idTransaksi, int idUser, Timestamp tanggal, long grandTotalSen, List<Line> lines) {
+        this.idTransaksi = idTransaksi;
+        this.idUser = idUser;
+        this.tanggal = tanggal;
+        this.grandTotalSen = grandTotalSen;
+        this.lines = Collections.unmodifiableList(lines);
+    }
+
+    public int getIdTransaksi() {
+        return idTransaksi;
+    }
+
+    public int getIdUser() {
+        return idUser;
+    }
+
+    public Timestamp getTanggal() {
+        return tanggal;
+    }
+
+    public long getGrandTotalSen() {
+        return grandTotalSen;
+    }
+
+    public List<Line> getLines() {
+        return lines;
+    }
+
+    @Override
+    public String toString() {
+        return "SaleCompleted #" + idTransaksi;
+    }
+
+    /**
+     * Sold item
+     */
+    public static final class Line {
+        private final int idMenu;
+        private final int qty;
+        private final long subtotalSen;
+
+        public Line(int idMenu, int qty, long subtotalSen) {
+            this.idMenu = idMenu;
+            this.qty = qty;
+            this.subtotalSen = subtotalSen;
+        }
+
+        public int getIdMenu() {
+            return idMenu;
+        }
+
+        public int getQty() {
+            return qty;
+        }
+
+        public long getSubtotalSen() {
+            return subtotalSen;
+        }
+    }
+}
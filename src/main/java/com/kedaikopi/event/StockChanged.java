@@ -0,0 +1,34 @@
+package com.kedaikopi.event;
+
+/**
+ * Stok menu berubah (published after commit)
+ */
+public final class StockChanged {
+
+    private final int idMenu;
+    private final int oldStok;
+    private final int newStok;
+
+    public StockChanged(int idMenu, int oldStok, int newStok) {
+        this.idMenu = idMenu;
+        this.oldStok = oldStok;
+        this.newStok = newStok;
+    }
+
+    public int getIdMenu() {
+        return idMenu;
+    }
+
+    public int getOldStok() {
+        return oldStok;
+    }
+
+    public int getNewStok() {
+        return newStok;
+    }
+
+    @Override
+    public String toString() {
+        return "StockChanged menu " + idMenu + ": " + oldStok + " -> " + newStok;
+    }
+}
@@ -0,0 +1,22 @@
+package com.kedaikopi.event;
+
+/**
+ * User login berhasil
+ */
+public final class UserLoggedIn {
+
+    private final int idUser;
+
+    public UserLoggedIn(int idUser) {
+        this.idUser = idUser;
+    }
+
+    public int getIdUser() {
+        return idUser;
+    }
+
+    @Override
+    public String toString() {
+        return "UserLoggedIn " + idUser;
+    }
+}
@@ -0,0 +1,22 @@
+package com.kedaikopi.event;
+
+/**
+ * User logout (manual, timeout atau aplikasi ditutup)
+ */
+public final class UserLoggedOut {
+
+    private final int idUser;
+
+    public UserLoggedOut(int idUser) {
+        this.idUser = idUser;
+    }
+
+    public int getIdUser() {
+        return idUser;
+    }
+
+    @Override
+    public String toString() {
+        return "UserLoggedOut " + idUser;
+    }
+}
@@ -0,0 +1,246 @@
+package com.kedaikopi.model;
+
+import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.event.EventBus;
+import com.kedaikopi.event.MenuUpdated;
+import com.kedaikopi.event.SaleCompleted;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Best Seller Ranking - ranking menu terlaris per kategori
+ * One windowed query aggregates tbl_transaksi_detail once per menu and ranks
+ * with ROW_NUMBER() both overall and per category. The immutable result is
+ * shared (cached) so every dashboard tab reads from the same snapshot, and
+ * dropped on SaleCompleted / MenuUpdated.
+ */
+public class BestSellerRanking {
+
+    private static final Logger logger = LoggerFactory.getLogger(BestSellerRanking.class);
+
+    public static final int DEFAULT_TOP_N = 20;
+    private static final long MAX_AGE_MILLIS = 60_000;
+
+    private static final String SQL = "WITH sales AS ( " +
+            "    SELECT td.id_menu, SUM(td.qty) AS total_terjual, SUM(td.subtotal) AS total_revenue " +
+            "    FROM tbl_transaksi_detail td " +
+            "    GROUP BY td.id_menu " +
+            "), ranked AS ( " +
+            "    SELECT k.id_kategori, k.nama_kategori, m.id_menu, m.nama_menu, " +
+            "           COALESCE(s.total_terjual, 0) AS total_terjual, " +
+            "           COALESCE(s.total_revenue, 0) AS total_revenue, " +
+            "           ROW_NUMBER() OVER (PARTITION BY k.id_kategori " +
+            "               ORDER BY COALESCE(s.total_terjual, 0) DESC, m.nama_menu) AS rank_kategori, " +
+            "           CASE WHEN m.id_menu IS NULL THEN NULL ELSE ROW_NUMBER() OVER ( " +
+            "               ORDER BY m.id_menu IS NULL, COALESCE(s.total_terjual, 0) DESC, m.nama_menu) END AS rank_semua " +
+            "    FROM tbl_kategori k " +
+            "    LEFT JOIN tbl_menu m ON m.id_kategori = k.id_kategori AND m.is_active = TRUE " +
+            "    LEFT JOIN sales s ON s.id_menu = m.id_menu " +
+            ") " +
+            "SELECT id_kategori, nama_kategori, id_menu, nama_menu, total_terjual, total_revenue, " +
+            "       rank_kategori, rank_semua " +
+            "FROM ranked " +
+            "WHERE rank_kategori <= ? OR rank_semua <= ? " +
+            "ORDER BY nama_kategori, id_kategori, rank_kategori";
+
+    private static BestSellerRanking cached;
+    private static long generation; // bumped by invalidate(), guarded by the class lock
+
+    static {
+        // Shared ranking goes stale on every sale or menu change
+        EventBus.getInstance().subscribe(SaleCompleted.class, e -> invalidate());
+        EventBus.getInstance().subscribe(MenuUpdated.class, e -> invalidate());
+    }
+
+    private final List<Kategori> categories;
+    private final List<Entry> overall;
+    private final Map<Integer, List<Entry>> byCategory;
+    private final long loadedAt;
+
+    private BestSellerRanking(List<Kategori> categories, List<Entry> overall,
+            Map<Integer, List<Entry>> byCategory) {
+        this.categories = Collections.unmodifiableList(categories);
+        this.overall = Collections.unmodifiableList(overall);
+        this.byCategory = byCategory;
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Shared ranking, recomputed when older than a minute or invalidated.
+     * A load that raced with an invalidation is returned but not kept.
+     */
+    public static BestSellerRanking getShared() {
+        long loadGeneration;
+        synchronized (BestSellerRanking.class) {
+            if (cached != null && System.currentTimeMillis() - cached.loadedAt < MAX_AGE_MILLIS) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        BestSellerRanking ranking = load(DEFAULT_TOP_N);
+        synchronized (BestSellerRanking.class) {
+            if (ranking == null) {
+                return cached != null ? cached : empty();
+            }
+            if (loadGeneration == generation) {
+                cached = ranking;
+            }
+            return ranking;
+        }
+    }
+
+    /**
+     * Drop the shared ranking so the next read recomputes it
+     */
+    public static synchronized void invalidate() {
+        generation++;
+        cached = null;
+    }
+
+    /**
+     * Compute ranking in a single query
+     *
+     * @return ranking, or null when the query fails
+     */
+    public static BestSellerRanking load(int topN) {
+        List<Kategori> categories = new ArrayList<>();
+        Map<Integer, List<Entry>> byCategory = new LinkedHashMap<>();
+        List<Entry> overall = new ArrayList<>();
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+                PreparedStatement stmt = conn.prepareStatement(SQL)) {
+
+            stmt.setInt(1, topN);
+            stmt.setInt(2, topN);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                List<Entry> current = null;
+                int currentCategory = -1;
+
+                while (rs.next()) {
+                    int idKategori = rs.getInt("id_kategori");
+                    if (current == null || idKategori != currentCategory) {
+                        Kategori kategori = new Kategori(rs.getString("nama_kategori"));
+                        kategori.setIdKategori(idKategori);
+                        categories.add(kategori);
+
+                        current = new ArrayList<>();
+                        byCategory.put(idKategori, current);
+                        currentCategory = idKategori;
+                    }
+
+                    int idMenu = rs.getInt("id_menu");
+                    if (rs.wasNull()) {
+                        continue; // Category without active menu
+                    }
+
+                    String namaMenu = rs.getString("nama_menu");
+                    String namaKategori = rs.getString("nama_kategori");
+                    int terjual = rs.getInt("total_terjual");
+                    double revenue = rs.getDouble("total_revenue");
+
+                    int rankKategori = rs.getInt("rank_kategori");
+                    if (rankKategori <= topN) {
+                        current.add(new Entry(rankKategori, idMenu, namaMenu, namaKategori, terjual, revenue));
+                    }
+                    int rankSemua = rs.getInt("rank_semua");
+                    if (!rs.wasNull() && rankSemua <= topN) {
+                        overall.add(new Entry(rankSemua, idMenu, namaMenu, namaKategori, terjual, revenue));
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error loading best seller ranking", e);
+            return null;
+        }
+
+        overall.sort((a, b) -> Integer.compare(a.rank, b.rank));
+        byCategory.replaceAll((id, entries) -> Collections.unmodifiableList(entries));
+
+        return new BestSellerRanking(categories, overall, byCategory);
+    }
+
+    private static BestSellerRanking empty() {
+        return new BestSellerRanking(new ArrayList<>(), new ArrayList<>(), new LinkedHashMap<>());
+    }
+
+    /**
+     * Categories in display order (including ones without sales)
+     */
+    public List<Kategori> getCategories() {
+        return categories;
+    }
+
+    /**
+     * Top menu items across all categories
+     */
+    public List<Entry> getOverall() {
+        return overall;
+    }
+
+    /**
+     * Top menu items of one category
+     */
+    public List<Entry> getForCategory(int idKategori) {
+        List<Entry> entries = byCategory.get(idKategori);
+        return entries != null ? entries : Collections.emptyList();
+    }
+
+    /**
+     * One ranked menu item
+     */
+    public static class Entry {
+        private final int rank;
+        private final int idMenu;
+        private final String namaMenu;
+        private final String namaKategori;
+        private final int totalTerjual;
+        private final double totalRevenue;
+
+        private Entry(int rank, int idMenu, String namaMenu, String namaKategori, int totalTerjual,
+                double totalRevenue) {
+            this.rank = rank;
+            this.idMenu = idMenu;
+            this.namaMenu = namaMenu;
+            this.namaKategori = namaKategori;
+            this.totalTerjual = totalTerjual;
+            this.totalRevenue = totalRevenue;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        public int getIdMenu() {
+            return idMenu;
+        }
+
+        public String getNamaMenu() {
+            return namaMenu;
+        }
+
+        public String getNamaKategori() {
+            return namaKategori;
+        }
+
+        public int getTotalTerjual() {
+            return totalTerjual;
+        }
+
+        public double getTotalRevenue() {
+            return totalRevenue;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.kedaikopi.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interner - pool flyweight untuk nilai immutable
+ * Equal values resolve to one shared instance, so a year of report rows
+ * points at a handful of kasir / kategori objects instead of one copy per
+ * row. The pool is bounded; past the limit values are returned as-is.
+ */
+public final class Interner<T> {
+
+    private final ConcurrentHashMap<T, T> pool = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public Interner(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Shared instance equal to the value (the value itself when first seen)
+     */
+    public T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+        T existing = pool.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (pool.size() >= maxSize) {
+            return value;
+        }
+        existing = pool.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    public void clear() {
+        pool.clear();
+    }
+}
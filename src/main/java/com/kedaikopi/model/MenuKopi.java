@@ -1,11 +1,12 @@
 package com.kedaikopi.model;
 
-import com.kedaikopi.config.DatabaseConfig;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.kedaikopi.event.EventBus;
+import com.kedaikopi.event.MenuUpdated;
+import com.kedaikopi.event.StockChanged;
+import com.kedaikopi.repository.Repositories;
+import com.kedaikopi.util.Money;
 
-import java.sql.*;
-import java.util.ArrayList;
+import java.sql.Timestamp;
 import java.util.List;
 
 /**
@@ -13,12 +14,10 @@ import java.util.List;
  */
 public class MenuKopi {
 
-    private static final Logger logger = LoggerFactory.getLogger(MenuKopi.class);
-
     private int idMenu;
     private String namaMenu;
     private Kategori kategori;
-    private double harga;
+    private long harga; // sen (see Money)
     private int stok;
     private String imagePath;
     private String deskripsi;
@@ -56,11 +55,22 @@ public class MenuKopi {
         this.kategori = kategori;
     }
 
+    /**
+     * Harga in rupiah - display only, use getHargaSen() for arithmetic
+     */
     public double getHarga() {
-        return harga;
+        return Money.toDouble(harga);
     }
 
     public void setHarga(double harga) {
+        this.harga = Money.of(harga);
+    }
+
+    public long getHargaSen() {
+        return harga;
+    }
+
+    public void setHargaSen(long harga) {
         this.harga = harga;
     }
 
@@ -118,241 +128,59 @@ public class MenuKopi {
      * Get all menu items
      */
     public static List<MenuKopi> getAll() {
-        List<MenuKopi> menus = new ArrayList<>();
-        String sql = "SELECT m.*, k.nama_kategori, k.icon_name " +
-                "FROM tbl_menu m " +
-                "LEFT JOIN tbl_kategori k ON m.id_kategori = k.id_kategori " +
-                "ORDER BY m.id_menu ASC";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql);
-                ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                menus.add(mapResultSetToMenu(rs));
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error getting all menu items", e);
-        }
-
-        return menus;
+        return Repositories.menus().findAll();
     }
 
     /**
      * Get active menu items only
      */
     public static List<MenuKopi> getAllActive() {
-        List<MenuKopi> menus = new ArrayList<>();
-        String sql = "SELECT m.*, k.nama_kategori, k.icon_name " +
-                "FROM tbl_menu m " +
-                "LEFT JOIN tbl_kategori k ON m.id_kategori = k.id_kategori " +
-                "WHERE m.is_active = true " +
-                "ORDER BY k.nama_kategori, m.nama_menu";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql);
-                ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                menus.add(mapResultSetToMenu(rs));
-            }
-
-            logger.info("Loaded {} active menu items", menus.size());
-
-        } catch (SQLException e) {
-            logger.error("Error getting active menu items", e);
-            e.printStackTrace();
-        }
-
-        return menus;
+        return Repositories.menus().findAllActive();
     }
 
     /**
      * Get menu by ID
      */
     public static MenuKopi getById(int id) {
-        String sql = "SELECT m.*, k.nama_kategori, k.icon_name " +
-                "FROM tbl_menu m " +
-                "LEFT JOIN tbl_kategori k ON m.id_kategori = k.id_kategori " +
-                "WHERE m.id_menu = ?";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return mapResultSetToMenu(rs);
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error getting menu by ID: {}", id, e);
-        }
-
-        return null;
+        return Repositories.menus().findById(id);
     }
 
     /**
      * Save menu (insert or update)
      */
     public boolean save() {
-        if (this.idMenu == 0) {
-            return insert();
-        } else {
-            return update();
-        }
-    }
-
-    /**
-     * Insert new menu
-     */
-    private boolean insert() {
-        String sql = "INSERT INTO tbl_menu (nama_menu, id_kategori, harga, stok, image_path, deskripsi, is_active) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING id_menu";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, this.namaMenu);
-            stmt.setInt(2, this.kategori.getIdKategori());
-            stmt.setDouble(3, this.harga);
-            stmt.setInt(4, this.stok);
-            stmt.setString(5, this.imagePath);
-            stmt.setString(6, this.deskripsi);
-            stmt.setBoolean(7, this.isActive);
-
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                this.idMenu = rs.getInt(1);
-                logger.info("Menu inserted: {}", this.namaMenu);
-                return true;
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error inserting menu: {}", this.namaMenu, e);
-        }
-
-        return false;
-    }
-
-    /**
-     * Update existing menu
-     */
-    private boolean update() {
-        String sql = "UPDATE tbl_menu SET nama_menu = ?, id_kategori = ?, harga = ?, " +
-                "stok = ?, image_path = ?, deskripsi = ?, is_active = ? WHERE id_menu = ?";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, this.namaMenu);
-            stmt.setInt(2, this.kategori.getIdKategori());
-            stmt.setDouble(3, this.harga);
-            stmt.setInt(4, this.stok);
-            stmt.setString(5, this.imagePath);
-            stmt.setString(6, this.deskripsi);
-            stmt.setBoolean(7, this.isActive);
-            stmt.setInt(8, this.idMenu);
-
-            int affected = stmt.executeUpdate();
-
-            if (affected > 0) {
-                logger.info("Menu updated: {}", this.namaMenu);
-                return true;
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error updating menu: {}", this.namaMenu, e);
+        MenuUpdated.Change change = this.idMenu == 0 ? MenuUpdated.Change.INSERTED : MenuUpdated.Change.UPDATED;
+        if (!Repositories.menus().save(this)) {
+            return false;
         }
-
-        return false;
+        EventBus.getInstance().publish(new MenuUpdated(this.idMenu, change));
+        return true;
     }
 
     /**
      * Delete menu
      */
     public boolean delete() {
-        String sql = "DELETE FROM tbl_menu WHERE id_menu = ?";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, this.idMenu);
-            int affected = stmt.executeUpdate();
-
-            if (affected > 0) {
-                logger.info("Menu deleted: {}", this.namaMenu);
-                return true;
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error deleting menu: {}", this.namaMenu, e);
+        if (!Repositories.menus().delete(this.idMenu)) {
+            return false;
         }
-
-        return false;
+        EventBus.getInstance().publish(new MenuUpdated(this.idMenu, MenuUpdated.Change.DELETED));
+        return true;
     }
 
     /**
-     * Reduce stock - called when item is sold
+     * Reduce stock - called when item is sold outside a transaction
+     * (sales go through TransaksiHeader.save)
      */
     public boolean kurangiStok(int jumlah) {
-        String sql = "UPDATE tbl_menu SET stok = stok - ? WHERE id_menu = ? AND stok >= ?";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, jumlah);
-            stmt.setInt(2, this.idMenu);
-            stmt.setInt(3, jumlah);
-
-            int affected = stmt.executeUpdate();
-
-            if (affected > 0) {
-                this.stok -= jumlah;
-                logger.info("Stock reduced for {}: -{}", this.namaMenu, jumlah);
-                return true;
-            } else {
-                logger.warn("Insufficient stock for {}", this.namaMenu);
-                return false;
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error reducing stock for: {}", this.namaMenu, e);
-        }
-
-        return false;
-    }
-
-    /**
-     * Reduce stock using existing connection (for transactions)
-     */
-    public boolean kurangiStok(int jumlah, Connection conn) {
-        String sql = "UPDATE tbl_menu SET stok = stok - ? WHERE id_menu = ? AND stok >= ?";
-
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, jumlah);
-            stmt.setInt(2, this.idMenu);
-            stmt.setInt(3, jumlah);
-
-            int affected = stmt.executeUpdate();
-
-            if (affected > 0) {
-                this.stok -= jumlah;
-                logger.info("Stock reduced for {}: -{}", this.namaMenu, jumlah);
-                return true;
-            } else {
-                logger.warn("Insufficient stock for {}", this.namaMenu);
-                return false;
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error reducing stock for: {}", this.namaMenu, e);
+        int stockLeft = Repositories.menus().reduceStock(this.idMenu, jumlah);
+        if (stockLeft < 0) {
+            return false;
         }
 
-        return false;
+        this.stok = stockLeft;
+        EventBus.getInstance().publish(new StockChanged(this.idMenu, stockLeft + jumlah, stockLeft));
+        return true;
     }
 
     /**
@@ -362,32 +190,6 @@ public class MenuKopi {
         return this.stok < 10;
     }
 
-    /**
-     * Helper method to map ResultSet to MenuKopi object
-     */
-    private static MenuKopi mapResultSetToMenu(ResultSet rs) throws SQLException {
-        MenuKopi menu = new MenuKopi();
-        menu.setIdMenu(rs.getInt("id_menu"));
-        menu.setNamaMenu(rs.getString("nama_menu"));
-
-        // Map kategori
-        Kategori kategori = new Kategori();
-        kategori.setIdKategori(rs.getInt("id_kategori"));
-        kategori.setNamaKategori(rs.getString("nama_kategori"));
-        kategori.setIconName(rs.getString("icon_name"));
-        menu.setKategori(kategori);
-
-        menu.setHarga(rs.getDouble("harga"));
-        menu.setStok(rs.getInt("stok"));
-        menu.setImagePath(rs.getString("image_path"));
-        menu.setDeskripsi(rs.getString("deskripsi"));
-        menu.setActive(rs.getBoolean("is_active"));
-        menu.setCreatedAt(rs.getTimestamp("created_at"));
-        menu.setUpdatedAt(rs.getTimestamp("updated_at"));
-
-        return menu;
-    }
-
     @Override
     public String toString() {
         return namaMenu;
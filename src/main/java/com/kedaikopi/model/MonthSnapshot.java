@@ -0,0 +1,341 @@
+package com.kedaikopi.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * Month Snapshot - hasil tutup buku satu bulan
+ * Immutable: summary figures plus the report sections as compact column
+ * tables (sales, stock in/out, per-menu sales, attendance/payroll).
+ * Written once when a completed month is closed and read back instead of
+ * recomputing the month from raw rows.
+ */
+public final class MonthSnapshot {
+
+    private final YearMonth month;
+    private final long closedAt;
+    private final Summary summary;
+    private final Table sales;
+    private final Table stockIn;
+    private final Table stockOut;
+    private final Table menuSales;
+    private final Table attendance;
+
+    public MonthSnapshot(YearMonth month, long closedAt, Summary summary, Table sales, Table stockIn,
+            Table stockOut, Table menuSales, Table attendance) {
+        this.month = month;
+        this.closedAt = closedAt;
+        this.summary = summary;
+        this.sales = sales;
+        this.stockIn = stockIn;
+        this.stockOut = stockOut;
+        this.menuSales = menuSales;
+        this.attendance = attendance;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    /**
+     * When the snapshot was computed (epoch millis)
+     */
+    public long getClosedAt() {
+        return closedAt;
+    }
+
+    public Summary getSummary() {
+        return summary;
+    }
+
+    public Table getSales() {
+        return sales;
+    }
+
+    public Table getStockIn() {
+        return stockIn;
+    }
+
+    public Table getStockOut() {
+        return stockOut;
+    }
+
+    public Table getMenuSales() {
+        return menuSales;
+    }
+
+    public Table getAttendance() {
+        return attendance;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(month.getYear());
+        out.writeByte(month.getMonthValue());
+        out.writeLong(closedAt);
+        summary.writeTo(out);
+        for (Table table : new Table[] { sales, stockIn, stockOut, menuSales, attendance }) {
+            table.writeTo(out);
+        }
+    }
+
+    public static MonthSnapshot readFrom(DataInputStream in) throws IOException {
+        YearMonth month = YearMonth.of(in.readInt(), in.readByte());
+        long closedAt = in.readLong();
+        Summary summary = Summary.readFrom(in);
+        return new MonthSnapshot(month, closedAt, summary, Table.readFrom(in), Table.readFrom(in),
+                Table.readFrom(in), Table.readFrom(in), Table.readFrom(in));
+    }
+
+    /**
+     * Monthly totals (amounts in sen, see Money)
+     */
+    public static final class Summary {
+        private final int totalTransaksi;
+        private final long labaKotor; // Total Pendapatan (grand_total)
+        private final long pengeluaran; // Pengeluaran restock
+        private final long totalPajak;
+        private final long totalGaji; // Total gaji karyawan aktif
+
+        public Summary(int totalTransaksi, long labaKotor, long pengeluaran, long totalPajak, long totalGaji) {
+            this.totalTransaksi = totalTransaksi;
+            this.labaKotor = labaKotor;
+            this.pengeluaran = pengeluaran;
+            this.totalPajak = totalPajak;
+            this.totalGaji = totalGaji;
+        }
+
+        public int getTotalTransaksi() {
+            return totalTransaksi;
+        }
+
+        public long getLabaKotor() {
+            return labaKotor;
+        }
+
+        public long getPengeluaran() {
+            return pengeluaran;
+        }
+
+        public long getTotalPajak() {
+            return totalPajak;
+        }
+
+        public long getTotalGaji() {
+            return totalGaji;
+        }
+
+        /**
+         * Laba Bersih = Laba Kotor - Pengeluaran - Pajak - Gaji
+         */
+        public long getLabaBersih() {
+            return labaKotor - pengeluaran - totalPajak - totalGaji;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(totalTransaksi);
+            out.writeLong(labaKotor);
+            out.writeLong(pengeluaran);
+            out.writeLong(totalPajak);
+            out.writeLong(totalGaji);
+        }
+
+        static Summary readFrom(DataInputStream in) throws IOException {
+            return new Summary(in.readInt(), in.readLong(), in.readLong(), in.readLong(), in.readLong());
+        }
+    }
+
+    /**
+     * Column table - one array per column. Kinds: T text, I int, N long
+     */
+    public static final class Table {
+        private final String kinds;
+        private final Object[] columns; // String[], int[] or long[]
+        private final int rowCount;
+
+        private Table(String kinds, Object[] columns, int rowCount) {
+            this.kinds = kinds;
+            this.columns = columns;
+            this.rowCount = rowCount;
+        }
+
+        public static Builder builder(String kinds) {
+            return new Builder(kinds);
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public int getColumnCount() {
+            return kinds.length();
+        }
+
+        public char getKind(int column) {
+            return kinds.charAt(column);
+        }
+
+        public String getText(int row, int column) {
+            return ((String[]) columns[column])[row];
+        }
+
+        public int getInt(int row, int column) {
+            return ((int[]) columns[column])[row];
+        }
+
+        public long getLong(int row, int column) {
+            return ((long[]) columns[column])[row];
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeUTF(kinds);
+            out.writeInt(rowCount);
+            for (int c = 0; c < kinds.length(); c++) {
+                for (int r = 0; r < rowCount; r++) {
+                    switch (kinds.charAt(c)) {
+                        case 'T':
+                            String text = getText(r, c);
+                            out.writeBoolean(text != null);
+                            if (text != null) {
+                                out.writeUTF(text);
+                            }
+                            break;
+                        case 'I':
+                            out.writeInt(getInt(r, c));
+                            break;
+                        default:
+                            out.writeLong(getLong(r, c));
+                    }
+                }
+            }
+        }
+
+        static Table readFrom(DataInputStream in) throws IOException {
+            String kinds = in.readUTF();
+            int rows = in.readInt();
+            Object[] columns = new Object[kinds.length()];
+            for (int c = 0; c < kinds.length(); c++) {
+                switch (kinds.charAt(c)) {
+                    case 'T':
+                        String[] texts = new String[rows];
+                        for (int r = 0; r < rows; r++) {
+                            texts[r] = in.readBoolean() ? in.readUTF().intern() : null;
+                        }
+                        columns[c] = texts;
+                        break;
+                    case 'I':
+                        int[] ints = new int[rows];
+                        for (int r = 0; r < rows; r++) {
+                            ints[r] = in.readInt();
+                        }
+                        columns[c] = ints;
+                        break;
+                    case 'N':
+                        long[] longs = new long[rows];
+                        for (int r = 0; r < rows; r++) {
+                            longs[r] = in.readLong();
+                        }
+                        columns[c] = longs;
+                        break;
+                    default:
+                        throw new IOException("Unknown column kind " + kinds.charAt(c));
+                }
+            }
+            return new Table(kinds, columns, rows);
+        }
+
+        /**
+         * Row builder - values in column order, then endRow()
+         */
+        public static final class Builder {
+            private final String kinds;
+            private final Object[] columns;
+            private int capacity = 64;
+            private int rows;
+            private int column;
+
+            private Builder(String kinds) {
+                this.kinds = kinds;
+                this.columns = new Object[kinds.length()];
+                for (int c = 0; c < kinds.length(); c++) {
+                    columns[c] = newArray(kinds.charAt(c), capacity);
+                }
+            }
+
+            public Builder text(String value) {
+                ((String[]) columns[expect('T')])[rows] = value;
+                column++;
+                return this;
+            }
+
+            public Builder integer(int value) {
+                ((int[]) columns[expect('I')])[rows] = value;
+                column++;
+                return this;
+            }
+
+            public Builder number(long value) {
+                ((long[]) columns[expect('N')])[rows] = value;
+                column++;
+                return this;
+            }
+
+            public void endRow() {
+                if (column != kinds.length()) {
+                    throw new IllegalStateException("Row has " + column + " of " + kinds.length() + " values");
+                }
+                column = 0;
+                rows++;
+            }
+
+            public Table build() {
+                if (column != 0) {
+                    throw new IllegalStateException("Incomplete row");
+                }
+                Object[] trimmed = new Object[columns.length];
+                for (int c = 0; c < columns.length; c++) {
+                    trimmed[c] = copyOf(columns[c], rows);
+                }
+                return new Table(kinds, trimmed, rows);
+            }
+
+            private int expect(char kind) {
+                if (column >= kinds.length() || kinds.charAt(column) != kind) {
+                    throw new IllegalStateException("Column " + column + " is not " + kind);
+                }
+                if (rows == capacity) {
+                    capacity *= 2;
+                    for (int c = 0; c < columns.length; c++) {
+                        columns[c] = copyOf(columns[c], capacity);
+                    }
+                }
+                return column;
+            }
+
+            private static Object newArray(char kind, int length) {
+                switch (kind) {
+                    case 'T':
+                        return new String[length];
+                    case 'I':
+                        return new int[length];
+                    case 'N':
+                        return new long[length];
+                    default:
+                        throw new IllegalArgumentException("Unknown column kind " + kind);
+                }
+            }
+
+            private static Object copyOf(Object array, int length) {
+                if (array instanceof String[]) {
+                    return Arrays.copyOf((String[]) array, length);
+                }
+                if (array instanceof int[]) {
+                    return Arrays.copyOf((int[]) array, length);
+                }
+                return Arrays.copyOf((long[]) array, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.kedaikopi.model;
+
+/**
+ * Sale Line - item transaksi immutable untuk laporan
+ * Read-only counterpart of TransaksiDetail: name and price at the time of
+ * sale, menu names shared across lines.
+ */
+public final class SaleLine {
+
+    private static final Interner<String> NAMA_MENU = new Interner<>(10_000);
+
+    private final int idTransaksiHeader;
+    private final int idMenu;
+    private final String namaMenu;
+    private final long hargaSen;
+    private final int qty;
+    private final long subtotalSen;
+
+    public SaleLine(int idTransaksiHeader, int idMenu, String namaMenu, long hargaSen, int qty, long subtotalSen) {
+        this.idTransaksiHeader = idTransaksiHeader;
+        this.idMenu = idMenu;
+        this.namaMenu = NAMA_MENU.intern(namaMenu);
+        this.hargaSen = hargaSen;
+        this.qty = qty;
+        this.subtotalSen = subtotalSen;
+    }
+
+    public static SaleLine of(TransaksiDetail detail) {
+        String namaMenu = detail.getMenu() != null ? detail.getMenu().getNamaMenu() : null;
+        return new SaleLine(detail.getIdTransaksiHeader(), detail.getIdMenu(), namaMenu,
+                detail.getHargaSatuanSen(), detail.getQty(), detail.getSubtotalSen());
+    }
+
+    public int getIdTransaksiHeader() {
+        return idTransaksiHeader;
+    }
+
+    public int getIdMenu() {
+        return idMenu;
+    }
+
+    public String getNamaMenu() {
+        return namaMenu;
+    }
+
+    public long getHargaSen() {
+        return hargaSen;
+    }
+
+    public int getQty() {
+        return qty;
+    }
+
+    public long getSubtotalSen() {
+        return subtotalSen;
+    }
+}
@@ -0,0 +1,81 @@
+package com.kedaikopi.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Sale Record - ringkasan transaksi immutable untuk laporan
+ * Read-only counterpart of TransaksiHeader for long-range history: amounts
+ * in sen, time as epoch millis and a shared UserRef, so a row costs one
+ * small object instead of a header, a Timestamp and a User.
+ */
+public final class SaleRecord {
+
+    private static final Interner<String> METODE = new Interner<>(100);
+
+    private final int idTransaksiHeader;
+    private final long tanggalMillis;
+    private final UserRef kasir;
+    private final long totalHargaSen;
+    private final long pajakSen;
+    private final long grandTotalSen;
+    private final long tunaiSen;
+    private final long kembalianSen;
+    private final String metodePembayaran;
+
+    public SaleRecord(int idTransaksiHeader, long tanggalMillis, UserRef kasir, long totalHargaSen,
+            long pajakSen, long grandTotalSen, long tunaiSen, long kembalianSen, String metodePembayaran) {
+        this.idTransaksiHeader = idTransaksiHeader;
+        this.tanggalMillis = tanggalMillis;
+        this.kasir = kasir;
+        this.totalHargaSen = totalHargaSen;
+        this.pajakSen = pajakSen;
+        this.grandTotalSen = grandTotalSen;
+        this.tunaiSen = tunaiSen;
+        this.kembalianSen = kembalianSen;
+        this.metodePembayaran = METODE.intern(metodePembayaran != null ? metodePembayaran : "Cash");
+    }
+
+    public static SaleRecord of(TransaksiHeader header) {
+        Timestamp tanggal = header.getTanggal();
+        return new SaleRecord(header.getIdTransaksiHeader(), tanggal != null ? tanggal.getTime() : 0,
+                UserRef.of(header.getUser()), header.getTotalHargaSen(), header.getPajakSen(),
+                header.getGrandTotalSen(), header.getTunaiSen(), header.getKembalianSen(),
+                header.getMetodePembayaran());
+    }
+
+    public int getIdTransaksiHeader() {
+        return idTransaksiHeader;
+    }
+
+    public long getTanggalMillis() {
+        return tanggalMillis;
+    }
+
+    public UserRef getKasir() {
+        return kasir;
+    }
+
+    public long getTotalHargaSen() {
+        return totalHargaSen;
+    }
+
+    public long getPajakSen() {
+        return pajakSen;
+    }
+
+    public long getGrandTotalSen() {
+        return grandTotalSen;
+    }
+
+    public long getTunaiSen() {
+        return tunaiSen;
+    }
+
+    public long getKembalianSen() {
+        return kembalianSen;
+    }
+
+    public String getMetodePembayaran() {
+        return metodePembayaran;
+    }
+}
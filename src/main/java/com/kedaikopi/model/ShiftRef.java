@@ -0,0 +1,84 @@
+package com.kedaikopi.model;
+
+import java.util.Objects;
+
+/**
+ * Shift Ref - referensi shift immutable (flyweight) untuk read path
+ * Start and end are minutes after midnight so attendance checks are plain
+ * int arithmetic instead of Calendar juggling per row.
+ */
+public final class ShiftRef {
+
+    private static final Interner<ShiftRef> POOL = new Interner<>(1_000);
+
+    private final int idShift;
+    private final String shiftName;
+    private final int startMinute;
+    private final int endMinute;
+
+    private ShiftRef(int idShift, String shiftName, int startMinute, int endMinute) {
+        this.idShift = idShift;
+        this.shiftName = shiftName;
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+    }
+
+    /**
+     * Shared reference for the given shift fields
+     */
+    public static ShiftRef of(int idShift, String shiftName, int startMinute, int endMinute) {
+        return POOL.intern(new ShiftRef(idShift, shiftName, startMinute, endMinute));
+    }
+
+    public static ShiftRef of(Shift shift) {
+        if (shift == null || shift.getStartTime() == null || shift.getEndTime() == null) {
+            return null;
+        }
+        return of(shift.getIdShift(), shift.getShiftName(), minuteOfDay(shift.getStartTime()),
+                minuteOfDay(shift.getEndTime()));
+    }
+
+    private static int minuteOfDay(java.sql.Time time) {
+        java.time.LocalTime local = time.toLocalTime();
+        return local.getHour() * 60 + local.getMinute();
+    }
+
+    public int getIdShift() {
+        return idShift;
+    }
+
+    public String getShiftName() {
+        return shiftName;
+    }
+
+    public int getStartMinute() {
+        return startMinute;
+    }
+
+    public int getEndMinute() {
+        return endMinute;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ShiftRef)) {
+            return false;
+        }
+        ShiftRef other = (ShiftRef) o;
+        return idShift == other.idShift && startMinute == other.startMinute && endMinute == other.endMinute
+                && Objects.equals(shiftName, other.shiftName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idShift, shiftName, startMinute, endMinute);
+    }
+
+    @Override
+    public String toString() {
+        return shiftName;
+    }
+}
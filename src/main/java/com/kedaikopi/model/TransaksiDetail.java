@@ -1,11 +1,9 @@
 package com.kedaikopi.model;
 
-import com.kedaikopi.config.DatabaseConfig;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.kedaikopi.repository.Repositories;
+import com.kedaikopi.util.Money;
 
-import java.sql.*;
-import java.util.ArrayList;
+import java.sql.Timestamp;
 import java.util.List;
 
 /**
@@ -13,14 +11,12 @@ import java.util.List;
  */
 public class TransaksiDetail {
 
-    private static final Logger logger = LoggerFactory.getLogger(TransaksiDetail.class);
-
     private int idTransaksiDetail;
     private int idTransaksiHeader;
     private int idMenu;
     private int qty;
-    private double hargaSatuan;
-    private double subtotal;
+    private long hargaSatuan; // sen (see Money)
+    private long subtotal; // sen
     private Timestamp createdAt;
 
     // Relasi
@@ -29,11 +25,11 @@ public class TransaksiDetail {
     public TransaksiDetail() {
     }
 
-    public TransaksiDetail(int idMenu, int qty, double hargaSatuan) {
+    public TransaksiDetail(int idMenu, int qty, long hargaSatuanSen) {
         this.idMenu = idMenu;
         this.qty = qty;
-        this.hargaSatuan = hargaSatuan;
-        this.subtotal = qty * hargaSatuan;
+        this.hargaSatuan = hargaSatuanSen;
+        this.subtotal = Money.times(hargaSatuanSen, qty);
     }
 
     // Getters and Setters
@@ -67,23 +63,37 @@ public class TransaksiDetail {
 
     public void setQty(int qty) {
         this.qty = qty;
-        this.subtotal = qty * this.hargaSatuan;
+        this.subtotal = Money.times(this.hargaSatuan, qty);
     }
 
+    /**
+     * Harga satuan in rupiah - display only
+     */
     public double getHargaSatuan() {
+        return Money.toDouble(hargaSatuan);
+    }
+
+    public long getHargaSatuanSen() {
         return hargaSatuan;
     }
 
-    public void setHargaSatuan(double hargaSatuan) {
+    public void setHargaSatuanSen(long hargaSatuan) {
         this.hargaSatuan = hargaSatuan;
-        this.subtotal = this.qty * hargaSatuan;
+        this.subtotal = Money.times(hargaSatuan, this.qty);
     }
 
+    /**
+     * Subtotal in rupiah - display only
+     */
     public double getSubtotal() {
+        return Money.toDouble(subtotal);
+    }
+
+    public long getSubtotalSen() {
         return subtotal;
     }
 
-    public void setSubtotal(double subtotal) {
+    public void setSubtotalSen(long subtotal) {
         this.subtotal = subtotal;
     }
 
@@ -107,61 +117,7 @@ public class TransaksiDetail {
      * Get all details for a transaction header
      */
     public static List<TransaksiDetail> getByTransaksiHeader(int idTransaksiHeader) {
-        List<TransaksiDetail> details = new ArrayList<>();
-        String sql = "SELECT td.*, m.nama_menu, m.harga, k.nama_kategori " +
-                "FROM tbl_transaksi_detail td " +
-                "LEFT JOIN tbl_menu m ON td.id_menu = m.id_menu " +
-                "LEFT JOIN tbl_kategori k ON m.id_kategori = k.id_kategori " +
-                "WHERE td.id_transaksi_header = ? " +
-                "ORDER BY td.id_transaksi_detail ASC";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, idTransaksiHeader);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                details.add(mapResultSetToDetail(rs));
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error getting transaction details for header: {}", idTransaksiHeader, e);
-        }
-
-        return details;
-    }
-
-    /**
-     * Helper method to map ResultSet to TransaksiDetail
-     */
-    private static TransaksiDetail mapResultSetToDetail(ResultSet rs) throws SQLException {
-        TransaksiDetail detail = new TransaksiDetail();
-        detail.setIdTransaksiDetail(rs.getInt("id_transaksi_detail"));
-        detail.setIdTransaksiHeader(rs.getInt("id_transaksi_header"));
-        detail.setIdMenu(rs.getInt("id_menu"));
-        detail.setQty(rs.getInt("qty"));
-        detail.setHargaSatuan(rs.getDouble("harga_satuan"));
-        detail.setSubtotal(rs.getDouble("subtotal"));
-        detail.setCreatedAt(rs.getTimestamp("created_at"));
-
-        // Map menu if available
-        try {
-            MenuKopi menu = new MenuKopi();
-            menu.setIdMenu(rs.getInt("id_menu"));
-            menu.setNamaMenu(rs.getString("nama_menu"));
-            menu.setHarga(rs.getDouble("harga"));
-
-            Kategori kategori = new Kategori();
-            kategori.setNamaKategori(rs.getString("nama_kategori"));
-            menu.setKategori(kategori);
-
-            detail.setMenu(menu);
-        } catch (SQLException e) {
-            // Menu fields might not be in the result set
-        }
-
-        return detail;
+        return Repositories.transactions().findDetails(idTransaksiHeader);
     }
 
     @Override
@@ -1,12 +1,12 @@
 package com.kedaikopi.model;
 
-import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.repository.Repositories;
+import com.kedaikopi.util.AuthService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import at.favre.lib.crypto.bcrypt.BCrypt;
 
-import java.sql.*;
-import java.util.ArrayList;
+import java.sql.Timestamp;
 import java.util.List;
 
 /**
@@ -25,7 +25,6 @@ public class User {
     private Timestamp lastLogin;
     private Timestamp createdAt;
     private Integer assignedShiftId; // Foreign key to tbl_shift
-    private Shift assignedShift; // Lazy loaded
     private double baseSalary;
 
     // Constructors
@@ -111,17 +110,14 @@ public class User {
 
     public void setAssignedShiftId(Integer assignedShiftId) {
         this.assignedShiftId = assignedShiftId;
-        this.assignedShift = null; // Reset lazy loaded object
     }
 
     /**
-     * Get assigned shift (lazy loaded)
+     * Get assigned shift - looked up each time in the shift reference cache
+     * (CachingUserRepository), so an edited shift shows up on every user
      */
     public Shift getAssignedShift() {
-        if (assignedShift == null && assignedShiftId != null) {
-            assignedShift = Shift.getById(assignedShiftId);
-        }
-        return assignedShift;
+        return assignedShiftId != null ? Shift.getById(assignedShiftId) : null;
     }
 
     public double getBaseSalary() {
@@ -135,10 +131,10 @@ public class User {
     // Business Methods
 
     /**
-     * Hash password menggunakan BCrypt
+     * Hash password menggunakan BCrypt (cost dikalibrasi oleh AuthService)
      */
     public static String hashPassword(String plainPassword) {
-        return BCrypt.withDefaults().hashToString(12, plainPassword.toCharArray());
+        return AuthService.getInstance().hashPassword(plainPassword);
     }
 
     /**
@@ -151,301 +147,98 @@ public class User {
 
     /**
      * Authenticate user - untuk login
-     * TEMPORARY: Support both BCrypt dan plain text untuk testing
      */
     public static User authenticate(String username, String password) {
-        String sql = "SELECT * FROM tbl_user WHERE username = ? AND is_active = TRUE";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                String storedPassword = rs.getString("password");
-
-                // TEMPORARY: Check if plain text password (for easy testing)
-                // If password in database doesn't start with $2a$ or $2b$, it's plain text
-                boolean isPlainText = !storedPassword.startsWith("$2a$") && !storedPassword.startsWith("$2b$");
-
-                if (isPlainText) {
-                    // Plain text comparison (TEMPORARY - FOR TESTING ONLY!)
-                    if (password.equals(storedPassword)) {
-                        User user = mapResultSetToUser(rs);
-                        user.updateLastLogin();
-
-                        // Start new session
-                        startUserSession(user);
-
-                        logger.info("User authenticated successfully (plain text): {}", username);
-                        return user;
-                    }
-                } else {
-                    // BCrypt verification (secure, recommended for production)
-                    if (verifyPassword(password, storedPassword)) {
-                        User user = mapResultSetToUser(rs);
-                        user.updateLastLogin();
-
-                        // Start new session
-                        startUserSession(user);
-
-                        logger.info("User authenticated successfully (BCrypt): {}", username);
-                        return user;
-                    }
-                }
-
-                logger.warn("Invalid password for user: {}", username);
-            } else {
-                logger.warn("User not found or inactive: {}", username);
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error authenticating user: {}", username, e);
-        }
+        return AuthService.getInstance().authenticate(username, password);
+    }
 
-        return null;
+    /**
+     * Get active user by username (login lookup)
+     */
+    public static User getActiveByUsername(String username) {
+        return Repositories.users().findActiveByUsername(username);
     }
 
     /**
-     * Start a new user session (for session tracking)
+     * Update last login and start session in one round trip.
+     * Falls back to last login only if session tracking fails.
      */
-    private static void startUserSession(User user) {
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(
-                        "SELECT fn_start_session(?, ?, ?, ?)")) {
-            stmt.setInt(1, user.getIdUser());
-            stmt.setString(2, user.getUsername());
-            stmt.setString(3, user.getNamaLengkap());
-            stmt.setString(4, user.getRole());
-            stmt.executeQuery();
-            logger.info("Session started for user: {}", user.getUsername());
-        } catch (SQLException e) {
-            // Don't fail login if session tracking fails
-            logger.warn("Failed to start session for user: {}, continuing anyway", user.getUsername(), e);
+    public void recordLogin() {
+        Repositories.users().recordLogin(this);
+    }
+
+    /**
+     * Replace password hash only if the stored hash is still the one given
+     * (used for transparent rehash after login)
+     */
+    public boolean upgradePasswordHash(String oldHash, String newHash) {
+        if (!Repositories.users().replacePasswordHash(this.idUser, oldHash, newHash)) {
+            return false;
         }
+        this.password = newHash;
+        return true;
     }
 
     /**
      * Update last login timestamp
      */
     public void updateLastLogin() {
-        String sql = "UPDATE tbl_user SET last_login = CURRENT_TIMESTAMP WHERE id_user = ?";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, this.idUser);
-            stmt.executeUpdate();
-
-        } catch (SQLException e) {
-            logger.error("Error updating last login for user: {}", this.username, e);
-        }
+        Repositories.users().updateLastLogin(this.idUser);
     }
 
     /**
      * Get all users
      */
     public static List<User> getAll() {
-        List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM tbl_user ORDER BY id_user ASC";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql);
-                ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error getting all users", e);
-        }
-
-        return users;
+        return Repositories.users().findAll();
     }
 
     /**
      * Get user by ID
      */
     public static User getById(int id) {
-        String sql = "SELECT * FROM tbl_user WHERE id_user = ?";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return mapResultSetToUser(rs);
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error getting user by ID: {}", id, e);
-        }
-
-        return null;
+        return Repositories.users().findById(id);
     }
 
     /**
-     * Save user (insert or update)
+     * Save user (insert or update). On insert the password is hashed first.
      */
     public boolean save() {
-        if (this.idUser == 0) {
-            return insert();
-        } else {
-            return update();
-        }
-    }
-
-    /**
-     * Insert new user
-     */
-    private boolean insert() {
-        String sql = "INSERT INTO tbl_user (username, password, role, nama_lengkap, is_active, assigned_shift_id, base_salary) "
-                +
-                "VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING id_user";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, this.username);
-            stmt.setString(2, hashPassword(this.password)); // Hash password
-            stmt.setString(3, this.role);
-            stmt.setString(4, this.namaLengkap);
-            stmt.setBoolean(5, this.isActive);
-            if (assignedShiftId != null) {
-                stmt.setInt(6, assignedShiftId);
-            } else {
-                stmt.setNull(6, Types.INTEGER);
-            }
-            stmt.setDouble(7, this.baseSalary);
-
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                this.idUser = rs.getInt(1);
-                logger.info("User inserted successfully: {}", this.username);
-                return true;
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error inserting user: {}", this.username, e);
+        if (this.idUser != 0 || this.password == null) {
+            return Repositories.users().save(this);
         }
 
-        return false;
-    }
-
-    /**
-     * Update existing user
-     */
-    private boolean update() {
-        String sql = "UPDATE tbl_user SET username = ?, role = ?, nama_lengkap = ?, is_active = ?, assigned_shift_id = ?, base_salary = ? "
-                +
-                "WHERE id_user = ?";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, this.username);
-            stmt.setString(2, this.role);
-            stmt.setString(3, this.namaLengkap);
-            stmt.setBoolean(4, this.isActive);
-            if (assignedShiftId != null) {
-                stmt.setInt(5, assignedShiftId);
-            } else {
-                stmt.setNull(5, Types.INTEGER);
-            }
-            stmt.setDouble(6, this.baseSalary);
-            stmt.setInt(7, this.idUser);
-
-            int affected = stmt.executeUpdate();
-
-            if (affected > 0) {
-                logger.info("User updated successfully: {}", this.username);
-                return true;
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error updating user: {}", this.username, e);
+        String plainPassword = this.password;
+        this.password = hashPassword(plainPassword);
+        if (!Repositories.users().save(this)) {
+            this.password = plainPassword; // Keep plain text so a retry hashes once
+            return false;
         }
-
-        return false;
+        return true;
     }
 
     /**
      * Change password
      */
     public boolean changePassword(String newPassword) {
-        String sql = "UPDATE tbl_user SET password = ? WHERE id_user = ?";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, hashPassword(newPassword));
-            stmt.setInt(2, this.idUser);
-
-            int affected = stmt.executeUpdate();
-
-            if (affected > 0) {
-                logger.info("Password changed successfully for user: {}", this.username);
-                return true;
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error changing password for user: {}", this.username, e);
+        String hash = hashPassword(newPassword);
+        if (!Repositories.users().updatePassword(this.idUser, hash)) {
+            return false;
         }
-
-        return false;
+        this.password = hash;
+        logger.info("Password changed successfully for user: {}", this.username);
+        return true;
     }
 
     /**
      * Delete user
      */
     public boolean delete() {
-        String sql = "DELETE FROM tbl_user WHERE id_user = ?";
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, this.idUser);
-            int affected = stmt.executeUpdate();
-
-            if (affected > 0) {
-                logger.info("User deleted successfully: {}", this.username);
-                return true;
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error deleting user: {}", this.username, e);
+        if (!Repositories.users().delete(this.idUser)) {
+            return false;
         }
-
-        return false;
-    }
-
-    /**
-     * Helper method to map ResultSet to User object
-     */
-    private static User mapResultSetToUser(ResultSet rs) throws SQLException {
-        User user = new User();
-        user.setIdUser(rs.getInt("id_user"));
-        user.setUsername(rs.getString("username"));
-        user.setPassword(rs.getString("password"));
-        user.setRole(rs.getString("role"));
-        user.setNamaLengkap(rs.getString("nama_lengkap"));
-        user.setActive(rs.getBoolean("is_active"));
-        user.setLastLogin(rs.getTimestamp("last_login"));
-        user.setCreatedAt(rs.getTimestamp("created_at"));
-
-        // Handle assigned_shift_id (can be null)
-        int shiftId = rs.getInt("assigned_shift_id");
-        if (!rs.wasNull()) {
-            user.setAssignedShiftId(shiftId);
-        }
-
-        user.setBaseSalary(rs.getDouble("base_salary"));
-
-        return user;
+        logger.info("User deleted successfully: {}", this.username);
+        return true;
     }
 
     @Override
@@ -0,0 +1,74 @@
+package com.kedaikopi.model;
+
+import java.util.Objects;
+
+/**
+ * User Ref - referensi user immutable (flyweight) untuk read path
+ * Only what reports display: no password hash, timestamps or shift.
+ */
+public final class UserRef {
+
+    private static final Interner<UserRef> POOL = new Interner<>(10_000);
+
+    private final int idUser;
+    private final String username;
+    private final String namaLengkap;
+    private final String role;
+
+    private UserRef(int idUser, String username, String namaLengkap, String role) {
+        this.idUser = idUser;
+        this.username = username;
+        this.namaLengkap = namaLengkap;
+        this.role = role;
+    }
+
+    /**
+     * Shared reference for the given user fields
+     */
+    public static UserRef of(int idUser, String username, String namaLengkap, String role) {
+        return POOL.intern(new UserRef(idUser, username, namaLengkap, role));
+    }
+
+    public static UserRef of(User user) {
+        return user != null ? of(user.getIdUser(), user.getUsername(), user.getNamaLengkap(), user.getRole()) : null;
+    }
+
+    public int getIdUser() {
+        return idUser;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getNamaLengkap() {
+        return namaLengkap;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UserRef)) {
+            return false;
+        }
+        UserRef other = (UserRef) o;
+        return idUser == other.idUser && Objects.equals(username, other.username)
+                && Objects.equals(namaLengkap, other.namaLengkap) && Objects.equals(role, other.role);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idUser, username, namaLengkap, role);
+    }
+
+    @Override
+    public String toString() {
+        return namaLengkap != null ? namaLengkap : username;
+    }
+}
@@ -0,0 +1,71 @@
+package com.kedaikopi.repository;
+
+import com.kedaikopi.model.UserActivityLog;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Activity Log Repository - akses log login/logout karyawan
+ */
+public interface ActivityLogRepository {
+
+    boolean log(int idUser, String activityType, String note);
+
+    /**
+     * Store entries written behind (user id, type, time and note of each) in
+     * one round trip. Entries the store refuses (user deleted meanwhile) are
+     * skipped.
+     *
+     * @return number of entries stored, or -1 when the store is unavailable
+     *         (nothing stored)
+     */
+    int logBatch(List<UserActivityLog> entries);
+
+    /**
+     * Logs between two dates (inclusive), newest first
+     */
+    List<UserActivityLog> findByDateRange(Date startDate, Date endDate);
+
+    List<UserActivityLog> findByUser(int idUser, Date startDate, Date endDate);
+
+    /**
+     * Sessions whose presence has not expired, newest login first (one
+     * LOGIN-type entry per session, device_info is the terminal)
+     */
+    List<UserActivityLog> findActiveSessions();
+
+    /**
+     * Create or renew the presence of a login session until ttlSeconds from now
+     *
+     * @return false when the store is unavailable
+     */
+    boolean heartbeat(UUID sessionKey, int idUser, String terminal, int ttlSeconds);
+
+    /**
+     * Remove the presence of a session (logout)
+     */
+    void endSession(UUID sessionKey);
+
+    /**
+     * Users with a live presence, of one role (null = every role)
+     */
+    int countOnline(String role);
+
+    /**
+     * Delete presences past their expiry (crashed terminals)
+     *
+     * @return number of presences deleted
+     */
+    int purgeExpiredPresence();
+
+    List<UserActivityLog.InactiveEmployee> findInactiveEmployees(int daysThreshold);
+
+    int countInactiveEmployees(int daysThreshold);
+
+    /**
+     * Hours between a login and the next logout on the same day (0 if still open)
+     */
+    double getSessionDurationHours(int loginActivityId);
+}
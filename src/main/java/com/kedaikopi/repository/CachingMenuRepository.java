@@ -0,0 +1,194 @@
+package com.kedaikopi.repository;
+
+import com.kedaikopi.config.DatabaseHealth;
+import com.kedaikopi.event.EventBus;
+import com.kedaikopi.event.MenuUpdated;
+import com.kedaikopi.event.StockChanged;
+import com.kedaikopi.model.Kategori;
+import com.kedaikopi.model.MenuKopi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Caching Menu Repository - decorator cache katalog menu
+ * Keeps the menu lists and categories for a short time. Writes through this
+ * repository and StockChanged / MenuUpdated events drop the cache. Single
+ * lookups by id always go to the delegate (they feed edit forms).
+ * While the database is unreachable (DatabaseHealth) the last loaded lists
+ * are served however old, so the kasir can keep selling.
+ *
+ * Returned lists are fresh, the entities in them are shared with the cache.
+ */
+public class CachingMenuRepository implements MenuRepository {
+
+    private static final long MAX_AGE_MILLIS = 30_000;
+
+    private final MenuRepository delegate;
+    private final Cached<List<MenuKopi>> all = new Cached<>();
+    private final Cached<List<MenuKopi>> active = new Cached<>();
+    private final Cached<List<Kategori>> categories = new Cached<>();
+    private volatile long generation;
+
+    public CachingMenuRepository(MenuRepository delegate) {
+        this.delegate = delegate;
+        EventBus.getInstance().subscribe(StockChanged.class, e -> invalidate());
+        EventBus.getInstance().subscribe(MenuUpdated.class, e -> invalidate());
+    }
+
+    /**
+     * Expire everything cached (kept only as the fallback for degraded mode)
+     */
+    public synchronized void invalidate() {
+        generation++;
+        all.expire();
+        active.expire();
+        categories.expire();
+    }
+
+    @Override
+    public List<MenuKopi> findAll() {
+        return new ArrayList<>(read(all, delegate::findAll));
+    }
+
+    @Override
+    public List<MenuKopi> findAllActive() {
+        return new ArrayList<>(read(active, delegate::findAllActive));
+    }
+
+    @Override
+    public MenuKopi findById(int idMenu) {
+        MenuKopi menu = delegate.findById(idMenu);
+        if (menu == null && !DatabaseHealth.getInstance().isAvailable()) {
+            synchronized (this) {
+                List<MenuKopi> known = all.stale() != null ? all.stale() : active.stale();
+                if (known != null) {
+                    for (MenuKopi candidate : known) {
+                        if (candidate.getIdMenu() == idMenu) {
+                            return candidate;
+                        }
+                    }
+                }
+            }
+        }
+        return menu;
+    }
+
+    @Override
+    public boolean save(MenuKopi menu) {
+        return invalidateIf(delegate.save(menu));
+    }
+
+    @Override
+    public boolean delete(int idMenu) {
+        return invalidateIf(delegate.delete(idMenu));
+    }
+
+    @Override
+    public int reduceStock(int idMenu, int qty) {
+        int stockLeft = delegate.reduceStock(idMenu, qty);
+        invalidateIf(stockLeft >= 0);
+        return stockLeft;
+    }
+
+    // Reservations never change stok, nothing cached to drop
+
+    @Override
+    public int reserveStock(UUID cartKey, int idMenu, int qty, int ttlSeconds) {
+        return delegate.reserveStock(cartKey, idMenu, qty, ttlSeconds);
+    }
+
+    @Override
+    public void renewReservations(UUID cartKey, int ttlSeconds) {
+        delegate.renewReservations(cartKey, ttlSeconds);
+    }
+
+    @Override
+    public void releaseReservations(UUID cartKey) {
+        delegate.releaseReservations(cartKey);
+    }
+
+    @Override
+    public List<Kategori> findAllCategories() {
+        return new ArrayList<>(read(categories, delegate::findAllCategories));
+    }
+
+    @Override
+    public Kategori findCategoryById(int idKategori) {
+        return delegate.findCategoryById(idKategori);
+    }
+
+    @Override
+    public boolean saveCategory(Kategori kategori) {
+        return invalidateIf(delegate.saveCategory(kategori));
+    }
+
+    @Override
+    public boolean deleteCategory(int idKategori) {
+        return invalidateIf(delegate.deleteCategory(idKategori));
+    }
+
+    private boolean invalidateIf(boolean changed) {
+        if (changed) {
+            invalidate();
+        }
+        return changed;
+    }
+
+    /**
+     * Cached list, loading outside the lock. Empty results are not kept (the
+     * delegate returns an empty list when the database is unreachable), and a
+     * load that raced with an invalidation is returned but not stored.
+     * Degraded mode answers from the last loaded value instead of loading.
+     */
+    private <T> List<T> read(Cached<List<T>> cached, Supplier<List<T>> loader) {
+        long loadGeneration;
+        List<T> stale;
+        synchronized (this) {
+            List<T> value = cached.get();
+            if (value != null) {
+                return value;
+            }
+            stale = cached.stale();
+            if (stale != null && !DatabaseHealth.getInstance().isAvailable()) {
+                return stale;
+            }
+            loadGeneration = generation;
+        }
+
+        List<T> loaded = loader.get();
+        if (loaded.isEmpty() && stale != null && !DatabaseHealth.getInstance().isAvailable()) {
+            return stale; // Connection lost during this load
+        }
+        synchronized (this) {
+            if (!loaded.isEmpty() && loadGeneration == generation) {
+                cached.set(loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private static final class Cached<T> {
+        private T value;
+        private long loadedAt;
+
+        T get() {
+            return value != null && System.currentTimeMillis() - loadedAt < MAX_AGE_MILLIS ? value : null;
+        }
+
+        T stale() {
+            return value;
+        }
+
+        void set(T value) {
+            this.value = value;
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        void expire() {
+            loadedAt = 0;
+        }
+    }
+}
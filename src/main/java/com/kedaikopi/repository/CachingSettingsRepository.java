@@ -0,0 +1,94 @@
+package com.kedaikopi.repository;
+
+import com.kedaikopi.config.DatabaseHealth;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caching Settings Repository - decorator cache tbl_app_settings
+ * Loads the whole (small) settings table in one query and answers get() from
+ * memory, including keys that are not set. Reloaded after a minute so changes
+ * from other terminals show up; writes through this repository update the
+ * cache immediately. While the database is unreachable the last loaded table
+ * is used however old.
+ */
+public class CachingSettingsRepository implements SettingsRepository {
+
+    private static final long MAX_AGE_MILLIS = 60_000;
+
+    private final SettingsRepository delegate;
+    private Map<String, String> settings;
+    private long loadedAt;
+    private long generation;
+
+    public CachingSettingsRepository(SettingsRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String get(String key) {
+        Map<String, String> current = current();
+        return current != null ? current.get(key) : delegate.get(key);
+    }
+
+    @Override
+    public Map<String, String> findAll() {
+        Map<String, String> current = current();
+        return current != null ? new HashMap<>(current) : delegate.findAll();
+    }
+
+    @Override
+    public boolean set(String key, String value) {
+        if (!delegate.set(key, value)) {
+            return false;
+        }
+        synchronized (this) {
+            generation++;
+            if (settings != null) {
+                Map<String, String> updated = new HashMap<>(settings);
+                updated.put(key, value);
+                settings = updated;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drop the cached table
+     */
+    public synchronized void invalidate() {
+        generation++;
+        settings = null;
+    }
+
+    /**
+     * Cached table, or null when it cannot be used (load failed with nothing
+     * loaded before, or raced)
+     */
+    private Map<String, String> current() {
+        long loadGeneration;
+        Map<String, String> stale;
+        synchronized (this) {
+            stale = settings;
+            if (stale != null && (System.currentTimeMillis() - loadedAt < MAX_AGE_MILLIS
+                    || !DatabaseHealth.getInstance().isAvailable())) {
+                return stale;
+            }
+            loadGeneration = generation;
+        }
+
+        Map<String, String> loaded = delegate.findAll();
+        if (loaded == null) {
+            return stale;
+        }
+        synchronized (this) {
+            if (loadGeneration != generation) {
+                return null; // A write raced with this load, read through instead
+            }
+            settings = loaded;
+            loadedAt = System.currentTimeMillis();
+            return settings;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.kedaikopi.repository;
+
+import com.kedaikopi.config.DatabaseHealth;
+import com.kedaikopi.model.Shift;
+import com.kedaikopi.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caching User Repository - cache data referensi user dan shift
+ * Users and shifts change rarely but are read everywhere (user lists,
+ * assigned shift per user, lateness and overtime per attendance row), so
+ * reads are answered from memory for MAX_AGE_MILLIS. Every write through this
+ * repository bumps the version of its kind and drops what was cached; a load
+ * that raced with a write is returned but not kept. Changes made on another
+ * terminal show up once the entries age out.
+ *
+ * While the database is unreachable (DatabaseHealth) cached answers are served
+ * however old, so user and shift lookups keep working. Login lookups by
+ * username are not cached at all (password and active flag must be current).
+ *
+ * Returned lists are fresh, the entities in them are shared with the cache.
+ */
+public class CachingUserRepository implements UserRepository {
+
+    private static final long MAX_AGE_MILLIS = 60_000;
+
+    private final UserRepository delegate;
+
+    // Guarded by this for writes (reads are lock-free)
+    private final Map<Integer, Stamped<User>> usersById = new ConcurrentHashMap<>();
+    private final Map<Integer, Stamped<Shift>> shiftsById = new ConcurrentHashMap<>();
+    private volatile Stamped<List<User>> allUsers;
+    private volatile Stamped<List<Shift>> activeShifts;
+    private long userVersion;
+    private long shiftVersion;
+
+    public CachingUserRepository(UserRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    private static boolean degraded() {
+        return !DatabaseHealth.getInstance().isAvailable();
+    }
+
+    private static <T> boolean usable(Stamped<T> known) {
+        return known != null && (known.isFresh() || degraded());
+    }
+
+    @Override
+    public List<User> findAll() {
+        Stamped<List<User>> known = allUsers;
+        if (usable(known)) {
+            return new ArrayList<>(known.value);
+        }
+        long version = userVersion();
+        List<User> users = delegate.findAll();
+        if (users.isEmpty() && known != null && degraded()) {
+            return new ArrayList<>(known.value); // Connection lost during this load
+        }
+        synchronized (this) {
+            if (version == userVersion && !users.isEmpty()) {
+                allUsers = new Stamped<>(new ArrayList<>(users));
+                for (User user : users) {
+                    usersById.put(user.getIdUser(), new Stamped<>(user));
+                }
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public User findById(int idUser) {
+        Stamped<User> known = usersById.get(idUser);
+        if (usable(known)) {
+            return known.value;
+        }
+        long version = userVersion();
+        User user = delegate.findById(idUser);
+        if (user != null) {
+            synchronized (this) {
+                if (version == userVersion) {
+                    usersById.put(idUser, new Stamped<>(user));
+                }
+            }
+        } else if (known != null && degraded()) {
+            return known.value;
+        }
+        return user;
+    }
+
+    @Override
+    public User findActiveByUsername(String username) {
+        return delegate.findActiveByUsername(username);
+    }
+
+    @Override
+    public boolean save(User user) {
+        boolean saved = delegate.save(user);
+        if (saved) {
+            forgetUsers();
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean delete(int idUser) {
+        boolean deleted = delegate.delete(idUser);
+        if (deleted) {
+            forgetUsers();
+        }
+        return deleted;
+    }
+
+    @Override
+    public boolean updatePassword(int idUser, String passwordHash) {
+        boolean updated = delegate.updatePassword(idUser, passwordHash);
+        if (updated) {
+            forgetUsers();
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean replacePasswordHash(int idUser, String oldHash, String newHash) {
+        boolean replaced = delegate.replacePasswordHash(idUser, oldHash, newHash);
+        if (replaced) {
+            forgetUsers();
+        }
+        return replaced;
+    }
+
+    @Override
+    public void recordLogin(User user) {
+        delegate.recordLogin(user);
+    }
+
+    @Override
+    public void updateLastLogin(int idUser) {
+        delegate.updateLastLogin(idUser);
+    }
+
+    @Override
+    public List<Shift> findActiveShifts() {
+        Stamped<List<Shift>> known = activeShifts;
+        if (usable(known)) {
+            return new ArrayList<>(known.value);
+        }
+        long version = shiftVersion();
+        List<Shift> shifts = delegate.findActiveShifts();
+        if (shifts.isEmpty() && known != null && degraded()) {
+            return new ArrayList<>(known.value);
+        }
+        synchronized (this) {
+            if (version == shiftVersion && !shifts.isEmpty()) {
+                activeShifts = new Stamped<>(new ArrayList<>(shifts));
+                for (Shift shift : shifts) {
+                    shiftsById.put(shift.getIdShift(), new Stamped<>(shift));
+                }
+            }
+        }
+        return shifts;
+    }
+
+    @Override
+    public Shift findShiftById(int idShift) {
+        Stamped<Shift> known = shiftsById.get(idShift);
+        if (usable(known)) {
+            return known.value;
+        }
+        long version = shiftVersion();
+        Shift shift = delegate.findShiftById(idShift);
+        if (shift != null) {
+            synchronized (this) {
+                if (version == shiftVersion) {
+                    shiftsById.put(idShift, new Stamped<>(shift));
+                }
+            }
+        } else if (known != null && degraded()) {
+            return known.value;
+        }
+        return shift;
+    }
+
+    @Override
+    public boolean insertShift(Shift shift) {
+        boolean inserted = delegate.insertShift(shift);
+        if (inserted) {
+            forgetShifts();
+        }
+        return inserted;
+    }
+
+    @Override
+    public boolean updateShift(Shift shift) {
+        boolean updated = delegate.updateShift(shift);
+        if (updated) {
+            forgetShifts();
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean deactivateShift(int idShift) {
+        boolean deactivated = delegate.deactivateShift(idShift);
+        if (deactivated) {
+            forgetShifts();
+        }
+        return deactivated;
+    }
+
+    private synchronized long userVersion() {
+        return userVersion;
+    }
+
+    private synchronized long shiftVersion() {
+        return shiftVersion;
+    }
+
+    /**
+     * New user version after a change (the next read reloads)
+     */
+    private synchronized void forgetUsers() {
+        userVersion++;
+        allUsers = null;
+        usersById.clear();
+    }
+
+    private synchronized void forgetShifts() {
+        shiftVersion++;
+        activeShifts = null;
+        shiftsById.clear();
+    }
+
+    private static final class Stamped<T> {
+        private final T value;
+        private final long loadedAt = System.currentTimeMillis();
+
+        Stamped(T value) {
+            this.value = value;
+        }
+
+        boolean isFresh() {
+            return System.currentTimeMillis() - loadedAt < MAX_AGE_MILLIS;
+        }
+    }
+}
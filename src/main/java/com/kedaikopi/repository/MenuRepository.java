@@ -0,0 +1,72 @@
+package com.kedaikopi.repository;
+
+import com.kedaikopi.model.Kategori;
+import com.kedaikopi.model.MenuKopi;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Menu Repository - akses data menu dan kategori
+ * Reads return empty lists / null when the store is unavailable, writes
+ * return false. Events are published by the model, not here.
+ */
+public interface MenuRepository {
+
+    /**
+     * All menu items ordered by id
+     */
+    List<MenuKopi> findAll();
+
+    /**
+     * Active menu items ordered by category and name
+     */
+    List<MenuKopi> findAllActive();
+
+    MenuKopi findById(int idMenu);
+
+    /**
+     * Insert (idMenu == 0, id is assigned on the menu) or update
+     */
+    boolean save(MenuKopi menu);
+
+    boolean delete(int idMenu);
+
+    /**
+     * Reduce stock only if enough is left
+     *
+     * @return stock after the reduction, or -1 when stock is insufficient
+     */
+    int reduceStock(int idMenu, int qty);
+
+    /**
+     * Hold qty of a menu for an open cart until ttlSeconds from now, replacing
+     * what the cart held of it before. Holds only what the other carts leave
+     * free; qty 0 releases the line.
+     *
+     * @return quantity now held (less than qty when short), or -1 when the
+     *         store is unavailable
+     */
+    int reserveStock(UUID cartKey, int idMenu, int qty, int ttlSeconds);
+
+    /**
+     * Push the expiry of every hold of a cart to ttlSeconds from now
+     */
+    void renewReservations(UUID cartKey, int ttlSeconds);
+
+    /**
+     * Drop every hold of a cart (cart emptied or abandoned)
+     */
+    void releaseReservations(UUID cartKey);
+
+    List<Kategori> findAllCategories();
+
+    Kategori findCategoryById(int idKategori);
+
+    /**
+     * Insert (idKategori == 0, id is assigned on the category) or update
+     */
+    boolean saveCategory(Kategori kategori);
+
+    boolean deleteCategory(int idKategori);
+}
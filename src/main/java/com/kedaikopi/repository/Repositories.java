@@ -0,0 +1,176 @@
+package com.kedaikopi.repository;
+
+import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.repository.jdbc.JdbcActivityLogRepository;
+import com.kedaikopi.repository.jdbc.JdbcMenuRepository;
+import com.kedaikopi.repository.jdbc.JdbcSettingsRepository;
+import com.kedaikopi.repository.jdbc.JdbcTransactionRepository;
+import com.kedaikopi.repository.jdbc.JdbcUserRepository;
+import com.kedaikopi.repository.memory.InMemoryActivityLogRepository;
+import com.kedaikopi.repository.memory.InMemoryMenuRepository;
+import com.kedaikopi.repository.memory.InMemorySettingsRepository;
+import com.kedaikopi.repository.memory.InMemoryTransactionRepository;
+import com.kedaikopi.repository.memory.InMemoryUserRepository;
+import com.kedaikopi.repository.memory.SampleData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Repositories - set repository yang dipakai model
+ * Model static methods (MenuKopi.getAll, User.getById, ...) go through the
+ * installed set. The default is picked on first use:
+ * - JDBC with caching decorators (normal run)
+ * - in-memory with sample data when -Dkedaikopi.repository=memory
+ * - -Dkedaikopi.repository.metrics=true adds call metrics, logged on exit
+ *
+ * Benchmarks and tests can install their own set before touching the models:
+ * Repositories.install(Repositories.inMemory().withMetrics())
+ */
+public final class Repositories {
+
+    private static final Logger logger = LoggerFactory.getLogger(Repositories.class);
+
+    private static volatile Repositories current;
+
+    private final MenuRepository menus;
+    private final TransactionRepository transactions;
+    private final UserRepository users;
+    private final ActivityLogRepository activityLogs;
+    private final SettingsRepository settings;
+
+    public Repositories(MenuRepository menus, TransactionRepository transactions, UserRepository users,
+            ActivityLogRepository activityLogs, SettingsRepository settings) {
+        this.menus = menus;
+        this.transactions = transactions;
+        this.users = users;
+        this.activityLogs = activityLogs;
+        this.settings = settings;
+    }
+
+    /**
+     * PostgreSQL-backed set
+     */
+    public static Repositories jdbc(DatabaseConfig database) {
+        return new Repositories(
+                new JdbcMenuRepository(database),
+                new JdbcTransactionRepository(database),
+                new JdbcUserRepository(database),
+                new JdbcActivityLogRepository(database),
+                new JdbcSettingsRepository(database));
+    }
+
+    /**
+     * Empty in-memory set
+     */
+    public static Repositories inMemory() {
+        InMemoryMenuRepository menus = new InMemoryMenuRepository();
+        InMemoryUserRepository users = new InMemoryUserRepository();
+        return new Repositories(
+                menus,
+                new InMemoryTransactionRepository(menus, users),
+                users,
+                new InMemoryActivityLogRepository(users),
+                new InMemorySettingsRepository());
+    }
+
+    /**
+     * Same set with the menu catalog, settings, users and shifts cached (and
+     * served from cache while the database is unreachable)
+     */
+    public Repositories withCaching() {
+        return new Repositories(new CachingMenuRepository(menus), transactions, new CachingUserRepository(users),
+                activityLogs, new CachingSettingsRepository(settings));
+    }
+
+    /**
+     * Same set with every call counted and timed (see RepositoryMetrics)
+     */
+    public Repositories withMetrics() {
+        return new Repositories(
+                RepositoryMetrics.wrap(MenuRepository.class, menus),
+                RepositoryMetrics.wrap(TransactionRepository.class, transactions),
+                RepositoryMetrics.wrap(UserRepository.class, users),
+                RepositoryMetrics.wrap(ActivityLogRepository.class, activityLogs),
+                RepositoryMetrics.wrap(SettingsRepository.class, settings));
+    }
+
+    /**
+     * Replace the set used by the models
+     */
+    public static void install(Repositories repositories) {
+        current = repositories;
+    }
+
+    /**
+     * Installed set (default created on first use)
+     */
+    public static Repositories get() {
+        Repositories repositories = current;
+        if (repositories == null) {
+            synchronized (Repositories.class) {
+                if (current == null) {
+                    current = createDefault();
+                }
+                repositories = current;
+            }
+        }
+        return repositories;
+    }
+
+    private static Repositories createDefault() {
+        Repositories repositories;
+        if ("memory".equalsIgnoreCase(System.getProperty("kedaikopi.repository"))) {
+            repositories = inMemory();
+            SampleData.seed(repositories);
+            logger.info("Using in-memory repositories with sample data");
+        } else {
+            repositories = jdbc(DatabaseConfig.getInstance()).withCaching();
+        }
+
+        if (Boolean.getBoolean("kedaikopi.repository.metrics")) {
+            repositories = repositories.withMetrics();
+            Runtime.getRuntime().addShutdownHook(new Thread(RepositoryMetrics::logSummary, "repository-metrics"));
+        }
+        return repositories;
+    }
+
+    public static MenuRepository menus() {
+        return get().menus;
+    }
+
+    public static TransactionRepository transactions() {
+        return get().transactions;
+    }
+
+    public static UserRepository users() {
+        return get().users;
+    }
+
+    public static ActivityLogRepository activityLogs() {
+        return get().activityLogs;
+    }
+
+    public static SettingsRepository settings() {
+        return get().settings;
+    }
+
+    public MenuRepository getMenuRepository() {
+        return menus;
+    }
+
+    public TransactionRepository getTransactionRepository() {
+        return transactions;
+    }
+
+    public UserRepository getUserRepository() {
+        return users;
+    }
+
+    public ActivityLogRepository getActivityLogRepository() {
+        return activityLogs;
+    }
+
+    public SettingsRepository getSettingsRepository() {
+        return settings;
+    }
+}
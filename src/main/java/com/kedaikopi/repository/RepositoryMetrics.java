@@ -0,0 +1,127 @@
+package com.kedaikopi.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Repository Metrics - decorator pengukur jumlah panggilan dan latency
+ * Wraps any repository interface in a proxy that counts calls and time per
+ * method ("MenuRepository.findAllActive"). Stack it on top of the caching
+ * decorators to see what callers experience, or below them to see what
+ * reaches the database.
+ */
+public final class RepositoryMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryMetrics.class);
+
+    private static final Map<String, Stat> stats = new ConcurrentHashMap<>();
+
+    private RepositoryMetrics() {
+    }
+
+    /**
+     * Wrap a repository so every call is measured
+     */
+    public static <T> T wrap(Class<T> type, T target) {
+        Map<Method, Stat> byMethod = new ConcurrentHashMap<>();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return invoke(target, method, args);
+            }
+
+            Stat stat = byMethod.computeIfAbsent(method,
+                    m -> stats.computeIfAbsent(type.getSimpleName() + "." + m.getName(), Stat::new));
+            long start = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                stat.record(System.nanoTime() - start);
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Current counters, busiest first
+     */
+    public static List<Stat> snapshot() {
+        List<Stat> result = new ArrayList<>(stats.values());
+        result.sort((a, b) -> Long.compare(b.getTotalNanos(), a.getTotalNanos()));
+        return result;
+    }
+
+    public static void reset() {
+        stats.clear();
+    }
+
+    /**
+     * Log one line per repository method
+     */
+    public static void logSummary() {
+        for (Stat stat : snapshot()) {
+            logger.info("{}", stat);
+        }
+    }
+
+    /**
+     * Counters of one repository method
+     */
+    public static final class Stat {
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Stat(String name) {
+            this.name = name;
+        }
+
+        private void record(long nanos) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        @Override
+        public String toString() {
+            long n = getCalls();
+            return String.format("%s: calls=%d, avg=%.2f ms, max=%.2f ms, total=%.1f ms", name, n,
+                    n > 0 ? getTotalNanos() / 1e6 / n : 0.0, getMaxNanos() / 1e6, getTotalNanos() / 1e6);
+        }
+    }
+}
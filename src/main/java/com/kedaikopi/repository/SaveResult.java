@@ -0,0 +1,78 @@
+package com.kedaikopi.repository;
+
+/**
+ * Save Result - hasil menyimpan transaksi (idempoten per client key)
+ * See TransactionRepository.save.
+ */
+public final class SaveResult {
+
+    public enum Status {
+        /** Stored now */
+        SAVED,
+        /** Stored by an earlier attempt with the same client key, id of that transaction */
+        ALREADY_SAVED,
+        /** Rolled back, a line is short on stock */
+        SHORT_STOCK,
+        /** Database error, try again later */
+        FAILED,
+        /** Refused for this sale itself (constraint, bad data) - trying again cannot help */
+        INVALID
+    }
+
+    private static final SaveResult SHORT_STOCK = new SaveResult(Status.SHORT_STOCK, 0, null);
+    private static final SaveResult FAILED = new SaveResult(Status.FAILED, 0, null);
+    private static final SaveResult INVALID = new SaveResult(Status.INVALID, 0, null);
+
+    private final Status status;
+    private final int idTransaksi;
+    private final int[] stockLeft;
+
+    private SaveResult(Status status, int idTransaksi, int[] stockLeft) {
+        this.status = status;
+        this.idTransaksi = idTransaksi;
+        this.stockLeft = stockLeft;
+    }
+
+    public static SaveResult saved(int idTransaksi, int[] stockLeft) {
+        return new SaveResult(Status.SAVED, idTransaksi, stockLeft);
+    }
+
+    public static SaveResult alreadySaved(int idTransaksi) {
+        return new SaveResult(Status.ALREADY_SAVED, idTransaksi, null);
+    }
+
+    public static SaveResult shortStock() {
+        return SHORT_STOCK;
+    }
+
+    public static SaveResult failed() {
+        return FAILED;
+    }
+
+    public static SaveResult invalid() {
+        return INVALID;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Stored transaction id (SAVED, ALREADY_SAVED)
+     */
+    public int getIdTransaksi() {
+        return idTransaksi;
+    }
+
+    /**
+     * Stock left per detail line (SAVED only)
+     */
+    public int[] getStockLeft() {
+        return stockLeft;
+    }
+
+    @Override
+    public String toString() {
+        return status + (idTransaksi != 0 ? " #" + idTransaksi : "");
+    }
+}
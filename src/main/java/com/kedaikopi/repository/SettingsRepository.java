@@ -0,0 +1,24 @@
+package com.kedaikopi.repository;
+
+import java.util.Map;
+
+/**
+ * Settings Repository - akses tbl_app_settings
+ */
+public interface SettingsRepository {
+
+    /**
+     * @return value, or null when the key is not set
+     */
+    String get(String key);
+
+    /**
+     * All settings, or null when the store is unavailable
+     */
+    Map<String, String> findAll();
+
+    /**
+     * Insert or replace
+     */
+    boolean set(String key, String value);
+}
@@ -0,0 +1,57 @@
+package com.kedaikopi.repository;
+
+import com.kedaikopi.model.SaleLine;
+import com.kedaikopi.model.SaleRecord;
+import com.kedaikopi.model.TransaksiDetail;
+import com.kedaikopi.model.TransaksiHeader;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Transaction Repository - akses data transaksi penjualan
+ */
+public interface TransactionRepository {
+
+    /**
+     * Save header + details and reduce stock atomically. The id is set on the
+     * header. Applied at most once per client key (one is generated when the
+     * header has none): a retry gets ALREADY_SAVED with the original id and
+     * changes nothing, so callers may retry freely. With allowShortStock the
+     * sale is stored even if stock ran out meanwhile (stock stops at 0) - the
+     * goods were already handed over (offline sales, see SalesJournal).
+     * FAILED means try again later (connection, deadlock, server busy);
+     * INVALID means the database refused this sale itself.
+     */
+    SaveResult save(TransaksiHeader header, boolean allowShortStock);
+
+    /**
+     * All transactions, newest first (without details)
+     */
+    List<TransaksiHeader> findAll();
+
+    /**
+     * Today's transactions, newest first (without details)
+     */
+    List<TransaksiHeader> findToday();
+
+    /**
+     * Transaction with its details
+     */
+    TransaksiHeader findById(int idTransaksiHeader);
+
+    List<TransaksiDetail> findDetails(int idTransaksiHeader);
+
+    /**
+     * Compact sale records for history reports, newest first
+     *
+     * @param from   earliest sale time, or null for all
+     * @param idUser only this kasir, or null for everyone
+     */
+    List<SaleRecord> findSaleRecords(Timestamp from, Integer idUser);
+
+    /**
+     * Lines of the sale records selected by the same filter, by menu name
+     */
+    List<SaleLine> findSaleLines(Timestamp from, Integer idUser);
+}
@@ -0,0 +1,63 @@
+package com.kedaikopi.repository;
+
+import com.kedaikopi.model.Shift;
+import com.kedaikopi.model.User;
+
+import java.util.List;
+
+/**
+ * User Repository - akses data user dan shift
+ * Passwords are stored exactly as given; hashing is done by the model.
+ */
+public interface UserRepository {
+
+    List<User> findAll();
+
+    User findById(int idUser);
+
+    /**
+     * Active user by username (login lookup)
+     */
+    User findActiveByUsername(String username);
+
+    /**
+     * Insert (idUser == 0, id is assigned on the user) or update. Updates never
+     * touch the password.
+     */
+    boolean save(User user);
+
+    boolean delete(int idUser);
+
+    boolean updatePassword(int idUser, String passwordHash);
+
+    /**
+     * Replace the password hash only if the stored hash is still oldHash
+     */
+    boolean replacePasswordHash(int idUser, String oldHash, String newHash);
+
+    /**
+     * Update last login and start the session
+     */
+    void recordLogin(User user);
+
+    void updateLastLogin(int idUser);
+
+    /**
+     * Active shifts ordered by start time
+     */
+    List<Shift> findActiveShifts();
+
+    Shift findShiftById(int idShift);
+
+    /**
+     * Insert shift, the id is assigned on the shift
+     */
+    boolean insertShift(Shift shift);
+
+    boolean updateShift(Shift shift);
+
+    /**
+     * Soft delete
+     */
+    boolean deactivateShift(int idShift);
+}
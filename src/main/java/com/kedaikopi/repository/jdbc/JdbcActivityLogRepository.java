@@ -0,0 +1,335 @@
+package com.kedaikopi.repository.jdbc;
+
+import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.model.UserActivityLog;
+import com.kedaikopi.repository.ActivityLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC Activity Log Repository - tbl_user_activity_log
+ */
+public class JdbcActivityLogRepository implements ActivityLogRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcActivityLogRepository.class);
+
+    private static final String SELECT_LOG = "SELECT " + Mappers.ACTIVITY_COLUMNS + " " +
+            "FROM tbl_user_activity_log a " +
+            "JOIN tbl_user u ON a.id_user = u.id_user ";
+
+    private static final String INTEGRITY_VIOLATION = "23"; // SQLState class
+
+    private final DatabaseConfig database;
+
+    public JdbcActivityLogRepository(DatabaseConfig database) {
+        this.database = database;
+    }
+
+    @Override
+    public boolean log(int idUser, String activityType, String note) {
+        String sql = "INSERT INTO tbl_user_activity_log " +
+                "(id_user, activity_type, session_note) " +
+                "VALUES (?, ?, ?)";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idUser);
+            stmt.setString(2, activityType);
+            stmt.setString(3, note);
+
+            int rows = stmt.executeUpdate();
+            logger.info("Activity logged: user_id={}, type={}, note={}", idUser, activityType, note);
+            return rows > 0;
+
+        } catch (SQLException e) {
+            logger.error("Error logging activity for user {}: {}", idUser, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public int logBatch(List<UserActivityLog> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO tbl_user_activity_log " +
+                "(id_user, activity_type, activity_time, session_note) VALUES ");
+        for (int i = 0; i < entries.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+        }
+
+        try (Connection conn = database.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                int index = 1;
+                for (UserActivityLog entry : entries) {
+                    index = bindEntry(stmt, index, entry);
+                }
+                return stmt.executeUpdate();
+            } catch (SQLException e) {
+                if (e.getSQLState() == null || !e.getSQLState().startsWith(INTEGRITY_VIOLATION)) {
+                    throw e;
+                }
+            }
+
+            // A row broke a constraint (user deleted meanwhile) - keep the others
+            int stored = 0;
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO tbl_user_activity_log " +
+                    "(id_user, activity_type, activity_time, session_note) VALUES (?, ?, ?, ?)")) {
+                for (UserActivityLog entry : entries) {
+                    bindEntry(stmt, 1, entry);
+                    try {
+                        stored += stmt.executeUpdate();
+                    } catch (SQLException e) {
+                        if (e.getSQLState() == null || !e.getSQLState().startsWith(INTEGRITY_VIOLATION)) {
+                            throw e;
+                        }
+                        logger.warn("Activity of user {} dropped: {}", entry.getUser().getIdUser(), e.getMessage());
+                    }
+                }
+            }
+            return stored;
+
+        } catch (SQLException e) {
+            logger.error("Error logging {} activities: {}", entries.size(), e.getMessage(), e);
+            return -1;
+        }
+    }
+
+    private static int bindEntry(PreparedStatement stmt, int index, UserActivityLog entry) throws SQLException {
+        stmt.setInt(index++, entry.getUser().getIdUser());
+        stmt.setString(index++, entry.getActivityType());
+        stmt.setTimestamp(index++, entry.getActivityTime());
+        stmt.setString(index++, entry.getSessionNote());
+        return index;
+    }
+
+    @Override
+    public List<UserActivityLog> findByDateRange(Date startDate, Date endDate) {
+        List<UserActivityLog> logs = new ArrayList<>();
+        String sql = SELECT_LOG +
+                "WHERE a.activity_time >= ? AND a.activity_time < CAST(? AS DATE) + 1 " +
+                "ORDER BY a.activity_time DESC";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, startDate);
+            stmt.setDate(2, endDate);
+            try (ResultSet rs = stmt.executeQuery()) {
+                logs.addAll(RowMapper.mapAll(rs, Mappers.ACTIVITY_LOG));
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error fetching activity logs by date range: {}", e.getMessage(), e);
+        }
+
+        return logs;
+    }
+
+    @Override
+    public List<UserActivityLog> findByUser(int idUser, Date startDate, Date endDate) {
+        List<UserActivityLog> logs = new ArrayList<>();
+        String sql = SELECT_LOG +
+                "WHERE a.id_user = ? AND a.activity_time >= ? AND a.activity_time < CAST(? AS DATE) + 1 " +
+                "ORDER BY a.activity_time DESC";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idUser);
+            stmt.setDate(2, startDate);
+            stmt.setDate(3, endDate);
+            try (ResultSet rs = stmt.executeQuery()) {
+                logs.addAll(RowMapper.mapAll(rs, Mappers.ACTIVITY_LOG));
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error fetching activity logs for user {}: {}", idUser, e.getMessage(), e);
+        }
+
+        return logs;
+    }
+
+    @Override
+    public List<UserActivityLog> findActiveSessions() {
+        List<UserActivityLog> sessions = new ArrayList<>();
+        String sql = "SELECT 0 AS id_activity, p.id_user, 'LOGIN' AS activity_type, p.login_time AS activity_time, " +
+                "p.terminal AS device_info, u.username, u.nama_lengkap, u.role " +
+                "FROM tbl_presence p " +
+                "JOIN tbl_user u ON p.id_user = u.id_user " +
+                "WHERE p.expires_at > CURRENT_TIMESTAMP " +
+                "ORDER BY p.login_time DESC";
+
+        try (Connection conn = database.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+
+            sessions.addAll(RowMapper.mapAll(rs, Mappers.ACTIVITY_LOG));
+
+        } catch (SQLException e) {
+            logger.error("Error fetching active sessions: {}", e.getMessage(), e);
+        }
+
+        return sessions;
+    }
+
+    @Override
+    public boolean heartbeat(UUID sessionKey, int idUser, String terminal, int ttlSeconds) {
+        String sql = "INSERT INTO tbl_presence (session_key, id_user, terminal, expires_at) " +
+                "VALUES (?, ?, ?, CURRENT_TIMESTAMP + make_interval(secs => ?)) " +
+                "ON CONFLICT (session_key) DO UPDATE SET expires_at = EXCLUDED.expires_at";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setObject(1, sessionKey);
+            stmt.setInt(2, idUser);
+            stmt.setString(3, terminal);
+            stmt.setInt(4, ttlSeconds);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            logger.error("Error renewing presence of user {}: {}", idUser, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public void endSession(UUID sessionKey) {
+        String sql = "DELETE FROM tbl_presence WHERE session_key = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setObject(1, sessionKey);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            logger.error("Error ending presence session: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int countOnline(String role) {
+        String sql = "SELECT COUNT(DISTINCT p.id_user) FROM tbl_presence p " +
+                "JOIN tbl_user u ON p.id_user = u.id_user " +
+                "WHERE p.expires_at > CURRENT_TIMESTAMP AND (CAST(? AS VARCHAR) IS NULL OR u.role = ?)";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, role);
+            stmt.setString(2, role);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error counting online users: {}", e.getMessage(), e);
+        }
+
+        return 0;
+    }
+
+    @Override
+    public int purgeExpiredPresence() {
+        String sql = "DELETE FROM tbl_presence WHERE expires_at <= CURRENT_TIMESTAMP";
+
+        try (Connection conn = database.getConnection();
+                Statement stmt = conn.createStatement()) {
+
+            return stmt.executeUpdate(sql);
+
+        } catch (SQLException e) {
+            logger.error("Error purging expired presence: {}", e.getMessage(), e);
+        }
+
+        return 0;
+    }
+
+    @Override
+    public List<UserActivityLog.InactiveEmployee> findInactiveEmployees(int daysThreshold) {
+        List<UserActivityLog.InactiveEmployee> inactive = new ArrayList<>();
+        String sql = "SELECT id_user, username, nama_lengkap, role, last_login, days_inactive " +
+                "FROM vw_inactive_employees " +
+                "WHERE days_inactive >= ? " +
+                "ORDER BY days_inactive DESC";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, daysThreshold);
+            try (ResultSet rs = stmt.executeQuery()) {
+                inactive.addAll(RowMapper.mapAll(rs, Mappers.INACTIVE_EMPLOYEE));
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error fetching inactive employees: {}", e.getMessage(), e);
+        }
+
+        return inactive;
+    }
+
+    @Override
+    public int countInactiveEmployees(int daysThreshold) {
+        String sql = "SELECT COUNT(*) FROM vw_inactive_employees WHERE days_inactive >= ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, daysThreshold);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error counting inactive employees: {}", e.getMessage(), e);
+        }
+
+        return 0;
+    }
+
+    @Override
+    public double getSessionDurationHours(int loginActivityId) {
+        String sql = "SELECT " +
+                "EXTRACT(EPOCH FROM (logout.activity_time - login.activity_time))/3600 as hours " +
+                "FROM tbl_user_activity_log login " +
+                "LEFT JOIN LATERAL ( " +
+                "    SELECT activity_time " +
+                "    FROM tbl_user_activity_log " +
+                "    WHERE id_user = login.id_user " +
+                "    AND activity_type = 'LOGOUT' " +
+                "    AND activity_time > login.activity_time " +
+                "    AND activity_time < CAST(login.activity_time AS DATE) + 1 " +
+                "    ORDER BY activity_time " +
+                "    LIMIT 1 " +
+                ") logout ON true " +
+                "WHERE login.id_activity = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, loginActivityId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getDouble("hours");
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error calculating session duration: {}", e.getMessage(), e);
+        }
+
+        return 0.0;
+    }
+}
@@ -0,0 +1,368 @@
+package com.kedaikopi.repository.jdbc;
+
+import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.model.Kategori;
+import com.kedaikopi.model.MenuKopi;
+import com.kedaikopi.repository.MenuRepository;
+import com.kedaikopi.util.Money;
+import com.kedaikopi.util.RateLimitedLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC Menu Repository - tbl_menu dan tbl_kategori
+ * Menus are read from v_menu (stock including the terminal stripes, see
+ * StockLedger).
+ */
+public class JdbcMenuRepository implements MenuRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcMenuRepository.class);
+    private static final RateLimitedLogger stockLog = new RateLimitedLogger(logger, 20, 60_000); // per sale line
+
+    private static final String SELECT_MENU = "SELECT " + Mappers.MENU_COLUMNS + " " +
+            "FROM v_menu m " +
+            "LEFT JOIN tbl_kategori k ON m.id_kategori = k.id_kategori ";
+
+    private final DatabaseConfig database;
+
+    public JdbcMenuRepository(DatabaseConfig database) {
+        this.database = database;
+    }
+
+    @Override
+    public List<MenuKopi> findAll() {
+        List<MenuKopi> menus = new ArrayList<>();
+        String sql = SELECT_MENU + "ORDER BY m.id_menu ASC";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql);
+                ResultSet rs = stmt.executeQuery()) {
+
+            menus.addAll(RowMapper.mapAll(rs, Mappers.MENU));
+
+        } catch (SQLException e) {
+            logger.error("Error getting all menu items", e);
+        }
+
+        return menus;
+    }
+
+    @Override
+    public List<MenuKopi> findAllActive() {
+        List<MenuKopi> menus = new ArrayList<>();
+        String sql = SELECT_MENU +
+                "WHERE m.is_active = true " +
+                "ORDER BY k.nama_kategori, m.nama_menu";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql);
+                ResultSet rs = stmt.executeQuery()) {
+
+            menus.addAll(RowMapper.mapAll(rs, Mappers.MENU));
+
+            logger.info("Loaded {} active menu items", menus.size());
+
+        } catch (SQLException e) {
+            logger.error("Error getting active menu items", e);
+        }
+
+        return menus;
+    }
+
+    @Override
+    public MenuKopi findById(int idMenu) {
+        String sql = SELECT_MENU + "WHERE m.id_menu = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idMenu);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return RowMapper.mapFirst(rs, Mappers.MENU);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error getting menu by ID: {}", idMenu, e);
+        }
+
+        return null;
+    }
+
+    @Override
+    public boolean save(MenuKopi menu) {
+        return menu.getIdMenu() == 0 ? insert(menu) : update(menu);
+    }
+
+    private boolean insert(MenuKopi menu) {
+        String sql = "INSERT INTO tbl_menu (nama_menu, id_kategori, harga, stok, image_path, deskripsi, is_active) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING id_menu";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindMenu(stmt, menu);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    menu.setIdMenu(rs.getInt(1));
+                    logger.info("Menu inserted: {}", menu.getNamaMenu());
+                    return true;
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error inserting menu: {}", menu.getNamaMenu(), e);
+        }
+
+        return false;
+    }
+
+    /**
+     * The stock given is the whole stock: stripes are dropped in the same
+     * transaction
+     */
+    private boolean update(MenuKopi menu) {
+        String sql = "UPDATE tbl_menu SET nama_menu = ?, id_kategori = ?, harga = ?, " +
+                "stok = ?, image_path = ?, deskripsi = ?, is_active = ? WHERE id_menu = ?";
+
+        try (Connection conn = database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                bindMenu(stmt, menu);
+                stmt.setInt(8, menu.getIdMenu());
+
+                if (stmt.executeUpdate() > 0) {
+                    StockLedger.clearStripes(conn, menu.getIdMenu());
+                    conn.commit();
+                    logger.info("Menu updated: {}", menu.getNamaMenu());
+                    return true;
+                }
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error updating menu: {}", menu.getNamaMenu(), e);
+        }
+
+        return false;
+    }
+
+    private static void bindMenu(PreparedStatement stmt, MenuKopi menu) throws SQLException {
+        stmt.setString(1, menu.getNamaMenu());
+        stmt.setInt(2, menu.getKategori().getIdKategori());
+        Money.setNumeric(stmt, 3, menu.getHargaSen());
+        stmt.setInt(4, menu.getStok());
+        stmt.setString(5, menu.getImagePath());
+        stmt.setString(6, menu.getDeskripsi());
+        stmt.setBoolean(7, menu.isActive());
+    }
+
+    @Override
+    public boolean delete(int idMenu) {
+        String sql = "DELETE FROM tbl_menu WHERE id_menu = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idMenu);
+            if (stmt.executeUpdate() > 0) {
+                logger.info("Menu deleted: {}", idMenu);
+                return true;
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error deleting menu: {}", idMenu, e);
+        }
+
+        return false;
+    }
+
+    @Override
+    public int reduceStock(int idMenu, int qty) {
+        try (Connection conn = database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                StockLedger.Taken taken = StockLedger.take(conn, null, idMenu, qty, false); // Every cart's hold stays
+                if (taken != null) {
+                    conn.commit();
+                    stockLog.info("Stock reduced for menu {}: -{}", idMenu, qty);
+                    return taken.stockLeft;
+                }
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            logger.warn("Insufficient stock for menu {}", idMenu);
+
+        } catch (SQLException e) {
+            logger.error("Error reducing stock for menu: {}", idMenu, e);
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int reserveStock(UUID cartKey, int idMenu, int qty, int ttlSeconds) {
+        try (Connection conn = database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int held = StockLedger.reserve(conn, cartKey, idMenu, qty, ttlSeconds);
+                conn.commit();
+                return held;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error reserving stock for menu: {}", idMenu, e);
+        }
+
+        return -1;
+    }
+
+    @Override
+    public void renewReservations(UUID cartKey, int ttlSeconds) {
+        String sql = "UPDATE tbl_stok_reservasi SET expires_at = CURRENT_TIMESTAMP + make_interval(secs => ?) " +
+                "WHERE cart_key = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, ttlSeconds);
+            stmt.setObject(2, cartKey);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            logger.error("Error renewing stock reservations of cart: {}", cartKey, e);
+        }
+    }
+
+    @Override
+    public void releaseReservations(UUID cartKey) {
+        try (Connection conn = database.getConnection()) {
+            StockLedger.releaseReservations(conn, cartKey);
+
+        } catch (SQLException e) {
+            logger.error("Error releasing stock reservations of cart: {}", cartKey, e);
+        }
+    }
+
+    @Override
+    public List<Kategori> findAllCategories() {
+        List<Kategori> categories = new ArrayList<>();
+        String sql = "SELECT " + Mappers.KATEGORI_COLUMNS + " FROM tbl_kategori ORDER BY id_kategori ASC";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql);
+                ResultSet rs = stmt.executeQuery()) {
+
+            categories.addAll(RowMapper.mapAll(rs, Mappers.KATEGORI));
+
+        } catch (SQLException e) {
+            logger.error("Error getting all categories", e);
+        }
+
+        return categories;
+    }
+
+    @Override
+    public Kategori findCategoryById(int idKategori) {
+        String sql = "SELECT " + Mappers.KATEGORI_COLUMNS + " FROM tbl_kategori WHERE id_kategori = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idKategori);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return RowMapper.mapFirst(rs, Mappers.KATEGORI);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error getting category by ID: {}", idKategori, e);
+        }
+
+        return null;
+    }
+
+    @Override
+    public boolean saveCategory(Kategori kategori) {
+        String iconName = kategori.getIconName() != null ? kategori.getIconName() : "category";
+
+        if (kategori.getIdKategori() == 0) {
+            String sql = "INSERT INTO tbl_kategori (nama_kategori, icon_name) VALUES (?, ?) RETURNING id_kategori";
+
+            try (Connection conn = database.getConnection();
+                    PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setString(1, kategori.getNamaKategori());
+                stmt.setString(2, iconName);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        kategori.setIdKategori(rs.getInt(1));
+                        logger.info("Category inserted: {}", kategori.getNamaKategori());
+                        return true;
+                    }
+                }
+
+            } catch (SQLException e) {
+                logger.error("Error inserting category: {}", kategori.getNamaKategori(), e);
+            }
+            return false;
+        }
+
+        String sql = "UPDATE tbl_kategori SET nama_kategori = ?, icon_name = ? WHERE id_kategori = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, kategori.getNamaKategori());
+            stmt.setString(2, iconName);
+            stmt.setInt(3, kategori.getIdKategori());
+
+            if (stmt.executeUpdate() > 0) {
+                logger.info("Category updated: {}", kategori.getNamaKategori());
+                return true;
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error updating category: {}", kategori.getNamaKategori(), e);
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean deleteCategory(int idKategori) {
+        String sql = "DELETE FROM tbl_kategori WHERE id_kategori = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idKategori);
+            if (stmt.executeUpdate() > 0) {
+                logger.info("Category deleted: {}", idKategori);
+                return true;
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error deleting category: {}", idKategori, e);
+        }
+
+        return false;
+    }
+}
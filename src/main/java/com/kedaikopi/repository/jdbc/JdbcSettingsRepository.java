@@ -0,0 +1,86 @@
+package com.kedaikopi.repository.jdbc;
+
+import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.repository.SettingsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC Settings Repository - tbl_app_settings
+ */
+public class JdbcSettingsRepository implements SettingsRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcSettingsRepository.class);
+
+    private final DatabaseConfig database;
+
+    public JdbcSettingsRepository(DatabaseConfig database) {
+        this.database = database;
+    }
+
+    @Override
+    public String get(String key) {
+        String sql = "SELECT setting_value FROM tbl_app_settings WHERE setting_key = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, key);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getString(1);
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error getting setting {}: {}", key, e.getMessage());
+        }
+
+        return null;
+    }
+
+    @Override
+    public Map<String, String> findAll() {
+        String sql = "SELECT setting_key, setting_value FROM tbl_app_settings";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql);
+                ResultSet rs = stmt.executeQuery()) {
+
+            Map<String, String> settings = new HashMap<>();
+            while (rs.next()) {
+                settings.put(rs.getString(1), rs.getString(2));
+            }
+            return settings;
+
+        } catch (SQLException e) {
+            logger.error("Error loading settings: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public boolean set(String key, String value) {
+        String sql = "INSERT INTO tbl_app_settings (setting_key, setting_value) " +
+                "VALUES (?, ?) " +
+                "ON CONFLICT (setting_key) DO UPDATE SET " +
+                "setting_value = EXCLUDED.setting_value, " +
+                "updated_at = CURRENT_TIMESTAMP";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, key);
+            stmt.setString(2, value);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            logger.error("Error setting {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package com.kedaikopi.repository.jdbc;
+
+import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.model.SaleLine;
+import com.kedaikopi.model.SaleRecord;
+import com.kedaikopi.model.TransaksiDetail;
+import com.kedaikopi.model.TransaksiHeader;
+import com.kedaikopi.repository.SaveResult;
+import com.kedaikopi.repository.TransactionRepository;
+import com.kedaikopi.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC Transaction Repository - tbl_transaksi_header dan tbl_transaksi_detail
+ */
+public class JdbcTransactionRepository implements TransactionRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcTransactionRepository.class);
+
+    private static final String SELECT_HEADER = "SELECT " + Mappers.HEADER_COLUMNS + ", u.username, u.nama_lengkap " +
+            "FROM tbl_transaksi_header th " +
+            "LEFT JOIN tbl_user u ON th.id_user = u.id_user ";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final DatabaseConfig database;
+
+    public JdbcTransactionRepository(DatabaseConfig database) {
+        this.database = database;
+    }
+
+    @Override
+    public SaveResult save(TransaksiHeader header, boolean allowShortStock) {
+        if (header.getClientKey() == null) {
+            header.setClientKey(UUID.randomUUID());
+        }
+
+        Connection conn = null;
+        try {
+            conn = database.getConnection();
+            conn.setAutoCommit(false); // Start transaction
+
+            Integer existing = findByClientKey(conn, header.getClientKey());
+            if (existing != null) {
+                conn.rollback();
+                return alreadySaved(header, existing);
+            }
+
+            int[] stockLeft = insert(conn, header, allowShortStock);
+            if (stockLeft == null) {
+                conn.rollback();
+                return SaveResult.shortStock();
+            }
+
+            conn.commit(); // Commit transaction
+            logger.info("Transaction saved successfully. ID: {}, Total: Rp{}, Items: {}",
+                    header.getIdTransaksiHeader(), Money.toBigDecimal(header.getTotalHargaSen()),
+                    header.getDetails().size());
+            return SaveResult.saved(header.getIdTransaksiHeader(), stockLeft);
+
+        } catch (SQLException e) {
+            rollback(conn);
+            header.setIdTransaksiHeader(0);
+            if (UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                // A concurrent attempt with the same key committed first
+                try {
+                    Integer existing = findByClientKey(conn, header.getClientKey());
+                    if (existing != null) {
+                        return alreadySaved(header, existing);
+                    }
+                } catch (SQLException ex) {
+                    logger.warn("Cannot look up sale {}: {}", header.getClientKey(), ex.getMessage());
+                }
+            }
+            logger.error("SQL Error saving transaction - Code: {}, State: {}, Message: {}",
+                    e.getErrorCode(), e.getSQLState(), e.getMessage(), e);
+            return isRetryable(e) ? SaveResult.failed() : SaveResult.invalid();
+        } finally {
+            release(conn);
+        }
+    }
+
+    /**
+     * Errors a later attempt may not hit: connection (08), transaction
+     * rollback such as deadlock or serialization (40), lock not available
+     * (55), resources (53), operator intervention (57), system errors (58, XX).
+     * Anything else (data, constraint, ...) is about the sale itself.
+     */
+    private static boolean isRetryable(SQLException e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        if (state == null || state.length() < 2) {
+            return true;
+        }
+        switch (state.substring(0, 2)) {
+            case "08":
+            case "40":
+            case "53":
+            case "55":
+            case "57":
+            case "58":
+            case "XX":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static SaveResult alreadySaved(TransaksiHeader header, int idTransaksiHeader) {
+        header.setIdTransaksiHeader(idTransaksiHeader);
+        logger.info("Sale {} already stored as transaction {}", header.getClientKey(), idTransaksiHeader);
+        return SaveResult.alreadySaved(idTransaksiHeader);
+    }
+
+    /**
+     * Id of the stored sale with this client key, or null
+     */
+    private Integer findByClientKey(Connection conn, UUID clientKey) throws SQLException {
+        String sql = "SELECT id_transaksi_header FROM tbl_transaksi_header WHERE client_key = ? LIMIT 1";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setObject(1, clientKey);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Insert header + details, reduce stock and drop the cart's reservations
+     * inside the caller's transaction.
+     * The generated id is set on the header (callers reset it on rollback).
+     *
+     * @return stock left per detail line, or null when a line is short on stock
+     *         (caller rolls back)
+     */
+    private int[] insert(Connection conn, TransaksiHeader header, boolean allowShortStock) throws SQLException {
+        List<TransaksiDetail> details = header.getDetails();
+        if (header.getTanggal() == null) {
+            header.setTanggal(new Timestamp(System.currentTimeMillis())); // Partition key
+        }
+
+        logger.debug("Starting transaction save - User ID: {}, Total: {}, Items: {}",
+                header.getIdUser(), Money.toBigDecimal(header.getTotalHargaSen()), details.size());
+
+        // Insert header - Match user's ACTUAL database schema
+        String headerSql = "INSERT INTO tbl_transaksi_header (id_user, tanggal, total_harga, pajak, grand_total, uang_bayar, kembalian, nama_kasir, status, metode_pembayaran, client_key) "
+                +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id_transaksi_header";
+
+        int idTransaksiHeader;
+        try (PreparedStatement headerStmt = conn.prepareStatement(headerSql)) {
+            headerStmt.setInt(1, header.getIdUser());
+            headerStmt.setTimestamp(2, header.getTanggal());
+            Money.setNumeric(headerStmt, 3, header.getTotalHargaSen());
+            Money.setNumeric(headerStmt, 4, header.getPajakSen()); // pajak
+            Money.setNumeric(headerStmt, 5, header.getGrandTotalSen()); // grand_total
+            Money.setNumeric(headerStmt, 6, header.getTunaiSen()); // uang_bayar
+            Money.setNumeric(headerStmt, 7, header.getKembalianSen());
+            headerStmt.setString(8, header.getUser() != null ? header.getUser().getNamaLengkap() : "Unknown"); // nama_kasir
+            headerStmt.setString(9, "completed"); // status
+            headerStmt.setString(10, header.getMetodePembayaran() != null ? header.getMetodePembayaran() : "Cash");
+            headerStmt.setObject(11, header.getClientKey()); // Unique: a retry fails instead of selling twice
+
+            try (ResultSet rs = headerStmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Failed to insert transaction header - no ID returned");
+                }
+                idTransaksiHeader = rs.getInt(1);
+            }
+        }
+        logger.debug("Transaction header inserted successfully - ID: {}", idTransaksiHeader);
+
+        // Stock is taken first so nama_menu (required by the detail row) comes
+        // back with it; menus in ascending id so concurrent sales lock in the
+        // same order (see StockLedger)
+        Integer[] order = new Integer[details.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> details.get(i).getIdMenu()));
+
+        int[] stockLeft = new int[details.size()];
+        String[] namaMenu = new String[details.size()];
+        for (int i : order) {
+            TransaksiDetail detail = details.get(i);
+            StockLedger.Taken taken = StockLedger.take(conn, header.getReservationKey(), detail.getIdMenu(),
+                    detail.getQty(), allowShortStock);
+            if (taken != null) {
+                namaMenu[i] = taken.namaMenu;
+                stockLeft[i] = taken.stockLeft;
+            } else if (allowShortStock && detail.getMenu() != null) {
+                // Menu deleted meanwhile - keep the sale with the name it was sold under
+                namaMenu[i] = detail.getMenu().getNamaMenu();
+                stockLeft[i] = 0;
+                logger.warn("Menu {} no longer exists, sale line kept without stock", detail.getIdMenu());
+            } else {
+                logger.error("Menu not found or insufficient stock - ID: {}, Requested: {}",
+                        detail.getIdMenu(), detail.getQty());
+                return null;
+            }
+        }
+
+        // tanggal repeats the header's so detail rows land in the same month partition
+        String detailSql = "INSERT INTO tbl_transaksi_detail (id_transaksi_header, id_menu, nama_menu, harga, qty, subtotal, tanggal) "
+                +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement detailStmt = conn.prepareStatement(detailSql)) {
+            for (int i = 0; i < details.size(); i++) {
+                TransaksiDetail detail = details.get(i);
+
+                detailStmt.setInt(1, idTransaksiHeader);
+                detailStmt.setInt(2, detail.getIdMenu());
+                detailStmt.setString(3, namaMenu[i]);
+                Money.setNumeric(detailStmt, 4, detail.getHargaSatuanSen()); // Column name is 'harga' in database
+                detailStmt.setInt(5, detail.getQty());
+                Money.setNumeric(detailStmt, 6, detail.getSubtotalSen());
+                detailStmt.setTimestamp(7, header.getTanggal());
+                detailStmt.addBatch();
+
+                logger.debug("Added detail to batch - Menu: {}, Qty: {}, Stock left: {}",
+                        namaMenu[i], detail.getQty(), stockLeft[i]);
+            }
+
+            int[] batchResults = detailStmt.executeBatch();
+            logger.debug("Transaction details inserted - {} rows affected", batchResults.length);
+        }
+
+        // The stock the cart held is now sold
+        if (header.getReservationKey() != null) {
+            StockLedger.releaseReservations(conn, header.getReservationKey());
+        }
+
+        header.setIdTransaksiHeader(idTransaksiHeader);
+        return stockLeft;
+    }
+
+    private static void rollback(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+                logger.info("Transaction rolled back");
+            } catch (SQLException ex) {
+                logger.error("Error rolling back transaction", ex);
+            }
+        }
+    }
+
+    private static void release(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.setAutoCommit(true);
+                conn.close();
+            } catch (SQLException e) {
+                logger.error("Error closing connection", e);
+            }
+        }
+    }
+
+    @Override
+    public List<TransaksiHeader> findAll() {
+        return findHeaders(SELECT_HEADER + "ORDER BY th.tanggal DESC", "Error getting all transactions");
+    }
+
+    @Override
+    public List<TransaksiHeader> findToday() {
+        return findHeaders(SELECT_HEADER + "WHERE th.tanggal >= CURRENT_DATE AND th.tanggal < CURRENT_DATE + 1 " +
+                "ORDER BY th.tanggal DESC",
+                "Error getting today's transactions");
+    }
+
+    private List<TransaksiHeader> findHeaders(String sql, String errorMessage) {
+        List<TransaksiHeader> transactions = new ArrayList<>();
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql);
+                ResultSet rs = stmt.executeQuery()) {
+
+            transactions.addAll(RowMapper.mapAll(rs, Mappers.TRANSAKSI_HEADER));
+
+        } catch (SQLException e) {
+            logger.error(errorMessage, e);
+        }
+
+        return transactions;
+    }
+
+    @Override
+    public TransaksiHeader findById(int idTransaksiHeader) {
+        String sql = SELECT_HEADER + "WHERE th.id_transaksi_header = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idTransaksiHeader);
+            TransaksiHeader header;
+            try (ResultSet rs = stmt.executeQuery()) {
+                header = RowMapper.mapFirst(rs, Mappers.TRANSAKSI_HEADER);
+            }
+            if (header != null) {
+                header.setDetails(findDetails(conn, idTransaksiHeader, header.getTanggal()));
+            }
+            return header;
+
+        } catch (SQLException e) {
+            logger.error("Error getting transaction by ID: {}", idTransaksiHeader, e);
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<TransaksiDetail> findDetails(int idTransaksiHeader) {
+        try (Connection conn = database.getConnection()) {
+            return findDetails(conn, idTransaksiHeader, null);
+        } catch (SQLException e) {
+            logger.error("Error getting transaction details for header: {}", idTransaksiHeader, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Details of one transaction; with the header's tanggal only its month
+     * partition is searched
+     */
+    private List<TransaksiDetail> findDetails(Connection conn, int idTransaksiHeader, Timestamp tanggal)
+            throws SQLException {
+        String sql = "SELECT " + Mappers.DETAIL_COLUMNS + ", k.nama_kategori " +
+                "FROM tbl_transaksi_detail td " +
+                "LEFT JOIN tbl_menu m ON td.id_menu = m.id_menu " +
+                "LEFT JOIN tbl_kategori k ON m.id_kategori = k.id_kategori " +
+                "WHERE td.id_transaksi_header = ? " +
+                (tanggal != null ? "AND td.tanggal = ? " : "") +
+                "ORDER BY td.id_transaksi_detail ASC";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, idTransaksiHeader);
+            if (tanggal != null) {
+                stmt.setTimestamp(2, tanggal);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return RowMapper.mapAll(rs, Mappers.TRANSAKSI_DETAIL);
+            }
+        }
+    }
+
+    @Override
+    public List<SaleRecord> findSaleRecords(Timestamp from, Integer idUser) {
+        String sql = "SELECT " + Mappers.SALE_RECORD_COLUMNS + ", u.username, u.nama_lengkap, u.role " +
+                "FROM tbl_transaksi_header th " +
+                "LEFT JOIN tbl_user u ON th.id_user = u.id_user " +
+                saleFilter(from, idUser) +
+                "ORDER BY th.tanggal DESC";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindSaleFilter(stmt, from, idUser);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return RowMapper.mapAll(rs, Mappers.SALE_RECORD);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error getting sale records", e);
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public List<SaleLine> findSaleLines(Timestamp from, Integer idUser) {
+        String sql = "SELECT " + Mappers.SALE_LINE_COLUMNS + " " +
+                "FROM tbl_transaksi_detail td " +
+                "JOIN tbl_transaksi_header th ON td.id_transaksi_header = th.id_transaksi_header " +
+                "    AND td.tanggal = th.tanggal " +
+                saleFilter(from, idUser) +
+                (from != null ? "AND td.tanggal >= ? " : "") +
+                "ORDER BY td.nama_menu";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = bindSaleFilter(stmt, from, idUser);
+            if (from != null) {
+                stmt.setTimestamp(index, from); // Prunes detail partitions too
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return RowMapper.mapAll(rs, Mappers.SALE_LINE);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error getting sale lines", e);
+            return new ArrayList<>();
+        }
+    }
+
+    private static String saleFilter(Timestamp from, Integer idUser) {
+        if (from == null && idUser == null) {
+            return "";
+        }
+        if (from == null) {
+            return "WHERE th.id_user = ? ";
+        }
+        return idUser == null ? "WHERE th.tanggal >= ? " : "WHERE th.tanggal >= ? AND th.id_user = ? ";
+    }
+
+    /**
+     * @return next parameter index
+     */
+    private static int bindSaleFilter(PreparedStatement stmt, Timestamp from, Integer idUser) throws SQLException {
+        int index = 1;
+        if (from != null) {
+            stmt.setTimestamp(index++, from);
+        }
+        if (idUser != null) {
+            stmt.setInt(index++, idUser);
+        }
+        return index;
+    }
+}
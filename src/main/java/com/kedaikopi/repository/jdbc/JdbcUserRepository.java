@@ -0,0 +1,344 @@
+package com.kedaikopi.repository.jdbc;
+
+import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.model.Shift;
+import com.kedaikopi.model.User;
+import com.kedaikopi.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC User Repository - tbl_user dan tbl_shift
+ */
+public class JdbcUserRepository implements UserRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcUserRepository.class);
+
+    private final DatabaseConfig database;
+
+    public JdbcUserRepository(DatabaseConfig database) {
+        this.database = database;
+    }
+
+    @Override
+    public List<User> findAll() {
+        List<User> users = new ArrayList<>();
+        String sql = "SELECT " + Mappers.USER_COLUMNS + " FROM tbl_user ORDER BY id_user ASC";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql);
+                ResultSet rs = stmt.executeQuery()) {
+
+            users.addAll(RowMapper.mapAll(rs, Mappers.USER));
+
+        } catch (SQLException e) {
+            logger.error("Error getting all users", e);
+        }
+
+        return users;
+    }
+
+    @Override
+    public User findById(int idUser) {
+        String sql = "SELECT " + Mappers.USER_COLUMNS + " FROM tbl_user WHERE id_user = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idUser);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return RowMapper.mapFirst(rs, Mappers.USER);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error getting user by ID: {}", idUser, e);
+        }
+
+        return null;
+    }
+
+    @Override
+    public User findActiveByUsername(String username) {
+        String sql = "SELECT " + Mappers.USER_COLUMNS + " FROM tbl_user WHERE username = ? AND is_active = TRUE";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return RowMapper.mapFirst(rs, Mappers.USER);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error getting user by username: {}", username, e);
+        }
+
+        return null;
+    }
+
+    @Override
+    public boolean save(User user) {
+        return user.getIdUser() == 0 ? insert(user) : update(user);
+    }
+
+    private boolean insert(User user) {
+        String sql = "INSERT INTO tbl_user (username, password, role, nama_lengkap, is_active, assigned_shift_id, base_salary) "
+                +
+                "VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING id_user";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, user.getUsername());
+            stmt.setString(2, user.getPassword());
+            stmt.setString(3, user.getRole());
+            stmt.setString(4, user.getNamaLengkap());
+            stmt.setBoolean(5, user.isActive());
+            setShiftId(stmt, 6, user.getAssignedShiftId());
+            stmt.setDouble(7, user.getBaseSalary());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    user.setIdUser(rs.getInt(1));
+                    logger.info("User inserted successfully: {}", user.getUsername());
+                    return true;
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error inserting user: {}", user.getUsername(), e);
+        }
+
+        return false;
+    }
+
+    private boolean update(User user) {
+        String sql = "UPDATE tbl_user SET username = ?, role = ?, nama_lengkap = ?, is_active = ?, assigned_shift_id = ?, base_salary = ? "
+                +
+                "WHERE id_user = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, user.getUsername());
+            stmt.setString(2, user.getRole());
+            stmt.setString(3, user.getNamaLengkap());
+            stmt.setBoolean(4, user.isActive());
+            setShiftId(stmt, 5, user.getAssignedShiftId());
+            stmt.setDouble(6, user.getBaseSalary());
+            stmt.setInt(7, user.getIdUser());
+
+            if (stmt.executeUpdate() > 0) {
+                logger.info("User updated successfully: {}", user.getUsername());
+                return true;
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error updating user: {}", user.getUsername(), e);
+        }
+
+        return false;
+    }
+
+    private static void setShiftId(PreparedStatement stmt, int index, Integer shiftId) throws SQLException {
+        if (shiftId != null) {
+            stmt.setInt(index, shiftId);
+        } else {
+            stmt.setNull(index, Types.INTEGER);
+        }
+    }
+
+    @Override
+    public boolean delete(int idUser) {
+        return executeUpdate("DELETE FROM tbl_user WHERE id_user = ?", "Error deleting user: {}", idUser);
+    }
+
+    @Override
+    public boolean updatePassword(int idUser, String passwordHash) {
+        String sql = "UPDATE tbl_user SET password = ? WHERE id_user = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, passwordHash);
+            stmt.setInt(2, idUser);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            logger.error("Error changing password for user: {}", idUser, e);
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean replacePasswordHash(int idUser, String oldHash, String newHash) {
+        String sql = "UPDATE tbl_user SET password = ? WHERE id_user = ? AND password = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, newHash);
+            stmt.setInt(2, idUser);
+            stmt.setString(3, oldHash);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            logger.error("Error upgrading password hash for user: {}", idUser, e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Update last login and start session (fn_start_session) in one round trip.
+     * Falls back to last login only if session tracking fails.
+     */
+    @Override
+    public void recordLogin(User user) {
+        String sql = "WITH upd AS (" +
+                "UPDATE tbl_user SET last_login = CURRENT_TIMESTAMP WHERE id_user = ? RETURNING id_user" +
+                ") SELECT fn_start_session(?, ?, ?, ?) FROM upd";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, user.getIdUser());
+            stmt.setInt(2, user.getIdUser());
+            stmt.setString(3, user.getUsername());
+            stmt.setString(4, user.getNamaLengkap());
+            stmt.setString(5, user.getRole());
+            stmt.executeQuery().close();
+            logger.info("Session started for user: {}", user.getUsername());
+
+        } catch (SQLException e) {
+            // Don't fail login if session tracking fails
+            logger.warn("Failed to start session for user: {}, continuing anyway", user.getUsername(), e);
+            updateLastLogin(user.getIdUser());
+        }
+    }
+
+    @Override
+    public void updateLastLogin(int idUser) {
+        executeUpdate("UPDATE tbl_user SET last_login = CURRENT_TIMESTAMP WHERE id_user = ?",
+                "Error updating last login for user: {}", idUser);
+    }
+
+    @Override
+    public List<Shift> findActiveShifts() {
+        List<Shift> shifts = new ArrayList<>();
+        String sql = "SELECT " + Mappers.SHIFT_COLUMNS + " FROM tbl_shift WHERE is_active = true ORDER BY start_time";
+
+        try (Connection conn = database.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+
+            shifts.addAll(RowMapper.mapAll(rs, Mappers.SHIFT));
+
+        } catch (SQLException e) {
+            logger.error("Error getting shifts: {}", e.getMessage(), e);
+        }
+
+        return shifts;
+    }
+
+    @Override
+    public Shift findShiftById(int idShift) {
+        String sql = "SELECT " + Mappers.SHIFT_COLUMNS + " FROM tbl_shift WHERE id_shift = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idShift);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return RowMapper.mapFirst(rs, Mappers.SHIFT);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error getting shift {}: {}", idShift, e.getMessage(), e);
+        }
+
+        return null;
+    }
+
+    @Override
+    public boolean insertShift(Shift shift) {
+        String sql = "INSERT INTO tbl_shift (shift_name, start_time, end_time, color_code) " +
+                "VALUES (?, ?, ?, ?) RETURNING id_shift";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, shift.getShiftName());
+            stmt.setTime(2, shift.getStartTime());
+            stmt.setTime(3, shift.getEndTime());
+            stmt.setString(4, shift.getColorCode());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    shift.setIdShift(rs.getInt(1));
+                    logger.info("Shift created: {}", shift.getShiftName());
+                    return true;
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error saving shift: {}", e.getMessage(), e);
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean updateShift(Shift shift) {
+        String sql = "UPDATE tbl_shift SET shift_name = ?, start_time = ?, " +
+                "end_time = ?, color_code = ? WHERE id_shift = ?";
+
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, shift.getShiftName());
+            stmt.setTime(2, shift.getStartTime());
+            stmt.setTime(3, shift.getEndTime());
+            stmt.setString(4, shift.getColorCode());
+            stmt.setInt(5, shift.getIdShift());
+
+            if (stmt.executeUpdate() > 0) {
+                logger.info("Shift updated: {}", shift.getShiftName());
+                return true;
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error updating shift: {}", e.getMessage(), e);
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean deactivateShift(int idShift) {
+        return executeUpdate("UPDATE tbl_shift SET is_active = false WHERE id_shift = ?",
+                "Error deleting shift: {}", idShift);
+    }
+
+    /**
+     * Single-id UPDATE/DELETE
+     */
+    private boolean executeUpdate(String sql, String errorMessage, int id) {
+        try (Connection conn = database.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            logger.error(errorMessage, id, e);
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,404 @@
+package com.kedaikopi.repository.jdbc;
+
+import com.kedaikopi.model.Kategori;
+import com.kedaikopi.model.MenuKopi;
+import com.kedaikopi.model.SaleLine;
+import com.kedaikopi.model.SaleRecord;
+import com.kedaikopi.model.Shift;
+import com.kedaikopi.model.TransaksiDetail;
+import com.kedaikopi.model.TransaksiHeader;
+import com.kedaikopi.model.User;
+import com.kedaikopi.model.UserActivityLog;
+import com.kedaikopi.model.UserRef;
+import com.kedaikopi.util.Money;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.kedaikopi.repository.jdbc.ResultColumns.ABSENT;
+
+/**
+ * Mappers - row mapper untuk entity
+ * Column lists to select live next to the mappers so queries and mapping stay
+ * in sync. Joined columns (kategori, user) are optional: a query that leaves
+ * them out simply gets a partial relation instead of an exception per row.
+ * Relations are shared per id within one result, so a long report holds one
+ * Kategori / User per id rather than one per row.
+ */
+public final class Mappers {
+
+    private Mappers() {
+    }
+
+    public static final String MENU_COLUMNS = "m.id_menu, m.nama_menu, m.id_kategori, m.harga, m.stok, "
+            + "m.image_path, m.deskripsi, m.is_active, m.created_at, m.updated_at, k.nama_kategori, k.icon_name";
+
+    public static final RowMapper.Factory<MenuKopi> MENU = columns -> {
+        int idMenu = columns.require("id_menu");
+        int namaMenu = columns.require("nama_menu");
+        int idKategori = columns.require("id_kategori");
+        int harga = columns.require("harga");
+        int stok = columns.require("stok");
+        int imagePath = columns.find("image_path");
+        int deskripsi = columns.find("deskripsi");
+        int isActive = columns.find("is_active");
+        int createdAt = columns.find("created_at");
+        int updatedAt = columns.find("updated_at");
+        int namaKategori = columns.find("nama_kategori");
+        int iconName = columns.find("icon_name");
+        Map<Integer, Kategori> kategoriById = new HashMap<>();
+
+        return rs -> {
+            MenuKopi menu = new MenuKopi();
+            menu.setIdMenu(rs.getInt(idMenu));
+            menu.setNamaMenu(rs.getString(namaMenu));
+
+            // One Kategori per id within the result (same join, same values)
+            Kategori kategori = kategoriById.get(rs.getInt(idKategori));
+            if (kategori == null) {
+                kategori = new Kategori();
+                kategori.setIdKategori(rs.getInt(idKategori));
+                if (namaKategori != ABSENT) {
+                    kategori.setNamaKategori(rs.getString(namaKategori));
+                }
+                if (iconName != ABSENT) {
+                    kategori.setIconName(rs.getString(iconName));
+                }
+                kategoriById.put(kategori.getIdKategori(), kategori);
+            }
+            menu.setKategori(kategori);
+
+            menu.setHargaSen(Money.getNumeric(rs, harga));
+            menu.setStok(rs.getInt(stok));
+            if (imagePath != ABSENT) {
+                menu.setImagePath(rs.getString(imagePath));
+            }
+            if (deskripsi != ABSENT) {
+                menu.setDeskripsi(rs.getString(deskripsi));
+            }
+            menu.setActive(isActive == ABSENT || rs.getBoolean(isActive));
+            if (createdAt != ABSENT) {
+                menu.setCreatedAt(rs.getTimestamp(createdAt));
+            }
+            if (updatedAt != ABSENT) {
+                menu.setUpdatedAt(rs.getTimestamp(updatedAt));
+            }
+            return menu;
+        };
+    };
+
+    public static final String KATEGORI_COLUMNS = "id_kategori, nama_kategori, icon_name, created_at";
+
+    public static final RowMapper.Factory<Kategori> KATEGORI = columns -> {
+        int idKategori = columns.require("id_kategori");
+        int namaKategori = columns.require("nama_kategori");
+        int iconName = columns.find("icon_name");
+        int createdAt = columns.find("created_at");
+
+        return rs -> {
+            Kategori kategori = new Kategori(rs.getString(namaKategori));
+            kategori.setIdKategori(rs.getInt(idKategori));
+            if (iconName != ABSENT) {
+                kategori.setIconName(rs.getString(iconName));
+            }
+            if (createdAt != ABSENT) {
+                kategori.setCreatedAt(rs.getTimestamp(createdAt));
+            }
+            return kategori;
+        };
+    };
+
+    public static final String HEADER_COLUMNS = "th.id_transaksi_header, th.id_user, th.tanggal, th.total_harga, "
+            + "th.pajak, th.grand_total, th.uang_bayar, th.kembalian, th.metode_pembayaran, th.nama_kasir, "
+            + "th.created_at";
+
+    /**
+     * Transaction header; user from u.username / u.nama_lengkap when joined,
+     * otherwise from th.nama_kasir
+     */
+    public static final RowMapper.Factory<TransaksiHeader> TRANSAKSI_HEADER = columns -> {
+        int id = columns.require("id_transaksi_header");
+        int idUser = columns.require("id_user");
+        int tanggal = columns.require("tanggal");
+        int totalHarga = columns.require("total_harga");
+        int pajak = columns.require("pajak");
+        int grandTotal = columns.require("grand_total");
+        int uangBayar = columns.require("uang_bayar");
+        int kembalian = columns.require("kembalian");
+        int metode = columns.find("metode_pembayaran");
+        int createdAt = columns.find("created_at");
+        int username = columns.find("username");
+        int namaLengkap = columns.find("nama_lengkap");
+        int namaKasir = columns.find("nama_kasir");
+        Map<Integer, User> userById = new HashMap<>();
+
+        return rs -> {
+            TransaksiHeader header = new TransaksiHeader();
+            header.setIdTransaksiHeader(rs.getInt(id));
+            header.setIdUser(rs.getInt(idUser));
+            header.setTanggal(rs.getTimestamp(tanggal));
+            header.setTotalHargaSen(Money.getNumeric(rs, totalHarga));
+            header.setPajakSen(Money.getNumeric(rs, pajak));
+            header.setGrandTotalSen(Money.getNumeric(rs, grandTotal));
+            header.setTunaiSen(Money.getNumeric(rs, uangBayar));
+            header.setKembalianSen(Money.getNumeric(rs, kembalian));
+            if (metode != ABSENT) {
+                header.setMetodePembayaran(rs.getString(metode));
+            }
+            if (createdAt != ABSENT) {
+                header.setCreatedAt(rs.getTimestamp(createdAt));
+            }
+
+            // nama_kasir may differ per row for a deleted user, so share only joined users
+            User user = namaLengkap != ABSENT ? userById.get(header.getIdUser()) : null;
+            if (user == null) {
+                user = new User();
+                user.setIdUser(header.getIdUser());
+                if (username != ABSENT) {
+                    user.setUsername(rs.getString(username));
+                }
+                String nama = namaLengkap != ABSENT ? rs.getString(namaLengkap) : null;
+                if (nama != null) {
+                    userById.put(user.getIdUser(), user);
+                } else if (namaKasir != ABSENT) {
+                    nama = rs.getString(namaKasir);
+                }
+                user.setNamaLengkap(nama);
+            }
+            header.setUser(user);
+            return header;
+        };
+    };
+
+    public static final String DETAIL_COLUMNS = "td.id_transaksi_detail, td.id_transaksi_header, td.id_menu, "
+            + "td.nama_menu, td.harga, td.qty, td.subtotal, td.created_at";
+
+    /**
+     * Transaction line; the menu carries the name and price at the time of
+     * sale, plus k.nama_kategori when joined
+     */
+    public static final RowMapper.Factory<TransaksiDetail> TRANSAKSI_DETAIL = columns -> {
+        int id = columns.require("id_transaksi_detail");
+        int idHeader = columns.require("id_transaksi_header");
+        int idMenu = columns.require("id_menu");
+        int namaMenu = columns.find("nama_menu");
+        int harga = columns.require("harga");
+        int qty = columns.require("qty");
+        int subtotal = columns.require("subtotal");
+        int createdAt = columns.find("created_at");
+        int namaKategori = columns.find("nama_kategori");
+
+        return rs -> {
+            TransaksiDetail detail = new TransaksiDetail(rs.getInt(idMenu), rs.getInt(qty),
+                    Money.getNumeric(rs, harga));
+            detail.setIdTransaksiDetail(rs.getInt(id));
+            detail.setIdTransaksiHeader(rs.getInt(idHeader));
+            detail.setSubtotalSen(Money.getNumeric(rs, subtotal));
+            if (createdAt != ABSENT) {
+                detail.setCreatedAt(rs.getTimestamp(createdAt));
+            }
+
+            MenuKopi menu = new MenuKopi();
+            menu.setIdMenu(detail.getIdMenu());
+            menu.setHargaSen(detail.getHargaSatuanSen());
+            if (namaMenu != ABSENT) {
+                menu.setNamaMenu(rs.getString(namaMenu));
+            }
+            if (namaKategori != ABSENT) {
+                menu.getKategori().setNamaKategori(rs.getString(namaKategori));
+            }
+            detail.setMenu(menu);
+            return detail;
+        };
+    };
+
+    public static final String SALE_RECORD_COLUMNS = "th.id_transaksi_header, th.id_user, th.tanggal, "
+            + "th.total_harga, th.pajak, th.grand_total, th.uang_bayar, th.kembalian, th.metode_pembayaran, "
+            + "th.nama_kasir";
+
+    /**
+     * Compact sale record; kasir from u.username / u.nama_lengkap / u.role
+     * when joined, otherwise from th.nama_kasir, always as a shared UserRef
+     */
+    public static final RowMapper.Factory<SaleRecord> SALE_RECORD = columns -> {
+        int id = columns.require("id_transaksi_header");
+        int idUser = columns.require("id_user");
+        int tanggal = columns.require("tanggal");
+        int totalHarga = columns.require("total_harga");
+        int pajak = columns.require("pajak");
+        int grandTotal = columns.require("grand_total");
+        int uangBayar = columns.require("uang_bayar");
+        int kembalian = columns.require("kembalian");
+        int metode = columns.find("metode_pembayaran");
+        int username = columns.find("username");
+        int namaLengkap = columns.find("nama_lengkap");
+        int role = columns.find("role");
+        int namaKasir = columns.find("nama_kasir");
+
+        return rs -> {
+            int user = rs.getInt(idUser);
+            String nama = namaLengkap != ABSENT ? rs.getString(namaLengkap) : null;
+            if (nama == null && namaKasir != ABSENT) {
+                nama = rs.getString(namaKasir);
+            }
+            UserRef kasir = UserRef.of(user, username != ABSENT ? rs.getString(username) : null, nama,
+                    role != ABSENT ? rs.getString(role) : null);
+
+            Timestamp time = rs.getTimestamp(tanggal);
+            return new SaleRecord(rs.getInt(id), time != null ? time.getTime() : 0, kasir,
+                    Money.getNumeric(rs, totalHarga), Money.getNumeric(rs, pajak),
+                    Money.getNumeric(rs, grandTotal), Money.getNumeric(rs, uangBayar),
+                    Money.getNumeric(rs, kembalian), metode != ABSENT ? rs.getString(metode) : null);
+        };
+    };
+
+    public static final String SALE_LINE_COLUMNS = "td.id_transaksi_header, td.id_menu, td.nama_menu, td.harga, "
+            + "td.qty, td.subtotal";
+
+    public static final RowMapper.Factory<SaleLine> SALE_LINE = columns -> {
+        int idHeader = columns.require("id_transaksi_header");
+        int idMenu = columns.require("id_menu");
+        int namaMenu = columns.find("nama_menu");
+        int harga = columns.require("harga");
+        int qty = columns.require("qty");
+        int subtotal = columns.require("subtotal");
+
+        return rs -> new SaleLine(rs.getInt(idHeader), rs.getInt(idMenu),
+                namaMenu != ABSENT ? rs.getString(namaMenu) : null, Money.getNumeric(rs, harga),
+                rs.getInt(qty), Money.getNumeric(rs, subtotal));
+    };
+
+    public static final String USER_COLUMNS = "id_user, username, password, role, nama_lengkap, is_active, "
+            + "last_login, created_at, assigned_shift_id, base_salary";
+
+    public static final RowMapper.Factory<User> USER = columns -> {
+        int idUser = columns.require("id_user");
+        int username = columns.require("username");
+        int password = columns.find("password");
+        int role = columns.require("role");
+        int namaLengkap = columns.require("nama_lengkap");
+        int isActive = columns.find("is_active");
+        int lastLogin = columns.find("last_login");
+        int createdAt = columns.find("created_at");
+        int shiftId = columns.find("assigned_shift_id");
+        int baseSalary = columns.find("base_salary");
+
+        return rs -> {
+            User user = new User();
+            user.setIdUser(rs.getInt(idUser));
+            user.setUsername(rs.getString(username));
+            if (password != ABSENT) {
+                user.setPassword(rs.getString(password));
+            }
+            user.setRole(rs.getString(role));
+            user.setNamaLengkap(rs.getString(namaLengkap));
+            user.setActive(isActive == ABSENT || rs.getBoolean(isActive));
+            if (lastLogin != ABSENT) {
+                user.setLastLogin(rs.getTimestamp(lastLogin));
+            }
+            if (createdAt != ABSENT) {
+                user.setCreatedAt(rs.getTimestamp(createdAt));
+            }
+            if (shiftId != ABSENT) {
+                user.setAssignedShiftId(RowMapper.getInteger(rs, shiftId));
+            }
+            if (baseSalary != ABSENT) {
+                user.setBaseSalary(rs.getDouble(baseSalary));
+            }
+            return user;
+        };
+    };
+
+    public static final String SHIFT_COLUMNS = "id_shift, shift_name, start_time, end_time, color_code, "
+            + "is_active, created_at";
+
+    public static final RowMapper.Factory<Shift> SHIFT = columns -> {
+        int idShift = columns.require("id_shift");
+        int shiftName = columns.require("shift_name");
+        int startTime = columns.require("start_time");
+        int endTime = columns.require("end_time");
+        int colorCode = columns.find("color_code");
+        int isActive = columns.find("is_active");
+        int createdAt = columns.find("created_at");
+
+        return rs -> {
+            Shift shift = new Shift(rs.getInt(idShift), rs.getString(shiftName), rs.getTime(startTime),
+                    rs.getTime(endTime), colorCode != ABSENT ? rs.getString(colorCode) : null);
+            shift.setActive(isActive == ABSENT || rs.getBoolean(isActive));
+            if (createdAt != ABSENT) {
+                shift.setCreatedAt(rs.getTimestamp(createdAt));
+            }
+            return shift;
+        };
+    };
+
+    public static final String ACTIVITY_COLUMNS = "a.id_activity, a.id_user, a.activity_type, a.activity_time, "
+            + "a.ip_address, a.device_info, a.session_note, u.username, u.nama_lengkap, u.role";
+
+    public static final RowMapper.Factory<UserActivityLog> ACTIVITY_LOG = columns -> {
+        int idActivity = columns.require("id_activity");
+        int idUser = columns.require("id_user");
+        int activityType = columns.require("activity_type");
+        int activityTime = columns.require("activity_time");
+        int ipAddress = columns.find("ip_address");
+        int deviceInfo = columns.find("device_info");
+        int sessionNote = columns.find("session_note");
+        int username = columns.find("username");
+        int namaLengkap = columns.find("nama_lengkap");
+        int role = columns.find("role");
+        Map<Integer, User> userById = new HashMap<>();
+
+        return rs -> {
+            User user = userById.get(rs.getInt(idUser));
+            if (user == null) {
+                user = new User();
+                user.setIdUser(rs.getInt(idUser));
+                if (username != ABSENT) {
+                    user.setUsername(rs.getString(username));
+                }
+                if (namaLengkap != ABSENT) {
+                    user.setNamaLengkap(rs.getString(namaLengkap));
+                }
+                if (role != ABSENT) {
+                    user.setRole(rs.getString(role));
+                }
+                userById.put(user.getIdUser(), user);
+            }
+
+            UserActivityLog log = new UserActivityLog(user, rs.getString(activityType));
+            log.setIdActivity(rs.getInt(idActivity));
+            log.setActivityTime(rs.getTimestamp(activityTime));
+            if (ipAddress != ABSENT) {
+                log.setIpAddress(rs.getString(ipAddress));
+            }
+            if (deviceInfo != ABSENT) {
+                log.setDeviceInfo(rs.getString(deviceInfo));
+            }
+            if (sessionNote != ABSENT) {
+                log.setSessionNote(rs.getString(sessionNote));
+            }
+            return log;
+        };
+    };
+
+    public static final RowMapper.Factory<UserActivityLog.InactiveEmployee> INACTIVE_EMPLOYEE = columns -> {
+        int idUser = columns.require("id_user");
+        int username = columns.require("username");
+        int namaLengkap = columns.require("nama_lengkap");
+        int role = columns.require("role");
+        int lastLogin = columns.require("last_login");
+        int daysInactive = columns.require("days_inactive");
+
+        return rs -> {
+            UserActivityLog.InactiveEmployee ie = new UserActivityLog.InactiveEmployee();
+            ie.idUser = rs.getInt(idUser);
+            ie.username = rs.getString(username);
+            ie.namaLengkap = rs.getString(namaLengkap);
+            ie.role = rs.getString(role);
+            ie.lastLogin = rs.getTimestamp(lastLogin);
+            ie.daysInactive = rs.getInt(daysInactive);
+            return ie;
+        };
+    };
+}
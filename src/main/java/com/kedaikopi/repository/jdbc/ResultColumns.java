@@ -0,0 +1,59 @@
+package com.kedaikopi.repository.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Result Columns - posisi kolom sebuah ResultSet
+ * Read once from the metadata so mappers can bind labels to indexes before
+ * the first row. Labels are case-insensitive; with duplicate labels (e.g.
+ * td.harga and m.harga) the first one wins, same as ResultSet.findColumn.
+ */
+public final class ResultColumns {
+
+    /**
+     * Index returned by find() for a column that is not in the result
+     */
+    public static final int ABSENT = 0;
+
+    private final Map<String, Integer> indexes;
+
+    private ResultColumns(Map<String, Integer> indexes) {
+        this.indexes = indexes;
+    }
+
+    public static ResultColumns of(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int count = meta.getColumnCount();
+        Map<String, Integer> indexes = new HashMap<>(count * 2);
+        for (int i = 1; i <= count; i++) {
+            indexes.putIfAbsent(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        return new ResultColumns(indexes);
+    }
+
+    /**
+     * Index of a column the query must return
+     *
+     * @throws SQLException when the column is missing
+     */
+    public int require(String label) throws SQLException {
+        Integer index = indexes.get(label.toLowerCase(Locale.ROOT));
+        if (index == null) {
+            throw new SQLException("Column not in result: " + label);
+        }
+        return index;
+    }
+
+    /**
+     * Index of an optional column, or ABSENT
+     */
+    public int find(String label) {
+        Integer index = indexes.get(label.toLowerCase(Locale.ROOT));
+        return index != null ? index : ABSENT;
+    }
+}
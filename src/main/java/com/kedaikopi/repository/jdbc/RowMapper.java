@@ -0,0 +1,68 @@
+package com.kedaikopi.repository.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Row Mapper - mapping satu baris ResultSet ke object
+ * A mapper is compiled per ResultSet: its Factory resolves every column index
+ * once from the metadata, then map() reads by index only (no label lookup,
+ * no try/catch for optional columns).
+ *
+ * <pre>
+ * static final RowMapper.Factory&lt;Kategori&gt; KATEGORI = columns -&gt; {
+ *     int id = columns.require("id_kategori");
+ *     int icon = columns.find("icon_name");
+ *     return rs -&gt; ...;
+ * };
+ * List&lt;Kategori&gt; list = RowMapper.mapAll(rs, KATEGORI);
+ * </pre>
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Map the current row
+     */
+    T map(ResultSet rs) throws SQLException;
+
+    /**
+     * Builds a mapper for one result shape
+     */
+    @FunctionalInterface
+    interface Factory<T> {
+        RowMapper<T> compile(ResultColumns columns) throws SQLException;
+    }
+
+    /**
+     * Map every remaining row
+     */
+    static <T> List<T> mapAll(ResultSet rs, Factory<T> factory) throws SQLException {
+        RowMapper<T> mapper = factory.compile(ResultColumns.of(rs));
+        List<T> rows = new ArrayList<>();
+        while (rs.next()) {
+            rows.add(mapper.map(rs));
+        }
+        return rows;
+    }
+
+    /**
+     * Map the next row, or null when there is none
+     */
+    static <T> T mapFirst(ResultSet rs, Factory<T> factory) throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        return factory.compile(ResultColumns.of(rs)).map(rs);
+    }
+
+    /**
+     * Nullable INTEGER column
+     */
+    static Integer getInteger(ResultSet rs, int index) throws SQLException {
+        int value = rs.getInt(index);
+        return rs.wasNull() ? null : value;
+    }
+}
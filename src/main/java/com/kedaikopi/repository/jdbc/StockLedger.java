@@ -0,0 +1,394 @@
+package com.kedaikopi.repository.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stock Ledger - stok menu dengan sub-counter per terminal (striped)
+ *
+ * - Stok sebuah menu = tbl_menu.stok (cadangan) + jumlah tbl_menu_stok_stripe
+ * - Setiap terminal punya stripe sendiri; penjualan cukup mengurangi stripe itu,
+ *   jadi kasir lain yang menjual menu yang sama tidak antre di baris tbl_menu
+ * - Stripe yang kurang diisi ulang dari cadangan (baris tbl_menu dikunci
+ *   sebentar); bila cadangan juga kurang, stripe terminal lain ikut dikumpulkan
+ * - Stripe tidak pernah negatif (CHECK), jadi penjualan tidak pernah oversell
+ * - Stripe yang menganggur dikembalikan ke tbl_menu.stok (compactIdle)
+ * - Keranjang yang masih terbuka menahan stok di tbl_stok_reservasi; penjualan
+ *   mengubah reservasinya menjadi pengurangan stok dalam transaksi yang sama
+ *
+ * Lock order, which keeps concurrent sales deadlock-free: menus by ascending
+ * id (callers take their lines in that order), and within one menu the
+ * tbl_menu row before any stripe. The fast path holds only its own stripe and
+ * never waits for anything else of that menu. Readers use view v_menu, where
+ * stok is already the sum.
+ *
+ * Reservations are serialized per menu with a transaction-level advisory lock,
+ * not the tbl_menu row, so holding stock for a cart never waits on a refill.
+ * A sale takes the same lock and leaves what other carts hold: it may only
+ * use its own cart's hold and the free stock.
+ *
+ * Requires database_stock_ledger.sql and database_stock_reservation.sql.
+ */
+public final class StockLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedger.class);
+
+    static final int STRIPES = 8;
+    private static final int MAX_REFILL = 20;
+    private static final int HOME_STRIPE = homeStripe();
+    private static final int RESERVATION_LOCK = 0x4B4B5253; // advisory lock class, second key is id_menu
+
+    // Own stripe only; the sum is read without locks (stock left for the events)
+    private static final String TAKE_FROM_STRIPE = "UPDATE tbl_menu_stok_stripe s " +
+            "SET qty = s.qty - ?, updated_at = CURRENT_TIMESTAMP " +
+            "FROM tbl_menu m " +
+            "WHERE m.id_menu = s.id_menu AND s.id_menu = ? AND s.stripe = ? AND s.qty >= ? " +
+            "RETURNING m.nama_menu, m.stok + s.qty + COALESCE((SELECT SUM(o.qty) FROM tbl_menu_stok_stripe o " +
+            "WHERE o.id_menu = s.id_menu AND o.stripe <> s.stripe), 0)";
+
+    private StockLedger() {
+    }
+
+    /**
+     * Stock taken for one sale line
+     */
+    static final class Taken {
+        final String namaMenu;
+        final int stockLeft;
+
+        Taken(String namaMenu, int stockLeft) {
+            this.namaMenu = namaMenu;
+            this.stockLeft = stockLeft;
+        }
+    }
+
+    /**
+     * Take qty of a menu inside the caller's transaction, leaving the stock
+     * other carts hold. With allowShortStock the stock stops at 0 instead of
+     * refusing the sale (holds are not checked: the sale was handed over).
+     *
+     * @param cartKey reservation key of the selling cart (its own hold may be
+     *                used), null when no cart holds anything for this sale
+     * @return name and stock left, or null when the menu does not exist or is
+     *         short on stock (caller rolls back)
+     */
+    static Taken take(Connection conn, UUID cartKey, int idMenu, int qty, boolean allowShortStock)
+            throws SQLException {
+        if (allowShortStock) {
+            return takeStock(conn, idMenu, qty, true);
+        }
+        int heldByOthers = heldByOthers(conn, cartKey, idMenu);
+        Taken taken = takeStock(conn, idMenu, qty, false);
+        if (taken != null && taken.stockLeft < heldByOthers) {
+            logger.warn("Stock of menu {} held by other carts - Requested: {}, Free: {}", idMenu, qty,
+                    Math.max(taken.stockLeft + qty - heldByOthers, 0));
+            return null;
+        }
+        return taken;
+    }
+
+    /**
+     * Lock the menu's reservations (until commit) and sum the live holds of
+     * every cart except cartKey
+     */
+    private static int heldByOthers(Connection conn, UUID cartKey, int idMenu) throws SQLException {
+        lockReservations(conn, idMenu);
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COALESCE(SUM(qty), 0) FROM tbl_stok_reservasi " +
+                "WHERE id_menu = ? AND cart_key IS DISTINCT FROM ? AND expires_at > CURRENT_TIMESTAMP")) {
+            stmt.setInt(1, idMenu);
+            stmt.setObject(2, cartKey, Types.OTHER);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static void lockReservations(Connection conn, int idMenu) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_advisory_xact_lock(?, ?)")) {
+            stmt.setInt(1, RESERVATION_LOCK);
+            stmt.setInt(2, idMenu);
+            stmt.executeQuery().close();
+        }
+    }
+
+    private static Taken takeStock(Connection conn, int idMenu, int qty, boolean allowShortStock)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(TAKE_FROM_STRIPE)) {
+            stmt.setInt(1, qty);
+            stmt.setInt(2, idMenu);
+            stmt.setInt(3, HOME_STRIPE);
+            stmt.setInt(4, qty);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new Taken(rs.getString(1), rs.getInt(2));
+                }
+            }
+        }
+        return refill(conn, idMenu, qty, allowShortStock);
+    }
+
+    /**
+     * Slow path: own stripe is short. Refill it from the reserve, collecting
+     * the other stripes only when the reserve is short too.
+     */
+    private static Taken refill(Connection conn, int idMenu, int qty, boolean allowShortStock) throws SQLException {
+        String namaMenu;
+        int reserve;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT nama_menu, stok FROM tbl_menu WHERE id_menu = ? FOR NO KEY UPDATE")) {
+            stmt.setInt(1, idMenu);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                namaMenu = rs.getString(1);
+                reserve = rs.getInt(2);
+            }
+        }
+
+        int own = lockOwnStripe(conn, idMenu);
+        int others;
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COALESCE(SUM(qty), 0) " +
+                "FROM tbl_menu_stok_stripe WHERE id_menu = ? AND stripe <> ?")) {
+            stmt.setInt(1, idMenu);
+            stmt.setInt(2, HOME_STRIPE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                others = rs.getInt(1); // Not locked, only used for sizing and the stock left
+            }
+        }
+
+        int pool = reserve + own - qty;
+        if (pool < 0) {
+            // Reserve is short too - gather every stripe of this menu
+            others = collectOtherStripes(conn, idMenu);
+            pool += others;
+            others = 0;
+            if (pool < 0) {
+                if (!allowShortStock) {
+                    logger.warn("Insufficient stock for menu {} - Requested: {}, Available: {}",
+                            idMenu, qty, pool + qty);
+                    return null;
+                }
+                pool = 0;
+            }
+        }
+
+        int refill = Math.min(pool, Math.min(MAX_REFILL, (pool + others) / (STRIPES * 2)));
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE tbl_menu SET stok = ? WHERE id_menu = ?")) {
+            stmt.setInt(1, pool - refill);
+            stmt.setInt(2, idMenu);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO tbl_menu_stok_stripe (id_menu, stripe, qty) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (id_menu, stripe) DO UPDATE SET qty = EXCLUDED.qty, " +
+                        "updated_at = CURRENT_TIMESTAMP")) {
+            stmt.setInt(1, idMenu);
+            stmt.setInt(2, HOME_STRIPE);
+            stmt.setInt(3, refill);
+            stmt.executeUpdate();
+        }
+
+        logger.debug("Stripe {} of menu {} refilled with {}, reserve {}", HOME_STRIPE, idMenu, refill,
+                pool - refill);
+        return new Taken(namaMenu, pool + others);
+    }
+
+    /**
+     * Lock the own stripe and return its quantity (0 when it has none yet)
+     */
+    private static int lockOwnStripe(Connection conn, int idMenu) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT qty FROM tbl_menu_stok_stripe WHERE id_menu = ? AND stripe = ? FOR UPDATE")) {
+            stmt.setInt(1, idMenu);
+            stmt.setInt(2, HOME_STRIPE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Empty the other stripes of a menu (waits for sales holding them)
+     *
+     * @return quantity collected
+     */
+    private static int collectOtherStripes(Connection conn, int idMenu) throws SQLException {
+        int collected = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM tbl_menu_stok_stripe WHERE id_menu = ? AND stripe <> ? RETURNING qty")) {
+            stmt.setInt(1, idMenu);
+            stmt.setInt(2, HOME_STRIPE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    collected += rs.getInt(1);
+                }
+            }
+        }
+        return collected;
+    }
+
+    /**
+     * Drop the stripes of a menu whose tbl_menu.stok was just set to an
+     * absolute value (caller's transaction, after the tbl_menu update)
+     */
+    static void clearStripes(Connection conn, int idMenu) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM tbl_menu_stok_stripe WHERE id_menu = ?")) {
+            stmt.setInt(1, idMenu);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Fold stripes untouched for idleSeconds back into tbl_menu.stok, one menu
+     * per transaction. Menus that a sale is refilling right now are skipped.
+     *
+     * @return number of menus compacted
+     */
+    public static int compactIdle(Connection conn, int idleSeconds) throws SQLException {
+        List<Integer> idMenus = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT DISTINCT id_menu FROM tbl_menu_stok_stripe " +
+                "WHERE updated_at < CURRENT_TIMESTAMP - make_interval(secs => ?)")) {
+            stmt.setInt(1, idleSeconds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    idMenus.add(rs.getInt(1));
+                }
+            }
+        }
+
+        int compacted = 0;
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement lock = conn.prepareStatement(
+                "SELECT 1 FROM tbl_menu WHERE id_menu = ? FOR NO KEY UPDATE SKIP LOCKED");
+                PreparedStatement fold = conn.prepareStatement("WITH folded AS (" +
+                        "DELETE FROM tbl_menu_stok_stripe WHERE id_menu = ? " +
+                        "AND updated_at < CURRENT_TIMESTAMP - make_interval(secs => ?) RETURNING qty) " +
+                        "UPDATE tbl_menu SET stok = stok + (SELECT COALESCE(SUM(qty), 0) FROM folded) " +
+                        "WHERE id_menu = ?")) {
+            for (int idMenu : idMenus) {
+                lock.setInt(1, idMenu);
+                boolean locked;
+                try (ResultSet rs = lock.executeQuery()) {
+                    locked = rs.next();
+                }
+                if (locked) {
+                    fold.setInt(1, idMenu);
+                    fold.setInt(2, idleSeconds);
+                    fold.setInt(3, idMenu);
+                    fold.executeUpdate();
+                    compacted++;
+                }
+                conn.commit();
+            }
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return compacted;
+    }
+
+    /**
+     * Hold qty of a menu for a cart inside the caller's transaction, limited to
+     * what the other carts' live reservations leave free
+     *
+     * @return quantity held (0 releases the cart's line)
+     */
+    static int reserve(Connection conn, UUID cartKey, int idMenu, int qty, int ttlSeconds) throws SQLException {
+        lockReservations(conn, idMenu);
+
+        int free = 0;
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT v.stok - COALESCE((SELECT SUM(r.qty) " +
+                "FROM tbl_stok_reservasi r WHERE r.id_menu = v.id_menu AND r.cart_key <> ? " +
+                "AND r.expires_at > CURRENT_TIMESTAMP), 0) FROM v_menu v WHERE v.id_menu = ?")) {
+            stmt.setObject(1, cartKey);
+            stmt.setInt(2, idMenu);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    free = rs.getInt(1); // Negative when stock was lowered under the holds
+                }
+            }
+        }
+
+        int held = Math.max(Math.min(qty, free), 0);
+        if (held == 0) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "DELETE FROM tbl_stok_reservasi WHERE cart_key = ? AND id_menu = ?")) {
+                stmt.setObject(1, cartKey);
+                stmt.setInt(2, idMenu);
+                stmt.executeUpdate();
+            }
+        } else {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO tbl_stok_reservasi (cart_key, id_menu, qty, expires_at) " +
+                            "VALUES (?, ?, ?, CURRENT_TIMESTAMP + make_interval(secs => ?)) " +
+                            "ON CONFLICT (cart_key, id_menu) DO UPDATE SET qty = EXCLUDED.qty, " +
+                            "expires_at = EXCLUDED.expires_at")) {
+                stmt.setObject(1, cartKey);
+                stmt.setInt(2, idMenu);
+                stmt.setInt(3, held);
+                stmt.setInt(4, ttlSeconds);
+                stmt.executeUpdate();
+            }
+        }
+        if (held < qty) {
+            logger.info("Menu {} short for cart {} - Requested: {}, Held: {}", idMenu, cartKey, qty, held);
+        }
+        return held;
+    }
+
+    /**
+     * Drop the reservations of a cart; inside a sale's transaction this turns
+     * them into the stock just taken
+     */
+    static void releaseReservations(Connection conn, UUID cartKey) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM tbl_stok_reservasi WHERE cart_key = ?")) {
+            stmt.setObject(1, cartKey);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Delete reservations past their expiry (they no longer count anyway)
+     *
+     * @return number of reservations deleted
+     */
+    public static int purgeExpiredReservations(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM tbl_stok_reservasi WHERE expires_at <= CURRENT_TIMESTAMP")) {
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Stripe of this terminal: -Dkedaikopi.stock.stripe, else from the host
+     * name (terminals that happen to share a stripe still stay exact)
+     */
+    private static int homeStripe() {
+        Integer configured = Integer.getInteger("kedaikopi.stock.stripe");
+        if (configured != null) {
+            return Math.floorMod(configured, STRIPES);
+        }
+        try {
+            return Math.floorMod(InetAddress.getLocalHost().getHostName().hashCode(), STRIPES);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.kedaikopi.repository.memory;
+
+import com.kedaikopi.model.User;
+import com.kedaikopi.model.UserActivityLog;
+import com.kedaikopi.repository.ActivityLogRepository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-Memory Activity Log Repository - untuk benchmark dan test tanpa PostgreSQL
+ */
+public class InMemoryActivityLogRepository implements ActivityLogRepository {
+
+    private final InMemoryUserRepository users;
+    private final List<UserActivityLog> logs = new ArrayList<>(); // oldest first
+    private final Map<UUID, Presence> presence = new HashMap<>(); // session -> live presence
+    private int nextId = 1;
+
+    public InMemoryActivityLogRepository(InMemoryUserRepository users) {
+        this.users = users;
+    }
+
+    @Override
+    public synchronized boolean log(int idUser, String activityType, String note) {
+        User user = users.findById(idUser);
+        if (user == null) {
+            return false; // Same as the foreign key on id_user
+        }
+
+        UserActivityLog log = new UserActivityLog(user, activityType);
+        log.setIdActivity(nextId++);
+        log.setActivityTime(new Timestamp(System.currentTimeMillis()));
+        log.setSessionNote(note);
+        logs.add(log);
+        return true;
+    }
+
+    @Override
+    public synchronized int logBatch(List<UserActivityLog> entries) {
+        int stored = 0;
+        for (UserActivityLog entry : entries) {
+            if (log(entry.getUser().getIdUser(), entry.getActivityType(), entry.getSessionNote())) {
+                logs.get(logs.size() - 1).setActivityTime(entry.getActivityTime());
+                stored++;
+            }
+        }
+        return stored;
+    }
+
+    @Override
+    public synchronized List<UserActivityLog> findByDateRange(Date startDate, Date endDate) {
+        return find(0, startDate.toLocalDate(), endDate.toLocalDate());
+    }
+
+    @Override
+    public synchronized List<UserActivityLog> findByUser(int idUser, Date startDate, Date endDate) {
+        return find(idUser, startDate.toLocalDate(), endDate.toLocalDate());
+    }
+
+    /**
+     * Newest first, idUser 0 = all users
+     */
+    private List<UserActivityLog> find(int idUser, LocalDate start, LocalDate end) {
+        List<UserActivityLog> result = new ArrayList<>();
+        for (int i = logs.size() - 1; i >= 0; i--) {
+            UserActivityLog log = logs.get(i);
+            LocalDate day = dayOf(log);
+            if ((idUser == 0 || log.getUser().getIdUser() == idUser)
+                    && !day.isBefore(start) && !day.isAfter(end)) {
+                result.add(copy(log));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<UserActivityLog> findActiveSessions() {
+        long now = System.currentTimeMillis();
+        List<UserActivityLog> sessions = new ArrayList<>();
+
+        for (Presence session : presence.values()) {
+            User user = users.findById(session.idUser);
+            if (user != null && session.expiresAt > now) {
+                UserActivityLog login = new UserActivityLog(user, "LOGIN");
+                login.setActivityTime(session.loginTime);
+                login.setDeviceInfo(session.terminal);
+                sessions.add(login);
+            }
+        }
+        sessions.sort((a, b) -> b.getActivityTime().compareTo(a.getActivityTime()));
+        return sessions;
+    }
+
+    @Override
+    public synchronized boolean heartbeat(UUID sessionKey, int idUser, String terminal, int ttlSeconds) {
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000L;
+        Presence session = presence.get(sessionKey);
+        if (session == null) {
+            if (users.findById(idUser) == null) {
+                return false; // Same as the foreign key on id_user
+            }
+            session = new Presence(idUser, terminal, new Timestamp(System.currentTimeMillis()));
+            presence.put(sessionKey, session);
+        }
+        session.expiresAt = expiresAt;
+        return true;
+    }
+
+    @Override
+    public synchronized void endSession(UUID sessionKey) {
+        presence.remove(sessionKey);
+    }
+
+    @Override
+    public synchronized int countOnline(String role) {
+        long now = System.currentTimeMillis();
+        Set<Integer> online = new HashSet<>();
+        for (Presence session : presence.values()) {
+            if (session.expiresAt > now && !online.contains(session.idUser)) {
+                User user = users.findById(session.idUser);
+                if (user != null && (role == null || role.equals(user.getRole()))) {
+                    online.add(session.idUser);
+                }
+            }
+        }
+        return online.size();
+    }
+
+    @Override
+    public synchronized int purgeExpiredPresence() {
+        long now = System.currentTimeMillis();
+        int before = presence.size();
+        presence.values().removeIf(session -> session.expiresAt <= now);
+        return before - presence.size();
+    }
+
+    @Override
+    public synchronized double getSessionDurationHours(int loginActivityId) {
+        for (int i = 0; i < logs.size(); i++) {
+            if (logs.get(i).getIdActivity() == loginActivityId) {
+                UserActivityLog logout = findLogoutAfter(i);
+                if (logout == null) {
+                    return 0.0;
+                }
+                long millis = logout.getActivityTime().getTime() - logs.get(i).getActivityTime().getTime();
+                return millis / 3_600_000.0;
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * First logout of the same user on the same day after the login at index
+     */
+    private UserActivityLog findLogoutAfter(int loginIndex) {
+        UserActivityLog login = logs.get(loginIndex);
+        for (int i = loginIndex + 1; i < logs.size(); i++) {
+            UserActivityLog log = logs.get(i);
+            if ("LOGOUT".equals(log.getActivityType())
+                    && log.getUser().getIdUser() == login.getUser().getIdUser()
+                    && dayOf(log).equals(dayOf(login))) {
+                return log;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Approximates vw_inactive_employees: active users by days since their
+     * last login (or since creation when they never logged in)
+     */
+    @Override
+    public List<UserActivityLog.InactiveEmployee> findInactiveEmployees(int daysThreshold) {
+        LocalDate today = LocalDate.now();
+        List<UserActivityLog.InactiveEmployee> inactive = new ArrayList<>();
+
+        for (User user : users.findAll()) {
+            Timestamp since = user.getLastLogin() != null ? user.getLastLogin() : user.getCreatedAt();
+            if (!user.isActive() || since == null) {
+                continue;
+            }
+
+            int days = (int) ChronoUnit.DAYS.between(since.toLocalDateTime().toLocalDate(), today);
+            if (days >= daysThreshold) {
+                UserActivityLog.InactiveEmployee ie = new UserActivityLog.InactiveEmployee();
+                ie.idUser = user.getIdUser();
+                ie.username = user.getUsername();
+                ie.namaLengkap = user.getNamaLengkap();
+                ie.role = user.getRole();
+                ie.lastLogin = user.getLastLogin();
+                ie.daysInactive = days;
+                inactive.add(ie);
+            }
+        }
+
+        inactive.sort((a, b) -> Integer.compare(b.daysInactive, a.daysInactive));
+        return inactive;
+    }
+
+    @Override
+    public int countInactiveEmployees(int daysThreshold) {
+        return findInactiveEmployees(daysThreshold).size();
+    }
+
+    private static final class Presence {
+        final int idUser;
+        final String terminal;
+        final Timestamp loginTime;
+        long expiresAt;
+
+        Presence(int idUser, String terminal, Timestamp loginTime) {
+            this.idUser = idUser;
+            this.terminal = terminal;
+            this.loginTime = loginTime;
+        }
+    }
+
+    private static LocalDate dayOf(UserActivityLog log) {
+        return log.getActivityTime().toLocalDateTime().toLocalDate();
+    }
+
+    private static UserActivityLog copy(UserActivityLog source) {
+        User user = new User();
+        user.setIdUser(source.getUser().getIdUser());
+        user.setUsername(source.getUser().getUsername());
+        user.setNamaLengkap(source.getUser().getNamaLengkap());
+        user.setRole(source.getUser().getRole());
+
+        UserActivityLog log = new UserActivityLog(user, source.getActivityType());
+        log.setIdActivity(source.getIdActivity());
+        log.setActivityTime(source.getActivityTime());
+        log.setIpAddress(source.getIpAddress());
+        log.setDeviceInfo(source.getDeviceInfo());
+        log.setSessionNote(source.getSessionNote());
+        return log;
+    }
+}
@@ -0,0 +1,287 @@
+package com.kedaikopi.repository.memory;
+
+import com.kedaikopi.model.Kategori;
+import com.kedaikopi.model.MenuKopi;
+import com.kedaikopi.repository.MenuRepository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * In-Memory Menu Repository - untuk benchmark dan test tanpa PostgreSQL
+ * Stores copies, so callers never share instances with the store (same as
+ * rows coming back from a database).
+ */
+public class InMemoryMenuRepository implements MenuRepository {
+
+    private static final Comparator<MenuKopi> ACTIVE_ORDER = Comparator
+            .comparing((MenuKopi m) -> m.getKategori().getNamaKategori(),
+                    Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(MenuKopi::getNamaMenu, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Map<Integer, MenuKopi> menus = new TreeMap<>();
+    private final Map<Integer, Kategori> categories = new TreeMap<>();
+    private final Map<UUID, Map<Integer, Reservation>> reservations = new HashMap<>(); // cart -> id_menu -> hold
+    private int nextMenuId = 1;
+    private int nextKategoriId = 1;
+
+    @Override
+    public synchronized List<MenuKopi> findAll() {
+        List<MenuKopi> result = new ArrayList<>(menus.size());
+        for (MenuKopi menu : menus.values()) {
+            result.add(copy(menu));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<MenuKopi> findAllActive() {
+        List<MenuKopi> result = new ArrayList<>();
+        for (MenuKopi menu : menus.values()) {
+            if (menu.isActive()) {
+                result.add(copy(menu));
+            }
+        }
+        result.sort(ACTIVE_ORDER);
+        return result;
+    }
+
+    @Override
+    public synchronized MenuKopi findById(int idMenu) {
+        MenuKopi menu = menus.get(idMenu);
+        return menu != null ? copy(menu) : null;
+    }
+
+    @Override
+    public synchronized boolean save(MenuKopi menu) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        MenuKopi stored = copy(menu);
+
+        if (menu.getIdMenu() == 0) {
+            menu.setIdMenu(nextMenuId++);
+            stored.setIdMenu(menu.getIdMenu());
+            stored.setCreatedAt(now);
+        } else {
+            MenuKopi existing = menus.get(menu.getIdMenu());
+            if (existing == null) {
+                return false;
+            }
+            stored.setCreatedAt(existing.getCreatedAt());
+        }
+        stored.setUpdatedAt(now);
+        menus.put(stored.getIdMenu(), stored);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean delete(int idMenu) {
+        return menus.remove(idMenu) != null;
+    }
+
+    @Override
+    public synchronized int reduceStock(int idMenu, int qty) {
+        return reduceStock(null, idMenu, qty);
+    }
+
+    /**
+     * Reduce stock, leaving what carts other than cartKey hold
+     *
+     * @return stock left, or -1 when short
+     */
+    private int reduceStock(UUID cartKey, int idMenu, int qty) {
+        MenuKopi menu = menus.get(idMenu);
+        if (menu == null || menu.getStok() - heldByOthers(cartKey, idMenu) < qty) {
+            return -1;
+        }
+        menu.setStok(menu.getStok() - qty);
+        return menu.getStok();
+    }
+
+    private int heldByOthers(UUID cartKey, int idMenu) {
+        long now = System.currentTimeMillis();
+        int held = 0;
+        for (Map.Entry<UUID, Map<Integer, Reservation>> cart : reservations.entrySet()) {
+            Reservation other = cart.getValue().get(idMenu);
+            if (other != null && !cart.getKey().equals(cartKey) && other.expiresAt > now) {
+                held += other.qty;
+            }
+        }
+        return held;
+    }
+
+    @Override
+    public synchronized int reserveStock(UUID cartKey, int idMenu, int qty, int ttlSeconds) {
+        long now = System.currentTimeMillis();
+        MenuKopi menu = menus.get(idMenu);
+        int free = (menu != null ? menu.getStok() : 0) - heldByOthers(cartKey, idMenu);
+
+        int held = Math.max(Math.min(qty, free), 0);
+        Map<Integer, Reservation> cart = reservations.computeIfAbsent(cartKey, k -> new HashMap<>());
+        if (held == 0) {
+            cart.remove(idMenu);
+            if (cart.isEmpty()) {
+                reservations.remove(cartKey);
+            }
+        } else {
+            cart.put(idMenu, new Reservation(held, now + ttlSeconds * 1000L));
+        }
+        return held;
+    }
+
+    @Override
+    public synchronized void renewReservations(UUID cartKey, int ttlSeconds) {
+        Map<Integer, Reservation> cart = reservations.get(cartKey);
+        if (cart != null) {
+            long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000L;
+            for (Reservation reservation : cart.values()) {
+                reservation.expiresAt = expiresAt;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void releaseReservations(UUID cartKey) {
+        reservations.remove(cartKey);
+    }
+
+    /**
+     * Reduce stock for every line or none (one sale)
+     *
+     * @return stock left per line, or null when any line is short
+     */
+    synchronized int[] reduceStockAll(UUID cartKey, int[] idMenus, int[] qtys) {
+        int[] stockLeft = new int[idMenus.length];
+        for (int i = 0; i < idMenus.length; i++) {
+            stockLeft[i] = reduceStock(cartKey, idMenus[i], qtys[i]);
+            if (stockLeft[i] < 0) {
+                // Undo the lines already taken
+                for (int j = 0; j < i; j++) {
+                    MenuKopi menu = menus.get(idMenus[j]);
+                    menu.setStok(menu.getStok() + qtys[j]);
+                }
+                return null;
+            }
+        }
+        return stockLeft;
+    }
+
+    /**
+     * Reduce stock for a sale already handed over, stopping at 0
+     *
+     * @return stock left (0 if the menu is gone)
+     */
+    synchronized int takeStock(int idMenu, int qty) {
+        MenuKopi menu = menus.get(idMenu);
+        if (menu == null) {
+            return 0;
+        }
+        menu.setStok(Math.max(menu.getStok() - qty, 0));
+        return menu.getStok();
+    }
+
+    /**
+     * Menu name for detail rows, or null if the menu is gone
+     */
+    synchronized String getNamaMenu(int idMenu) {
+        MenuKopi menu = menus.get(idMenu);
+        return menu != null ? menu.getNamaMenu() : null;
+    }
+
+    @Override
+    public synchronized List<Kategori> findAllCategories() {
+        List<Kategori> result = new ArrayList<>(categories.size());
+        for (Kategori kategori : categories.values()) {
+            result.add(copy(kategori));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Kategori findCategoryById(int idKategori) {
+        Kategori kategori = categories.get(idKategori);
+        return kategori != null ? copy(kategori) : null;
+    }
+
+    @Override
+    public synchronized boolean saveCategory(Kategori kategori) {
+        Kategori stored = copy(kategori);
+        if (stored.getIconName() == null) {
+            stored.setIconName("category");
+        }
+
+        if (kategori.getIdKategori() == 0) {
+            kategori.setIdKategori(nextKategoriId++);
+            stored.setIdKategori(kategori.getIdKategori());
+            stored.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+        } else {
+            Kategori existing = categories.get(kategori.getIdKategori());
+            if (existing == null) {
+                return false;
+            }
+            stored.setCreatedAt(existing.getCreatedAt());
+        }
+        categories.put(stored.getIdKategori(), stored);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean deleteCategory(int idKategori) {
+        for (MenuKopi menu : menus.values()) {
+            if (menu.getKategori().getIdKategori() == idKategori) {
+                return false; // Same as the foreign key in tbl_menu
+            }
+        }
+        return categories.remove(idKategori) != null;
+    }
+
+    /**
+     * Copy with the category joined from the category table
+     */
+    private MenuKopi copy(MenuKopi source) {
+        MenuKopi menu = new MenuKopi();
+        menu.setIdMenu(source.getIdMenu());
+        menu.setNamaMenu(source.getNamaMenu());
+        menu.setHargaSen(source.getHargaSen());
+        menu.setStok(source.getStok());
+        menu.setImagePath(source.getImagePath());
+        menu.setDeskripsi(source.getDeskripsi());
+        menu.setActive(source.isActive());
+        menu.setCreatedAt(source.getCreatedAt());
+        menu.setUpdatedAt(source.getUpdatedAt());
+
+        int idKategori = source.getKategori() != null ? source.getKategori().getIdKategori() : 0;
+        Kategori kategori = new Kategori();
+        kategori.setIdKategori(idKategori);
+        Kategori stored = categories.get(idKategori);
+        if (stored != null) {
+            kategori.setNamaKategori(stored.getNamaKategori());
+            kategori.setIconName(stored.getIconName());
+        }
+        menu.setKategori(kategori);
+        return menu;
+    }
+
+    private static final class Reservation {
+        final int qty;
+        long expiresAt;
+
+        Reservation(int qty, long expiresAt) {
+            this.qty = qty;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static Kategori copy(Kategori source) {
+        Kategori kategori = new Kategori(source.getNamaKategori());
+        kategori.setIdKategori(source.getIdKategori());
+        kategori.setIconName(source.getIconName());
+        kategori.setCreatedAt(source.getCreatedAt());
+        return kategori;
+    }
+}
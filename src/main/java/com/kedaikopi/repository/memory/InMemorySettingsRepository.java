@@ -0,0 +1,30 @@
+package com.kedaikopi.repository.memory;
+
+import com.kedaikopi.repository.SettingsRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-Memory Settings Repository - untuk benchmark dan test tanpa PostgreSQL
+ */
+public class InMemorySettingsRepository implements SettingsRepository {
+
+    private final Map<String, String> settings = new HashMap<>();
+
+    @Override
+    public synchronized String get(String key) {
+        return settings.get(key);
+    }
+
+    @Override
+    public synchronized Map<String, String> findAll() {
+        return new HashMap<>(settings);
+    }
+
+    @Override
+    public synchronized boolean set(String key, String value) {
+        settings.put(key, value);
+        return true;
+    }
+}
@@ -0,0 +1,237 @@
+package com.kedaikopi.repository.memory;
+
+import com.kedaikopi.model.Kategori;
+import com.kedaikopi.model.MenuKopi;
+import com.kedaikopi.model.SaleLine;
+import com.kedaikopi.model.SaleRecord;
+import com.kedaikopi.model.TransaksiDetail;
+import com.kedaikopi.model.TransaksiHeader;
+import com.kedaikopi.model.User;
+import com.kedaikopi.repository.SaveResult;
+import com.kedaikopi.repository.TransactionRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * In-Memory Transaction Repository - untuk benchmark dan test tanpa PostgreSQL
+ * Stock is taken from the in-memory menu repository all-or-nothing, like the
+ * database transaction.
+ */
+public class InMemoryTransactionRepository implements TransactionRepository {
+
+    private static final Comparator<TransaksiHeader> NEWEST_FIRST = Comparator
+            .comparing(TransaksiHeader::getTanggal, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final InMemoryMenuRepository menus;
+    private final InMemoryUserRepository users;
+    private final Map<Integer, TransaksiHeader> headers = new TreeMap<>();
+    private final Map<Integer, List<TransaksiDetail>> details = new TreeMap<>();
+    private final Map<UUID, Integer> idsByClientKey = new HashMap<>();
+    private int nextHeaderId = 1;
+    private int nextDetailId = 1;
+
+    public InMemoryTransactionRepository(InMemoryMenuRepository menus, InMemoryUserRepository users) {
+        this.menus = menus;
+        this.users = users;
+    }
+
+    @Override
+    public synchronized SaveResult save(TransaksiHeader header, boolean allowShortStock) {
+        if (header.getClientKey() == null) {
+            header.setClientKey(UUID.randomUUID());
+        }
+        Integer existing = idsByClientKey.get(header.getClientKey());
+        if (existing != null) {
+            header.setIdTransaksiHeader(existing);
+            return SaveResult.alreadySaved(existing);
+        }
+
+        List<TransaksiDetail> lines = header.getDetails();
+        int[] stockLeft;
+        if (allowShortStock) {
+            stockLeft = new int[lines.size()];
+            for (int i = 0; i < stockLeft.length; i++) {
+                stockLeft[i] = menus.takeStock(lines.get(i).getIdMenu(), lines.get(i).getQty());
+            }
+        } else {
+            int[] idMenus = new int[lines.size()];
+            int[] qtys = new int[lines.size()];
+            for (int i = 0; i < idMenus.length; i++) {
+                idMenus[i] = lines.get(i).getIdMenu();
+                qtys[i] = lines.get(i).getQty();
+            }
+            stockLeft = menus.reduceStockAll(header.getReservationKey(), idMenus, qtys);
+            if (stockLeft == null) {
+                return SaveResult.shortStock();
+            }
+        }
+        store(header);
+        if (header.getReservationKey() != null) {
+            menus.releaseReservations(header.getReservationKey());
+        }
+        return SaveResult.saved(header.getIdTransaksiHeader(), stockLeft);
+    }
+
+    private void store(TransaksiHeader header) {
+        List<TransaksiDetail> lines = header.getDetails();
+        int idTransaksiHeader = nextHeaderId++;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        TransaksiHeader stored = copyHeader(header);
+        stored.setIdTransaksiHeader(idTransaksiHeader);
+        stored.setCreatedAt(now);
+        stored.setUser(null);
+        headers.put(idTransaksiHeader, stored);
+        idsByClientKey.put(header.getClientKey(), idTransaksiHeader);
+
+        List<TransaksiDetail> storedLines = new ArrayList<>(lines.size());
+        for (TransaksiDetail line : lines) {
+            TransaksiDetail detail = new TransaksiDetail(line.getIdMenu(), line.getQty(), line.getHargaSatuanSen());
+            detail.setIdTransaksiDetail(nextDetailId++);
+            detail.setIdTransaksiHeader(idTransaksiHeader);
+            detail.setSubtotalSen(line.getSubtotalSen());
+            detail.setCreatedAt(now);
+            storedLines.add(detail);
+        }
+        details.put(idTransaksiHeader, storedLines);
+
+        header.setIdTransaksiHeader(idTransaksiHeader);
+    }
+
+    @Override
+    public synchronized List<TransaksiHeader> findAll() {
+        List<TransaksiHeader> result = new ArrayList<>(headers.size());
+        for (TransaksiHeader header : headers.values()) {
+            result.add(withUser(copyHeader(header)));
+        }
+        result.sort(NEWEST_FIRST);
+        return result;
+    }
+
+    @Override
+    public synchronized List<TransaksiHeader> findToday() {
+        LocalDate today = LocalDate.now();
+        List<TransaksiHeader> result = new ArrayList<>();
+        for (TransaksiHeader header : headers.values()) {
+            if (header.getTanggal() != null && header.getTanggal().toLocalDateTime().toLocalDate().equals(today)) {
+                result.add(withUser(copyHeader(header)));
+            }
+        }
+        result.sort(NEWEST_FIRST);
+        return result;
+    }
+
+    @Override
+    public synchronized TransaksiHeader findById(int idTransaksiHeader) {
+        TransaksiHeader header = headers.get(idTransaksiHeader);
+        if (header == null) {
+            return null;
+        }
+        TransaksiHeader result = withUser(copyHeader(header));
+        result.setDetails(findDetails(idTransaksiHeader));
+        return result;
+    }
+
+    @Override
+    public synchronized List<TransaksiDetail> findDetails(int idTransaksiHeader) {
+        List<TransaksiDetail> stored = details.get(idTransaksiHeader);
+        List<TransaksiDetail> result = new ArrayList<>();
+        if (stored == null) {
+            return result;
+        }
+
+        for (TransaksiDetail line : stored) {
+            TransaksiDetail detail = new TransaksiDetail(line.getIdMenu(), line.getQty(), line.getHargaSatuanSen());
+            detail.setIdTransaksiDetail(line.getIdTransaksiDetail());
+            detail.setIdTransaksiHeader(line.getIdTransaksiHeader());
+            detail.setSubtotalSen(line.getSubtotalSen());
+            detail.setCreatedAt(line.getCreatedAt());
+
+            // Joined menu, like the LEFT JOIN in the JDBC query
+            MenuKopi menu = menus.findById(line.getIdMenu());
+            if (menu == null) {
+                menu = new MenuKopi();
+                menu.setIdMenu(line.getIdMenu());
+                menu.setKategori(new Kategori());
+            }
+            detail.setMenu(menu);
+            result.add(detail);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<SaleRecord> findSaleRecords(Timestamp from, Integer idUser) {
+        List<TransaksiHeader> selected = selectHeaders(from, idUser);
+        selected.sort(NEWEST_FIRST);
+
+        List<SaleRecord> result = new ArrayList<>(selected.size());
+        for (TransaksiHeader header : selected) {
+            result.add(SaleRecord.of(withUser(copyHeader(header))));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<SaleLine> findSaleLines(Timestamp from, Integer idUser) {
+        List<SaleLine> result = new ArrayList<>();
+        for (TransaksiHeader header : selectHeaders(from, idUser)) {
+            for (TransaksiDetail detail : findDetails(header.getIdTransaksiHeader())) {
+                result.add(SaleLine.of(detail));
+            }
+        }
+        result.sort(Comparator.comparing(SaleLine::getNamaMenu, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    private List<TransaksiHeader> selectHeaders(Timestamp from, Integer idUser) {
+        List<TransaksiHeader> result = new ArrayList<>();
+        for (TransaksiHeader header : headers.values()) {
+            if (from != null && (header.getTanggal() == null || header.getTanggal().before(from))) {
+                continue;
+            }
+            if (idUser != null && header.getIdUser() != idUser) {
+                continue;
+            }
+            result.add(header);
+        }
+        return result;
+    }
+
+    private TransaksiHeader withUser(TransaksiHeader header) {
+        User stored = users.findById(header.getIdUser());
+        User user = new User();
+        user.setIdUser(header.getIdUser());
+        if (stored != null) {
+            user.setUsername(stored.getUsername());
+            user.setNamaLengkap(stored.getNamaLengkap());
+            user.setRole(stored.getRole());
+        }
+        header.setUser(user);
+        return header;
+    }
+
+    private static TransaksiHeader copyHeader(TransaksiHeader source) {
+        TransaksiHeader header = new TransaksiHeader();
+        header.setIdTransaksiHeader(source.getIdTransaksiHeader());
+        header.setIdUser(source.getIdUser());
+        header.setTanggal(source.getTanggal());
+        header.setTotalHargaSen(source.getTotalHargaSen());
+        header.setPajakSen(source.getPajakSen());
+        header.setGrandTotalSen(source.getGrandTotalSen());
+        header.setTunaiSen(source.getTunaiSen());
+        header.setKembalianSen(source.getKembalianSen());
+        header.setMetodePembayaran(source.getMetodePembayaran() != null ? source.getMetodePembayaran() : "Cash");
+        header.setCreatedAt(source.getCreatedAt());
+        header.setClientKey(source.getClientKey());
+        return header;
+    }
+}
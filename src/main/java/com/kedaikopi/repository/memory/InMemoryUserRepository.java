@@ -0,0 +1,188 @@
+package com.kedaikopi.repository.memory;
+
+import com.kedaikopi.model.Shift;
+import com.kedaikopi.model.User;
+import com.kedaikopi.repository.UserRepository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * In-Memory User Repository - untuk benchmark dan test tanpa PostgreSQL
+ */
+public class InMemoryUserRepository implements UserRepository {
+
+    private final Map<Integer, User> users = new TreeMap<>();
+    private final Map<Integer, Shift> shifts = new TreeMap<>();
+    private int nextUserId = 1;
+    private int nextShiftId = 1;
+
+    @Override
+    public synchronized List<User> findAll() {
+        List<User> result = new ArrayList<>(users.size());
+        for (User user : users.values()) {
+            result.add(copy(user));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized User findById(int idUser) {
+        User user = users.get(idUser);
+        return user != null ? copy(user) : null;
+    }
+
+    @Override
+    public synchronized User findActiveByUsername(String username) {
+        for (User user : users.values()) {
+            if (user.isActive() && user.getUsername().equals(username)) {
+                return copy(user);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized boolean save(User user) {
+        for (User other : users.values()) {
+            if (other.getIdUser() != user.getIdUser() && other.getUsername().equals(user.getUsername())) {
+                return false; // username is unique in tbl_user
+            }
+        }
+
+        User stored = copy(user);
+        if (user.getIdUser() == 0) {
+            user.setIdUser(nextUserId++);
+            stored.setIdUser(user.getIdUser());
+            stored.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+        } else {
+            User existing = users.get(user.getIdUser());
+            if (existing == null) {
+                return false;
+            }
+            // Updates never touch password or login bookkeeping
+            stored.setPassword(existing.getPassword());
+            stored.setLastLogin(existing.getLastLogin());
+            stored.setCreatedAt(existing.getCreatedAt());
+        }
+        users.put(stored.getIdUser(), stored);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean delete(int idUser) {
+        return users.remove(idUser) != null;
+    }
+
+    @Override
+    public synchronized boolean updatePassword(int idUser, String passwordHash) {
+        User user = users.get(idUser);
+        if (user == null) {
+            return false;
+        }
+        user.setPassword(passwordHash);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean replacePasswordHash(int idUser, String oldHash, String newHash) {
+        User user = users.get(idUser);
+        if (user == null || !Objects.equals(user.getPassword(), oldHash)) {
+            return false;
+        }
+        user.setPassword(newHash);
+        return true;
+    }
+
+    @Override
+    public void recordLogin(User user) {
+        updateLastLogin(user.getIdUser());
+    }
+
+    @Override
+    public synchronized void updateLastLogin(int idUser) {
+        User user = users.get(idUser);
+        if (user != null) {
+            user.setLastLogin(new Timestamp(System.currentTimeMillis()));
+        }
+    }
+
+    @Override
+    public synchronized List<Shift> findActiveShifts() {
+        List<Shift> result = new ArrayList<>();
+        for (Shift shift : shifts.values()) {
+            if (shift.isActive()) {
+                result.add(copy(shift));
+            }
+        }
+        result.sort(Comparator.comparing(Shift::getStartTime, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    @Override
+    public synchronized Shift findShiftById(int idShift) {
+        Shift shift = shifts.get(idShift);
+        return shift != null ? copy(shift) : null;
+    }
+
+    @Override
+    public synchronized boolean insertShift(Shift shift) {
+        shift.setIdShift(nextShiftId++);
+        Shift stored = copy(shift);
+        stored.setActive(true);
+        stored.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+        shifts.put(stored.getIdShift(), stored);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean updateShift(Shift shift) {
+        Shift existing = shifts.get(shift.getIdShift());
+        if (existing == null) {
+            return false;
+        }
+        existing.setShiftName(shift.getShiftName());
+        existing.setStartTime(shift.getStartTime());
+        existing.setEndTime(shift.getEndTime());
+        existing.setColorCode(shift.getColorCode());
+        return true;
+    }
+
+    @Override
+    public synchronized boolean deactivateShift(int idShift) {
+        Shift existing = shifts.get(idShift);
+        if (existing == null) {
+            return false;
+        }
+        existing.setActive(false);
+        return true;
+    }
+
+    private static User copy(User source) {
+        User user = new User();
+        user.setIdUser(source.getIdUser());
+        user.setUsername(source.getUsername());
+        user.setPassword(source.getPassword());
+        user.setRole(source.getRole());
+        user.setNamaLengkap(source.getNamaLengkap());
+        user.setActive(source.isActive());
+        user.setLastLogin(source.getLastLogin());
+        user.setCreatedAt(source.getCreatedAt());
+        user.setAssignedShiftId(source.getAssignedShiftId());
+        user.setBaseSalary(source.getBaseSalary());
+        return user;
+    }
+
+    private static Shift copy(Shift source) {
+        Shift shift = new Shift(source.getIdShift(), source.getShiftName(), source.getStartTime(),
+                source.getEndTime(), source.getColorCode());
+        shift.setActive(source.isActive());
+        shift.setCreatedAt(source.getCreatedAt());
+        return shift;
+    }
+}
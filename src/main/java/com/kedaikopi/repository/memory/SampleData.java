@@ -0,0 +1,81 @@
+package com.kedaikopi.repository.memory;
+
+import at.favre.lib.crypto.bcrypt.BCrypt;
+import com.kedaikopi.model.Kategori;
+import com.kedaikopi.model.MenuKopi;
+import com.kedaikopi.model.Shift;
+import com.kedaikopi.model.User;
+import com.kedaikopi.repository.MenuRepository;
+import com.kedaikopi.repository.Repositories;
+import com.kedaikopi.repository.UserRepository;
+import com.kedaikopi.util.Money;
+
+import java.sql.Time;
+
+/**
+ * Sample Data - isi awal untuk repository in-memory
+ * A small catalog, two shifts and one account per role. Passwords equal the
+ * username (owner/owner, kasir/kasir, stocker/stocker); hashed with a low
+ * BCrypt cost, AuthService upgrades them on first login.
+ */
+public final class SampleData {
+
+    private SampleData() {
+    }
+
+    public static void seed(Repositories repositories) {
+        seedCatalog(repositories.getMenuRepository());
+        seedUsers(repositories.getUserRepository());
+    }
+
+    private static void seedCatalog(MenuRepository menus) {
+        Object[][] catalog = {
+                { "Kopi", "coffee", new Object[][] {
+                        { "Kopi Susu Gula Aren", 18_000L, 50 },
+                        { "Americano", 15_000L, 40 },
+                        { "Cappuccino", 22_000L, 35 },
+                        { "Espresso", 12_000L, 8 } } },
+                { "Non-Kopi", "local_cafe", new Object[][] {
+                        { "Matcha Latte", 22_000L, 30 },
+                        { "Coklat Panas", 18_000L, 25 },
+                        { "Es Teh Manis", 6_000L, 100 } } },
+                { "Makanan", "restaurant", new Object[][] {
+                        { "Roti Bakar Coklat Keju", 15_000L, 20 },
+                        { "Kentang Goreng", 14_000L, 5 } } } };
+
+        for (Object[] row : catalog) {
+            Kategori kategori = new Kategori((String) row[0]);
+            kategori.setIconName((String) row[1]);
+            menus.saveCategory(kategori);
+
+            for (Object[] item : (Object[][]) row[2]) {
+                MenuKopi menu = new MenuKopi();
+                menu.setNamaMenu((String) item[0]);
+                menu.setKategori(kategori);
+                menu.setHargaSen(Money.ofRupiah((Long) item[1]));
+                menu.setStok((Integer) item[2]);
+                menu.setActive(true);
+                menus.save(menu);
+            }
+        }
+    }
+
+    private static void seedUsers(UserRepository users) {
+        Shift pagi = new Shift(0, "Pagi", Time.valueOf("07:00:00"), Time.valueOf("15:00:00"), "#4CAF50");
+        Shift sore = new Shift(0, "Sore", Time.valueOf("15:00:00"), Time.valueOf("23:00:00"), "#FF9800");
+        users.insertShift(pagi);
+        users.insertShift(sore);
+
+        addUser(users, "owner", "Owner", "Pemilik Kedai", null);
+        addUser(users, "kasir", "Kasir", "Kasir Contoh", pagi.getIdShift());
+        addUser(users, "stocker", "Stocker", "Stocker Contoh", sore.getIdShift());
+    }
+
+    private static void addUser(UserRepository users, String username, String role, String namaLengkap,
+            Integer shiftId) {
+        User user = new User(0, username, role, namaLengkap);
+        user.setPassword(BCrypt.withDefaults().hashToString(4, username.toCharArray()));
+        user.setAssignedShiftId(shiftId);
+        users.save(user);
+    }
+}
@@ -0,0 +1,200 @@
+package com.kedaikopi.tools;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.core.joran.spi.JoranException;
+import com.kedaikopi.model.MenuKopi;
+import com.kedaikopi.model.TransaksiDetail;
+import com.kedaikopi.model.TransaksiHeader;
+import com.kedaikopi.model.User;
+import com.kedaikopi.repository.Repositories;
+import com.kedaikopi.repository.jdbc.JdbcTransactionRepository;
+import com.kedaikopi.repository.memory.SampleData;
+import com.kedaikopi.util.LogContext;
+import com.kedaikopi.util.Money;
+import com.kedaikopi.util.TaxRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Checkout Log Benchmark - ukur latensi checkout dengan dan tanpa logging
+ * Stores 6-line sales through the in-memory repositories (TransaksiHeader.save)
+ * and writes, on the checkout thread, the log lines a checkout writes on the
+ * JDBC path. Database time is not included, so the numbers show what logging
+ * adds on top. Setups:
+ * - off: no logging
+ * - sync-text, old lines: synchronous pattern file at DEBUG, every step of
+ *   the save at INFO plus one DEBUG line per cart line (previous setup)
+ * - async-json, old lines: same lines through the async JSON file appender
+ * - async-json: as shipped (async JSON file, INFO: two lines per sale, the
+ *   save steps at DEBUG)
+ * The console appender is left out of every setup. Reports mean, p50 and p99
+ * per checkout.
+ *
+ * Usage: java -cp target/classes:... com.kedaikopi.tools.CheckoutLogBenchmark [checkouts]
+ */
+public class CheckoutLogBenchmark {
+
+    private static final int WARM_UP = 5_000;
+
+    private static final Logger repositoryLog = LoggerFactory.getLogger(JdbcTransactionRepository.class);
+    private static final Logger kasirLog = LoggerFactory.getLogger("com.kedaikopi.ui.panels.KasirPanel"); // No Swing class loading
+
+    private static final String SYNC_TEXT =
+            "<configuration>"
+            + "<appender name='FILE' class='ch.qos.logback.core.FileAppender'>"
+            + "<file>${LOG_DIR}/sync.log</file>"
+            + "<encoder><pattern>%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{50} - %msg%n</pattern></encoder>"
+            + "</appender>"
+            + "<root level='INFO'><appender-ref ref='FILE'/></root>"
+            + "<logger name='com.kedaikopi' level='DEBUG'/>"
+            + "</configuration>";
+
+    private static final String ASYNC_JSON =
+            "<configuration>"
+            + "<property scope='context' name='terminal' value='${HOSTNAME}'/>"
+            + "<appender name='FILE' class='ch.qos.logback.core.FileAppender'>"
+            + "<file>${LOG_DIR}/async.json</file>"
+            + "<encoder class='ch.qos.logback.classic.encoder.JsonEncoder'>"
+            + "<withFormattedMessage>true</withFormattedMessage><withArguments>false</withArguments>"
+            + "</encoder>"
+            + "</appender>"
+            + "<appender name='ASYNC_FILE' class='ch.qos.logback.classic.AsyncAppender'>"
+            + "<queueSize>8192</queueSize><neverBlock>true</neverBlock><appender-ref ref='FILE'/>"
+            + "</appender>"
+            + "<root level='INFO'><appender-ref ref='ASYNC_FILE'/></root>"
+            + "<logger name='com.kedaikopi' level='%LEVEL%'/>"
+            + "</configuration>";
+
+    private static final String OFF = "<configuration><root level='OFF'/></configuration>";
+
+    public static void main(String[] args) throws Exception {
+        int checkouts = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        Path logDir = Files.createTempDirectory("checkout-log-bench");
+
+        run("off", OFF, true, checkouts, logDir);
+        run("sync-text, old lines", SYNC_TEXT, true, checkouts, logDir);
+        run("async-json, old lines", ASYNC_JSON.replace("%LEVEL%", "DEBUG"), true, checkouts, logDir);
+        run("async-json", ASYNC_JSON.replace("%LEVEL%", "INFO"), false, checkouts, logDir);
+
+        System.out.println("Log files in " + logDir);
+    }
+
+    private static void run(String name, String config, boolean oldLines, int checkouts, Path logDir)
+            throws JoranException, IOException {
+        configure(config, logDir);
+
+        Repositories repositories = Repositories.inMemory();
+        SampleData.seed(repositories);
+        Repositories.install(repositories);
+        List<MenuKopi> menus = new ArrayList<>(repositories.getMenuRepository().findAllActive());
+        for (MenuKopi menu : menus) {
+            menu.setStok(Integer.MAX_VALUE / 2);
+            repositories.getMenuRepository().save(menu);
+        }
+        User kasir = repositories.getUserRepository().findAll().get(0);
+
+        for (int i = 0; i < WARM_UP; i++) {
+            checkout(kasir, menus, i, oldLines);
+        }
+
+        long[] nanos = new long[checkouts];
+        for (int i = 0; i < checkouts; i++) {
+            long start = System.nanoTime();
+            checkout(kasir, menus, i, oldLines);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long total = 0;
+        for (long n : nanos) {
+            total += n;
+        }
+
+        System.out.printf("%-22s mean %7.1f us   p50 %7.1f us   p99 %7.1f us%n", name,
+                total / 1000.0 / checkouts, nanos[checkouts / 2] / 1000.0, nanos[checkouts * 99 / 100] / 1000.0);
+
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop(); // Drain before the next setup
+    }
+
+    private static void configure(String config, Path logDir) throws JoranException {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        context.putProperty("LOG_DIR", logDir.toString());
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(new ByteArrayInputStream(config.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * One sale and the log lines the JDBC checkout writes for it
+     */
+    private static void checkout(User kasir, List<MenuKopi> menus, int seq, boolean oldLines) {
+        TransaksiHeader sale = sale(kasir, menus, seq);
+        LogContext.withSale(sale.getClientKey(), () -> saveAndLog(sale, oldLines));
+    }
+
+    private static void saveAndLog(TransaksiHeader sale, boolean oldLines) {
+        step(oldLines, "Starting transaction save - User ID: {}, Total: {}, Items: {}",
+                sale.getIdUser(), Money.toBigDecimal(sale.getTotalHargaSen()), sale.getDetails().size());
+        if (!sale.save()) {
+            throw new IllegalStateException("Benchmark sale not stored");
+        }
+        step(oldLines, "Transaction header inserted successfully - ID: {}", sale.getIdTransaksiHeader());
+        for (TransaksiDetail detail : sale.getDetails()) {
+            repositoryLog.debug("Added detail to batch - Menu: {}, Qty: {}, Stock left: {}",
+                    detail.getMenu().getNamaMenu(), detail.getQty(), detail.getMenu().getStok());
+        }
+        step(oldLines, "Transaction details inserted - {} rows affected", sale.getDetails().size());
+        repositoryLog.info("Transaction saved successfully. ID: {}, Total: Rp{}, Items: {}",
+                sale.getIdTransaksiHeader(), Money.toBigDecimal(sale.getTotalHargaSen()),
+                sale.getDetails().size());
+        kasirLog.info("Transaction completed ({}). ID: {}", "SAVED", sale.getIdTransaksiHeader());
+    }
+
+    private static void step(boolean oldLines, String format, Object... args) {
+        if (oldLines) {
+            repositoryLog.info(format, args);
+        } else {
+            repositoryLog.debug(format, args);
+        }
+    }
+
+    private static TransaksiHeader sale(User kasir, List<MenuKopi> menus, int seq) {
+        List<TransaksiDetail> details = new ArrayList<>(6);
+        long subtotal = 0;
+        for (int i = 0; i < 6; i++) {
+            MenuKopi menu = menus.get((seq + i) % menus.size());
+            TransaksiDetail detail = new TransaksiDetail(menu.getIdMenu(), i % 3 + 1, menu.getHargaSen());
+            detail.setMenu(menu);
+            details.add(detail);
+            subtotal = Money.add(subtotal, detail.getSubtotalSen());
+        }
+        long tax = TaxRule.PPN_10.taxOn(subtotal);
+        long total = Money.add(subtotal, tax);
+
+        TransaksiHeader sale = new TransaksiHeader();
+        sale.setClientKey(UUID.randomUUID());
+        sale.setIdUser(kasir.getIdUser());
+        sale.setUser(kasir);
+        sale.setTanggal(new Timestamp(System.currentTimeMillis()));
+        sale.setDetails(details);
+        sale.setTotalHargaSen(subtotal);
+        sale.setPajakSen(tax);
+        sale.setGrandTotalSen(total);
+        sale.setTunaiSen(total);
+        sale.setKembalianSen(0);
+        sale.setMetodePembayaran("Cash");
+        return sale;
+    }
+}
@@ -0,0 +1,636 @@
+package com.kedaikopi.tools;
+
+import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.model.Kategori;
+import com.kedaikopi.model.MenuKopi;
+import com.kedaikopi.model.Shift;
+import com.kedaikopi.model.User;
+import com.kedaikopi.util.Money;
+import com.kedaikopi.util.PartitionMaintenance;
+import com.kedaikopi.util.TaxRule;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Data Generator - data toko sintetis beberapa tahun untuk uji performa
+ * Builds a realistic history (menus, staff on shifts, daily sales with hourly
+ * peaks, popular items, restocks, LOGIN/LOGOUT) and bulk-loads it month by
+ * month with COPY, one transaction per month. Same seed, same data.
+ *
+ * Catalog, shifts and staff are reused when present (gen_* users are created
+ * otherwise). Needs database_partitioning.sql when the tables are partitioned.
+ *
+ * Usage: java -cp target/classes:... com.kedaikopi.tools.DataGenerator [years] [transactionsPerDay] [seed]
+ */
+public class DataGenerator {
+
+    private static final int OPEN_HOUR = 7;
+    private static final int SHIFT_CHANGE_HOUR = 15;
+
+    // Relative traffic per opening hour (07..21, last order before 22:00): breakfast, lunch, after-work, evening
+    private static final double[] HOUR_WEIGHTS = {
+            0.6, 1.4, 1.0, 0.8, 0.9, 1.6, 1.7, 0.9, 0.8, 1.2, 1.5, 1.0, 1.3, 1.4, 0.7 };
+
+    private static final double YEARLY_GROWTH = 0.15;
+    private static final double WEEKEND_FACTOR = 1.3;
+    private static final double FRIDAY_FACTOR = 1.1;
+
+    private static final int CASHIERS_PER_SHIFT = 2;
+    private static final double DAY_OFF_CHANCE = 0.05;
+    private static final int REORDER_DAYS = 2;
+    private static final int RESTOCK_DAYS = 5;
+
+    private static final long[] BANKNOTES = {
+            Money.ofRupiah(5_000), Money.ofRupiah(10_000), Money.ofRupiah(20_000),
+            Money.ofRupiah(50_000), Money.ofRupiah(100_000) };
+
+    private static final String HEADER_COPY = "COPY tbl_transaksi_header (id_transaksi_header, id_user, tanggal, " +
+            "total_harga, pajak, grand_total, uang_bayar, kembalian, nama_kasir, status, metode_pembayaran) FROM STDIN";
+    private static final String DETAIL_COPY = "COPY tbl_transaksi_detail (id_transaksi_header, id_menu, nama_menu, " +
+            "harga, qty, subtotal, tanggal) FROM STDIN";
+    private static final String RESTOCK_COPY = "COPY tbl_restock_history (id_menu, qty_before, qty_added, " +
+            "qty_after, id_user, notes, created_at) FROM STDIN";
+    private static final String ACTIVITY_COPY = "COPY tbl_user_activity_log (id_user, activity_type, " +
+            "session_note, activity_time) FROM STDIN";
+
+    private final double years;
+    private final int transactionsPerDay;
+    private final SplittableRandom random;
+    private final TaxRule taxRule = TaxRule.load();
+
+    // Catalog (index = position in the arrays)
+    private List<MenuKopi> menus;
+    private double[] popularity; // cumulative, last = 1.0
+    private int[] stock;
+    private int[] reorderPoint;
+    private int[] restockTarget;
+
+    // Staff
+    private Shift morning;
+    private Shift evening;
+    private final List<User> morningCashiers = new ArrayList<>();
+    private final List<User> eveningCashiers = new ArrayList<>();
+    private User stocker;
+
+    // Rows of the current month, in COPY text format
+    private final StringBuilder headers = new StringBuilder(1 << 20);
+    private final StringBuilder details = new StringBuilder(1 << 21);
+    private final StringBuilder restocks = new StringBuilder(1 << 16);
+    private final StringBuilder activities = new StringBuilder(1 << 16);
+
+    private long transactionCount;
+    private long detailCount;
+    private long restockCount;
+    private long activityCount;
+
+    public DataGenerator(double years, int transactionsPerDay, long seed) {
+        this.years = years;
+        this.transactionsPerDay = transactionsPerDay;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        double years = args.length > 0 ? Double.parseDouble(args[0]) : 3;
+        int perDay = args.length > 1 ? Integer.parseInt(args[1]) : 900;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        try {
+            new DataGenerator(years, perDay, seed).run();
+        } finally {
+            DatabaseConfig.getInstance().closePool();
+        }
+    }
+
+    public void run() throws SQLException, IOException {
+        prepareCatalog();
+        prepareStaff();
+
+        LocalDate last = LocalDate.now().minusDays(1);
+        LocalDate first = last.minusDays(Math.max(1, Math.round(years * 365.25)) - 1);
+        System.out.printf("Generating %s .. %s, ~%d transactions/day, %d menus%n",
+                first, last, transactionsPerDay, menus.size());
+
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConfig.getInstance().getConnection()) {
+            CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+
+            PartitionMaintenance partitions = PartitionMaintenance.getInstance();
+            if (partitions.isPartitioned(conn)) {
+                partitions.createPartitions(conn, YearMonth.from(first), YearMonth.from(last));
+            }
+
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                LocalDate day = first;
+                while (!day.isAfter(last)) {
+                    YearMonth month = YearMonth.from(day);
+                    LocalDate monthEnd = month.atEndOfMonth().isBefore(last) ? month.atEndOfMonth() : last;
+                    generateMonth(conn, copy, day, monthEnd, first);
+                    conn.commit();
+                    System.out.printf("  %s: %,d transactions so far%n", month, transactionCount);
+                    day = monthEnd.plusDays(1);
+                }
+                saveFinalStock(conn);
+                conn.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+
+            analyze(conn);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long rows = transactionCount + detailCount + restockCount + activityCount;
+        System.out.printf("Transactions : %,d (%,d detail rows)%n", transactionCount, detailCount);
+        System.out.printf("Restocks     : %,d%n", restockCount);
+        System.out.printf("Activity log : %,d%n", activityCount);
+        System.out.printf("Loaded %,d rows in %.1f s (%,.0f rows/s)%n", rows, seconds, rows / seconds);
+    }
+
+    // Month
+
+    private void generateMonth(Connection conn, CopyManager copy, LocalDate from, LocalDate to, LocalDate first)
+            throws SQLException, IOException {
+        int days = (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        int[] counts = new int[days];
+        int total = 0;
+        for (int i = 0; i < days; i++) {
+            counts[i] = dailyCount(from.plusDays(i), first);
+            total += counts[i];
+        }
+
+        long nextId = reserveHeaderIds(conn, total);
+        for (int i = 0; i < days; i++) {
+            LocalDate day = from.plusDays(i);
+            restockMorning(day);
+            shiftActivity(day);
+            nextId = sales(day, counts[i], nextId);
+        }
+
+        copyIn(copy, HEADER_COPY, headers);
+        copyIn(copy, DETAIL_COPY, details);
+        copyIn(copy, RESTOCK_COPY, restocks);
+        copyIn(copy, ACTIVITY_COPY, activities);
+    }
+
+    /**
+     * Transactions on a day: base rate x growth x day of week, +/-15% noise
+     */
+    private int dailyCount(LocalDate day, LocalDate first) {
+        double elapsedYears = (day.toEpochDay() - first.toEpochDay()) / 365.25;
+        double growth = Math.pow(1 + YEARLY_GROWTH, elapsedYears - years);
+
+        DayOfWeek dow = day.getDayOfWeek();
+        double weekday = dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY ? WEEKEND_FACTOR
+                : dow == DayOfWeek.FRIDAY ? FRIDAY_FACTOR : 1.0;
+
+        double noise = 0.85 + random.nextDouble() * 0.3;
+        return (int) Math.round(transactionsPerDay * growth * weekday * noise);
+    }
+
+    /**
+     * Claim a block of header ids so details can reference them in the same COPY
+     */
+    private long reserveHeaderIds(Connection conn, int count) throws SQLException {
+        if (count == 0) {
+            return 0;
+        }
+        String sql = "SELECT setval(s.seq, nextval(s.seq) + ? - 1) " +
+                "FROM (SELECT pg_get_serial_sequence('tbl_transaksi_header', 'id_transaksi_header') AS seq) s";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, count);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1) - count + 1;
+            }
+        }
+    }
+
+    // Sales
+
+    private long sales(LocalDate day, int count, long nextId) {
+        int open = OPEN_HOUR * 3600;
+        int[] times = new int[count];
+        for (int i = 0; i < count; i++) {
+            int hour = pick(HOUR_CUMULATIVE);
+            times[i] = open + hour * 3600 + random.nextInt(3600);
+        }
+        Arrays.sort(times);
+
+        int[] cart = new int[8];
+        int[] quantities = new int[8];
+        for (int i = 0; i < count; i++) {
+            int second = times[i];
+            List<User> cashiers = second < SHIFT_CHANGE_HOUR * 3600 ? morningCashiers : eveningCashiers;
+            User cashier = cashiers.get(random.nextInt(cashiers.size()));
+
+            int items = drawCart(cart, quantities);
+            long subtotal = 0;
+            for (int j = 0; j < items; j++) {
+                subtotal += menus.get(cart[j]).getHargaSen() * quantities[j];
+            }
+            long tax = taxRule.taxOn(subtotal);
+            long grandTotal = subtotal + tax;
+
+            double roll = random.nextDouble();
+            String method = roll < 0.55 ? "Cash" : roll < 0.85 ? "QRIS" : roll < 0.95 ? "Debit Card" : "GoPay";
+            long paid = "Cash".equals(method) ? cashPaid(grandTotal) : grandTotal;
+
+            long id = nextId++;
+            StringBuilder h = headers;
+            h.append(id).append('\t').append(cashier.getIdUser()).append('\t');
+            timestamp(h, day, second).append('\t');
+            money(h, subtotal).append('\t');
+            money(h, tax).append('\t');
+            money(h, grandTotal).append('\t');
+            money(h, paid).append('\t');
+            money(h, paid - grandTotal).append('\t');
+            text(h, cashier.getNamaLengkap()).append("\tcompleted\t").append(method).append('\n');
+
+            for (int j = 0; j < items; j++) {
+                MenuKopi menu = menus.get(cart[j]);
+                int qty = quantities[j];
+                StringBuilder d = details;
+                d.append(id).append('\t').append(menu.getIdMenu()).append('\t');
+                text(d, menu.getNamaMenu()).append('\t');
+                money(d, menu.getHargaSen()).append('\t');
+                d.append(qty).append('\t');
+                money(d, menu.getHargaSen() * qty).append('\t');
+                timestamp(d, day, second).append('\n');
+
+                stock[cart[j]] -= qty;
+            }
+
+            transactionCount++;
+            detailCount += items;
+        }
+        return nextId;
+    }
+
+    /**
+     * Distinct items by popularity, 1..6 per cart (mostly 1-2), qty mostly 1
+     *
+     * @return number of items written to cart/quantities
+     */
+    private int drawCart(int[] cart, int[] quantities) {
+        int wanted = 1;
+        while (wanted < 6 && random.nextDouble() < 0.45) {
+            wanted++;
+        }
+        wanted = Math.min(wanted, menus.size());
+
+        int items = 0;
+        while (items < wanted) {
+            int menu = pick(popularity);
+            boolean duplicate = false;
+            for (int j = 0; j < items; j++) {
+                if (cart[j] == menu) {
+                    duplicate = true;
+                    break;
+                }
+            }
+            if (duplicate) {
+                continue;
+            }
+
+            double roll = random.nextDouble();
+            cart[items] = menu;
+            quantities[items] = roll < 0.75 ? 1 : roll < 0.95 ? 2 : 3;
+            items++;
+        }
+        return items;
+    }
+
+    /**
+     * Cash customers pay with the smallest banknote (or a multiple of
+     * Rp 100.000) that covers the total; some pay the exact amount
+     */
+    private long cashPaid(long grandTotal) {
+        if (random.nextDouble() < 0.15) {
+            return grandTotal;
+        }
+        for (long note : BANKNOTES) {
+            if (note >= grandTotal) {
+                return note;
+            }
+        }
+        long largest = BANKNOTES[BANKNOTES.length - 1];
+        return (grandTotal + largest - 1) / largest * largest;
+    }
+
+    // Stock and staff
+
+    private void restockMorning(LocalDate day) {
+        for (int i = 0; i < menus.size(); i++) {
+            if (stock[i] >= reorderPoint[i]) {
+                continue;
+            }
+            int before = stock[i];
+            int added = restockTarget[i] - Math.max(before, 0);
+            stock[i] = before + added;
+
+            int second = (OPEN_HOUR - 1) * 3600 + 1800 + random.nextInt(1800);
+            StringBuilder r = restocks;
+            r.append(menus.get(i).getIdMenu()).append('\t').append(before).append('\t')
+                    .append(added).append('\t').append(stock[i]).append('\t')
+                    .append(stocker.getIdUser()).append("\tRestock rutin\t");
+            timestamp(r, day, second).append('\n');
+            restockCount++;
+        }
+    }
+
+    private void shiftActivity(LocalDate day) {
+        for (User user : morningCashiers) {
+            session(user, morning, day);
+        }
+        for (User user : eveningCashiers) {
+            session(user, evening, day);
+        }
+        session(stocker, morning, day);
+    }
+
+    private void session(User user, Shift shift, LocalDate day) {
+        if (random.nextDouble() < DAY_OFF_CHANCE) {
+            return;
+        }
+        int login = shift.getStartTime().toLocalTime().toSecondOfDay() - 900 + random.nextInt(1200);
+        int logout = shift.getEndTime().toLocalTime().toSecondOfDay() + random.nextInt(1500);
+        logout = Math.min(logout, 24 * 3600 - 1);
+
+        activity(user, "LOGIN", "Login - " + shift.getShiftName(), day, Math.max(login, 0));
+        activity(user, "LOGOUT", "Logout - " + shift.getShiftName(), day, logout);
+    }
+
+    private void activity(User user, String type, String note, LocalDate day, int second) {
+        StringBuilder a = activities;
+        a.append(user.getIdUser()).append('\t').append(type).append('\t');
+        text(a, note).append('\t');
+        timestamp(a, day, second).append('\n');
+        activityCount++;
+    }
+
+    /**
+     * Whole stock into tbl_menu.stok, terminal stripes dropped (StockLedger)
+     */
+    private void saveFinalStock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE tbl_menu SET stok = ? WHERE id_menu = ?");
+                PreparedStatement stripes = conn.prepareStatement(
+                        "DELETE FROM tbl_menu_stok_stripe WHERE id_menu = ?")) {
+            for (int i = 0; i < menus.size(); i++) {
+                stmt.setInt(1, Math.max(stock[i], 0));
+                stmt.setInt(2, menus.get(i).getIdMenu());
+                stmt.addBatch();
+                stripes.setInt(1, menus.get(i).getIdMenu());
+                stripes.addBatch();
+            }
+            stmt.executeBatch();
+            stripes.executeBatch();
+        }
+    }
+
+    private void analyze(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String table : new String[] { "tbl_transaksi_header", "tbl_transaksi_detail",
+                    "tbl_restock_history", "tbl_user_activity_log", "tbl_menu" }) {
+                stmt.execute("ANALYZE " + table);
+            }
+        }
+    }
+
+    // Setup
+
+    /**
+     * Active menus (a default catalog is created on an empty database) with a
+     * Zipf-like popularity in a seed-dependent order
+     */
+    private void prepareCatalog() {
+        menus = MenuKopi.getAllActive();
+        if (menus.isEmpty()) {
+            createDefaultCatalog();
+            menus = MenuKopi.getAllActive();
+        }
+        if (menus.isEmpty()) {
+            throw new IllegalStateException("No active menu to sell");
+        }
+
+        int n = menus.size();
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = rank[i];
+            rank[i] = rank[j];
+            rank[j] = swap;
+        }
+
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1.0 / Math.pow(rank[i] + 1, 0.9);
+        }
+        popularity = cumulative(weights);
+
+        // Expected units per day per menu drives the restock policy
+        double unitsPerCart = 1.7 * 1.3;
+        stock = new int[n];
+        reorderPoint = new int[n];
+        restockTarget = new int[n];
+        for (int i = 0; i < n; i++) {
+            double share = popularity[i] - (i > 0 ? popularity[i - 1] : 0);
+            int daily = (int) Math.ceil(transactionsPerDay * WEEKEND_FACTOR * unitsPerCart * share);
+            reorderPoint[i] = Math.max(20, daily * REORDER_DAYS);
+            restockTarget[i] = Math.max(100, daily * RESTOCK_DAYS);
+            stock[i] = restockTarget[i];
+        }
+    }
+
+    private void createDefaultCatalog() {
+        Object[][] catalog = {
+                { "Kopi", "coffee", new Object[][] {
+                        { "Espresso", 18_000 }, { "Americano", 22_000 }, { "Cappuccino", 28_000 },
+                        { "Caffe Latte", 28_000 }, { "Kopi Susu Gula Aren", 25_000 }, { "Mocha", 30_000 },
+                        { "Kopi Tubruk", 15_000 }, { "V60 Manual Brew", 32_000 } } },
+                { "Non-Kopi", "local_cafe", new Object[][] {
+                        { "Matcha Latte", 30_000 }, { "Coklat Panas", 25_000 }, { "Teh Tarik", 20_000 },
+                        { "Lemon Tea", 18_000 }, { "Red Velvet", 28_000 } } },
+                { "Makanan", "restaurant", new Object[][] {
+                        { "Nasi Goreng", 35_000 }, { "Mie Goreng", 32_000 }, { "Roti Bakar", 22_000 },
+                        { "Sandwich", 30_000 } } },
+                { "Snack", "category", new Object[][] {
+                        { "Kentang Goreng", 20_000 }, { "Pisang Goreng", 18_000 }, { "Croissant", 24_000 },
+                        { "Cookies", 15_000 } } } };
+
+        for (Object[] group : catalog) {
+            Kategori kategori = new Kategori((String) group[0]);
+            kategori.setIconName((String) group[1]);
+            kategori.save();
+
+            for (Object[] item : (Object[][]) group[2]) {
+                MenuKopi menu = new MenuKopi();
+                menu.setNamaMenu((String) item[0]);
+                menu.setKategori(kategori);
+                menu.setHargaSen(Money.ofRupiah((Integer) item[1]));
+                menu.setStok(0);
+                menu.setActive(true);
+                menu.save();
+            }
+        }
+    }
+
+    private void prepareStaff() {
+        morning = findOrCreateShift("Pagi", Time.valueOf("07:00:00"), Time.valueOf("15:00:00"), "#4CAF50");
+        evening = findOrCreateShift("Sore", Time.valueOf("15:00:00"), Time.valueOf("23:00:00"), "#2196F3");
+
+        for (int i = 1; i <= CASHIERS_PER_SHIFT * 2; i++) {
+            Shift shift = i <= CASHIERS_PER_SHIFT ? morning : evening;
+            User cashier = findOrCreateUser("gen_kasir" + i, "Kasir", "Kasir Generator " + i, shift, 3_000_000);
+            (shift == morning ? morningCashiers : eveningCashiers).add(cashier);
+        }
+        stocker = findOrCreateUser("gen_stocker", "Stocker", "Stocker Generator", morning, 3_200_000);
+    }
+
+    private Shift findOrCreateShift(String name, Time start, Time end, String color) {
+        for (Shift shift : Shift.getAllShifts()) {
+            if (name.equalsIgnoreCase(shift.getShiftName())) {
+                return shift;
+            }
+        }
+        Shift shift = new Shift(0, name, start, end, color);
+        if (!shift.save()) {
+            throw new IllegalStateException("Cannot create shift " + name);
+        }
+        return shift;
+    }
+
+    private User findOrCreateUser(String username, String role, String name, Shift shift, double salary) {
+        User user = User.getActiveByUsername(username);
+        if (user != null) {
+            return user;
+        }
+        user = new User();
+        user.setUsername(username);
+        user.setPassword(username);
+        user.setRole(role);
+        user.setNamaLengkap(name);
+        user.setActive(true);
+        user.setAssignedShiftId(shift.getIdShift());
+        user.setBaseSalary(salary);
+        if (!user.save()) {
+            throw new IllegalStateException("Cannot create user " + username);
+        }
+        return User.getActiveByUsername(username);
+    }
+
+    // Sampling and COPY text
+
+    private static final double[] HOUR_CUMULATIVE = cumulative(HOUR_WEIGHTS);
+
+    private static double[] cumulative(double[] weights) {
+        double total = 0;
+        for (double w : weights) {
+            total += w;
+        }
+        double[] result = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            result[i] = sum / total;
+        }
+        result[result.length - 1] = 1.0;
+        return result;
+    }
+
+    private int pick(double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+
+    private static void copyIn(CopyManager copy, String sql, StringBuilder rows) throws SQLException, IOException {
+        if (rows.length() == 0) {
+            return;
+        }
+        byte[] data = rows.toString().getBytes(StandardCharsets.UTF_8);
+        copy.copyIn(sql, new ByteArrayInputStream(data));
+        rows.setLength(0);
+    }
+
+    /**
+     * Sen as NUMERIC text, e.g. 2750050 -> 27500.50
+     */
+    private static StringBuilder money(StringBuilder sb, long sen) {
+        if (sen < 0) {
+            sb.append('-');
+            sen = -sen;
+        }
+        long cents = sen % 100;
+        sb.append(sen / 100).append('.');
+        if (cents < 10) {
+            sb.append('0');
+        }
+        return sb.append(cents);
+    }
+
+    private static StringBuilder timestamp(StringBuilder sb, LocalDate day, int secondOfDay) {
+        sb.append(day.getYear()).append('-');
+        twoDigits(sb, day.getMonthValue()).append('-');
+        twoDigits(sb, day.getDayOfMonth()).append(' ');
+        twoDigits(sb, secondOfDay / 3600).append(':');
+        twoDigits(sb, secondOfDay / 60 % 60).append(':');
+        return twoDigits(sb, secondOfDay % 60);
+    }
+
+    private static StringBuilder twoDigits(StringBuilder sb, int value) {
+        if (value < 10) {
+            sb.append('0');
+        }
+        return sb.append(value);
+    }
+
+    private static StringBuilder text(StringBuilder sb, String value) {
+        if (value == null) {
+            return sb.append("\\N");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb;
+    }
+}
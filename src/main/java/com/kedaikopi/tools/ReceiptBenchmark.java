@@ -0,0 +1,105 @@
+package com.kedaikopi.tools;
+
+import com.kedaikopi.model.MenuKopi;
+import com.kedaikopi.model.TransaksiDetail;
+import com.kedaikopi.model.TransaksiHeader;
+import com.kedaikopi.model.User;
+import com.kedaikopi.util.Money;
+import com.kedaikopi.util.ReceiptRenderer;
+import com.kedaikopi.util.ReceiptTemplate;
+import com.kedaikopi.util.TaxRule;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Receipt Benchmark - ukur waktu dan alokasi per struk
+ * Renders a 6-item receipt (text + ESC/POS) in a loop and reports time and
+ * bytes allocated per receipt. No database needed.
+ *
+ * Usage: java -cp target/classes:... com.kedaikopi.tools.ReceiptBenchmark [iterations]
+ */
+public class ReceiptBenchmark {
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+        TransaksiHeader transaction = sampleTransaction();
+        ReceiptRenderer renderer = new ReceiptRenderer(ReceiptTemplate.getDefault());
+        renderer.setTaxRule(TaxRule.PPN_10);
+
+        // Warm-up (JIT + buffer growth)
+        for (int i = 0; i < 10_000; i++) {
+            renderer.render(transaction).encodeEscPos();
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        int totalBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            renderer.render(transaction).encodeEscPos();
+            totalBytes += renderer.getEscPosLength();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.println(renderer.toText());
+        System.out.printf("Receipts     : %d (%d ESC/POS bytes each)%n", iterations, totalBytes / iterations);
+        System.out.printf("Time/receipt : %.2f us%n", elapsed / 1000.0 / iterations);
+        if (allocated >= 0) {
+            System.out.printf("Alloc/receipt: %d bytes%n", allocated / iterations);
+        } else {
+            System.out.println("Alloc/receipt: n/a (thread allocation counter not supported)");
+        }
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static TransaksiHeader sampleTransaction() {
+        String[] names = { "Kopi Susu Gula Aren", "Americano", "Cappuccino Hazelnut Extra Shot",
+                "Es Teh Manis", "Roti Bakar Coklat Keju", "Matcha Latte" };
+        long[] prices = { 18_000, 15_000, 28_000, 6_000, 15_000, 22_000 };
+
+        List<TransaksiDetail> details = new ArrayList<>();
+        long subtotal = 0;
+        for (int i = 0; i < names.length; i++) {
+            MenuKopi menu = new MenuKopi();
+            menu.setIdMenu(i + 1);
+            menu.setNamaMenu(names[i]);
+            menu.setHargaSen(Money.ofRupiah(prices[i]));
+
+            TransaksiDetail detail = new TransaksiDetail(menu.getIdMenu(), i % 3 + 1, menu.getHargaSen());
+            detail.setMenu(menu);
+            details.add(detail);
+            subtotal = Money.add(subtotal, detail.getSubtotalSen());
+        }
+
+        long tax = TaxRule.PPN_10.taxOn(subtotal);
+        long total = Money.add(subtotal, tax);
+        long cash = Money.roundTo(total, Money.ofRupiah(50_000), java.math.RoundingMode.UP);
+
+        TransaksiHeader transaction = new TransaksiHeader();
+        transaction.setIdTransaksiHeader(42);
+        transaction.setUser(new User(1, "kasir1", "Kasir", "Budi Santoso"));
+        transaction.setTanggal(new Timestamp(System.currentTimeMillis()));
+        transaction.setDetails(details);
+        transaction.setTotalHargaSen(subtotal);
+        transaction.setPajakSen(tax);
+        transaction.setGrandTotalSen(total);
+        transaction.setTunaiSen(cash);
+        transaction.setKembalianSen(cash - total);
+        transaction.setMetodePembayaran("Cash");
+        return transaction;
+    }
+}
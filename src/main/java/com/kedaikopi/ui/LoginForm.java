@@ -1,8 +1,11 @@
 package com.kedaikopi.ui;
 
 import com.formdev.flatlaf.FlatLightLaf;
-import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.config.DatabaseHealth;
 import com.kedaikopi.model.User;
+import com.kedaikopi.util.AuthService;
+import com.kedaikopi.util.IconManager;
+import com.kedaikopi.util.StartupWarmup;
 import net.miginfocom.swing.MigLayout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,13 +77,11 @@ public class LoginForm extends JFrame {
 
         // Logo - High quality transparent image
         JLabel lblLogo = new JLabel();
-        try {
-            ImageIcon logoIcon = new ImageIcon(
-                    getClass().getResource("/icons/coffee_logo.png"));
-            // Scale to 80x80 for perfect display
-            Image scaledImage = logoIcon.getImage().getScaledInstance(80, 80, Image.SCALE_SMOOTH);
-            lblLogo.setIcon(new ImageIcon(scaledImage));
-        } catch (Exception e) {
+        // Scale to 80x80 for perfect display (scaled once, see IconManager)
+        ImageIcon logoIcon = IconManager.getLogo(80);
+        if (logoIcon != null) {
+            lblLogo.setIcon(logoIcon);
+        } else {
             // Fallback to emoji if image not found
             lblLogo.setText("☕");
             lblLogo.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 64));
@@ -228,19 +229,32 @@ public class LoginForm extends JFrame {
      * Setup UI properties
      */
     private void setupUI() {
-        // Apply FlatLaf theme
-        try {
-            UIManager.setLookAndFeel(new FlatLightLaf());
-            SwingUtilities.updateComponentTreeUI(this);
-        } catch (Exception e) {
-            logger.error("Failed to set FlatLaf theme", e);
+        // Apply FlatLaf theme (Main already did - skip the second tree update)
+        if (!(UIManager.getLookAndFeel() instanceof FlatLightLaf)) {
+            try {
+                UIManager.setLookAndFeel(new FlatLightLaf());
+                SwingUtilities.updateComponentTreeUI(this);
+            } catch (Exception e) {
+                logger.error("Failed to set FlatLaf theme", e);
+            }
         }
 
         // Focus on username field
         txtUsername.requestFocusInWindow();
 
-        // Test database connection on startup
-        SwingUtilities.invokeLater(this::testDatabaseConnection);
+        // Database check runs in the background (started with the warm-up in Main)
+        testDatabaseConnection();
+
+        // Time to first frame, measured from JVM start
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowOpened(java.awt.event.WindowEvent e) {
+                StartupWarmup.getInstance().firstFrameShown();
+            }
+        });
+
+        // Calibrate BCrypt cost in background while user types
+        AuthService.getInstance().calibrateAsync();
     }
 
     /**
@@ -309,17 +323,17 @@ public class LoginForm extends JFrame {
      * Test database connection
      */
     private void testDatabaseConnection() {
-        try {
-            boolean connected = DatabaseConfig.getInstance().testConnection();
-            if (connected) {
-                logger.info("Database connection successful");
-            } else {
-                showError("Gagal terhubung ke database!");
-            }
-        } catch (Exception e) {
-            logger.error("Database connection error", e);
-            showError("Error koneksi database: " + e.getMessage());
-        }
+        StartupWarmup.getInstance().checkDatabase().whenComplete((connected, error) ->
+                SwingUtilities.invokeLater(() -> {
+                    if (error != null) {
+                        logger.error("Database connection error", error);
+                        showError("Error koneksi database: " + error.getMessage());
+                    } else if (connected) {
+                        logger.info("Database connection successful");
+                    } else {
+                        showError("Gagal terhubung ke database!");
+                    }
+                }));
     }
 
     /**
@@ -355,8 +369,6 @@ public class LoginForm extends JFrame {
         SwingWorker<User, Void> worker = new SwingWorker<>() {
             @Override
             protected User doInBackground() throws Exception {
-                // Simulate slight delay for UX
-                Thread.sleep(500);
                 return User.authenticate(username, password);
             }
 
@@ -415,7 +427,12 @@ public class LoginForm extends JFrame {
      * Handle failed login
      */
     private void onLoginFailed() {
-        showError("Username atau password salah!");
+        if (!DatabaseHealth.getInstance().isAvailable()) {
+            // Only users who logged in earlier this run are known offline
+            showError("Database tidak terhubung, login gagal!");
+        } else {
+            showError("Username atau password salah!");
+        }
         btnLogin.setEnabled(true);
         btnLogin.setText("LOGIN");
         txtPassword.setText("");
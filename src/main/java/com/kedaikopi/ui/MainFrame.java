@@ -1,8 +1,12 @@
 package com.kedaikopi.ui;
 
 import com.formdev.flatlaf.FlatLightLaf;
+import com.kedaikopi.config.DatabaseHealth;
+import com.kedaikopi.event.DatabaseStateChanged;
+import com.kedaikopi.event.EventBus;
 import com.kedaikopi.model.User;
 import com.kedaikopi.util.ColorScheme;
+import com.kedaikopi.util.IconManager;
 import com.kedaikopi.ui.panels.DashboardPanel;
 import com.kedaikopi.ui.panels.KasirPanel;
 import com.kedaikopi.ui.panels.InventarisPanel;
@@ -14,7 +18,6 @@ import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.Image;
 
 /**
  * Main Application Frame - Modern UI with sidebar navigation
@@ -37,6 +40,10 @@ public class MainFrame extends JFrame {
     // Track login time for session display
     private java.util.Date loginTime;
 
+    // Database status in the session widget
+    private JLabel lblDatabase;
+    private EventBus.Subscription databaseSubscription;
+
     public MainFrame(User user) {
         this.currentUser = user;
         this.loginTime = new java.util.Date(); // Record login time
@@ -169,14 +176,13 @@ public class MainFrame extends JFrame {
         logoPanel.setBackground(ColorScheme.PRIMARY_DARK);
 
         // Coffee logo icon (bigger for prominence)
-        try {
-            ImageIcon coffeeIcon = new ImageIcon(getClass().getResource("/icons/coffee_logo.png"));
-            Image scaledImage = coffeeIcon.getImage().getScaledInstance(80, 80, Image.SCALE_SMOOTH);
-            JLabel lblIcon = new JLabel(new ImageIcon(scaledImage));
+        ImageIcon coffeeIcon = IconManager.getLogo(80);
+        if (coffeeIcon != null) {
+            JLabel lblIcon = new JLabel(coffeeIcon);
             lblIcon.setHorizontalAlignment(SwingConstants.CENTER);
             logoPanel.add(lblIcon, "wrap");
-        } catch (Exception e) {
-            logger.warn("Could not load coffee logo icon", e);
+        } else {
+            logger.warn("Could not load coffee logo icon");
         }
 
         sidebar.add(logoPanel, "h 100!, growx, wrap");
@@ -276,7 +282,7 @@ public class MainFrame extends JFrame {
      * Enhanced session timer widget - shows real-time clock
      */
     private JPanel createSessionTimer() {
-        JPanel panel = new JPanel(new MigLayout("fillx, insets 8", "[center]", "[]3[]3[]"));
+        JPanel panel = new JPanel(new MigLayout("fillx, insets 8", "[center]", "[]3[]3[]3[]"));
         panel.setBackground(new Color(68, 42, 36));
         panel.setBorder(BorderFactory.createLineBorder(new Color(255, 193, 7, 50), 1));
 
@@ -295,9 +301,17 @@ public class MainFrame extends JFrame {
         lblClock.setFont(new Font("Courier New", Font.BOLD, 12));
         lblClock.setForeground(new Color(255, 193, 7));
 
+        // Database status - offline means sales are journaled locally
+        lblDatabase = new JLabel();
+        lblDatabase.setFont(new Font("Segoe UI", Font.BOLD, 9));
+        updateDatabaseStatus(DatabaseHealth.getInstance().isAvailable());
+        databaseSubscription = EventBus.getInstance().subscribeOnEdt(DatabaseStateChanged.class,
+                events -> updateDatabaseStatus(events.get(events.size() - 1).isAvailable()));
+
         panel.add(lblTitle, "wrap");
         panel.add(lblLoginTime, "wrap");
-        panel.add(lblClock);
+        panel.add(lblClock, "wrap");
+        panel.add(lblDatabase);
 
         // Update clock every second (1000ms) for real-time display
         Timer timer = new Timer(1000, e -> lblClock.setText(getCurrentTime()));
@@ -306,6 +320,12 @@ public class MainFrame extends JFrame {
         return panel;
     }
 
+    private void updateDatabaseStatus(boolean available) {
+        lblDatabase.setText(available ? "\u25CF Database Online" : "\u25CF Database Offline");
+        lblDatabase.setForeground(available ? new Color(129, 199, 132) : new Color(239, 83, 80));
+        lblDatabase.setToolTipText(available ? null : "Penjualan disimpan lokal dan dikirim saat koneksi kembali");
+    }
+
     /**
      * Format login time
      */
@@ -491,6 +511,15 @@ public class MainFrame extends JFrame {
         }
     }
 
+    @Override
+    public void dispose() {
+        if (databaseSubscription != null) {
+            databaseSubscription.unsubscribe();
+            databaseSubscription = null;
+        }
+        super.dispose();
+    }
+
     private void handleExit() {
         int option = JOptionPane.showConfirmDialog(
                 this,
@@ -0,0 +1,246 @@
+package com.kedaikopi.ui.components;
+
+import com.kedaikopi.model.MenuKopi;
+import com.kedaikopi.util.Money;
+import com.kedaikopi.util.TaxRule;
+
+import javax.swing.table.AbstractTableModel;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cart Table Model - keranjang belanja untuk KasirPanel
+ * Lines keyed by id_menu (insertion order kept), running subtotal/tax/total
+ * updated incrementally in sen (see Money), and only the touched row is fired
+ * to the table.
+ * Must be used from the EDT like any other Swing model.
+ */
+public class CartTableModel extends AbstractTableModel {
+
+    public static final int COL_MENU = 0;
+    public static final int COL_HARGA = 1;
+    public static final int COL_QTY = 2;
+    public static final int COL_SUBTOTAL = 3;
+    public static final int COL_DELETE = 4;
+
+    private static final String[] COLUMNS = { "Menu", "Harga", "Qty", "Subtotal", "" };
+    private final NumberFormat currencyFormat;
+    private final TaxRule taxRule;
+
+    // Row order + O(1) lookup by id_menu
+    private final List<CartLine> rows = new ArrayList<>();
+    private final Map<Integer, CartLine> linesByMenu = new HashMap<>();
+
+    // Running totals (sen)
+    private long subtotal;
+    private long tax;
+
+    public CartTableModel(NumberFormat currencyFormat, TaxRule taxRule) {
+        this.currencyFormat = currencyFormat;
+        this.taxRule = taxRule;
+    }
+
+    // Cart operations
+
+    /**
+     * Get line for a menu, or null if not in cart
+     */
+    public CartLine getLine(int idMenu) {
+        return linesByMenu.get(idMenu);
+    }
+
+    /**
+     * Add qty of menu to cart - inserts a new row or updates the existing one
+     *
+     * @return the updated line
+     */
+    public CartLine add(MenuKopi menu, int qty) {
+        CartLine line = linesByMenu.get(menu.getIdMenu());
+        if (line != null) {
+            setQty(line, line.qty + qty);
+            return line;
+        }
+
+        line = new CartLine(menu, qty, rows.size());
+        rows.add(line);
+        linesByMenu.put(menu.getIdMenu(), line);
+        updateTotals(line.subtotal);
+
+        fireTableRowsInserted(line.row, line.row);
+        return line;
+    }
+
+    /**
+     * Change qty of an existing line
+     */
+    public void setQty(CartLine line, int qty) {
+        long before = line.subtotal;
+        line.setQty(qty);
+        updateTotals(line.subtotal - before);
+
+        fireTableRowsUpdated(line.row, line.row);
+    }
+
+    /**
+     * Remove line at row
+     *
+     * @return removed line, or null if row is out of range
+     */
+    public CartLine remove(int row) {
+        if (row < 0 || row >= rows.size()) {
+            return null;
+        }
+
+        CartLine line = rows.remove(row);
+        linesByMenu.remove(line.menu.getIdMenu());
+        updateTotals(-line.subtotal);
+
+        // Shift row index of following lines
+        for (int i = row; i < rows.size(); i++) {
+            rows.get(i).row = i;
+        }
+
+        fireTableRowsDeleted(row, row);
+        return line;
+    }
+
+    /**
+     * Remove all lines
+     */
+    public void clear() {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        int last = rows.size() - 1;
+        rows.clear();
+        linesByMenu.clear();
+        subtotal = 0;
+        tax = 0;
+
+        fireTableRowsDeleted(0, last);
+    }
+
+    public boolean isEmpty() {
+        return rows.isEmpty();
+    }
+
+    /**
+     * Cart lines in display order (read-only)
+     */
+    public List<CartLine> getLines() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    // Running totals
+
+    private void updateTotals(long delta) {
+        subtotal = Money.add(subtotal, delta);
+        tax = taxRule.taxOn(subtotal);
+    }
+
+    public long getSubtotal() {
+        return subtotal;
+    }
+
+    public long getTax() {
+        return tax;
+    }
+
+    public long getTotal() {
+        return Money.add(subtotal, tax);
+    }
+
+    public TaxRule getTaxRule() {
+        return taxRule;
+    }
+
+    // AbstractTableModel
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == COL_QTY ? Integer.class : String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == COL_DELETE; // Only delete button column
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        CartLine line = rows.get(row);
+        switch (column) {
+            case COL_MENU:
+                return line.menu.getNamaMenu();
+            case COL_HARGA:
+                return line.hargaText;
+            case COL_QTY:
+                return line.qty;
+            case COL_SUBTOTAL:
+                return line.subtotalText;
+            default:
+                return "X";
+        }
+    }
+
+    /**
+     * One cart line - formatted strings are cached and only rebuilt on change
+     */
+    public class CartLine {
+        private final MenuKopi menu;
+        private final String hargaText;
+        private int qty;
+        private long subtotal;
+        private String subtotalText;
+        private int row;
+
+        private CartLine(MenuKopi menu, int qty, int row) {
+            this.menu = menu;
+            this.hargaText = currencyFormat.format(Money.toDouble(menu.getHargaSen()));
+            this.row = row;
+            setQty(qty);
+        }
+
+        private void setQty(int qty) {
+            this.qty = qty;
+            this.subtotal = Money.times(menu.getHargaSen(), qty);
+            this.subtotalText = currencyFormat.format(Money.toDouble(subtotal));
+        }
+
+        public MenuKopi getMenu() {
+            return menu;
+        }
+
+        public int getQty() {
+            return qty;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public long getSubtotal() {
+            return subtotal;
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package com.kedaikopi.ui.components;
+
+import com.kedaikopi.util.Money;
+
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.JTableHeader;
+import java.awt.Component;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.text.DateFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleFunction;
+import java.util.function.LongFunction;
+
+/**
+ * Columnar Table Model - model tabel laporan berbasis array primitif
+ * Each column is one primitive array (int / long / double) or dictionary
+ * codes for text, filled through a Loader and swapped in with a single table
+ * event. Values are formatted by CellRenderer at paint time (only visible
+ * cells), and sorting permutes a row index instead of moving rows.
+ * Must be used from the EDT like any other Swing model; a Loader may be
+ * filled on any thread.
+ */
+public class ColumnarTableModel extends AbstractTableModel {
+
+    /**
+     * Null marker for int / long columns (shown as "-")
+     */
+    public static final long NULL = Long.MIN_VALUE;
+    public static final int NULL_INT = Integer.MIN_VALUE;
+
+    private enum Type {
+        INT, LONG, DOUBLE, TEXT
+    }
+
+    private final Column[] columns;
+
+    // Column data: int[] (INT and TEXT codes), long[] or double[]
+    private Object[] data;
+    private String[][] dictionaries;
+    private int rowCount;
+
+    // View row -> data row, null while unsorted
+    private int[] order;
+    private int sortColumn = -1;
+    private boolean sortAscending = true;
+
+    public ColumnarTableModel(Column... columns) {
+        this.columns = columns.clone();
+        this.data = new Object[columns.length];
+        this.dictionaries = new String[columns.length][];
+    }
+
+    // Column definitions
+
+    /**
+     * Column definition - type, header and optional formatter
+     */
+    public static final class Column {
+        private final String name;
+        private final Type type;
+        private final LongFunction<String> longFormat;
+        private final DoubleFunction<String> doubleFormat;
+
+        private Column(String name, Type type, LongFunction<String> longFormat, DoubleFunction<String> doubleFormat) {
+            this.name = name;
+            this.type = type;
+            this.longFormat = longFormat;
+            this.doubleFormat = doubleFormat;
+        }
+
+        public static Column text(String name) {
+            return new Column(name, Type.TEXT, null, null);
+        }
+
+        public static Column integer(String name) {
+            return new Column(name, Type.INT, null, null);
+        }
+
+        public static Column integer(String name, LongFunction<String> format) {
+            return new Column(name, Type.INT, format, null);
+        }
+
+        public static Column number(String name, LongFunction<String> format) {
+            return new Column(name, Type.LONG, format, null);
+        }
+
+        public static Column decimal(String name, DoubleFunction<String> format) {
+            return new Column(name, Type.DOUBLE, null, format);
+        }
+
+        /**
+         * Amount in sen (see Money)
+         */
+        public static Column money(String name, NumberFormat currencyFormat) {
+            return number(name, sen -> currencyFormat.format(Money.toBigDecimal(sen)));
+        }
+
+        /**
+         * Epoch millis
+         */
+        public static Column time(String name, DateFormat dateFormat) {
+            return number(name, millis -> dateFormat.format(new Date(millis)));
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    // Bulk load
+
+    /**
+     * New loader for this model's columns
+     *
+     * @param expectedRows initial capacity
+     */
+    public Loader newLoader(int expectedRows) {
+        return new Loader(Math.max(16, expectedRows));
+    }
+
+    /**
+     * Replace all rows with the loader's content (one table event)
+     */
+    public void load(Loader loader) {
+        if (loader.column != 0) {
+            throw new IllegalStateException("Incomplete row in loader");
+        }
+        this.data = loader.data;
+        this.dictionaries = loader.dictionaries();
+        this.rowCount = loader.rows;
+        this.order = null;
+
+        if (sortColumn >= 0) {
+            sort(sortColumn, sortAscending, false);
+        }
+        fireTableDataChanged();
+    }
+
+    public void clear() {
+        load(newLoader(0));
+    }
+
+    /**
+     * Row builder - values are given in column order, then endRow()
+     */
+    public final class Loader {
+        private final Object[] data = new Object[columns.length];
+        private final List<List<String>> dictionaries = new ArrayList<>();
+        private final List<Map<String, Integer>> codes = new ArrayList<>();
+        private int capacity;
+        private int rows;
+        private int column;
+
+        private Loader(int capacity) {
+            this.capacity = capacity;
+            for (int i = 0; i < columns.length; i++) {
+                switch (columns[i].type) {
+                    case LONG:
+                        data[i] = new long[capacity];
+                        break;
+                    case DOUBLE:
+                        data[i] = new double[capacity];
+                        break;
+                    default:
+                        data[i] = new int[capacity];
+                }
+                boolean text = columns[i].type == Type.TEXT;
+                dictionaries.add(text ? new ArrayList<>() : null);
+                codes.add(text ? new HashMap<>() : null);
+            }
+        }
+
+        public Loader text(String value) {
+            int code = -1;
+            if (value != null) {
+                Map<String, Integer> columnCodes = codes.get(expect(Type.TEXT));
+                Integer existing = columnCodes.get(value);
+                if (existing == null) {
+                    List<String> dictionary = dictionaries.get(column);
+                    existing = dictionary.size();
+                    dictionary.add(value);
+                    columnCodes.put(value, existing);
+                }
+                code = existing;
+            } else {
+                expect(Type.TEXT);
+            }
+            ((int[]) data[column++])[rows] = code;
+            return this;
+        }
+
+        public Loader integer(int value) {
+            ((int[]) data[expect(Type.INT)])[rows] = value;
+            column++;
+            return this;
+        }
+
+        public Loader number(long value) {
+            ((long[]) data[expect(Type.LONG)])[rows] = value;
+            column++;
+            return this;
+        }
+
+        public Loader decimal(double value) {
+            ((double[]) data[expect(Type.DOUBLE)])[rows] = value;
+            column++;
+            return this;
+        }
+
+        public void endRow() {
+            if (column != columns.length) {
+                throw new IllegalStateException("Row has " + column + " of " + columns.length + " values");
+            }
+            column = 0;
+            rows++;
+        }
+
+        public int getRowCount() {
+            return rows;
+        }
+
+        private int expect(Type type) {
+            if (column >= columns.length || columns[column].type != type) {
+                throw new IllegalStateException("Column " + column + " is not " + type);
+            }
+            if (rows == capacity) {
+                grow();
+            }
+            return column;
+        }
+
+        private void grow() {
+            capacity *= 2;
+            for (int i = 0; i < data.length; i++) {
+                if (data[i] instanceof long[]) {
+                    data[i] = Arrays.copyOf((long[]) data[i], capacity);
+                } else if (data[i] instanceof double[]) {
+                    data[i] = Arrays.copyOf((double[]) data[i], capacity);
+                } else {
+                    data[i] = Arrays.copyOf((int[]) data[i], capacity);
+                }
+            }
+        }
+
+        private String[][] dictionaries() {
+            String[][] result = new String[columns.length][];
+            for (int i = 0; i < result.length; i++) {
+                List<String> dictionary = dictionaries.get(i);
+                result[i] = dictionary != null ? dictionary.toArray(new String[0]) : null;
+            }
+            return result;
+        }
+    }
+
+    // TableModel
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column].name;
+    }
+
+    /**
+     * Raw value (boxed only for the cell asked for)
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        int r = dataRow(row);
+        switch (columns[column].type) {
+            case INT: {
+                int value = ((int[]) data[column])[r];
+                return value == NULL_INT ? null : Integer.valueOf(value);
+            }
+            case LONG: {
+                long value = ((long[]) data[column])[r];
+                return value == NULL ? null : Long.valueOf(value);
+            }
+            case DOUBLE:
+                return ((double[]) data[column])[r];
+            default: {
+                int code = ((int[]) data[column])[r];
+                return code < 0 ? null : dictionaries[column][code];
+            }
+        }
+    }
+
+    /**
+     * Display text of a cell, formatted now
+     */
+    public String getTextAt(int row, int column) {
+        Column def = columns[column];
+        int r = dataRow(row);
+        switch (def.type) {
+            case INT: {
+                int value = ((int[]) data[column])[r];
+                if (value == NULL_INT) {
+                    return "-";
+                }
+                return def.longFormat != null ? def.longFormat.apply(value) : Integer.toString(value);
+            }
+            case LONG: {
+                long value = ((long[]) data[column])[r];
+                if (value == NULL) {
+                    return "-";
+                }
+                return def.longFormat != null ? def.longFormat.apply(value) : Long.toString(value);
+            }
+            case DOUBLE: {
+                double value = ((double[]) data[column])[r];
+                return def.doubleFormat != null ? def.doubleFormat.apply(value) : Double.toString(value);
+            }
+            default: {
+                int code = ((int[]) data[column])[r];
+                return code < 0 ? "-" : dictionaries[column][code];
+            }
+        }
+    }
+
+    /**
+     * Value for spreadsheet export: plain numbers stay numeric, formatted
+     * columns export their display text
+     */
+    public Object getExportValue(int row, int column) {
+        Column def = columns[column];
+        boolean formatted = def.longFormat != null || def.doubleFormat != null;
+        return formatted || def.type == Type.TEXT ? getTextAt(row, column) : getValueAt(row, column);
+    }
+
+    private int dataRow(int row) {
+        return order != null ? order[row] : row;
+    }
+
+    // Sorting
+
+    /**
+     * Sort rows by one column; stable, so ties keep the previous order.
+     * Fires one table event.
+     */
+    public void sort(int column, boolean ascending) {
+        sort(column, ascending, true);
+    }
+
+    private void sort(int column, boolean ascending, boolean fire) {
+        sortColumn = column;
+        sortAscending = ascending;
+
+        // Start from the current view order so equal keys keep the previous sort
+        int[] index = order != null ? order.clone() : new int[rowCount];
+        if (order == null) {
+            for (int i = 0; i < rowCount; i++) {
+                index[i] = i;
+            }
+        }
+        RowComparator comparator = comparator(column);
+        int sign = ascending ? 1 : -1;
+        mergeSort(index, new int[rowCount], 0, rowCount, (a, b) -> sign * comparator.compare(a, b));
+        order = index;
+
+        if (fire) {
+            fireTableDataChanged();
+        }
+    }
+
+    /**
+     * Click on a header to sort by that column; click again to reverse
+     */
+    public void installHeaderSort(JTable table) {
+        JTableHeader header = table.getTableHeader();
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int viewColumn = header.columnAtPoint(e.getPoint());
+                if (viewColumn < 0) {
+                    return;
+                }
+                int column = table.convertColumnIndexToModel(viewColumn);
+                sort(column, column != sortColumn || !sortAscending);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    private RowComparator comparator(int column) {
+        switch (columns[column].type) {
+            case INT: {
+                int[] values = (int[]) data[column];
+                return (a, b) -> Integer.compare(values[a], values[b]);
+            }
+            case LONG: {
+                long[] values = (long[]) data[column];
+                return (a, b) -> Long.compare(values[a], values[b]);
+            }
+            case DOUBLE: {
+                double[] values = (double[]) data[column];
+                return (a, b) -> Double.compare(values[a], values[b]);
+            }
+            default: {
+                // Rank dictionary entries once, then compare ranks (null first)
+                int[] codes = (int[]) data[column];
+                String[] dictionary = dictionaries[column];
+                Integer[] byText = new Integer[dictionary.length];
+                for (int i = 0; i < byText.length; i++) {
+                    byText[i] = i;
+                }
+                Arrays.sort(byText, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(dictionary[a], dictionary[b]));
+                int[] rank = new int[dictionary.length];
+                for (int i = 0; i < byText.length; i++) {
+                    rank[byText[i]] = i;
+                }
+                return (a, b) -> Integer.compare(codes[a] < 0 ? -1 : rank[codes[a]], codes[b] < 0 ? -1 : rank[codes[b]]);
+            }
+        }
+    }
+
+    private static void mergeSort(int[] index, int[] buffer, int from, int to, RowComparator comparator) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(index, buffer, from, mid, comparator);
+        mergeSort(index, buffer, mid, to, comparator);
+        if (comparator.compare(index[mid - 1], index[mid]) <= 0) {
+            return; // Already in order
+        }
+
+        System.arraycopy(index, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                index[i] = buffer[left++];
+            } else {
+                index[i] = buffer[right++];
+            }
+        }
+    }
+
+    // Rendering
+
+    /**
+     * Renderer that formats ColumnarTableModel cells at paint time; behaves
+     * like DefaultTableCellRenderer for other models
+     */
+    public static class CellRenderer extends DefaultTableCellRenderer {
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value,
+                boolean isSelected, boolean hasFocus, int row, int column) {
+            if (table.getModel() instanceof ColumnarTableModel) {
+                value = ((ColumnarTableModel) table.getModel()).getTextAt(table.convertRowIndexToModel(row),
+                        table.convertColumnIndexToModel(column));
+            }
+            return super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+        }
+    }
+
+    /**
+     * Use CellRenderer for every column that has no renderer yet
+     */
+    public static void installRenderers(JTable table) {
+        table.setDefaultRenderer(Object.class, new CellRenderer());
+    }
+}
@@ -143,8 +143,8 @@ public class UIComponents {
         header.setPreferredSize(new Dimension(header.getPreferredSize().width, 40));
         header.setReorderingAllowed(false);
 
-        // Alternating row colors
-        DefaultTableCellRenderer renderer = new DefaultTableCellRenderer() {
+        // Alternating row colors (columnar models are formatted at paint time)
+        DefaultTableCellRenderer renderer = new ColumnarTableModel.CellRenderer() {
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value,
                     boolean isSelected, boolean hasFocus, int row, int column) {
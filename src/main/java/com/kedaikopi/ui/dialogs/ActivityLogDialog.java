@@ -2,12 +2,13 @@ package com.kedaikopi.ui.dialogs;
 
 import com.kedaikopi.model.User;
 import com.kedaikopi.model.UserActivityLog;
+import com.kedaikopi.ui.components.ColumnarTableModel;
+import com.kedaikopi.ui.components.ColumnarTableModel.Column;
 import com.kedaikopi.util.ColorScheme;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
@@ -21,7 +22,7 @@ import java.util.List;
 public class ActivityLogDialog extends JDialog {
 
     private JTable table;
-    private DefaultTableModel tableModel;
+    private ColumnarTableModel tableModel;
     private JComboBox<String> cmbDateFilter;
     private JLabel lblTotalLogin;
     private JLabel lblActiveNow;
@@ -218,15 +219,19 @@ public class ActivityLogDialog extends JDialog {
 
     private JScrollPane createTablePanel() {
         // NEW COLUMNS: Nama, Role, Shift, Login, Logout, Durasi, Keterangan
-        String[] columns = { "Nama Karyawan", "Role", "Shift", "Login", "Logout", "Durasi", "Keterangan" };
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new ColumnarTableModel(
+                Column.text("Nama Karyawan"),
+                Column.text("Role"),
+                Column.text("Shift"),
+                Column.time("Login", timeFormat),
+                Column.time("Logout", timeFormat),
+                Column.number("Durasi", millis -> String.format("%dh %dm",
+                        millis / (1000 * 60 * 60), (millis % (1000 * 60 * 60)) / (1000 * 60))),
+                Column.text("Keterangan"));
 
         table = new JTable(tableModel);
+        ColumnarTableModel.installRenderers(table);
+        tableModel.installHeaderSort(table);
         table.setRowHeight(30);
         table.setFont(new Font("Segoe UI", Font.PLAIN, 13));
         table.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
@@ -319,8 +324,6 @@ public class ActivityLogDialog extends JDialog {
      * Load data for specific date
      */
     private void loadDataForDate(java.sql.Date date) {
-        tableModel.setRowCount(0);
-
         // Get all activities for the date
         List<UserActivityLog> logs = UserActivityLog.getByDate(date);
 
@@ -333,8 +336,6 @@ public class ActivityLogDialog extends JDialog {
      * Load data based on filter
      */
     private void loadData(String filter) {
-        tableModel.setRowCount(0);
-
         // Calculate date range
         Calendar cal = Calendar.getInstance();
         java.sql.Date endDate = new java.sql.Date(cal.getTimeInMillis());
@@ -353,6 +354,7 @@ public class ActivityLogDialog extends JDialog {
                 startDate = new java.sql.Date(cal.getTimeInMillis());
                 break;
             case "Pilih Tanggal":
+                tableModel.clear();
                 return; // Will be handled by date picker
             default: // Semua
                 cal.add(Calendar.YEAR, -1);
@@ -372,83 +374,49 @@ public class ActivityLogDialog extends JDialog {
      * Process logs: match LOGIN with LOGOUT, detect shift, calculate duration
      */
     private void processAndDisplayLogs(List<UserActivityLog> logs) {
-        // Clear table first
-        tableModel.setRowCount(0);
-
         // Sort logs by time ASCENDING for proper login-logout pairing
         logs.sort(Comparator.comparing(UserActivityLog::getActivityTime));
 
         // Map to track open sessions by user ID
         Map<Integer, UserActivityLog> openSessions = new HashMap<>();
 
+        // Sessions as {login, logout} pairs, either side may be null
+        List<UserActivityLog[]> sessions = new ArrayList<>();
+
         for (UserActivityLog log : logs) {
             String activityType = log.getActivityType();
             User user = log.getUser();
 
             if ("LOGIN".equals(activityType)) {
-                // Start a new session or overwrite checking
-                // If there's already an open session, we might want to close it as "Incomplete"
-                // or just overwrite. For simplicity and log flow, let's treat every LOGIN as
-                // starting a row.
-                // But to pair with logout, we need to hold it.
-
+                // Every LOGIN starts a row; hold it until its LOGOUT arrives.
                 // If previous session exists (unclosed), add it as row with "-" logout
-                if (openSessions.containsKey(user.getIdUser())) {
-                    UserActivityLog prevLogin = openSessions.get(user.getIdUser());
-                    addTableRow(prevLogin, null);
+                UserActivityLog prevLogin = openSessions.put(user.getIdUser(), log);
+                if (prevLogin != null) {
+                    sessions.add(new UserActivityLog[] { prevLogin, null });
                 }
-                openSessions.put(user.getIdUser(), log);
 
             } else if ("LOGOUT".equals(activityType)) {
-                // Find matching login
-                if (openSessions.containsKey(user.getIdUser())) {
-                    UserActivityLog loginLog = openSessions.remove(user.getIdUser());
-                    addTableRow(loginLog, log);
-                } else {
-                    // Logout without login (orphaned or from previous day not in range)
-                    // Optional: Show it? User wants "23" rows if count says 23.
-                    // If we only show paired, we might miss counts.
-                    // Let's infer a row.
-                    addTableRow(null, log);
-                }
+                // Find matching login; a logout without login (orphaned or from a
+                // previous day not in range) still gets its own row so counts match
+                UserActivityLog loginLog = openSessions.remove(user.getIdUser());
+                sessions.add(new UserActivityLog[] { loginLog, log });
             }
         }
 
         // Add remaining open sessions
         for (UserActivityLog loginLog : openSessions.values()) {
-            addTableRow(loginLog, null);
+            sessions.add(new UserActivityLog[] { loginLog, null });
         }
 
-        // REVERSE table rows to show newest first (bottom row becomes top row)
-        reverseTableRows();
-    }
-
-    /**
-     * Reverse the order of table rows to show newest entries first
-     */
-    private void reverseTableRows() {
-        int rowCount = tableModel.getRowCount();
-        if (rowCount <= 1)
-            return; // Nothing to reverse
-
-        // Store all rows
-        java.util.List<Object[]> rows = new ArrayList<>();
-        for (int i = 0; i < rowCount; i++) {
-            Object[] rowData = new Object[tableModel.getColumnCount()];
-            for (int j = 0; j < tableModel.getColumnCount(); j++) {
-                rowData[j] = tableModel.getValueAt(i, j);
-            }
-            rows.add(rowData);
-        }
-
-        // Clear and re-add in reverse order
-        tableModel.setRowCount(0);
-        for (int i = rows.size() - 1; i >= 0; i--) {
-            tableModel.addRow(rows.get(i));
+        // Newest first, loaded in one table event
+        ColumnarTableModel.Loader loader = tableModel.newLoader(sessions.size());
+        for (int i = sessions.size() - 1; i >= 0; i--) {
+            addTableRow(loader, sessions.get(i)[0], sessions.get(i)[1]);
         }
+        tableModel.load(loader);
     }
 
-    private void addTableRow(UserActivityLog loginLog, UserActivityLog logoutLog) {
+    private void addTableRow(ColumnarTableModel.Loader loader, UserActivityLog loginLog, UserActivityLog logoutLog) {
         User user = (loginLog != null) ? loginLog.getUser() : logoutLog.getUser();
         Timestamp loginTime = (loginLog != null) ? loginLog.getActivityTime() : null;
         Timestamp logoutTime = (logoutLog != null) ? logoutLog.getActivityTime() : null;
@@ -458,23 +426,19 @@ public class ActivityLogDialog extends JDialog {
         String shift = detectShift(loginTime != null ? loginTime : logoutTime); // Use whichever time we have
 
         // Duration
-        String duration = "-";
+        long duration = ColumnarTableModel.NULL;
         if (loginTime != null && logoutTime != null) {
-            long diff = logoutTime.getTime() - loginTime.getTime();
-            long hours = diff / (1000 * 60 * 60);
-            long minutes = (diff % (1000 * 60 * 60)) / (1000 * 60);
-            duration = String.format("%dh %dm", hours, minutes);
+            duration = logoutTime.getTime() - loginTime.getTime();
         }
 
-        tableModel.addRow(new Object[] {
-                user.getNamaLengkap(),
-                user.getRole(),
-                shift,
-                loginTime != null ? timeFormat.format(loginTime) : "-",
-                logoutTime != null ? timeFormat.format(logoutTime) : "-",
-                duration,
-                note
-        });
+        loader.text(user.getNamaLengkap())
+                .text(user.getRole())
+                .text(shift)
+                .number(loginTime != null ? loginTime.getTime() : ColumnarTableModel.NULL)
+                .number(logoutTime != null ? logoutTime.getTime() : ColumnarTableModel.NULL)
+                .number(duration)
+                .text(note)
+                .endRow();
     }
 
     /**
@@ -1,18 +1,21 @@
 package com.kedaikopi.ui.dialogs;
 
+import com.kedaikopi.model.ShiftRef;
 import com.kedaikopi.model.User;
 import com.kedaikopi.model.UserActivityLog;
+import com.kedaikopi.ui.components.ColumnarTableModel;
+import com.kedaikopi.ui.components.ColumnarTableModel.Column;
 import com.kedaikopi.ui.components.UIComponents;
 import com.kedaikopi.util.ColorScheme;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.Date;
 import java.sql.Timestamp;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.List;
 
@@ -34,8 +37,8 @@ public class EmployeeHistoryDialog extends JDialog {
     private static final double OVERTIME_BONUS_PER_HOUR = 15000.0;
 
     // Cache for table models to refresh easily
-    private DefaultTableModel kasirModel;
-    private DefaultTableModel stockerModel;
+    private ColumnarTableModel kasirModel;
+    private ColumnarTableModel stockerModel;
 
     public EmployeeHistoryDialog(Window owner) {
         super(owner, "Riwayat & Penggajian Karyawan", ModalityType.APPLICATION_MODAL);
@@ -103,17 +106,18 @@ public class EmployeeHistoryDialog extends JDialog {
         JPanel panel = new JPanel(new MigLayout("fill, insets 15", "[grow]", "[grow]"));
         panel.setBackground(Color.WHITE);
 
-        String[] columns = {
-                "Nama Karyawan", "Tanggal", "Shift", "Login", "Logout",
-                "Status", "Telat (mnt)", "Lembur (mnt)", "Penalti", "Bonus", "Total Harian"
-        };
-
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        ColumnarTableModel model = new ColumnarTableModel(
+                Column.text("Nama Karyawan"),
+                Column.time("Tanggal", dateFormat),
+                Column.text("Shift"),
+                Column.time("Login", timeFormat),
+                Column.time("Logout", timeFormat),
+                Column.text("Status"),
+                Column.number("Telat (mnt)", minutes -> minutes > 0 ? minutes + " mnt" : "-"),
+                Column.number("Lembur (mnt)", minutes -> minutes > 0 ? minutes + " mnt" : "-"),
+                Column.decimal("Penalti", amount -> amount > 0 ? currencyFormat.format(amount) : "-"),
+                Column.decimal("Bonus", amount -> amount > 0 ? currencyFormat.format(amount) : "-"),
+                Column.decimal("Total Harian", currencyFormat::format));
 
         if (role.equals("Kasir"))
             kasirModel = model;
@@ -121,6 +125,7 @@ public class EmployeeHistoryDialog extends JDialog {
             stockerModel = model;
 
         JTable table = UIComponents.createStyledTable(model);
+        model.installHeaderSort(table);
 
         // Adjust column widths
         table.getColumnModel().getColumn(0).setPreferredWidth(150); // Nama
@@ -175,10 +180,11 @@ public class EmployeeHistoryDialog extends JDialog {
                 writer.println(header.toString());
 
                 // Write data
+                ColumnarTableModel model = (ColumnarTableModel) activeTable.getModel();
                 for (int i = 0; i < activeTable.getRowCount(); i++) {
                     StringBuilder row = new StringBuilder();
                     for (int j = 0; j < activeTable.getColumnCount(); j++) {
-                        Object value = activeTable.getValueAt(i, j);
+                        Object value = model.getExportValue(i, j);
                         String valStr = value != null ? value.toString() : "";
                         // Escape quotes
                         valStr = valStr.replace("\"", "\"\"");
@@ -212,10 +218,6 @@ public class EmployeeHistoryDialog extends JDialog {
         cal.set(Calendar.DAY_OF_MONTH, cal.getActualMaximum(Calendar.DAY_OF_MONTH));
         Date endDate = new Date(cal.getTimeInMillis());
 
-        // Clear tables
-        kasirModel.setRowCount(0);
-        stockerModel.setRowCount(0);
-
         List<User> users = User.getAll();
         List<AttendanceRecord> allRecords = new ArrayList<>();
 
@@ -239,7 +241,7 @@ public class EmployeeHistoryDialog extends JDialog {
                 dailyLogs.sort(Comparator.comparing(UserActivityLog::getActivityTime));
 
                 // Process daily attendance and add to temporary list
-                AttendanceRecord record = createDailyAttendanceRecord(user, entry.getKey(), dailyLogs);
+                AttendanceRecord record = createDailyAttendanceRecord(user, dailyLogs);
                 if (record != null) {
                     allRecords.add(record);
                 }
@@ -251,58 +253,62 @@ public class EmployeeHistoryDialog extends JDialog {
         // view. Let's do Ascending as per typical log view)
         // Actually for "Riwayat" usually newest first is better, but typical attendance
         // log is daily. Let's sort by Date then Time.
-        allRecords.sort(Comparator.comparing(AttendanceRecord::getLoginTime));
+        allRecords.sort(Comparator.comparingLong(AttendanceRecord::getLoginTime));
 
-        // Populate tables
+        // Populate tables - one bulk load per role
+        ColumnarTableModel.Loader kasirRows = kasirModel.newLoader(allRecords.size());
+        ColumnarTableModel.Loader stockerRows = stockerModel.newLoader(allRecords.size());
         for (AttendanceRecord record : allRecords) {
-            Object[] rowData = new Object[] {
-                    record.getUserName(),
-                    record.getDateStr(), // Use dateStr for "Tanggal" column
-                    record.getShiftName(),
-                    record.getLoginStr(),
-                    record.getLogoutStr(),
-                    record.getStatus(), // Use status for "Status" column
-                    record.getLateMinutes() > 0 ? record.getLateMinutes() + " mnt" : "-", // "Telat (mnt)"
-                    record.getOvertimeMinutes() > 0 ? record.getOvertimeMinutes() + " mnt" : "-", // "Lembur (mnt)"
-                    record.getLateMinutes() > 0 ? currencyFormat.format(record.getPenalty()) : "-", // "Penalti"
-                    record.getOvertimeMinutes() > 0 ? currencyFormat.format(record.getBonus()) : "-", // "Bonus"
-                    currencyFormat.format(record.getTotalDaily()) // "Total Harian"
-            };
-
-            if ("Kasir".equals(record.getRole())) {
-                kasirModel.addRow(rowData);
-            } else if ("Stocker".equals(record.getRole())) {
-                stockerModel.addRow(rowData);
+            ColumnarTableModel.Loader rows;
+            if ("Kasir".equals(record.role)) {
+                rows = kasirRows;
+            } else if ("Stocker".equals(record.role)) {
+                rows = stockerRows;
+            } else {
+                continue;
             }
+
+            rows.text(record.userName)
+                    .number(record.loginTime) // "Tanggal"
+                    .text(record.shiftName)
+                    .number(record.loginTime)
+                    .number(record.logoutTime)
+                    .text(record.status)
+                    .number(record.lateMinutes)
+                    .number(record.overtimeMinutes)
+                    .decimal(record.penalty)
+                    .decimal(record.bonus)
+                    .decimal(record.totalDaily)
+                    .endRow();
         }
+        kasirModel.load(kasirRows);
+        stockerModel.load(stockerRows);
     }
 
-    // Helper class for sorting
+    /**
+     * One day of attendance - times as epoch millis, formatted by the table
+     */
     private static class AttendanceRecord {
-        private String userName;
-        private String role;
-        private String dateStr; // Added for "Tanggal" column
-        private String shiftName;
-        private Timestamp loginTime;
-        private String loginStr;
-        private String logoutStr;
-        private String status; // Added for "Status" column
-        private long lateMinutes; // Added for "Telat (mnt)"
-        private long overtimeMinutes; // Added for "Lembur (mnt)"
-        private double penalty; // Added for "Penalti"
-        private double bonus; // Added for "Bonus"
-        private double totalDaily; // Added for "Total Harian"
-
-        public AttendanceRecord(String userName, String role, String dateStr, String shiftName, Timestamp loginTime,
-                String loginStr, String logoutStr, String status, long lateMinutes, long overtimeMinutes,
-                double penalty, double bonus, double totalDaily) {
+        private final String userName;
+        private final String role;
+        private final String shiftName;
+        private final long loginTime;
+        private final long logoutTime; // ColumnarTableModel.NULL when still logged in
+        private final String status;
+        private final long lateMinutes;
+        private final long overtimeMinutes;
+        private final double penalty;
+        private final double bonus;
+        private final double totalDaily;
+
+        AttendanceRecord(String userName, String role, String shiftName, long loginTime, long logoutTime,
+                String status, long lateMinutes, long overtimeMinutes, double penalty, double bonus,
+                double totalDaily) {
             this.userName = userName;
             this.role = role;
-            this.dateStr = dateStr;
             this.shiftName = shiftName;
             this.loginTime = loginTime;
-            this.loginStr = loginStr;
-            this.logoutStr = logoutStr;
+            this.logoutTime = logoutTime;
             this.status = status;
             this.lateMinutes = lateMinutes;
             this.overtimeMinutes = overtimeMinutes;
@@ -311,60 +317,20 @@ public class EmployeeHistoryDialog extends JDialog {
             this.totalDaily = totalDaily;
         }
 
-        public Timestamp getLoginTime() {
+        long getLoginTime() {
             return loginTime;
         }
+    }
 
-        public String getUserName() {
-            return userName;
-        }
-
-        public String getRole() {
-            return role;
-        }
-
-        public String getDateStr() {
-            return dateStr;
-        }
-
-        public String getShiftName() {
-            return shiftName;
-        }
-
-        public String getLoginStr() {
-            return loginStr;
-        }
-
-        public String getLogoutStr() {
-            return logoutStr;
-        }
-
-        public String getStatus() {
-            return status;
-        }
-
-        public long getLateMinutes() {
-            return lateMinutes;
-        }
-
-        public long getOvertimeMinutes() {
-            return overtimeMinutes;
-        }
-
-        public double getPenalty() {
-            return penalty;
-        }
-
-        public double getBonus() {
-            return bonus;
-        }
-
-        public double getTotalDaily() {
-            return totalDaily;
-        }
+    /**
+     * Epoch millis of a minute of day on the same date as the timestamp
+     */
+    private static long atMinuteOfDay(Timestamp time, int minuteOfDay) {
+        return time.toLocalDateTime().toLocalDate().atStartOfDay().plusMinutes(minuteOfDay)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
-    private AttendanceRecord createDailyAttendanceRecord(User user, String dateStr, List<UserActivityLog> logs) {
+    private AttendanceRecord createDailyAttendanceRecord(User user, List<UserActivityLog> logs) {
         // Find Login and Logout
         Timestamp loginTime = null;
         Timestamp logoutTime = null;
@@ -386,52 +352,24 @@ public class EmployeeHistoryDialog extends JDialog {
         long overtimeMinutes = 0;
         String status = "Tepat Waktu";
 
-        // Get expected shift
-        com.kedaikopi.model.Shift assignedShift = user.getAssignedShift();
+        // Get expected shift (shared flyweight, minutes after midnight)
+        ShiftRef assignedShift = ShiftRef.of(user.getAssignedShift());
 
         if (assignedShift != null) {
             shiftName = assignedShift.getShiftName();
 
-            // Calculate Late Status
-            Calendar shiftStart = Calendar.getInstance();
-            shiftStart.setTime(assignedShift.getStartTime());
-
-            Calendar loginCal = Calendar.getInstance();
-            loginCal.setTime(loginTime);
-
-            // Set same YMD for comparison
-            Calendar targetStart = Calendar.getInstance();
-            targetStart.setTime(loginTime);
-            targetStart.set(Calendar.HOUR_OF_DAY, shiftStart.get(Calendar.HOUR_OF_DAY));
-            targetStart.set(Calendar.MINUTE, shiftStart.get(Calendar.MINUTE));
-            targetStart.set(Calendar.SECOND, 0);
-
-            // Tolerance 15 mins
-            Calendar tolerance = (Calendar) targetStart.clone();
-            tolerance.add(Calendar.MINUTE, 15);
-
-            if (loginCal.after(tolerance)) {
-                long diff = loginCal.getTimeInMillis() - targetStart.getTimeInMillis();
-                lateMinutes = diff / (60 * 1000);
+            // Calculate Late Status - tolerance 15 mins
+            long targetStart = atMinuteOfDay(loginTime, assignedShift.getStartMinute());
+            if (loginTime.getTime() > targetStart + 15 * 60 * 1000) {
+                lateMinutes = (loginTime.getTime() - targetStart) / (60 * 1000);
                 status = "Terlambat";
             }
 
             // Calculate Overtime (if logout after shift end)
             if (logoutTime != null) {
-                Calendar shiftEnd = Calendar.getInstance();
-                shiftEnd.setTime(assignedShift.getEndTime());
-
-                Calendar targetEnd = Calendar.getInstance();
-                targetEnd.setTime(logoutTime);
-                targetEnd.set(Calendar.HOUR_OF_DAY, shiftEnd.get(Calendar.HOUR_OF_DAY));
-                targetEnd.set(Calendar.MINUTE, shiftEnd.get(Calendar.MINUTE));
-
-                Calendar actualLogout = Calendar.getInstance();
-                actualLogout.setTime(logoutTime);
-
-                if (actualLogout.after(targetEnd)) {
-                    long diff = actualLogout.getTimeInMillis() - targetEnd.getTimeInMillis();
-                    overtimeMinutes = diff / (60 * 1000);
+                long targetEnd = atMinuteOfDay(logoutTime, assignedShift.getEndMinute());
+                if (logoutTime.getTime() > targetEnd) {
+                    overtimeMinutes = (logoutTime.getTime() - targetEnd) / (60 * 1000);
                 }
             }
         }
@@ -445,11 +383,9 @@ public class EmployeeHistoryDialog extends JDialog {
         return new AttendanceRecord(
                 user.getNamaLengkap(),
                 user.getRole(),
-                dateStr,
                 shiftName,
-                loginTime,
-                timeFormat.format(loginTime),
-                logoutTime != null ? timeFormat.format(logoutTime) : "-",
+                loginTime.getTime(),
+                logoutTime != null ? logoutTime.getTime() : ColumnarTableModel.NULL,
                 status,
                 lateMinutes,
                 overtimeMinutes,
@@ -1,19 +1,26 @@
 package com.kedaikopi.ui.dialogs;
 
+import com.kedaikopi.model.MonthSnapshot;
 import com.kedaikopi.util.ColorScheme;
 import net.miginfocom.swing.MigLayout;
-import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.ui.components.ColumnarTableModel;
+import com.kedaikopi.ui.components.ColumnarTableModel.Column;
 import com.kedaikopi.util.ExcelExporter;
+import com.kedaikopi.util.Money;
+import com.kedaikopi.util.MonthlyClosing;
+import com.kedaikopi.util.MonthlyReport;
+import com.kedaikopi.util.ReportExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
+import java.time.YearMonth;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Monthly Transaction Report Dialog
@@ -23,12 +30,24 @@ public class MonthlyTransactionDialog extends JDialog {
     private static final Logger logger = LoggerFactory.getLogger(MonthlyTransactionDialog.class);
 
     private JTabbedPane tabbedPane;
-    private JTable salesTable, stockInTable, stockOutTable;
-    private DefaultTableModel salesModel, stockInModel, stockOutModel;
+    private JTable salesTable, stockInTable, stockOutTable, menuSalesTable;
+    private ColumnarTableModel salesModel, stockInModel, stockOutModel, menuSalesModel;
+    private JLabel lblSnapshot;
+    private JButton btnRecompute;
     private JLabel lblTotalTransactions, lblLabaKotor, lblPengeluaranRestock, lblTotalPajak, lblTotalGaji,
             lblLabaBersih;
     private JComboBox<String> cmbMonth, cmbYear;
     private int selectedMonth, selectedYear;
+    private int loadGeneration; // EDT only; results of older loads are dropped
+
+    private static final String[] TAB_TITLES = { "Transaksi Penjualan", "Stok Masuk", "Stok Keluar",
+            "Penjualan per Menu" };
+
+    // Used by the table columns at paint time
+    private final NumberFormat currencyFormat = NumberFormat
+            .getCurrencyInstance(new Locale.Builder().setLanguage("id").setRegion("ID").build());
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
+    private final SimpleDateFormat dateTimeFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm");
 
     public MonthlyTransactionDialog(Window parent) {
         super(parent, "Data Transaksi", ModalityType.APPLICATION_MODAL);
@@ -58,9 +77,10 @@ public class MonthlyTransactionDialog extends JDialog {
         // Tab pane
         tabbedPane = new JTabbedPane();
         tabbedPane.setFont(new Font("Segoe UI", Font.BOLD, 13));
-        tabbedPane.addTab("Transaksi Penjualan", createSalesTab());
-        tabbedPane.addTab("Stok Masuk", createStockInTab());
-        tabbedPane.addTab("Stok Keluar", createStockOutTab());
+        tabbedPane.addTab(TAB_TITLES[0], createSalesTab());
+        tabbedPane.addTab(TAB_TITLES[1], createStockInTab());
+        tabbedPane.addTab(TAB_TITLES[2], createStockOutTab());
+        tabbedPane.addTab(TAB_TITLES[3], createMenuSalesTab());
         centerPanel.add(tabbedPane, BorderLayout.CENTER);
 
         add(centerPanel, BorderLayout.CENTER);
@@ -130,15 +150,29 @@ public class MonthlyTransactionDialog extends JDialog {
             selectedYear = Integer.parseInt((String) cmbYear.getSelectedItem());
             refreshData();
         });
-        panel.add(btnRefresh);
+        panel.add(btnRefresh, "wrap");
+
+        // Closing status of the selected month
+        lblSnapshot = new JLabel(" ");
+        lblSnapshot.setFont(new Font("Segoe UI", Font.ITALIC, 12));
+        lblSnapshot.setForeground(new Color(110, 110, 110));
+        panel.add(lblSnapshot, "span 4, skip");
+
+        btnRecompute = new JButton("Hitung Ulang");
+        btnRecompute.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        btnRecompute.setFocusPainted(false);
+        btnRecompute.setVisible(false);
+        btnRecompute.addActionListener(e -> recomputeSnapshot());
+        panel.add(btnRecompute);
 
         return panel;
     }
 
     private void refreshData() {
-        salesModel.setRowCount(0);
-        stockInModel.setRowCount(0);
-        stockOutModel.setRowCount(0);
+        salesModel.clear();
+        stockInModel.clear();
+        stockOutModel.clear();
+        menuSalesModel.clear();
         loadData();
     }
 
@@ -197,14 +231,15 @@ public class MonthlyTransactionDialog extends JDialog {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
-        String[] columns = { "Tanggal", "ID", "Kasir", "Subtotal", "Pajak (10%)", "Grand Total", "Menu Terjual",
-                "Total Item" };
-        salesModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        salesModel = new ColumnarTableModel(
+                Column.time("Tanggal", dateFormat),
+                Column.integer("ID"),
+                Column.text("Kasir"),
+                Column.money("Subtotal", currencyFormat),
+                Column.money("Pajak (10%)", currencyFormat),
+                Column.money("Grand Total", currencyFormat),
+                Column.text("Menu Terjual"),
+                Column.integer("Total Item"));
 
         salesTable = createStyledTable(salesModel);
         JScrollPane scrollPane = new JScrollPane(salesTable);
@@ -217,19 +252,19 @@ public class MonthlyTransactionDialog extends JDialog {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
-        String[] columns = { "Tanggal", "Menu", "Qty Ditambah", "Stok Sebelum", "Stok Setelah", "Admin/Stocker",
-                "Catatan" };
-        stockInModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        stockInModel = new ColumnarTableModel(
+                Column.time("Tanggal", dateTimeFormat),
+                Column.text("Menu"),
+                Column.integer("Qty Ditambah", qty -> "+" + qty),
+                Column.integer("Stok Sebelum"),
+                Column.integer("Stok Setelah"),
+                Column.text("Admin/Stocker"),
+                Column.text("Catatan"));
 
         stockInTable = createStyledTable(stockInModel);
 
         // Green background for stock additions
-        stockInTable.setDefaultRenderer(Object.class, new javax.swing.table.DefaultTableCellRenderer() {
+        stockInTable.setDefaultRenderer(Object.class, new ColumnarTableModel.CellRenderer() {
             @Override
             public java.awt.Component getTableCellRendererComponent(
                     javax.swing.JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
@@ -254,18 +289,17 @@ public class MonthlyTransactionDialog extends JDialog {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
-        String[] columns = { "Tanggal", "Menu", "Qty Terjual", "Kasir", "ID Transaksi" };
-        stockOutModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        stockOutModel = new ColumnarTableModel(
+                Column.time("Tanggal", dateTimeFormat),
+                Column.text("Menu"),
+                Column.integer("Qty Terjual"),
+                Column.text("Kasir"),
+                Column.integer("ID Transaksi", id -> "#" + id));
 
         stockOutTable = createStyledTable(stockOutModel);
 
         // Orange background for stock sold
-        stockOutTable.setDefaultRenderer(Object.class, new javax.swing.table.DefaultTableCellRenderer() {
+        stockOutTable.setDefaultRenderer(Object.class, new ColumnarTableModel.CellRenderer() {
             @Override
             public java.awt.Component getTableCellRendererComponent(
                     javax.swing.JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
@@ -286,8 +320,27 @@ public class MonthlyTransactionDialog extends JDialog {
         return panel;
     }
 
-    private JTable createStyledTable(DefaultTableModel model) {
+    private JPanel createMenuSalesTab() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        menuSalesModel = new ColumnarTableModel(
+                Column.integer("ID Menu"),
+                Column.text("Menu"),
+                Column.integer("Total Terjual"),
+                Column.money("Total Pendapatan", currencyFormat));
+
+        menuSalesTable = createStyledTable(menuSalesModel);
+        JScrollPane scrollPane = new JScrollPane(menuSalesTable);
+        panel.add(scrollPane, BorderLayout.CENTER);
+
+        return panel;
+    }
+
+    private JTable createStyledTable(ColumnarTableModel model) {
         JTable table = new JTable(model);
+        ColumnarTableModel.installRenderers(table);
+        model.installHeaderSort(table);
         table.setRowHeight(28);
         table.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         table.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 12));
@@ -320,224 +373,143 @@ public class MonthlyTransactionDialog extends JDialog {
         return panel;
     }
 
+    /**
+     * Load summary and tabs in the background. A completed month is read from
+     * its closing snapshot (closed on first use); the running month is queried
+     * live, each part in parallel on its own reporting connection.
+     */
     private void loadData() {
-        loadSummary();
-        loadSalesData();
-        loadStockInData();
-        loadStockOutData();
+        loadData(false);
     }
 
-    private void loadSalesData() {
-        try (Connection conn = DatabaseConfig.getInstance().getConnection()) {
-            String sql = "SELECT th.tanggal, th.id_transaksi_header, th.nama_kasir, " +
-                    "th.total_harga AS subtotal, th.pajak, th.grand_total, " +
-                    "STRING_AGG(td.nama_menu || ' (' || td.qty || 'x)', ', ' ORDER BY td.nama_menu) AS menu_details, " +
-                    "SUM(td.qty) AS total_items " +
-                    "FROM tbl_transaksi_header th " +
-                    "LEFT JOIN tbl_transaksi_detail td ON th.id_transaksi_header = td.id_transaksi_header " +
-                    "WHERE EXTRACT(MONTH FROM th.tanggal) = ? AND EXTRACT(YEAR FROM th.tanggal) = ? " +
-                    "GROUP BY th.id_transaksi_header, th.tanggal, th.nama_kasir, th.total_harga, th.pajak, th.grand_total "
-                    +
-                    "ORDER BY th.tanggal DESC";
-
-            SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
-            NumberFormat currencyFormat = NumberFormat
-                    .getCurrencyInstance(new Locale.Builder().setLanguage("id").setRegion("ID").build());
-
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, selectedMonth);
-                stmt.setInt(2, selectedYear);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        salesModel.addRow(new Object[] {
-                                dateFormat.format(rs.getDate("tanggal")),
-                                rs.getInt("id_transaksi_header"),
-                                rs.getString("nama_kasir"),
-                                currencyFormat.format(rs.getDouble("subtotal")),
-                                currencyFormat.format(rs.getDouble("pajak")),
-                                currencyFormat.format(rs.getDouble("grand_total")),
-                                rs.getString("menu_details") != null ? rs.getString("menu_details") : "-",
-                                rs.getInt("total_items")
-                        });
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            logger.error("Error loading sales data", e);
-            showError("Error memuat data penjualan: " + e.getMessage());
+    private void loadData(boolean recompute) {
+        int generation = ++loadGeneration;
+        YearMonth month = YearMonth.of(selectedYear, selectedMonth);
+
+        for (int tab = 0; tab < TAB_TITLES.length; tab++) {
+            tabbedPane.setTitleAt(tab, TAB_TITLES[tab] + " (memuat...)");
         }
-    }
 
-    private void loadStockInData() {
-        try (Connection conn = DatabaseConfig.getInstance().getConnection()) {
-            String sql = "SELECT " +
-                    "    rh.created_at AS tanggal, " +
-                    "    m.nama_menu, " +
-                    "    rh.qty_added AS qty_ditambah, " +
-                    "    rh.qty_before AS stok_sebelum, " +
-                    "    rh.qty_after AS stok_setelah, " +
-                    "    u.nama_lengkap AS user_name, " +
-                    "    COALESCE(rh.notes, 'Penambahan stok') AS catatan " +
-                    "FROM tbl_restock_history rh " +
-                    "JOIN tbl_menu m ON rh.id_menu = m.id_menu " +
-                    "JOIN tbl_user u ON rh.id_user = u.id_user " +
-                    "WHERE EXTRACT(MONTH FROM rh.created_at) = ? AND EXTRACT(YEAR FROM rh.created_at) = ? " +
-                    "ORDER BY rh.created_at DESC";
-
-            SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm");
-
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, selectedMonth);
-                stmt.setInt(2, selectedYear);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        stockInModel.addRow(new Object[] {
-                                dateFormat.format(rs.getTimestamp("tanggal")),
-                                rs.getString("nama_menu"),
-                                "+" + rs.getInt("qty_ditambah"),
-                                rs.getInt("stok_sebelum"),
-                                rs.getInt("stok_setelah"),
-                                rs.getString("user_name"),
-                                rs.getString("catatan")
-                        });
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            logger.error("Error loading stock IN data", e);
-            showError("Error memuat data stok masuk: " + e.getMessage());
+        ReportExecutor reports = ReportExecutor.getInstance();
+        if (MonthlyClosing.isCompleted(month)) {
+            MonthlyClosing closing = MonthlyClosing.getInstance();
+            CompletableFuture<MonthSnapshot> snapshot = recompute
+                    ? reports.submit(conn -> closing.close(conn, month))
+                    : reports.supply(() -> closing.find(month)).thenCompose(found -> found != null
+                            ? CompletableFuture.completedFuture(found)
+                            : reports.submit(conn -> closing.close(conn, month)));
+
+            lblSnapshot.setText("Memuat tutup buku...");
+            btnRecompute.setVisible(false);
+            deliver(generation, -1, snapshot, this::showSnapshot,
+                    "Error loading month snapshot", "Error memuat tutup buku: ");
+            deliver(generation, 0, snapshot.thenApply(s -> toLoader(salesModel, s.getSales())),
+                    salesModel::load, "Error loading sales data", null);
+            deliver(generation, 1, snapshot.thenApply(s -> toLoader(stockInModel, s.getStockIn())),
+                    stockInModel::load, "Error loading stock IN data", null);
+            deliver(generation, 2, snapshot.thenApply(s -> toLoader(stockOutModel, s.getStockOut())),
+                    stockOutModel::load, "Error loading stock OUT data", null);
+            deliver(generation, 3, snapshot.thenApply(s -> toLoader(menuSalesModel, s.getMenuSales())),
+                    menuSalesModel::load, "Error loading menu sales data", null);
+            return;
         }
+
+        lblSnapshot.setText(MonthlyClosing.isPast(month)
+                ? "Belum tutup buku (masa tenggang / data offline belum terkirim) - dihitung langsung dari transaksi"
+                : "Bulan berjalan - dihitung langsung dari transaksi");
+        btnRecompute.setVisible(false);
+        deliver(generation, -1, reports.submit(conn -> MonthlyReport.summary(conn, month)), this::showSummary,
+                "Error loading summary", null);
+        deliver(generation, 0, reports.submit(conn -> toLoader(salesModel, MonthlyReport.sales(conn, month))),
+                salesModel::load, "Error loading sales data", "Error memuat data penjualan: ");
+        deliver(generation, 1, reports.submit(conn -> toLoader(stockInModel, MonthlyReport.stockIn(conn, month))),
+                stockInModel::load, "Error loading stock IN data", "Error memuat data stok masuk: ");
+        deliver(generation, 2,
+                reports.submit(conn -> toLoader(stockOutModel, MonthlyReport.stockOut(conn, month))),
+                stockOutModel::load, "Error loading stock OUT data", "Error memuat data stok keluar: ");
+        deliver(generation, 3,
+                reports.submit(conn -> toLoader(menuSalesModel, MonthlyReport.menuSales(conn, month))),
+                menuSalesModel::load, "Error loading menu sales data", "Error memuat penjualan per menu: ");
     }
 
-    private void loadStockOutData() {
-        try (Connection conn = DatabaseConfig.getInstance().getConnection()) {
-            String sql = "SELECT " +
-                    "    th.tanggal, " +
-                    "    td.nama_menu, " +
-                    "    td.qty AS qty_terjual, " +
-                    "    th.nama_kasir, " +
-                    "    th.id_transaksi_header " +
-                    "FROM tbl_transaksi_header th " +
-                    "JOIN tbl_transaksi_detail td ON th.id_transaksi_header = td.id_transaksi_header " +
-                    "WHERE EXTRACT(MONTH FROM th.tanggal) = ? AND EXTRACT(YEAR FROM th.tanggal) = ? " +
-                    "ORDER BY th.tanggal DESC";
-
-            SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm");
-
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, selectedMonth);
-                stmt.setInt(2, selectedYear);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        stockOutModel.addRow(new Object[] {
-                                dateFormat.format(rs.getTimestamp("tanggal")),
-                                rs.getString("nama_menu"),
-                                rs.getInt("qty_terjual"),
-                                rs.getString("nama_kasir"),
-                                "#" + rs.getInt("id_transaksi_header")
-                        });
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            logger.error("Error loading stock OUT data", e);
-            showError("Error memuat data stok keluar: " + e.getMessage());
+    /**
+     * Rebuild the snapshot of the selected (closed) month from raw rows
+     */
+    private void recomputeSnapshot() {
+        int confirm = JOptionPane.showConfirmDialog(this,
+                "Hitung ulang tutup buku bulan ini dari data transaksi?",
+                "Hitung Ulang", JOptionPane.YES_NO_OPTION);
+        if (confirm == JOptionPane.YES_OPTION) {
+            loadData(true);
         }
     }
 
-    private void loadSummary() {
-        double labaKotor = 0; // Total Pendapatan (grand_total)
-        double pengeluaran = 0; // Pengeluaran restock
-        double totalPajak = 0; // Total pajak
-        double totalGaji = 0; // Total gaji karyawan aktif
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection()) {
-            NumberFormat currencyFormat = NumberFormat
-                    .getCurrencyInstance(new Locale.Builder().setLanguage("id").setRegion("ID").build());
-
-            // 1. Total transactions
-            String countSql = "SELECT COUNT(*) AS total FROM tbl_transaksi_header " +
-                    "WHERE EXTRACT(MONTH FROM tanggal) = ? AND EXTRACT(YEAR FROM tanggal) = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(countSql)) {
-                stmt.setInt(1, selectedMonth);
-                stmt.setInt(2, selectedYear);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        lblTotalTransactions.setText(String.valueOf(rs.getInt("total")));
-                    }
-                }
+    /**
+     * Show a background result on the EDT unless a newer load started or the
+     * dialog was closed meanwhile
+     */
+    private <T> void deliver(int generation, int tab, CompletableFuture<T> future, Consumer<T> show,
+            String logMessage, String errorMessage) {
+        future.whenCompleteAsync((result, error) -> {
+            if (generation != loadGeneration || !isDisplayable()) {
+                return;
             }
-
-            // 2. Laba Kotor = Total Pendapatan (SUM of grand_total)
-            String labaSql = "SELECT COALESCE(SUM(grand_total), 0) AS laba_kotor FROM tbl_transaksi_header " +
-                    "WHERE EXTRACT(MONTH FROM tanggal) = ? AND EXTRACT(YEAR FROM tanggal) = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(labaSql)) {
-                stmt.setInt(1, selectedMonth);
-                stmt.setInt(2, selectedYear);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        labaKotor = rs.getDouble("laba_kotor");
-                        lblLabaKotor.setText(currencyFormat.format(labaKotor));
-                    }
-                }
+            if (tab >= 0) {
+                tabbedPane.setTitleAt(tab, TAB_TITLES[tab]);
             }
-
-            // 3. Pengeluaran Restock = Total harga menu yang direstock
-            String restockSql = "SELECT COALESCE(SUM(rh.qty_added * m.harga), 0) AS pengeluaran " +
-                    "FROM tbl_restock_history rh " +
-                    "JOIN tbl_menu m ON rh.id_menu = m.id_menu " +
-                    "WHERE EXTRACT(MONTH FROM rh.created_at) = ? AND EXTRACT(YEAR FROM rh.created_at) = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(restockSql)) {
-                stmt.setInt(1, selectedMonth);
-                stmt.setInt(2, selectedYear);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        pengeluaran = rs.getDouble("pengeluaran");
-                        lblPengeluaranRestock.setText(currencyFormat.format(pengeluaran));
-                    }
+            if (error != null) {
+                Throwable cause = ReportExecutor.cause(error);
+                logger.error(logMessage, cause);
+                if (errorMessage != null) {
+                    showError(errorMessage + cause.getMessage());
                 }
+                return;
             }
+            show.accept(result);
+        }, ReportExecutor.onEdt());
+    }
 
-            // 4. Total Pajak = SUM(pajak) from transactions
-            String pajakSql = "SELECT COALESCE(SUM(pajak), 0) AS total_pajak FROM tbl_transaksi_header " +
-                    "WHERE EXTRACT(MONTH FROM tanggal) = ? AND EXTRACT(YEAR FROM tanggal) = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(pajakSql)) {
-                stmt.setInt(1, selectedMonth);
-                stmt.setInt(2, selectedYear);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        totalPajak = rs.getDouble("total_pajak");
-                        lblTotalPajak.setText(currencyFormat.format(totalPajak));
-                    }
+    /**
+     * Copy a report section into a table loader (off the EDT)
+     */
+    private static ColumnarTableModel.Loader toLoader(ColumnarTableModel model, MonthSnapshot.Table table) {
+        ColumnarTableModel.Loader loader = model.newLoader(table.getRowCount());
+        int columns = table.getColumnCount();
+        for (int row = 0; row < table.getRowCount(); row++) {
+            for (int col = 0; col < columns; col++) {
+                switch (table.getKind(col)) {
+                    case 'T':
+                        loader.text(table.getText(row, col));
+                        break;
+                    case 'I':
+                        loader.integer(table.getInt(row, col));
+                        break;
+                    default:
+                        loader.number(table.getLong(row, col));
                 }
             }
+            loader.endRow();
+        }
+        return loader;
+    }
 
-            // 5. Total Gaji Karyawan = SUM of monthly salaries (active employees only)
-            String gajiSql = "SELECT COALESCE(SUM(base_salary), 0) AS total_gaji FROM tbl_user " +
-                    "WHERE is_active = TRUE";
-            try (PreparedStatement stmt = conn.prepareStatement(gajiSql)) {
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        totalGaji = rs.getDouble("total_gaji");
-                        lblTotalGaji.setText(currencyFormat.format(totalGaji));
-                    }
-                }
-            }
+    private void showSnapshot(MonthSnapshot snapshot) {
+        showSummary(snapshot.getSummary());
+        lblSnapshot.setText("Tutup buku: " + dateTimeFormat.format(new java.util.Date(snapshot.getClosedAt())));
+        btnRecompute.setVisible(true);
+    }
 
-            // 6. Laba Bersih = Laba Kotor - Pengeluaran - Pajak - Gaji
-            double labaBersih = labaKotor - pengeluaran - totalPajak - totalGaji;
-            lblLabaBersih.setText(currencyFormat.format(labaBersih));
+    private void showSummary(MonthSnapshot.Summary summary) {
+        lblTotalTransactions.setText(String.valueOf(summary.getTotalTransaksi()));
+        lblLabaKotor.setText(formatMoney(summary.getLabaKotor()));
+        lblPengeluaranRestock.setText(formatMoney(summary.getPengeluaran()));
+        lblTotalPajak.setText(formatMoney(summary.getTotalPajak()));
+        lblTotalGaji.setText(formatMoney(summary.getTotalGaji()));
+        lblLabaBersih.setText(formatMoney(summary.getLabaBersih()));
+    }
 
-        } catch (SQLException e) {
-            logger.error("Error loading summary", e);
-        }
+    private String formatMoney(long sen) {
+        return currencyFormat.format(Money.toBigDecimal(sen));
     }
 
     private void exportCurrentTab() {
@@ -545,14 +517,16 @@ public class MonthlyTransactionDialog extends JDialog {
         JTable[] tables = new JTable[] {
                 salesTable,
                 stockInTable,
-                stockOutTable
+                stockOutTable,
+                menuSalesTable
         };
 
         // Prepare sheet names
         String[] sheetNames = new String[] {
                 "Transaksi Penjualan",
                 "Stok Masuk",
-                "Stok Keluar"
+                "Stok Keluar",
+                "Penjualan per Menu"
         };
 
         // Prepare summary values to include in Excel
@@ -591,10 +565,11 @@ public class MonthlyTransactionDialog extends JDialog {
 
         if (success) {
             JOptionPane.showMessageDialog(this,
-                    "File Excel dengan 3 sheet berhasil disimpan!\n" +
+                    "File Excel dengan 4 sheet berhasil disimpan!\n" +
                             "- Transaksi Penjualan\n" +
                             "- Stok Masuk\n" +
-                            "- Stok Keluar\n\n" +
+                            "- Stok Keluar\n" +
+                            "- Penjualan per Menu\n\n" +
                             "Termasuk ringkasan finansial di sheet pertama",
                     "Export Berhasil",
                     JOptionPane.INFORMATION_MESSAGE);
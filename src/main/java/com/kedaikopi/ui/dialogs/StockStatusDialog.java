@@ -2,13 +2,15 @@ package com.kedaikopi.ui.dialogs;
 
 import com.kedaikopi.util.ColorScheme;
 import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.ui.components.ColumnarTableModel;
+import com.kedaikopi.ui.components.ColumnarTableModel.Column;
 import com.kedaikopi.util.ExcelExporter;
+import com.kedaikopi.util.Money;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.*;
 import java.text.NumberFormat;
@@ -22,7 +24,7 @@ public class StockStatusDialog extends JDialog {
     private static final Logger logger = LoggerFactory.getLogger(StockStatusDialog.class);
 
     private JTable table;
-    private DefaultTableModel tableModel;
+    private ColumnarTableModel tableModel;
     private JLabel lblHabis, lblKritis, lblRendah, lblAman;
 
     public StockStatusDialog(JFrame parent) {
@@ -87,15 +89,19 @@ public class StockStatusDialog extends JDialog {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBorder(BorderFactory.createEmptyBorder(0, 15, 15, 15));
 
-        String[] columns = { "Nama Menu", "Kategori", "Stok", "Harga", "Nilai Stok", "Status" };
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        NumberFormat currencyFormat = NumberFormat
+                .getCurrencyInstance(new Locale.Builder().setLanguage("id").setRegion("ID").build());
+        tableModel = new ColumnarTableModel(
+                Column.text("Nama Menu"),
+                Column.text("Kategori"),
+                Column.integer("Stok"),
+                Column.money("Harga", currencyFormat),
+                Column.money("Nilai Stok", currencyFormat),
+                Column.text("Status"));
 
         table = new JTable(tableModel);
+        ColumnarTableModel.installRenderers(table);
+        tableModel.installHeaderSort(table);
         table.setRowHeight(30);
         table.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         table.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 12));
@@ -173,7 +179,7 @@ public class StockStatusDialog extends JDialog {
                     "COUNT(CASE WHEN stok <= 5 AND stok > 0 THEN 1 END) AS kritis, " +
                     "COUNT(CASE WHEN stok <= 10 AND stok > 5 THEN 1 END) AS rendah, " +
                     "COUNT(CASE WHEN stok > 10 THEN 1 END) AS aman " +
-                    "FROM tbl_menu WHERE is_active = TRUE";
+                    "FROM v_menu WHERE is_active = TRUE";
 
             try (Statement stmt = conn.createStatement();
                     ResultSet rs = stmt.executeQuery(statsSql)) {
@@ -192,26 +198,24 @@ public class StockStatusDialog extends JDialog {
                     "WHEN m.stok <= 5 THEN 'KRITIS' " +
                     "WHEN m.stok <= 10 THEN 'RENDAH' " +
                     "ELSE 'AMAN' END AS status " +
-                    "FROM tbl_menu m " +
+                    "FROM v_menu m " +
                     "JOIN tbl_kategori k ON m.id_kategori = k.id_kategori " +
                     "WHERE m.is_active = TRUE " +
                     "ORDER BY m.stok ASC, m.nama_menu";
 
-            NumberFormat currencyFormat = NumberFormat
-                    .getCurrencyInstance(new Locale.Builder().setLanguage("id").setRegion("ID").build());
-
             try (Statement stmt = conn.createStatement();
                     ResultSet rs = stmt.executeQuery(dataSql)) {
+                ColumnarTableModel.Loader loader = tableModel.newLoader(64);
                 while (rs.next()) {
-                    tableModel.addRow(new Object[] {
-                            rs.getString("nama_menu"),
-                            rs.getString("nama_kategori"),
-                            rs.getInt("stok"),
-                            currencyFormat.format(rs.getDouble("harga")),
-                            currencyFormat.format(rs.getDouble("nilai_stok")),
-                            rs.getString("status")
-                    });
+                    loader.text(rs.getString(1))
+                            .text(rs.getString(2))
+                            .integer(rs.getInt(3))
+                            .number(Money.getNumeric(rs, 4))
+                            .number(Money.getNumeric(rs, 5))
+                            .text(rs.getString(6))
+                            .endRow();
                 }
+                tableModel.load(loader);
             }
 
         } catch (SQLException e) {
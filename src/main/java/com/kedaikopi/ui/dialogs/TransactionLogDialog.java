@@ -1,11 +1,15 @@
 package com.kedaikopi.ui.dialogs;
 
-import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.model.SaleLine;
+import com.kedaikopi.model.SaleRecord;
+import com.kedaikopi.repository.Repositories;
+import com.kedaikopi.repository.TransactionRepository;
 import com.kedaikopi.util.ColorScheme;
+import com.kedaikopi.util.Money;
+import com.kedaikopi.util.PrintSpooler;
+import com.kedaikopi.util.ToastNotification;
 import com.kedaikopi.ui.components.UIComponents;
 import net.miginfocom.swing.MigLayout;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
@@ -16,15 +20,14 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Font;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Timestamp;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -39,7 +42,6 @@ import java.util.Map;
  */
 public class TransactionLogDialog extends JDialog {
 
-    private static final Logger logger = LoggerFactory.getLogger(TransactionLogDialog.class);
     private NumberFormat currencyFormat;
     private SimpleDateFormat dateFormat;
     private SimpleDateFormat timeFormat;
@@ -170,109 +172,70 @@ public class TransactionLogDialog extends JDialog {
     private void loadTransactions(String filter) {
         contentPanel.removeAll();
 
-        String dateFilter = getDateFilter(filter);
-
-        try (Connection conn = DatabaseConfig.getInstance().getConnection()) {
-            // Get transactions grouped by date
-            String sql = "SELECT " +
-                    "DATE(th.tanggal) as trans_date, " +
-                    "th.id_transaksi_header, " +
-                    "th.tanggal, " +
-                    "th.nama_kasir, " +
-                    "th.total_harga, " +
-                    "th.pajak, " +
-                    "th.grand_total, " +
-                    "th.uang_bayar, " +
-                    "th.kembalian, " +
-                    "th.metode_pembayaran " +
-                    "FROM tbl_transaksi_header th " +
-                    dateFilter;
-
-            // Add user filter for Kasir role
-            if (filterUser != null) {
-                if (dateFilter.isEmpty()) {
-                    sql += "WHERE th.id_user = " + filterUser.getIdUser() + " ";
-                } else {
-                    sql += "AND th.id_user = " + filterUser.getIdUser() + " ";
-                }
-            }
+        Timestamp from = getDateFilter(filter);
+        Integer idUser = filterUser != null ? filterUser.getIdUser() : null; // Kasir sees own sales only
 
-            sql += "ORDER BY th.tanggal DESC";
-
-            Map<String, List<Map<String, Object>>> transactionsByDate = new LinkedHashMap<String, List<Map<String, Object>>>();
-            int totalCount = 0;
-            double totalRevenue = 0;
-
-            try (Statement stmt = conn.createStatement();
-                    ResultSet rs = stmt.executeQuery(sql)) {
-
-                while (rs.next()) {
-                    String dateKey = rs.getDate("trans_date").toString();
-
-                    Map<String, Object> transaction = new HashMap<String, Object>();
-                    transaction.put("id", rs.getInt("id_transaksi_header"));
-                    transaction.put("tanggal", rs.getTimestamp("tanggal"));
-                    transaction.put("kasir", rs.getString("nama_kasir"));
-                    transaction.put("total_harga", rs.getDouble("total_harga"));
-                    transaction.put("pajak", rs.getDouble("pajak"));
-                    transaction.put("grand_total", rs.getDouble("grand_total"));
-                    transaction.put("uang_bayar", rs.getDouble("uang_bayar"));
-                    transaction.put("kembalian", rs.getDouble("kembalian"));
-                    transaction.put("metode", rs.getString("metode_pembayaran"));
-
-                    transactionsByDate.computeIfAbsent(dateKey, k -> new ArrayList<Map<String, Object>>())
-                            .add(transaction);
-                    totalCount++;
-                    totalRevenue += rs.getDouble("grand_total");
-                }
-            }
+        TransactionRepository transactions = Repositories.transactions();
+        List<SaleRecord> records = transactions.findSaleRecords(from, idUser);
+
+        // Records come newest first, so each date group is contiguous
+        Map<LocalDate, List<SaleRecord>> transactionsByDate = new LinkedHashMap<>();
+        long totalRevenue = 0;
+        for (SaleRecord record : records) {
+            LocalDate date = Instant.ofEpochMilli(record.getTanggalMillis()).atZone(ZoneId.systemDefault())
+                    .toLocalDate();
+            transactionsByDate.computeIfAbsent(date, k -> new ArrayList<>()).add(record);
+            totalRevenue = Money.add(totalRevenue, record.getGrandTotalSen());
+        }
 
-            // Update summary
-            lblTotalTransactions.setText(String.valueOf(totalCount));
-            lblTotalRevenue.setText(String.format("Rp%,.2f", totalRevenue));
-
-            // Create panels for each date
-            if (transactionsByDate.isEmpty()) {
-                JLabel noData = new JLabel("Tidak ada transaksi untuk periode ini");
-                noData.setFont(UIComponents.FONT_BODY);
-                noData.setForeground(ColorScheme.TEXT_SECONDARY);
-                noData.setAlignmentX(Component.CENTER_ALIGNMENT);
-                contentPanel.add(Box.createVerticalStrut(50));
-                contentPanel.add(noData);
-            } else {
-                for (Map.Entry<String, List<Map<String, Object>>> entry : transactionsByDate.entrySet()) {
-                    contentPanel.add(createDateSection(entry.getKey(), entry.getValue(), conn));
-                    contentPanel.add(Box.createVerticalStrut(10));
-                }
+        Map<Integer, List<SaleLine>> itemsByTransaction = new HashMap<>();
+        if (!records.isEmpty()) {
+            for (SaleLine line : transactions.findSaleLines(from, idUser)) {
+                itemsByTransaction.computeIfAbsent(line.getIdTransaksiHeader(), k -> new ArrayList<>()).add(line);
             }
+        }
 
-        } catch (SQLException e) {
-            logger.error("Error loading transactions", e);
-            JOptionPane.showMessageDialog(this,
-                    "Error memuat data transaksi: " + e.getMessage(),
-                    "Error",
-                    JOptionPane.ERROR_MESSAGE);
+        // Update summary
+        lblTotalTransactions.setText(String.valueOf(records.size()));
+        lblTotalRevenue.setText(String.format("Rp%,.2f", Money.toBigDecimal(totalRevenue)));
+
+        // Create panels for each date
+        if (transactionsByDate.isEmpty()) {
+            JLabel noData = new JLabel("Tidak ada transaksi untuk periode ini");
+            noData.setFont(UIComponents.FONT_BODY);
+            noData.setForeground(ColorScheme.TEXT_SECONDARY);
+            noData.setAlignmentX(Component.CENTER_ALIGNMENT);
+            contentPanel.add(Box.createVerticalStrut(50));
+            contentPanel.add(noData);
+        } else {
+            for (Map.Entry<LocalDate, List<SaleRecord>> entry : transactionsByDate.entrySet()) {
+                contentPanel.add(createDateSection(entry.getKey(), entry.getValue(), itemsByTransaction));
+                contentPanel.add(Box.createVerticalStrut(10));
+            }
         }
 
         contentPanel.revalidate();
         contentPanel.repaint();
     }
 
-    private String getDateFilter(String filter) {
+    /**
+     * Earliest sale time for the period, or null for all transactions
+     */
+    private Timestamp getDateFilter(String filter) {
         switch (filter) {
             case "Hari Ini":
-                return "WHERE DATE(th.tanggal) = CURRENT_DATE ";
+                return Timestamp.valueOf(LocalDate.now().atStartOfDay());
             case "7 Hari Terakhir":
-                return "WHERE th.tanggal >= CURRENT_DATE - INTERVAL '7 days' ";
+                return Timestamp.valueOf(LocalDate.now().minusDays(7).atStartOfDay());
             case "30 Hari Terakhir":
-                return "WHERE th.tanggal >= CURRENT_DATE - INTERVAL '30 days' ";
+                return Timestamp.valueOf(LocalDate.now().minusDays(30).atStartOfDay());
             default:
-                return "";
+                return null;
         }
     }
 
-    private JPanel createDateSection(String dateStr, List<Map<String, Object>> transactions, Connection conn)
-            throws SQLException {
+    private JPanel createDateSection(LocalDate date, List<SaleRecord> transactions,
+            Map<Integer, List<SaleLine>> itemsByTransaction) {
         JPanel section = new JPanel(new MigLayout("fill, insets 15", "[grow]", "[]10[]"));
         section.setBackground(Color.WHITE);
         section.setBorder(BorderFactory.createCompoundBorder(
@@ -281,28 +244,23 @@ public class TransactionLogDialog extends JDialog {
         section.setMaximumSize(new Dimension(Integer.MAX_VALUE, Integer.MAX_VALUE));
 
         // Date header
-        try {
-            Date date = java.sql.Date.valueOf(dateStr);
-            JLabel lblDate = new JLabel(dateFormat.format(date) + " - " + transactions.size() + " Transaksi");
-            lblDate.setFont(UIComponents.FONT_BODY.deriveFont(Font.BOLD, 14f));
-            lblDate.setForeground(ColorScheme.ACCENT_BLUE);
-            section.add(lblDate, "wrap");
-        } catch (Exception e) {
-            JLabel lblDate = new JLabel(dateStr + " - " + transactions.size() + " Transaksi");
-            lblDate.setFont(UIComponents.FONT_BODY.deriveFont(Font.BOLD, 14f));
-            lblDate.setForeground(ColorScheme.ACCENT_BLUE);
-            section.add(lblDate, "wrap");
-        }
+        JLabel lblDate = new JLabel(dateFormat.format(java.sql.Date.valueOf(date)) + " - "
+                + transactions.size() + " Transaksi");
+        lblDate.setFont(UIComponents.FONT_BODY.deriveFont(Font.BOLD, 14f));
+        lblDate.setForeground(ColorScheme.ACCENT_BLUE);
+        section.add(lblDate, "wrap");
 
         // Transactions for this date
-        for (Map<String, Object> trans : transactions) {
-            section.add(createTransactionCard(trans, conn), "growx, wrap, gapbottom 10");
+        for (SaleRecord transaction : transactions) {
+            List<SaleLine> items = itemsByTransaction.getOrDefault(transaction.getIdTransaksiHeader(),
+                    Collections.emptyList());
+            section.add(createTransactionCard(transaction, items), "growx, wrap, gapbottom 10");
         }
 
         return section;
     }
 
-    private JPanel createTransactionCard(Map<String, Object> transaction, Connection conn) throws SQLException {
+    private JPanel createTransactionCard(SaleRecord transaction, List<SaleLine> items) {
         JPanel card = new JPanel(new MigLayout("fill, insets 12", "[grow]", "[]5[]10[]"));
         card.setBackground(new Color(249, 250, 251));
         card.setBorder(BorderFactory.createCompoundBorder(
@@ -310,42 +268,50 @@ public class TransactionLogDialog extends JDialog {
                 BorderFactory.createEmptyBorder(8, 8, 8, 8)));
 
         // Header: Transaction ID, Time, Cashier
-        JPanel headerPanel = new JPanel(new MigLayout("insets 0", "[]20[]push[]", "[]"));
+        JPanel headerPanel = new JPanel(new MigLayout("insets 0", "[]20[]push[]15[]", "[]"));
         headerPanel.setOpaque(false);
 
-        JLabel lblId = new JLabel("#" + transaction.get("id"));
+        JLabel lblId = new JLabel("#" + transaction.getIdTransaksiHeader());
         lblId.setFont(UIComponents.FONT_BODY.deriveFont(Font.BOLD));
         lblId.setForeground(ColorScheme.ACCENT_BLUE);
         headerPanel.add(lblId);
 
-        JLabel lblTime = new JLabel("Waktu: " + timeFormat.format((Timestamp) transaction.get("tanggal")));
+        JLabel lblTime = new JLabel("Waktu: " + timeFormat.format(new Date(transaction.getTanggalMillis())));
         lblTime.setFont(UIComponents.FONT_SMALL);
         lblTime.setForeground(ColorScheme.TEXT_SECONDARY);
         headerPanel.add(lblTime);
 
-        JLabel lblKasir = new JLabel("Kasir: " + transaction.get("kasir"));
+        JLabel lblKasir = new JLabel("Kasir: " + transaction.getKasir());
         lblKasir.setFont(UIComponents.FONT_SMALL.deriveFont(Font.BOLD));
         lblKasir.setForeground(new Color(103, 58, 183));
         headerPanel.add(lblKasir);
 
+        // Reprint goes through the background print queue
+        int idTransaksi = transaction.getIdTransaksiHeader();
+        JButton btnReprint = UIComponents.createButton("Cetak Ulang", UIComponents.ButtonType.SECONDARY);
+        btnReprint.addActionListener(e -> {
+            PrintSpooler.getInstance().reprint(idTransaksi);
+            ToastNotification.showInfo(this, "Struk #" + idTransaksi + " masuk antrian cetak");
+        });
+        headerPanel.add(btnReprint);
+
         card.add(headerPanel, "growx, wrap");
 
         // Items table
-        JPanel itemsPanel = createItemsTable((Integer) transaction.get("id"), conn);
+        JPanel itemsPanel = createItemsTable(items);
         card.add(itemsPanel, "growx, wrap");
 
         // Footer: Payment details
         JPanel footerPanel = new JPanel(new MigLayout("insets 0", "push[]", "[]2[]2[]2[]2[]2[]"));
         footerPanel.setOpaque(false);
 
-        addPaymentRow(footerPanel, "Subtotal:", currencyFormat.format((Double) transaction.get("total_harga")), false);
-        addPaymentRow(footerPanel, "Pajak (10%):", currencyFormat.format((Double) transaction.get("pajak")), false);
-        addPaymentRow(footerPanel, "Total:", currencyFormat.format((Double) transaction.get("grand_total")), true);
-        addPaymentRow(footerPanel, "Dibayar:", currencyFormat.format((Double) transaction.get("uang_bayar")), false);
-        addPaymentRow(footerPanel, "Kembalian:", currencyFormat.format((Double) transaction.get("kembalian")), false);
+        addPaymentRow(footerPanel, "Subtotal:", formatMoney(transaction.getTotalHargaSen()), false);
+        addPaymentRow(footerPanel, "Pajak (10%):", formatMoney(transaction.getPajakSen()), false);
+        addPaymentRow(footerPanel, "Total:", formatMoney(transaction.getGrandTotalSen()), true);
+        addPaymentRow(footerPanel, "Dibayar:", formatMoney(transaction.getTunaiSen()), false);
+        addPaymentRow(footerPanel, "Kembalian:", formatMoney(transaction.getKembalianSen()), false);
 
-        String metode = (String) transaction.get("metode");
-        JLabel lblMetode = new JLabel("Metode: " + (metode != null ? metode : "Cash"));
+        JLabel lblMetode = new JLabel("Metode: " + transaction.getMetodePembayaran());
         lblMetode.setFont(UIComponents.FONT_SMALL);
         lblMetode.setForeground(ColorScheme.ACCENT_GREEN);
         footerPanel.add(lblMetode, "wrap, gaptop 5");
@@ -372,7 +338,11 @@ public class TransactionLogDialog extends JDialog {
         panel.add(row, "wrap");
     }
 
-    private JPanel createItemsTable(int transactionId, Connection conn) throws SQLException {
+    private String formatMoney(long sen) {
+        return currencyFormat.format(Money.toBigDecimal(sen));
+    }
+
+    private JPanel createItemsTable(List<SaleLine> items) {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setOpaque(false);
 
@@ -385,24 +355,13 @@ public class TransactionLogDialog extends JDialog {
             }
         };
 
-        // Load items
-        String sql = "SELECT nama_menu, harga, qty, subtotal " +
-                "FROM tbl_transaksi_detail " +
-                "WHERE id_transaksi_header = ? " +
-                "ORDER BY nama_menu";
-
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, transactionId);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    model.addRow(new Object[] {
-                            rs.getString("nama_menu"),
-                            currencyFormat.format(rs.getDouble("harga")),
-                            rs.getInt("qty") + "x",
-                            currencyFormat.format(rs.getDouble("subtotal"))
-                    });
-                }
-            }
+        for (SaleLine item : items) {
+            model.addRow(new Object[] {
+                    item.getNamaMenu(),
+                    formatMoney(item.getHargaSen()),
+                    item.getQty() + "x",
+                    formatMoney(item.getSubtotalSen())
+            });
         }
 
         // Create table
@@ -1,16 +1,28 @@
 package com.kedaikopi.ui.panels;
 
+import com.kedaikopi.config.DatabaseHealth;
+import com.kedaikopi.event.DatabaseStateChanged;
+import com.kedaikopi.event.EventBus;
+import com.kedaikopi.event.MenuUpdated;
+import com.kedaikopi.event.PresenceChanged;
+import com.kedaikopi.event.SaleCompleted;
+import com.kedaikopi.event.StockChanged;
+import com.kedaikopi.model.BestSellerRanking;
+import com.kedaikopi.model.Kategori;
 import com.kedaikopi.model.Shift;
 import com.kedaikopi.model.User;
+import com.kedaikopi.model.UserActivityLog;
 
 import com.kedaikopi.util.ColorScheme;
 import com.kedaikopi.util.ChartFactory;
+import com.kedaikopi.util.Money;
 import com.kedaikopi.ui.components.UIComponents;
 import com.kedaikopi.ui.dialogs.StockStatusDialog;
 import com.kedaikopi.ui.dialogs.MonthlyTransactionDialog;
 import com.kedaikopi.ui.dialogs.TransactionLogDialog;
 import net.miginfocom.swing.MigLayout;
 import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,10 +35,18 @@ import java.sql.*;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 /**
  * Dashboard Panel - Statistics and overview with charts
  * Different views for different roles
+ *
+ * Domain events update the cards as deltas; the queries they still need
+ * (low stock table, charts, online count, full reload) run on a
+ * BackgroundLoad, never on the EDT. EventBus is in-process: only this
+ * till's sales and stock changes arrive as events. Other tills' changes
+ * show up with the auto refresh every 5 minutes.
  */
 public class DashboardPanel extends JPanel {
 
@@ -46,6 +66,33 @@ public class DashboardPanel extends JPanel {
     private JTable tableBestSelling;
     private JTable tableLowStock;
 
+    // Best sellers: one shared ranking, tab tables built on first selection
+    private JTabbedPane bestSellingTabs;
+    private BestSellerRanking bestSellerRanking;
+    private final java.util.List<Integer> bestSellingTabCategories = new ArrayList<>(); // null = all
+    private final Map<Integer, JTable> bestSellingTables = new HashMap<>(); // tab index -> table
+
+    // Card values kept as numbers so events can be applied as deltas
+    private long todaySalesSen;
+    private int todayTransactionCount;
+    private int lowStockCount;
+    private int totalStock;
+    private final java.util.List<EventBus.Subscription> subscriptions = new ArrayList<>();
+
+    // Queries behind events and refreshes - run off the EDT
+    private final BackgroundLoad<Statistics> statisticsLoad =
+            new BackgroundLoad<>("statistics", this::queryStatistics, this::applyStatistics);
+    private final BackgroundLoad<Integer> onlineKasirLoad = new BackgroundLoad<>("online kasir count",
+            () -> UserActivityLog.countOnline("Kasir"), count -> lblOnlineKasir.setText(String.valueOf(count)));
+    private final BackgroundLoad<java.util.List<Object[]>> lowStockLoad =
+            new BackgroundLoad<>("low stock items", this::queryLowStockItems, this::applyLowStockItems);
+    private final BackgroundLoad<JFreeChart> salesTrendLoad =
+            new BackgroundLoad<>("sales trend", this::querySalesTrendChart, this::applySalesTrendChart);
+    private final BackgroundLoad<JFreeChart[]> breakdownChartsLoad =
+            new BackgroundLoad<>("charts", this::queryBreakdownCharts, this::applyBreakdownCharts);
+    private final BackgroundLoad<BestSellerRanking> rankingLoad = new BackgroundLoad<>("best selling items",
+            BestSellerRanking::getShared, this::applyBestSellerRanking);
+
     // Charts
     private ChartPanel salesTrendChart;
     private ChartPanel categoryChart;
@@ -63,6 +110,37 @@ public class DashboardPanel extends JPanel {
         loadData();
     }
 
+    @Override
+    public void addNotify() {
+        super.addNotify();
+
+        // Domain events - apply deltas instead of rebuilding the dashboard
+        EventBus eventBus = EventBus.getInstance();
+        subscriptions.add(eventBus.subscribeOnEdt(SaleCompleted.class, this::onSalesCompleted));
+        subscriptions.add(eventBus.subscribeOnEdt(StockChanged.class, this::onStockChanged));
+        subscriptions.add(eventBus.subscribeOnEdt(MenuUpdated.class, changes -> {
+            loadStatistics();
+            loadLowStockItems();
+            loadBestSellingItems();
+        }));
+        subscriptions.add(eventBus.subscribeOnEdt(PresenceChanged.class, events -> loadOnlineKasirCount()));
+        subscriptions.add(eventBus.subscribeOnEdt(DatabaseStateChanged.class, events -> {
+            if (events.get(events.size() - 1).isAvailable()) {
+                loadData(); // Catch up on what changed while the database was down
+            }
+        }));
+    }
+
+    @Override
+    public void removeNotify() {
+        for (EventBus.Subscription subscription : subscriptions) {
+            subscription.unsubscribe();
+        }
+        subscriptions.clear();
+        stopAutoRefresh();
+        super.removeNotify();
+    }
+
     private void initComponents() {
         // Use BorderLayout to contain the scroll pane
         setLayout(new BorderLayout());
@@ -330,7 +408,8 @@ public class DashboardPanel extends JPanel {
 
     /**
      * Create COMPACT best selling panel with category tabs for single-screen
-     * dashboard
+     * dashboard. Tabs are filled from the shared BestSellerRanking once it is
+     * loaded; a tab's table is only built when the tab is first selected.
      */
     private JPanel createCompactBestSellingPanel() {
         JPanel panel = new JPanel(new MigLayout("fill, insets 8", "[grow]", "[]6[grow]"));
@@ -344,45 +423,44 @@ public class DashboardPanel extends JPanel {
         panel.add(lblTitle, "wrap");
 
         // Create tabbed pane for category filtering
-        JTabbedPane tabbedPane = new JTabbedPane();
-        tabbedPane.setFont(UIComponents.FONT_BODY.deriveFont(10f));
-        tabbedPane.setBackground(Color.WHITE);
+        bestSellingTabs = new JTabbedPane();
+        bestSellingTabs.setFont(UIComponents.FONT_BODY.deriveFont(10f));
+        bestSellingTabs.setBackground(Color.WHITE);
 
-        // Create "Semua" (All categories) tab
-        JPanel allCategoriesPanel = createBestSellingTablePanel(null);
-        tabbedPane.addTab("Semua Kategori", allCategoriesPanel);
+        // "Semua" (All categories) tab - category tabs are added when the ranking arrives
+        bestSellingTabs.addTab("Semua Kategori", createTabPlaceholder());
+        bestSellingTabCategories.add(null);
 
-        // Load categories and create tabs
-        try (Connection conn = com.kedaikopi.config.DatabaseConfig.getInstance().getConnection();
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt
-                        .executeQuery("SELECT id_kategori, nama_kategori FROM tbl_kategori ORDER BY nama_kategori")) {
-
-            while (rs.next()) {
-                int categoryId = rs.getInt("id_kategori");
-                String categoryName = rs.getString("nama_kategori");
-                JPanel categoryPanel = createBestSellingTablePanel(categoryId);
-                tabbedPane.addTab(categoryName, categoryPanel);
-            }
-        } catch (Exception e) {
-            logger.error("Error loading categories for tabs", e);
-        }
+        bestSellingTabs.addChangeListener(e -> materializeBestSellingTab(bestSellingTabs.getSelectedIndex()));
 
-        panel.add(tabbedPane, "grow");
+        panel.add(bestSellingTabs, "grow");
 
         return panel;
     }
 
+    private JPanel createTabPlaceholder() {
+        JPanel placeholder = new JPanel();
+        placeholder.setBackground(Color.WHITE);
+        return placeholder;
+    }
+
     /**
-     * Create a table panel for best selling items with optional category filter
-     * 
-     * @param categoryId Category ID to filter by, or null for all categories
+     * Create a table panel for best selling items
      */
-    private JPanel createBestSellingTablePanel(Integer categoryId) {
+    private JPanel createBestSellingTablePanel(JTable table) {
         JPanel tablePanel = new JPanel(new MigLayout("fill, insets 0", "[grow]", "[grow]"));
         tablePanel.setBackground(Color.WHITE);
 
-        // Table
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createLineBorder(ColorScheme.BORDER_COLOR, 1));
+        scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        tablePanel.add(scrollPane, "grow");
+
+        return tablePanel;
+    }
+
+    private JTable createBestSellingTable() {
         String[] columns = { "#", "Menu", "Kategori", "Terjual" };
         DefaultTableModel model = new DefaultTableModel(columns, 0) {
             @Override
@@ -395,22 +473,25 @@ public class DashboardPanel extends JPanel {
         table.setRowHeight(20);
         table.getColumnModel().getColumn(0).setPreferredWidth(25);
         table.getColumnModel().getColumn(3).setPreferredWidth(55);
+        return table;
+    }
 
-        // Store the first table as the main reference
-        if (categoryId == null && tableBestSelling == null) {
-            tableBestSelling = table;
+    /**
+     * Build the table of a tab the first time it is shown
+     */
+    private void materializeBestSellingTab(int index) {
+        if (bestSellerRanking == null || index < 0 || bestSellingTables.containsKey(index)) {
+            return;
         }
 
-        JScrollPane scrollPane = new JScrollPane(table);
-        scrollPane.setBorder(BorderFactory.createLineBorder(ColorScheme.BORDER_COLOR, 1));
-        scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
-        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
-        tablePanel.add(scrollPane, "grow");
-
-        // Load data for this specific category
-        loadBestSellingItemsForCategory(table, categoryId);
+        JTable table = createBestSellingTable();
+        fillBestSellingTable(table, bestSellingTabCategories.get(index));
+        bestSellingTables.put(index, table);
+        if (index == 0) {
+            tableBestSelling = table;
+        }
 
-        return tablePanel;
+        bestSellingTabs.setComponentAt(index, createBestSellingTablePanel(table));
     }
 
     /**
@@ -730,9 +811,15 @@ public class DashboardPanel extends JPanel {
     }
 
     /**
-     * Load statistics for cards
+     * Load statistics for cards (off the EDT)
      */
     private void loadStatistics() {
+        statisticsLoad.request();
+        loadOnlineKasirCount();
+    }
+
+    private Statistics queryStatistics() throws SQLException {
+        Statistics stats = new Statistics();
         try (Connection conn = com.kedaikopi.config.DatabaseConfig.getInstance().getConnection()) {
 
             // Total sales today (including tax)
@@ -740,7 +827,7 @@ public class DashboardPanel extends JPanel {
                 // Use grand_total which stores final total (subtotal + tax)
                 String salesSql = "SELECT COALESCE(SUM(th.grand_total), 0) as total " +
                         "FROM tbl_transaksi_header th " +
-                        "WHERE DATE(th.tanggal) = CURRENT_DATE";
+                        "WHERE th.tanggal >= CURRENT_DATE AND th.tanggal < CURRENT_DATE + 1";
 
                 // For Kasir, filter by their user ID to show only their sales
                 if ("Kasir".equals(currentUser.getRole())) {
@@ -750,8 +837,7 @@ public class DashboardPanel extends JPanel {
                 try (Statement stmt = conn.createStatement();
                         ResultSet rs = stmt.executeQuery(salesSql)) {
                     if (rs.next()) {
-                        double total = rs.getDouble("total");
-                        lblTodaySales.setText(currencyFormat.format(total));
+                        stats.todaySalesSen = Money.getNumeric(rs, "total");
                     }
                 }
             }
@@ -760,7 +846,7 @@ public class DashboardPanel extends JPanel {
             if (lblTodayTransactions != null) {
                 String transSql = "SELECT COUNT(*) as count " +
                         "FROM tbl_transaksi_header " +
-                        "WHERE DATE(tanggal) = CURRENT_DATE";
+                        "WHERE tanggal >= CURRENT_DATE AND tanggal < CURRENT_DATE + 1";
 
                 // For kasir, filter by their user id
                 if ("Kasir".equals(currentUser.getRole())) {
@@ -770,21 +856,19 @@ public class DashboardPanel extends JPanel {
                 try (Statement stmt = conn.createStatement();
                         ResultSet rs = stmt.executeQuery(transSql)) {
                     if (rs.next()) {
-                        int count = rs.getInt("count");
-                        lblTodayTransactions.setText(String.valueOf(count));
+                        stats.todayTransactionCount = rs.getInt("count");
                     }
                 }
             }
 
             // Low stock count
             if (lblLowStockCount != null) {
-                String stockSql = "SELECT COUNT(*) as count FROM tbl_menu " +
+                String stockSql = "SELECT COUNT(*) as count FROM v_menu " +
                         "WHERE stok < 10 AND is_active = TRUE";
                 try (Statement stmt = conn.createStatement();
                         ResultSet rs = stmt.executeQuery(stockSql)) {
                     if (rs.next()) {
-                        int count = rs.getInt("count");
-                        lblLowStockCount.setText(String.valueOf(count));
+                        stats.lowStockCount = rs.getInt("count");
                     }
                 }
             }
@@ -795,127 +879,238 @@ public class DashboardPanel extends JPanel {
                 try (Statement stmt = conn.createStatement();
                         ResultSet rs = stmt.executeQuery(menuSql)) {
                     if (rs.next()) {
-                        int count = rs.getInt("count");
-                        lblTotalMenuItems.setText(String.valueOf(count));
-                    }
-                }
-            }
-
-            // NEW: Online Kasir count (for Kasir dashboard)
-            if (lblOnlineKasir != null) {
-                try {
-                    String onlineSql = "SELECT COUNT(*) as count FROM v_active_kasir";
-                    try (Statement stmt = conn.createStatement();
-                            ResultSet rs = stmt.executeQuery(onlineSql)) {
-                        if (rs.next()) {
-                            int count = rs.getInt("count");
-                            lblOnlineKasir.setText(String.valueOf(count));
-                        }
+                        stats.totalMenuItems = rs.getInt("count");
                     }
-                } catch (SQLException e) {
-                    // View might not exist yet, set to 0
-                    lblOnlineKasir.setText("0");
-                    logger.warn("v_active_kasir view not found, session tracking not enabled", e);
                 }
             }
 
             // Total stock (for stocker dashboard)
             if (lblTotalStock != null) {
-                String stockSql = "SELECT COALESCE(SUM(stok), 0) as total FROM tbl_menu WHERE is_active = TRUE";
+                String stockSql = "SELECT COALESCE(SUM(stok), 0) as total FROM v_menu WHERE is_active = TRUE";
                 try (Statement stmt = conn.createStatement();
                         ResultSet rs = stmt.executeQuery(stockSql)) {
                     if (rs.next()) {
-                        int totalStock = rs.getInt("total");
-                        lblTotalStock.setText(totalStock + " unit");
+                        stats.totalStock = rs.getInt("total");
                     }
                 }
             }
+        }
+        return stats;
+    }
 
-        } catch (SQLException e) {
-            logger.error("Error loading statistics", e);
+    private void applyStatistics(Statistics stats) {
+        if (lblTodaySales != null) {
+            todaySalesSen = stats.todaySalesSen;
+            lblTodaySales.setText(currencyFormat.format(Money.toDouble(todaySalesSen)));
+        }
+        if (lblTodayTransactions != null) {
+            todayTransactionCount = stats.todayTransactionCount;
+            lblTodayTransactions.setText(String.valueOf(todayTransactionCount));
+        }
+        if (lblLowStockCount != null) {
+            lowStockCount = stats.lowStockCount;
+            lblLowStockCount.setText(String.valueOf(lowStockCount));
+        }
+        if (lblTotalMenuItems != null) {
+            lblTotalMenuItems.setText(String.valueOf(stats.totalMenuItems));
+        }
+        if (lblTotalStock != null) {
+            totalStock = stats.totalStock;
+            lblTotalStock.setText(totalStock + " unit");
         }
     }
 
     /**
-     * Load best selling items
+     * Online kasir count (Kasir dashboard only) - live presences, no log scan
      */
-    private void loadBestSellingItems() {
-        if (tableBestSelling == null)
+    private void loadOnlineKasirCount() {
+        if (lblOnlineKasir == null)
             return;
 
-        loadBestSellingItemsForCategory(tableBestSelling, null);
+        onlineKasirLoad.request();
     }
 
     /**
-     * Load best selling items with optional category filter
-     * 
-     * @param table      Table to load data into
-     * @param categoryId Category ID to filter by, or null for all categories
+     * SaleCompleted batch: add today's sales to the cards and the trend chart,
+     * then refresh rankings/breakdown charts once for the whole batch
      */
-    private void loadBestSellingItemsForCategory(JTable table, Integer categoryId) {
-        if (table == null)
+    private void onSalesCompleted(java.util.List<SaleCompleted> sales) {
+        java.time.LocalDate today = java.time.LocalDate.now();
+        boolean kasirView = "Kasir".equals(currentUser.getRole());
+        long addedSen = 0;
+        int added = 0;
+
+        for (SaleCompleted sale : sales) {
+            if (sale.getTanggal() == null || !sale.getTanggal().toLocalDateTime().toLocalDate().equals(today)) {
+                continue;
+            }
+            // Owner trend chart shows everybody's sales
+            addToSalesTrend(today, sale.getGrandTotalSen());
+
+            if (kasirView && sale.getIdUser() != currentUser.getIdUser()) {
+                continue;
+            }
+            addedSen = Money.add(addedSen, sale.getGrandTotalSen());
+            added++;
+        }
+
+        if (added > 0) {
+            todaySalesSen = Money.add(todaySalesSen, addedSen);
+            todayTransactionCount += added;
+            if (lblTodaySales != null) {
+                lblTodaySales.setText(currencyFormat.format(Money.toDouble(todaySalesSen)));
+            }
+            if (lblTodayTransactions != null) {
+                lblTodayTransactions.setText(String.valueOf(todayTransactionCount));
+            }
+        }
+
+        loadBestSellingItems();
+        refreshBreakdownCharts();
+    }
+
+    private void addToSalesTrend(java.time.LocalDate date, long sen) {
+        if (salesTrendChart == null || salesTrendChart.getChart() == null)
             return;
 
-        DefaultTableModel model = (DefaultTableModel) table.getModel();
-        model.setRowCount(0);
+        org.jfree.data.xy.XYDataset dataset = salesTrendChart.getChart().getXYPlot().getDataset();
+        if (dataset instanceof org.jfree.data.time.TimeSeriesCollection) {
+            org.jfree.data.time.TimeSeriesCollection collection = (org.jfree.data.time.TimeSeriesCollection) dataset;
+            if (collection.getSeriesCount() == 0)
+                return;
 
-        String sql = "SELECT m.nama_menu, k.nama_kategori, " +
-                "COALESCE(SUM(td.qty), 0) as total_terjual, " +
-                "COALESCE(SUM(td.subtotal), 0) as total_revenue " +
-                "FROM tbl_menu m " +
-                "JOIN tbl_kategori k ON m.id_kategori = k.id_kategori " +
-                "LEFT JOIN tbl_transaksi_detail td ON m.id_menu = td.id_menu " +
-                "WHERE m.is_active = TRUE ";
+            org.jfree.data.time.TimeSeries series = collection.getSeries(0);
+            org.jfree.data.time.Day day = new org.jfree.data.time.Day(java.sql.Date.valueOf(date));
+            Number current = series.getValue(day);
+            double total = (current != null ? current.doubleValue() : 0) + Money.toDouble(sen);
+            series.addOrUpdate(day, total);
+        }
+    }
 
-        // Add category filter if specified
-        if (categoryId != null) {
-            sql += "AND m.id_kategori = " + categoryId + " ";
+    /**
+     * StockChanged batch: adjust stock cards from old/new values and reload
+     * the low-stock table only if an item crossed or sits under the threshold
+     */
+    private void onStockChanged(java.util.List<StockChanged> changes) {
+        int lowStockDelta = 0;
+        int totalStockDelta = 0;
+        boolean lowStockAffected = false;
+
+        for (StockChanged change : changes) {
+            boolean wasLow = change.getOldStok() < 10;
+            boolean isLow = change.getNewStok() < 10;
+            lowStockDelta += (isLow ? 1 : 0) - (wasLow ? 1 : 0);
+            totalStockDelta += change.getNewStok() - change.getOldStok();
+            lowStockAffected |= wasLow || isLow;
         }
 
-        sql += "GROUP BY m.id_menu, m.nama_menu, k.nama_kategori " +
-                "ORDER BY total_terjual DESC"; // Show all menu items sorted by sales
+        if (lblLowStockCount != null && lowStockDelta != 0) {
+            lowStockCount += lowStockDelta;
+            lblLowStockCount.setText(String.valueOf(lowStockCount));
+        }
+        if (lblTotalStock != null && totalStockDelta != 0) {
+            totalStock += totalStockDelta;
+            lblTotalStock.setText(totalStock + " unit");
+        }
+        if (lowStockAffected) {
+            loadLowStockItems();
+        }
+    }
 
-        try (Connection conn = com.kedaikopi.config.DatabaseConfig.getInstance().getConnection();
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery(sql)) {
+    /**
+     * Load best selling items - shared ranking is fetched off the EDT
+     */
+    private void loadBestSellingItems() {
+        if (bestSellingTabs == null)
+            return;
+        rankingLoad.request();
+    }
 
-            int rank = 1;
-            while (rs.next()) {
-                String namaMenu = rs.getString("nama_menu");
-                String kategori = rs.getString("nama_kategori");
-                int terjual = rs.getInt("total_terjual");
-                double revenue = rs.getDouble("total_revenue");
+    /**
+     * Show a (new) ranking: rebuild the tab list only when categories changed,
+     * otherwise refill the tables that were already built
+     */
+    private void applyBestSellerRanking(BestSellerRanking ranking) {
+        if (ranking == bestSellerRanking) {
+            return;
+        }
+        bestSellerRanking = ranking;
 
-                model.addRow(new Object[] {
-                        rank++,
-                        namaMenu,
-                        kategori,
-                        terjual + " pcs",
-                        currencyFormat.format(revenue)
-                });
+        java.util.List<Integer> categoryIds = new ArrayList<>();
+        categoryIds.add(null);
+        for (Kategori kategori : ranking.getCategories()) {
+            categoryIds.add(kategori.getIdKategori());
+        }
+
+        boolean sameTabs = categoryIds.equals(bestSellingTabCategories);
+        for (int i = 1; sameTabs && i < categoryIds.size(); i++) {
+            sameTabs = ranking.getCategories().get(i - 1).getNamaKategori().equals(bestSellingTabs.getTitleAt(i));
+        }
+
+        if (sameTabs) {
+            for (Map.Entry<Integer, JTable> entry : bestSellingTables.entrySet()) {
+                fillBestSellingTable(entry.getValue(), bestSellingTabCategories.get(entry.getKey()));
+            }
+        } else {
+            while (bestSellingTabs.getTabCount() > 1) {
+                bestSellingTabs.removeTabAt(bestSellingTabs.getTabCount() - 1);
+            }
+            bestSellingTables.keySet().removeIf(index -> index > 0);
+            if (bestSellingTables.containsKey(0)) {
+                fillBestSellingTable(bestSellingTables.get(0), null);
             }
 
-            if (model.getRowCount() == 0) {
-                model.addRow(new Object[] { "", "Belum ada data transaksi", "", "", "" });
+            bestSellingTabCategories.clear();
+            bestSellingTabCategories.addAll(categoryIds);
+            for (Kategori kategori : ranking.getCategories()) {
+                bestSellingTabs.addTab(kategori.getNamaKategori(), createTabPlaceholder());
             }
+        }
 
-        } catch (SQLException e) {
-            logger.error("Error loading best selling items", e);
+        materializeBestSellingTab(bestSellingTabs.getSelectedIndex());
+    }
+
+    /**
+     * Fill table from the current ranking
+     *
+     * @param categoryId Category ID, or null for all categories
+     */
+    private void fillBestSellingTable(JTable table, Integer categoryId) {
+        DefaultTableModel model = (DefaultTableModel) table.getModel();
+        model.setRowCount(0);
+
+        java.util.List<BestSellerRanking.Entry> entries = categoryId == null
+                ? bestSellerRanking.getOverall()
+                : bestSellerRanking.getForCategory(categoryId);
+
+        for (BestSellerRanking.Entry entry : entries) {
+            model.addRow(new Object[] {
+                    entry.getRank(),
+                    entry.getNamaMenu(),
+                    entry.getNamaKategori(),
+                    entry.getTotalTerjual() + " pcs"
+            });
+        }
+
+        if (model.getRowCount() == 0) {
+            model.addRow(new Object[] { "", "Belum ada data transaksi", "", "" });
         }
     }
 
     /**
-     * Load low stock items
+     * Load low stock items (off the EDT)
      */
     private void loadLowStockItems() {
         if (tableLowStock == null)
             return;
 
-        DefaultTableModel model = (DefaultTableModel) tableLowStock.getModel();
-        model.setRowCount(0);
+        lowStockLoad.request();
+    }
 
+    private java.util.List<Object[]> queryLowStockItems() throws SQLException {
+        java.util.List<Object[]> rows = new ArrayList<>();
         String sql = "SELECT m.nama_menu, k.nama_kategori, m.stok " +
-                "FROM tbl_menu m " +
+                "FROM v_menu m " +
                 "JOIN tbl_kategori k ON m.id_kategori = k.id_kategori " +
                 "WHERE m.stok < 10 AND m.is_active = TRUE " +
                 "ORDER BY m.stok ASC";
@@ -938,20 +1133,25 @@ public class DashboardPanel extends JPanel {
                     status = "RENDAH";
                 }
 
-                model.addRow(new Object[] {
+                rows.add(new Object[] {
                         namaMenu,
                         kategori,
                         stok,
                         status
                 });
             }
+        }
+        return rows;
+    }
 
-            if (model.getRowCount() == 0) {
-                model.addRow(new Object[] { "Semua stok aman", "", "", "" });
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error loading low stock items", e);
+    private void applyLowStockItems(java.util.List<Object[]> rows) {
+        DefaultTableModel model = (DefaultTableModel) tableLowStock.getModel();
+        model.setRowCount(0);
+        for (Object[] row : rows) {
+            model.addRow(row);
+        }
+        if (model.getRowCount() == 0) {
+            model.addRow(new Object[] { "Semua stok aman", "", "", "" });
         }
     }
 
@@ -961,6 +1161,9 @@ public class DashboardPanel extends JPanel {
     private void startAutoRefresh() {
         // Auto-refresh every 5 minutes (300,000 ms)
         autoRefreshTimer = new javax.swing.Timer(300000, e -> {
+            if (!DatabaseHealth.getInstance().isAvailable()) {
+                return; // Keep the last figures instead of blanking them
+            }
             SwingUtilities.invokeLater(() -> {
                 loadData();
             });
@@ -992,30 +1195,51 @@ public class DashboardPanel extends JPanel {
      * Refresh only the charts (without reloading card statistics)
      */
     private void refreshChartsOnly() {
-        try (Connection conn = com.kedaikopi.config.DatabaseConfig.getInstance().getConnection()) {
-            // Refresh sales trend chart
-            if (salesTrendChart != null) {
-                ChartPanel newSalesTrendChart = ChartFactory.createSalesTrendChart(conn);
-                salesTrendChart.setChart(newSalesTrendChart.getChart());
-            }
+        if (salesTrendChart != null) {
+            salesTrendLoad.request();
+        }
+        refreshBreakdownCharts();
+    }
 
-            // Refresh category chart
-            if (categoryChart != null) {
-                ChartPanel newCategoryChart = ChartFactory.createCategoryDistributionChart(conn);
-                categoryChart.setChart(newCategoryChart.getChart());
-            }
+    /**
+     * Refresh category and top product charts (no per-sale delta for these)
+     */
+    private void refreshBreakdownCharts() {
+        if (categoryChart == null && topProductsChart == null)
+            return;
 
-            // Refresh top products chart
-            if (topProductsChart != null) {
-                ChartPanel newTopProductsChart = ChartFactory.createTopProductsChart(conn);
-                topProductsChart.setChart(newTopProductsChart.getChart());
-            }
+        breakdownChartsLoad.request();
+    }
 
-        } catch (SQLException ex) {
-            logger.error("Error refreshing charts", ex);
+    private JFreeChart[] queryBreakdownCharts() throws SQLException {
+        try (Connection conn = com.kedaikopi.config.DatabaseConfig.getInstance().getConnection()) {
+            return new JFreeChart[] {
+                    categoryChart != null ? ChartFactory.categoryDistributionChart(conn) : null,
+                    topProductsChart != null ? ChartFactory.topProductsChart(conn) : null
+            };
+        }
+    }
+
+    private void applyBreakdownCharts(JFreeChart[] charts) {
+        if (charts[0] != null) {
+            categoryChart.setChart(charts[0]);
+        }
+        if (charts[1] != null) {
+            topProductsChart.setChart(charts[1]);
         }
     }
 
+    private JFreeChart querySalesTrendChart() throws SQLException {
+        try (Connection conn = com.kedaikopi.config.DatabaseConfig.getInstance().getConnection()) {
+            return ChartFactory.salesTrendChart(conn);
+        }
+    }
+
+    private void applySalesTrendChart(JFreeChart chart) {
+        salesTrendChart.setChart(chart);
+    }
+
+
     /**
      * Stop auto-refresh timer when panel is disposed
      */
@@ -1025,4 +1249,62 @@ public class DashboardPanel extends JPanel {
             logger.info("Dashboard auto-refresh stopped");
         }
     }
+
+    /**
+     * Card values of one statistics query
+     */
+    private static final class Statistics {
+        long todaySalesSen;
+        int todayTransactionCount;
+        int lowStockCount;
+        int totalMenuItems;
+        int totalStock;
+    }
+
+    /**
+     * One kind of dashboard query in a SwingWorker: at most one runs at a
+     * time, and a request made while it runs starts it once more afterwards
+     * (events during a slow query are not lost). EDT only.
+     */
+    private final class BackgroundLoad<T> {
+        private final String what;
+        private final Callable<T> query;
+        private final Consumer<T> apply;
+        private boolean running;
+        private boolean again;
+
+        BackgroundLoad(String what, Callable<T> query, Consumer<T> apply) {
+            this.what = what;
+            this.query = query;
+            this.apply = apply;
+        }
+
+        void request() {
+            if (running) {
+                again = true;
+                return;
+            }
+            running = true;
+            new SwingWorker<T, Void>() {
+                @Override
+                protected T doInBackground() throws Exception {
+                    return query.call();
+                }
+
+                @Override
+                protected void done() {
+                    running = false;
+                    try {
+                        apply.accept(get());
+                    } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                        logger.error("Error loading {}", what, e);
+                    }
+                    if (again) {
+                        again = false;
+                        request();
+                    }
+                }
+            }.execute();
+        }
+    }
 }
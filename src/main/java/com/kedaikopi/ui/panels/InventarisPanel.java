@@ -685,6 +685,9 @@ class InventarisAutoRefresh {
     static void startAutoRefresh(InventarisPanel panel) {
         // Auto-refresh every 2 minutes (120,000 ms)
         javax.swing.Timer timer = new javax.swing.Timer(120000, e -> {
+            if (!com.kedaikopi.config.DatabaseHealth.getInstance().isAvailable()) {
+                return; // Keep the last loaded stock while the database is down
+            }
             SwingUtilities.invokeLater(() -> {
                 panel.loadData();
                 org.slf4j.LoggerFactory.getLogger(InventarisPanel.class)
@@ -1,8 +1,19 @@
 package com.kedaikopi.ui.panels;
 
+import com.kedaikopi.event.EventBus;
+import com.kedaikopi.event.MenuUpdated;
+import com.kedaikopi.event.StockChanged;
 import com.kedaikopi.model.*;
+import com.kedaikopi.ui.components.CartTableModel;
 import com.kedaikopi.ui.components.UIComponents;
 import com.kedaikopi.util.ColorScheme;
+import com.kedaikopi.util.LogContext;
+import com.kedaikopi.util.Money;
+import com.kedaikopi.util.PrintSpooler;
+import com.kedaikopi.util.RateLimitedLogger;
+import com.kedaikopi.util.SalesJournal;
+import com.kedaikopi.util.StockReservations;
+import com.kedaikopi.util.TaxRule;
 import com.kedaikopi.util.ToastNotification;
 import com.kedaikopi.util.ReceiptPrinter;
 import net.miginfocom.swing.MigLayout;
@@ -10,14 +21,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.Timestamp;
 import java.text.NumberFormat;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Kasir Panel - Point of Sale (POS) System
@@ -25,6 +39,7 @@ import java.util.Locale;
 public class KasirPanel extends JPanel {
 
     private static final Logger logger = LoggerFactory.getLogger(KasirPanel.class);
+    private static final RateLimitedLogger cartLog = new RateLimitedLogger(logger, 20, 60_000); // per click
     private User currentUser;
     private NumberFormat currencyFormat;
 
@@ -35,18 +50,55 @@ public class KasirPanel extends JPanel {
 
     // Right side - Shopping cart
     private JTable cartTable;
-    private DefaultTableModel cartModel;
-    private JLabel lblSubtotal, lblTotal;
+    private CartTableModel cartModel;
+    private JLabel lblSubtotal, lblTax, lblTotal;
     private JButton btnPay, btnClearCart;
 
-    // Cart data
-    private List<CartItem> cartItems;
+    // Product cards by id_menu, for in-place stock updates
+    private final Map<Integer, MenuKopi> menusById = new HashMap<>();
+    private final Map<Integer, JLabel> stockLabels = new HashMap<>();
+    private final Map<Integer, JButton> addButtons = new HashMap<>();
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
+
+    // Checkout of the current cart - pressing BAYAR again reuses key and time
+    // so a sale that did reach the database is not stored twice
+    private UUID checkoutKey;
+    private Timestamp checkoutTime;
+
+    // Stock held for the cart lines, so payment does not fail on stock
+    private final StockReservations reservations = new StockReservations();
+
+    // Receipts print in the background; only report jobs the spooler gave up on
+    private final PrintSpooler.Listener printListener = new PrintSpooler.Listener() {
+        @Override
+        public void onPrinted(int idTransaksi) {
+        }
+
+        @Override
+        public void onFailed(int idTransaksi, String error, boolean willRetry) {
+            if (!willRetry) {
+                SwingUtilities.invokeLater(() -> ToastNotification.showError(KasirPanel.this,
+                        "Struk #" + idTransaksi + " gagal dicetak. Cetak ulang dari Log Transaksi."));
+            }
+        }
+    };
+
+    // Database lost / back while selling - checkout keeps working from the journal
+    private final SalesJournal.Listener journalListener = (offline, pendingSales) -> SwingUtilities
+            .invokeLater(() -> {
+                if (offline) {
+                    ToastNotification.showWarning(KasirPanel.this,
+                            "Database tidak terhubung - transaksi disimpan offline");
+                } else {
+                    ToastNotification.showSuccess(KasirPanel.this,
+                            "Database terhubung kembali - transaksi offline sudah tersimpan");
+                }
+            });
 
     public KasirPanel(User user) {
         this.currentUser = user;
         this.currencyFormat = NumberFormat
                 .getCurrencyInstance(new Locale.Builder().setLanguage("id").setRegion("ID").build());
-        this.cartItems = new ArrayList<>();
         initComponents();
         loadData();
     }
@@ -69,6 +121,29 @@ public class KasirPanel extends JPanel {
         add(rightPanel, "grow, h 600!");
     }
 
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        PrintSpooler.getInstance().addListener(printListener);
+        SalesJournal.getInstance().addListener(journalListener);
+
+        EventBus eventBus = EventBus.getInstance();
+        subscriptions.add(eventBus.subscribeOnEdt(StockChanged.class, this::applyStockChanges));
+        subscriptions.add(eventBus.subscribeOnEdt(MenuUpdated.class, changes -> loadData()));
+    }
+
+    @Override
+    public void removeNotify() {
+        PrintSpooler.getInstance().removeListener(printListener);
+        SalesJournal.getInstance().removeListener(journalListener);
+        for (EventBus.Subscription subscription : subscriptions) {
+            subscription.unsubscribe();
+        }
+        subscriptions.clear();
+        reservations.release(); // MainFrame builds a new panel on every visit
+        super.removeNotify();
+    }
+
     private JPanel createProductPanel() {
         JPanel panel = new JPanel(new BorderLayout(0, 8));
         panel.setBackground(Color.WHITE);
@@ -140,14 +215,12 @@ public class KasirPanel extends JPanel {
         JLabel lblHeader = UIComponents.createLabel("Keranjang Belanja", UIComponents.LabelType.HEADING);
         panel.add(lblHeader, "wrap");
 
-        // Cart table
-        String[] columns = { "Menu", "Harga", "Qty", "Subtotal", "" };
-        cartModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 4; // Only delete button column
-            }
-        };
+        // Cart table - incremental model, summary follows every row change
+        TaxRule taxRule = TaxRule.load();
+        cartModel = new CartTableModel(currencyFormat, taxRule);
+        ReceiptPrinter.setTaxRule(taxRule);
+        cartModel.addTableModelListener(e -> updateSummary());
+        cartModel.addTableModelListener(e -> checkoutKey = null); // Different cart, different sale
 
         cartTable = UIComponents.createStyledTable(cartModel);
         cartTable.getColumnModel().getColumn(0).setPreferredWidth(150);
@@ -210,11 +283,10 @@ public class KasirPanel extends JPanel {
         lblSubtotal = new JLabel("Rp 0");
         lblSubtotal.setFont(UIComponents.FONT_BODY);
 
-        JLabel lblTaxLabel = new JLabel("Pajak (10%):");
+        JLabel lblTaxLabel = new JLabel(cartModel.getTaxRule().getDisplayLabel() + ":");
         lblTaxLabel.setFont(UIComponents.FONT_BODY);
-        JLabel lblTax = new JLabel("Rp 0");
+        lblTax = new JLabel("Rp 0");
         lblTax.setFont(UIComponents.FONT_BODY);
-        lblTax.setName("lblTax"); // For easy retrieval
 
         JLabel lblTotalLabel = new JLabel("TOTAL:");
         lblTotalLabel.setFont(UIComponents.FONT_HEADING);
@@ -231,7 +303,7 @@ public class KasirPanel extends JPanel {
         summaryPanel.add(lblTotal, "wrap");
 
         // Tax note
-        JLabel lblNote = new JLabel("* Harga sudah termasuk pajak 10% *");
+        JLabel lblNote = new JLabel("* " + cartModel.getTaxRule().getPriceNote() + " *");
         lblNote.setFont(new Font("Segoe UI", Font.ITALIC, 10));
         lblNote.setForeground(new Color(100, 100, 100));
         summaryPanel.add(lblNote, "span 2, center, gaptop 3");
@@ -258,21 +330,51 @@ public class KasirPanel extends JPanel {
     }
 
     private void loadData() {
-        allMenus = MenuKopi.getAllActive();
+        List<MenuKopi> loaded = MenuKopi.getAllActive();
+        if (loaded.isEmpty() && allMenus != null && SalesJournal.getInstance().isOffline()) {
+            return; // Database down - keep selling from the catalog on screen
+        }
+        allMenus = loaded;
+        menusById.clear();
+        for (MenuKopi menu : allMenus) {
+            menusById.put(menu.getIdMenu(), menu);
+        }
         displayProducts(allMenus);
     }
 
+    /**
+     * Apply stock deltas to the shared MenuKopi objects (also used by the cart)
+     * and to the visible cards only
+     */
+    private void applyStockChanges(List<StockChanged> changes) {
+        for (StockChanged change : changes) {
+            MenuKopi menu = menusById.get(change.getIdMenu());
+            if (menu == null) {
+                continue;
+            }
+            menu.setStok(change.getNewStok());
+
+            JLabel lblStock = stockLabels.get(change.getIdMenu());
+            if (lblStock != null) {
+                updateStockLabel(lblStock, menu);
+                addButtons.get(change.getIdMenu()).setEnabled(menu.getStok() > 0);
+            }
+        }
+    }
+
+    private void updateStockLabel(JLabel lblStock, MenuKopi menu) {
+        lblStock.setText("Stok: " + menu.getStok());
+        lblStock.setForeground(menu.getStok() < 10 ? ColorScheme.ACCENT_ORANGE : UIManager.getColor("Label.foreground"));
+    }
+
     private void displayProducts(List<MenuKopi> menus) {
         productPanel.removeAll();
-        logger.info("=== DISPLAYING PRODUCTS ===");
-        logger.info("[DEBUG] Displaying {} menu cards in 2-column grid", menus.size());
+        stockLabels.clear();
+        addButtons.clear();
 
         // Add cards directly to GridLayout
-        for (int i = 0; i < menus.size(); i++) {
-            MenuKopi menu = menus.get(i);
-            JPanel productCard = createProductCard(menu);
-            productPanel.add(productCard);
-            logger.info("  Card #{}: {}", (i + 1), menu.getNamaMenu());
+        for (MenuKopi menu : menus) {
+            productPanel.add(createProductCard(menu));
         }
 
         // Add filler if odd number
@@ -285,8 +387,7 @@ public class KasirPanel extends JPanel {
         productPanel.revalidate();
         productPanel.repaint();
 
-        logger.info("[DEBUG] {} cards displayed in 2-column grid", menus.size());
-        logger.info("===========================");
+        logger.debug("{} menu cards displayed", menus.size()); // Runs per search keystroke - one line only
     }
 
     private JPanel createProductCard(MenuKopi menu) {
@@ -319,18 +420,18 @@ public class KasirPanel extends JPanel {
         card.add(lblPrice, "wrap");
 
         // Stock info
-        JLabel lblStock = new JLabel("Stok: " + menu.getStok());
+        JLabel lblStock = new JLabel();
         lblStock.setFont(UIComponents.FONT_SMALL);
-        if (menu.getStok() < 10) {
-            lblStock.setForeground(ColorScheme.ACCENT_ORANGE);
-        }
+        updateStockLabel(lblStock, menu);
         card.add(lblStock, "wrap");
+        stockLabels.put(menu.getIdMenu(), lblStock);
 
         // Add to cart button
         JButton btnAdd = UIComponents.createButton("Tambah", UIComponents.ButtonType.PRIMARY);
         btnAdd.addActionListener(e -> addToCart(menu));
         btnAdd.setEnabled(menu.getStok() > 0);
         card.add(btnAdd, "growx, h 32!");
+        addButtons.put(menu.getIdMenu(), btnAdd);
 
         // Hover effect
         card.addMouseListener(new java.awt.event.MouseAdapter() {
@@ -372,79 +473,80 @@ public class KasirPanel extends JPanel {
 
     private void addToCart(MenuKopi menu) {
         // Check if item already in cart
-        for (CartItem item : cartItems) {
-            if (item.getMenu().getIdMenu() == menu.getIdMenu()) {
-                // Increase quantity
-                if (item.getQty() < menu.getStok()) {
-                    item.setQty(item.getQty() + 1);
-                    updateCartDisplay();
-                    return;
-                } else {
-                    UIComponents.showError((JFrame) SwingUtilities.getWindowAncestor(this),
-                            "Stok tidak mencukupi!");
-                    return;
-                }
+        CartTableModel.CartLine line = cartModel.getLine(menu.getIdMenu());
+        if (line != null) {
+            // Increase quantity
+            if (line.getQty() < menu.getStok()) {
+                cartModel.setQty(line, line.getQty() + 1);
+                holdLine(menu, line.getQty());
+            } else {
+                UIComponents.showError((JFrame) SwingUtilities.getWindowAncestor(this),
+                        "Stok tidak mencukupi!");
             }
+            return;
         }
 
         // Add new item to cart
-        CartItem newItem = new CartItem(menu, 1);
-        cartItems.add(newItem);
-        updateCartDisplay();
+        cartModel.add(menu, 1);
+        holdLine(menu, 1);
 
         // Show toast notification
         ToastNotification.showSuccess(this, menu.getNamaMenu() + " ditambahkan ke keranjang");
-        logger.info("Added to cart: {} x1", menu.getNamaMenu());
+        cartLog.info("Added to cart: {} x1", menu.getNamaMenu());
     }
 
-    private void removeFromCart(int row) {
-        if (row >= 0 && row < cartItems.size()) {
-            CartItem removed = cartItems.remove(row);
-            updateCartDisplay();
-            ToastNotification.showInfo(this, removed.getMenu().getNamaMenu() + " dihapus dari keranjang");
-            logger.info("Removed from cart: {}", removed.getMenu().getNamaMenu());
-        }
+    /**
+     * Reserve the line's new qty; when other carts hold the rest, shrink the
+     * line to what was granted (unless it changed again meanwhile)
+     */
+    private void holdLine(MenuKopi menu, int qty) {
+        reservations.hold(menu.getIdMenu(), qty)
+                .thenAcceptAsync(granted -> {
+                    if (granted < qty && shrinkLine(menu.getIdMenu(), qty, granted)) {
+                        ToastNotification.showWarning(this, "Stok " + menu.getNamaMenu()
+                                + " sedang ditahan kasir lain, tersedia " + granted);
+                    }
+                }, SwingUtilities::invokeLater);
     }
 
-    private void updateCartDisplay() {
-        cartModel.setRowCount(0);
-        double subtotal = 0;
-
-        for (CartItem item : cartItems) {
-            double itemSubtotal = item.getQty() * item.getMenu().getHarga();
-            subtotal += itemSubtotal;
-
-            cartModel.addRow(new Object[] {
-                    item.getMenu().getNamaMenu(),
-                    currencyFormat.format(item.getMenu().getHarga()),
-                    item.getQty(),
-                    currencyFormat.format(itemSubtotal),
-                    "X"
-            });
+    /**
+     * @return true if the line still had qty and was shrunk or removed
+     */
+    private boolean shrinkLine(int idMenu, int qty, int granted) {
+        CartTableModel.CartLine line = cartModel.getLine(idMenu);
+        if (line == null || line.getQty() != qty) {
+            return false;
         }
+        if (granted > 0) {
+            cartModel.setQty(line, granted);
+        } else {
+            cartModel.remove(line.getRow());
+        }
+        return true;
+    }
 
-        lblSubtotal.setText(currencyFormat.format(subtotal));
-
-        // Calculate tax (10%)
-        double tax = subtotal * 0.10;
-        double total = subtotal + tax;
-
-        // Update tax label if it exists
-        Component[] components = ((JPanel) lblSubtotal.getParent()).getComponents();
-        for (Component comp : components) {
-            if (comp instanceof JLabel && "lblTax".equals(comp.getName())) {
-                ((JLabel) comp).setText(currencyFormat.format(tax));
-                break;
-            }
+    private void removeFromCart(int row) {
+        CartTableModel.CartLine removed = cartModel.remove(row);
+        if (removed != null) {
+            reservations.hold(removed.getMenu().getIdMenu(), 0);
+            ToastNotification.showInfo(this, removed.getMenu().getNamaMenu() + " dihapus dari keranjang");
+            cartLog.info("Removed from cart: {}", removed.getMenu().getNamaMenu());
         }
+    }
 
-        lblTotal.setText(currencyFormat.format(total));
+    /**
+     * Refresh summary labels from the model's running totals
+     */
+    private void updateSummary() {
+        lblSubtotal.setText(currencyFormat.format(Money.toDouble(cartModel.getSubtotal())));
+        lblTax.setText(currencyFormat.format(Money.toDouble(cartModel.getTax())));
+        lblTotal.setText(currencyFormat.format(Money.toDouble(cartModel.getTotal())));
 
-        btnPay.setEnabled(!cartItems.isEmpty());
+        btnPay.setEnabled(!cartModel.isEmpty());
     }
 
     private void clearCart() {
-        if (cartItems.isEmpty()) {
+        if (cartModel.isEmpty()) {
             return;
         }
 
@@ -453,111 +555,138 @@ public class KasirPanel extends JPanel {
                 "Konfirmasi");
 
         if (confirm) {
-            cartItems.clear();
-            updateCartDisplay();
+            cartModel.clear();
+            reservations.release();
             logger.info("Cart cleared");
         }
     }
 
     private void processPayment() {
-        if (cartItems.isEmpty()) {
+        if (cartModel.isEmpty()) {
             UIComponents.showError((JFrame) SwingUtilities.getWindowAncestor(this),
                     "Keranjang masih kosong!");
             return;
         }
 
-        // Calculate subtotal and tax
-        double subtotal = 0;
-        for (CartItem item : cartItems) {
-            subtotal += item.getQty() * item.getMenu().getHarga();
+        // Every line must be held before the customer pays
+        Map<Integer, Integer> lines = new LinkedHashMap<>();
+        for (CartTableModel.CartLine item : cartModel.getLines()) {
+            lines.put(item.getMenu().getIdMenu(), item.getQty());
         }
+        btnPay.setEnabled(false);
+        reservations.confirm(lines)
+                .whenCompleteAsync((shortages, error) -> {
+                    if (error != null) {
+                        // Reservations never block a sale - the save checks the stock again
+                        logger.error("Stock confirmation failed, paying without it", error);
+                        btnPay.setEnabled(true);
+                        pay();
+                        return;
+                    }
+                    if (shortages.isEmpty()) {
+                        pay();
+                        return;
+                    }
+                    for (Map.Entry<Integer, Integer> shortage : shortages.entrySet()) {
+                        shrinkLine(shortage.getKey(), lines.get(shortage.getKey()), shortage.getValue());
+                    }
+                    updateSummary();
+                    ToastNotification.showWarning(this,
+                            "Stok sebagian menu sudah berkurang, keranjang disesuaikan. Periksa lalu BAYAR lagi.");
+                }, SwingUtilities::invokeLater);
+    }
 
-        double tax = subtotal * 0.10; // 10% tax
-        double grandTotal = subtotal + tax;
+    private void pay() {
+        // Subtotal and tax are maintained by the cart model (sen)
+        long subtotal = cartModel.getSubtotal();
+        long tax = cartModel.getTax();
+        long grandTotal = cartModel.getTotal();
 
         // Use new PaymentMethodDialog
         com.kedaikopi.ui.dialogs.PaymentMethodDialog paymentDialog = new com.kedaikopi.ui.dialogs.PaymentMethodDialog(
-                SwingUtilities.getWindowAncestor(this), grandTotal);
+                SwingUtilities.getWindowAncestor(this), Money.toDouble(grandTotal));
         paymentDialog.setVisible(true);
 
         if (paymentDialog.isConfirmed()) {
+            if (checkoutKey == null) {
+                checkoutKey = UUID.randomUUID();
+                checkoutTime = Timestamp.valueOf(LocalDateTime.now());
+            }
+
             // Create transaction
             TransaksiHeader transaksi = new TransaksiHeader();
+            transaksi.setClientKey(checkoutKey);
+            transaksi.setReservationKey(reservations.getCartKey());
             transaksi.setIdUser(currentUser.getIdUser());
-            transaksi.setTanggal(Timestamp.valueOf(LocalDateTime.now()));
-            transaksi.setTotalHarga(subtotal);
-            transaksi.setPajak(tax);
-            transaksi.setGrandTotal(grandTotal);
-            transaksi.setTunai(paymentDialog.getCashAmount());
-            transaksi.setKembalian(paymentDialog.getChange());
+            transaksi.setTanggal(checkoutTime);
+            transaksi.setTotalHargaSen(subtotal);
+            transaksi.setPajakSen(tax);
+            transaksi.setGrandTotalSen(grandTotal);
+
+            // Change computed exactly from the paid amount
+            long tunai = Money.of(paymentDialog.getCashAmount());
+            transaksi.setTunaiSen(tunai);
+            transaksi.setKembalianSen(Math.max(0, Money.subtract(tunai, grandTotal)));
             transaksi.setMetodePembayaran(paymentDialog.getSelectedMethod()); // Use selected method
             transaksi.setUser(currentUser);
 
             // Add details
             List<TransaksiDetail> details = new ArrayList<>();
-            for (CartItem item : cartItems) {
+            for (CartTableModel.CartLine item : cartModel.getLines()) {
                 TransaksiDetail detail = new TransaksiDetail(
                         item.getMenu().getIdMenu(),
                         item.getQty(),
-                        item.getMenu().getHarga());
+                        item.getMenu().getHargaSen());
                 detail.setMenu(item.getMenu()); // Set Menu object for receipt printer
                 details.add(detail);
             }
             transaksi.setDetails(details);
 
-            // Save transaction
-            if (transaksi.save()) {
-                // Show success toast
-                ToastNotification.showSuccess(this,
-                        "Transaksi berhasil! Total: " + currencyFormat.format(grandTotal));
-
-                // Clear cart and reload products
-                cartItems.clear();
-                updateCartDisplay();
-                loadData(); // Reload to update stock display
+            // Journal first, then the database; the EDT never waits, the result comes back on it
+            btnPay.setEnabled(false);
+            SalesJournal.getInstance().submit(transaksi)
+                    .thenAcceptAsync(checkout -> finishPayment(transaksi, checkout), SwingUtilities::invokeLater);
+        } else {
+            updateSummary();
+        }
+    }
 
-                logger.info("Transaction completed. ID: {}", transaksi.getIdTransaksiHeader());
+    private void finishPayment(TransaksiHeader transaksi, SalesJournal.Checkout checkout) {
+        switch (checkout.getStatus()) {
+            case SAVED:
+                // Stock on the product cards follows StockChanged events
+                ToastNotification.showSuccess(this,
+                        "Transaksi berhasil! Total: " + currencyFormat.format(transaksi.getGrandTotal()));
+                break;
 
-                // Show receipt print preview (BLOCKS until closed)
-                Window parentWindow = SwingUtilities.getWindowAncestor(this);
-                ReceiptPrinter.showPrintPreview(parentWindow, transaksi);
+            case OFFLINE:
+                // The journal already took the sale off the local catalog (StockChanged)
+                ToastNotification.showWarning(this, "Transaksi disimpan offline (OFF-"
+                        + (-checkout.getIdTransaksi()) + "), dikirim otomatis saat database terhubung");
+                break;
 
-                // Auto-refresh dashboard to show updated data
-                Window window = SwingUtilities.getWindowAncestor(this);
-                if (window instanceof com.kedaikopi.ui.MainFrame) {
-                    ((com.kedaikopi.ui.MainFrame) window).refreshDashboard();
-                }
+            case REJECTED:
+                ToastNotification.showError(this, "Stok tidak mencukupi, transaksi dibatalkan!");
+                updateSummary();
+                return;
 
-            } else {
+            default:
                 ToastNotification.showError(this, "Gagal menyimpan transaksi!");
                 logger.error("Failed to save transaction");
-            }
+                updateSummary();
+                return;
         }
-    }
-}
 
-/**
- * Inner class to represent cart items
- */
-class CartItem {
-    private MenuKopi menu;
-    private int qty;
+        transaksi.setIdTransaksiHeader(checkout.getIdTransaksi());
+        cartModel.clear();
+        reservations.reset();
+        LogContext.withSale(transaksi.getClientKey(), () -> logger.info("Transaction completed ({}). ID: {}",
+                checkout.getStatus(), checkout.getIdTransaksi()));
 
-    public CartItem(MenuKopi menu, int qty) {
-        this.menu = menu;
-        this.qty = qty;
-    }
-
-    public MenuKopi getMenu() {
-        return menu;
-    }
-
-    public int getQty() {
-        return qty;
-    }
-
-    public void setQty(int qty) {
-        this.qty = qty;
+        // Receipt goes to the background print queue - next customer can start right away
+        if (!PrintSpooler.getInstance().enqueue(transaksi)) {
+            ToastNotification.showWarning(this, "Struk tidak masuk antrian cetak. Cetak ulang dari Log Transaksi.");
+        }
     }
 }
 
@@ -570,16 +699,18 @@ class PaymentDialog extends JDialog {
     private double grandTotal;
     private double tunai;
     private double kembalian;
+    private final TaxRule taxRule;
     private boolean confirmed = false;
 
     private JLabel lblSubtotal, lblTax, lblGrandTotal, lblKembalian;
     private JTextField txtTunai;
 
-    public PaymentDialog(Window owner, double subtotal, double tax, double grandTotal) {
+    public PaymentDialog(Window owner, double subtotal, double tax, double grandTotal, TaxRule taxRule) {
         super(owner, "Pembayaran", Dialog.ModalityType.APPLICATION_MODAL);
         this.subtotal = subtotal;
         this.tax = tax;
         this.grandTotal = grandTotal;
+        this.taxRule = taxRule;
         initComponents();
     }
 
@@ -600,7 +731,7 @@ class PaymentDialog extends JDialog {
         add(lblSubtotal, "wrap");
 
         // Tax
-        JLabel lblTaxLabel = new JLabel("Pajak (10%):");
+        JLabel lblTaxLabel = new JLabel(taxRule.getDisplayLabel() + ":");
         lblTaxLabel.setFont(UIComponents.FONT_BODY);
         lblTax = new JLabel(currencyFormat.format(tax));
         lblTax.setFont(new Font("Segoe UI", Font.BOLD, 16));
@@ -622,7 +753,7 @@ class PaymentDialog extends JDialog {
         add(lblGrandTotal, "wrap");
 
         // Tax inclusion note
-        JLabel lblNote = new JLabel("* Total sudah termasuk pajak 10% *");
+        JLabel lblNote = new JLabel("* " + taxRule.getTotalNote() + " *");
         lblNote.setFont(new Font("Segoe UI", Font.ITALIC, 11));
         lblNote.setForeground(new Color(100, 100, 100));
         add(lblNote, "skip, center, wrap");
@@ -0,0 +1,311 @@
+package com.kedaikopi.util;
+
+import com.kedaikopi.config.DatabaseHealth;
+import com.kedaikopi.event.DatabaseStateChanged;
+import com.kedaikopi.event.EventBus;
+import com.kedaikopi.model.User;
+import com.kedaikopi.model.UserActivityLog;
+import com.kedaikopi.repository.Repositories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Activity Log Writer - log login/logout ditulis di background (write-behind)
+ * Singleton pattern
+ *
+ * - Login/logout hanya memasukkan entri ke antrian; tidak menunggu database
+ * - Worker menyimpan antrian per batch (satu INSERT multi-baris) setiap
+ *   FLUSH_MILLIS atau begitu BATCH_SIZE entri terkumpul
+ * - Saat database tidak terhubung, batch ditulis ke file spill lokal dan
+ *   dikirim begitu koneksi kembali (atau saat aplikasi dibuka lagi)
+ * - Saat aplikasi ditutup, antrian dikosongkan dulu (ke database atau spill)
+ *
+ * Every entry keeps the time it happened, so a late write does not move it.
+ * The queue holds at most CAPACITY entries; beyond that entries go straight
+ * to the spill file, nothing is dropped. Spill format: one line per entry,
+ * time, user id, type and note separated by tabs (note escaped).
+ */
+public class ActivityLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogWriter.class);
+    private static ActivityLogWriter instance;
+
+    private static final int BATCH_SIZE = 50;
+    private static final int CAPACITY = 10_000;
+    private static final long FLUSH_MILLIS = 2_000;
+
+    private final Path spillFile;
+
+    private final ConcurrentLinkedQueue<UserActivityLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private volatile boolean started = false;
+    private volatile boolean closing = false;
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "activity-log");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ActivityLogWriter() {
+        this.spillFile = Paths.get(System.getProperty("kedaikopi.activity.dir", "journal/activity"))
+                .resolve("activity.spill");
+    }
+
+    public static synchronized ActivityLogWriter getInstance() {
+        if (instance == null) {
+            instance = new ActivityLogWriter();
+        }
+        return instance;
+    }
+
+    /**
+     * Start the periodic flush, send what an earlier run spilled and drain
+     * the queue on exit
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        EventBus.getInstance().subscribe(DatabaseStateChanged.class, e -> {
+            if (e.isAvailable()) {
+                worker.execute(this::flush);
+            }
+        });
+        worker.scheduleWithFixedDelay(this::flush, 0, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "activity-log-drain"));
+    }
+
+    /**
+     * Queue an activity (any thread, never waits for the database)
+     *
+     * @return false only when the entry could not be kept at all
+     */
+    public boolean submit(int idUser, String activityType, String note) {
+        User user = new User();
+        user.setIdUser(idUser);
+        UserActivityLog entry = new UserActivityLog(user, activityType);
+        entry.setActivityTime(new Timestamp(System.currentTimeMillis()));
+        entry.setSessionNote(note);
+
+        if (!started) {
+            return Repositories.activityLogs().logBatch(List.of(entry)) > 0; // Tools without the writer
+        }
+        if (queued.incrementAndGet() > CAPACITY) {
+            queued.decrementAndGet();
+            return spill(List.of(entry));
+        }
+        queue.add(entry);
+        if (closing) {
+            flush(); // Shutdown drain may be done already - write it ourselves
+        } else if (queued.get() >= BATCH_SIZE) {
+            worker.execute(this::flush);
+        }
+        return true;
+    }
+
+    /**
+     * Entries not in the database yet (queued or spilled)
+     */
+    public boolean hasPending() {
+        return queued.get() > 0 || Files.exists(spillFile);
+    }
+
+    /**
+     * Empty the queue now, on the calling thread (shutdown)
+     */
+    private void drain() {
+        closing = true;
+        flush();
+    }
+
+    /**
+     * Spilled entries first (they are older), then the queue in batches
+     */
+    private synchronized void flush() {
+        try {
+            boolean available = DatabaseHealth.getInstance().isAvailable();
+            if (available && Files.exists(spillFile)) {
+                available = replaySpill();
+            }
+
+            List<UserActivityLog> batch = new ArrayList<>(BATCH_SIZE);
+            UserActivityLog entry;
+            while ((entry = queue.poll()) != null) {
+                queued.decrementAndGet();
+                batch.add(entry);
+                if (batch.size() == BATCH_SIZE) {
+                    available = store(batch, available);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                store(batch, available);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Activity log flush failed", e);
+        }
+    }
+
+    /**
+     * @return whether the database is still worth trying for the next batch
+     */
+    private boolean store(List<UserActivityLog> batch, boolean available) {
+        if (available && Repositories.activityLogs().logBatch(batch) >= 0) {
+            logger.debug("{} activity log entries stored", batch.size());
+            reopenClosedMonths(batch);
+            return true;
+        }
+        spill(batch);
+        return false;
+    }
+
+    /**
+     * Send the spill file in batches; the file is removed once all of it is in
+     *
+     * @return false when the database refused (the unsent part stays spilled)
+     */
+    private boolean replaySpill() {
+        List<UserActivityLog> entries = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(spillFile, StandardCharsets.UTF_8)) {
+                UserActivityLog entry = parse(line);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Cannot read activity spill {}", spillFile, e);
+            return true;
+        }
+
+        for (int from = 0; from < entries.size(); from += BATCH_SIZE) {
+            List<UserActivityLog> batch = entries.subList(from, Math.min(from + BATCH_SIZE, entries.size()));
+            if (Repositories.activityLogs().logBatch(batch) < 0) {
+                if (from > 0) {
+                    keepSpilled(entries.subList(from, entries.size())); // Stored batches are not sent twice
+                }
+                return false;
+            }
+            reopenClosedMonths(batch);
+        }
+        try {
+            Files.delete(spillFile);
+            logger.info("{} spilled activity log entries stored", entries.size());
+        } catch (IOException e) {
+            logger.error("Cannot delete activity spill {}", spillFile, e);
+        }
+        return true;
+    }
+
+    /**
+     * Entries stored late for a past month make its snapshot stale
+     */
+    private static void reopenClosedMonths(List<UserActivityLog> batch) {
+        YearMonth last = null;
+        for (UserActivityLog entry : batch) {
+            YearMonth month = YearMonth.from(entry.getActivityTime().toLocalDateTime());
+            if (!month.equals(last) && MonthlyClosing.isPast(month)) {
+                MonthlyClosing.getInstance().reopen(month);
+            }
+            last = month;
+        }
+    }
+
+    /**
+     * Replace the spill file with the entries still to send
+     */
+    private void keepSpilled(List<UserActivityLog> entries) {
+        Path temp = spillFile.resolveSibling(spillFile.getFileName() + ".tmp");
+        try {
+            List<String> lines = new ArrayList<>(entries.size());
+            for (UserActivityLog entry : entries) {
+                lines.add(format(entry));
+            }
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, spillFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Cannot rewrite activity spill {}, some entries may be stored twice", spillFile, e);
+        }
+    }
+
+    private synchronized boolean spill(List<UserActivityLog> entries) {
+        try {
+            Files.createDirectories(spillFile.getParent());
+            try (BufferedWriter out = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (UserActivityLog entry : entries) {
+                    out.write(format(entry));
+                    out.newLine();
+                }
+            }
+            logger.warn("{} activity log entries spilled to {}", entries.size(), spillFile);
+            return true;
+        } catch (IOException e) {
+            logger.error("Cannot spill {} activity log entries, they are lost", entries.size(), e);
+            return false;
+        }
+    }
+
+    private static String format(UserActivityLog entry) {
+        String note = entry.getSessionNote() == null ? "" : "=" + escape(entry.getSessionNote()); // "" = null
+        return entry.getActivityTime().getTime() + "\t" + entry.getUser().getIdUser() + "\t"
+                + entry.getActivityType() + "\t" + note;
+    }
+
+    private static UserActivityLog parse(String line) {
+        String[] fields = line.split("\t", 4);
+        if (fields.length < 4) {
+            logger.warn("Skipping malformed activity spill line: {}", line);
+            return null;
+        }
+        try {
+            User user = new User();
+            user.setIdUser(Integer.parseInt(fields[1]));
+            UserActivityLog entry = new UserActivityLog(user, fields[2]);
+            entry.setActivityTime(new Timestamp(Long.parseLong(fields[0])));
+            entry.setSessionNote(fields[3].isEmpty() ? null : unescape(fields[3].substring(1)));
+            return entry;
+        } catch (NumberFormatException e) {
+            logger.warn("Skipping malformed activity spill line: {}", line);
+            return null;
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                out.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package com.kedaikopi.util;
 
+import com.kedaikopi.model.MonthSnapshot;
 import com.kedaikopi.model.UserActivityLog;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -9,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import java.io.FileOutputStream;
 import java.sql.*;
 import java.text.SimpleDateFormat;
+import java.time.YearMonth;
 import java.util.*;
 
 /**
@@ -108,16 +110,18 @@ public class AttendanceReportGenerator {
                 cell.setCellStyle(headerStyle);
             }
 
-            // Get activity data
-            List<UserActivityLog> logs = UserActivityLog.getByDateRange(startDate, endDate);
-            Map<Integer, MonthlyActivity> monthlyMap = processMonthlyActivity(logs);
+            // Get activity data - a whole closed month comes from its snapshot
+            YearMonth closedMonth = closedMonthOf(startDate, endDate);
+            Collection<MonthlyActivity> monthly = closedMonth != null
+                    ? snapshotActivity(MonthlyClosing.getInstance().getOrClose(closedMonth))
+                    : processMonthlyActivity(UserActivityLog.getByDateRange(startDate, endDate)).values();
 
             // Fill data
             int rowNum = 5;
             int no = 1;
             CellStyle dataStyle = createDataStyle(workbook);
 
-            for (MonthlyActivity activity : monthlyMap.values()) {
+            for (MonthlyActivity activity : monthly) {
                 Row row = sheet.createRow(rowNum++);
                 row.createCell(0).setCellValue(no++);
                 row.createCell(1).setCellValue(activity.namaLengkap);
@@ -260,6 +264,32 @@ public class AttendanceReportGenerator {
         return map;
     }
 
+    /**
+     * The month if the range is exactly one completed calendar month
+     */
+    private YearMonth closedMonthOf(java.sql.Date startDate, java.sql.Date endDate) {
+        YearMonth month = YearMonth.from(startDate.toLocalDate());
+        boolean wholeMonth = startDate.toLocalDate().equals(month.atDay(1))
+                && endDate.toLocalDate().equals(month.atEndOfMonth());
+        return wholeMonth && MonthlyClosing.isCompleted(month) ? month : null;
+    }
+
+    private List<MonthlyActivity> snapshotActivity(MonthSnapshot snapshot) {
+        MonthSnapshot.Table attendance = snapshot.getAttendance();
+        List<MonthlyActivity> list = new ArrayList<>(attendance.getRowCount());
+
+        // Columns: id_user, nama, role, hari hadir, gaji pokok
+        for (int row = 0; row < attendance.getRowCount(); row++) {
+            MonthlyActivity activity = new MonthlyActivity();
+            activity.namaLengkap = attendance.getText(row, 1);
+            activity.role = attendance.getText(row, 2);
+            activity.daysPresent = attendance.getInt(row, 3);
+            activity.totalHours = activity.daysPresent * 8.0; // Same estimate as live report
+            list.add(activity);
+        }
+        return list;
+    }
+
     // Helper classes
     private static class DailyActivity {
         String namaLengkap;
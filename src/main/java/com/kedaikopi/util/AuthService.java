@@ -0,0 +1,234 @@
+package com.kedaikopi.util;
+
+import at.favre.lib.crypto.bcrypt.BCrypt;
+import com.kedaikopi.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Authentication Service - login path dengan BCrypt cost adaptif
+ * Singleton pattern
+ *
+ * - Cost BCrypt dikalibrasi terhadap target waktu verify di hardware kasir
+ * - Hash lama (cost lebih rendah / plain text) di-rehash otomatis setelah login;
+ *   hash dengan cost lebih tinggi dibiarkan (tidak pernah diturunkan)
+ * - Update last_login + fn_start_session digabung dalam satu round trip
+ * - Latency login dicatat per fase (lookup, verify, session)
+ */
+public class AuthService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+    private static AuthService instance;
+
+    // Cost configuration
+    public static final int DEFAULT_COST = 12;
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 14;
+    private static final long DEFAULT_TARGET_MILLIS = 250;
+
+    private volatile int cost = DEFAULT_COST;
+    private volatile boolean calibrated = false;
+    private volatile LoginTiming lastTiming;
+
+    // Background worker for calibration and rehash (never blocks login)
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "auth-worker");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private AuthService() {
+    }
+
+    public static synchronized AuthService getInstance() {
+        if (instance == null) {
+            instance = new AuthService();
+        }
+        return instance;
+    }
+
+    /**
+     * Current BCrypt cost for new hashes
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    public boolean isCalibrated() {
+        return calibrated;
+    }
+
+    /**
+     * Latency breakdown of the most recent login attempt
+     */
+    public LoginTiming getLastTiming() {
+        return lastTiming;
+    }
+
+    /**
+     * Start calibration in background (call while login form is shown)
+     */
+    public void calibrateAsync() {
+        if (!calibrated) {
+            worker.execute(this::calibrate);
+        }
+    }
+
+    /**
+     * Calibrate BCrypt cost to target verify time on this machine.
+     * Each cost step doubles the work, so one timed hash at MIN_COST is enough to
+     * extrapolate the highest cost that still fits the target.
+     */
+    public synchronized int calibrate() {
+        if (calibrated) {
+            return cost;
+        }
+
+        long targetMillis = getTargetMillis();
+        char[] probe = "kalibrasi-bcrypt".toCharArray();
+
+        // Warm-up run so JIT does not inflate the measurement
+        BCrypt.withDefaults().hash(MIN_COST, probe);
+
+        long start = System.nanoTime();
+        BCrypt.withDefaults().hash(MIN_COST, probe);
+        double baseMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        int newCost = MIN_COST;
+        double estimate = baseMillis;
+        while (newCost < MAX_COST && estimate * 2 <= targetMillis) {
+            newCost++;
+            estimate *= 2;
+        }
+
+        cost = newCost;
+        calibrated = true;
+
+        logger.info("BCrypt calibrated: cost={} (~{} ms verify, target {} ms, base {} ms @ cost {})",
+                newCost, Math.round(estimate), targetMillis, Math.round(baseMillis), MIN_COST);
+        return newCost;
+    }
+
+    /**
+     * Target verify time, configurable via tbl_app_settings
+     */
+    private long getTargetMillis() {
+        try {
+            return AppSettings.getIntSetting("bcrypt_target_ms", (int) DEFAULT_TARGET_MILLIS);
+        } catch (Exception e) {
+            return DEFAULT_TARGET_MILLIS;
+        }
+    }
+
+    /**
+     * Hash password with current (calibrated) cost
+     */
+    public String hashPassword(String plainPassword) {
+        return BCrypt.withDefaults().hashToString(cost, plainPassword.toCharArray());
+    }
+
+    /**
+     * Authenticate user - untuk login
+     * Migration: accounts seeded with a plain text password still log in
+     * once and are rehashed with BCrypt right after, so no plain text
+     * password survives its first login.
+     */
+    public User authenticate(String username, String password) {
+        long start = System.nanoTime();
+        long lookupNanos = 0, verifyNanos = 0, sessionNanos = 0;
+
+        try {
+            // Phase 1: lookup
+            User user = User.getActiveByUsername(username);
+            lookupNanos = System.nanoTime() - start;
+
+            if (user == null) {
+                logger.warn("User not found or inactive: {}", username);
+                return null;
+            }
+
+            // Phase 2: verify
+            long verifyStart = System.nanoTime();
+            String storedPassword = user.getPassword();
+
+            // If password in database doesn't start with $2a$ or $2b$, it's plain text
+            boolean isPlainText = !storedPassword.startsWith("$2a$") && !storedPassword.startsWith("$2b$");
+            boolean verified;
+            int storedCost = -1;
+
+            if (isPlainText) {
+                // Legacy account not migrated yet - rehashed below
+                verified = password.equals(storedPassword);
+            } else {
+                BCrypt.Result result = BCrypt.verifyer().verify(password.toCharArray(), storedPassword);
+                verified = result.verified;
+                if (result.validFormat) {
+                    storedCost = result.details.cost;
+                }
+            }
+            verifyNanos = System.nanoTime() - verifyStart;
+
+            if (!verified) {
+                logger.warn("Invalid password for user: {}", username);
+                return null;
+            }
+
+            // Phase 3: last login + session start (single round trip)
+            long sessionStart = System.nanoTime();
+            user.recordLogin();
+            sessionNanos = System.nanoTime() - sessionStart;
+
+            // Upgrade hash off the login path when weaker than the current cost (or plain text).
+            // A higher stored cost is kept: another till may calibrate higher, and downgrading
+            // would make tills rehash back and forth
+            if (isPlainText || (calibrated && storedCost < cost)) {
+                scheduleRehash(user, password, storedPassword);
+            }
+
+            logger.info("User authenticated successfully ({}): {}", isPlainText ? "plain text" : "BCrypt", username);
+            return user;
+
+        } finally {
+            lastTiming = new LoginTiming(lookupNanos, verifyNanos, sessionNanos, System.nanoTime() - start);
+            logger.info("Login latency for {}: {}", username, lastTiming);
+        }
+    }
+
+    /**
+     * Rehash password with current cost in background
+     */
+    private void scheduleRehash(User user, String plainPassword, String oldHash) {
+        worker.execute(() -> {
+            if (user.upgradePasswordHash(oldHash, hashPassword(plainPassword))) {
+                logger.info("Password rehashed for user {} with cost {}", user.getUsername(), cost);
+            }
+        });
+    }
+
+    /**
+     * Login latency per phase (nanoseconds)
+     */
+    public static class LoginTiming {
+        public final long lookupNanos;
+        public final long verifyNanos;
+        public final long sessionNanos;
+        public final long totalNanos;
+
+        LoginTiming(long lookupNanos, long verifyNanos, long sessionNanos, long totalNanos) {
+            this.lookupNanos = lookupNanos;
+            this.verifyNanos = verifyNanos;
+            this.sessionNanos = sessionNanos;
+            this.totalNanos = totalNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("lookup=%d ms, verify=%d ms, session=%d ms, total=%d ms",
+                    lookupNanos / 1_000_000, verifyNanos / 1_000_000,
+                    sessionNanos / 1_000_000, totalNanos / 1_000_000);
+        }
+    }
+}
@@ -31,6 +31,13 @@ public class ChartFactory {
      * Create sales trend line chart (last 7 days)
      */
     public static ChartPanel createSalesTrendChart(Connection conn) {
+        return new ChartPanel(salesTrendChart(conn));
+    }
+
+    /**
+     * Create sales trend line chart (last 7 days) - chart only, safe to build off the EDT
+     */
+    public static JFreeChart salesTrendChart(Connection conn) {
         try {
             TimeSeriesCollection dataset = new TimeSeriesCollection();
             TimeSeries series = new TimeSeries("Penjualan");
@@ -113,11 +120,11 @@ public class ChartFactory {
             rangeAxis.setNumberFormatOverride(currencyFormat);
             rangeAxis.setTickLabelFont(new Font("Segoe UI", Font.PLAIN, 11));
 
-            return new ChartPanel(chart);
+            return chart;
 
         } catch (SQLException e) {
             logger.error("Error loading sales trend chart data", e);
-            return createErrorChart("Error loading sales trend");
+            return errorChart("Error loading sales trend");
         }
     }
 
@@ -125,6 +132,13 @@ public class ChartFactory {
      * Create category distribution pie chart
      */
     public static ChartPanel createCategoryDistributionChart(Connection conn) {
+        return new ChartPanel(categoryDistributionChart(conn));
+    }
+
+    /**
+     * Create category distribution pie chart - chart only, safe to build off the EDT
+     */
+    public static JFreeChart categoryDistributionChart(Connection conn) {
         try {
             DefaultPieDataset<String> dataset = new DefaultPieDataset<String>();
 
@@ -134,7 +148,9 @@ public class ChartFactory {
                     "JOIN tbl_menu m ON td.id_menu = m.id_menu " +
                     "JOIN tbl_kategori k ON m.id_kategori = k.id_kategori " +
                     "JOIN tbl_transaksi_header th ON td.id_transaksi_header = th.id_transaksi_header " +
+                    "    AND td.tanggal = th.tanggal " +
                     "WHERE th.tanggal >= CURRENT_DATE - INTERVAL '30 days' " +
+                    "AND td.tanggal >= CURRENT_DATE - INTERVAL '30 days' " +
                     "GROUP BY k.nama_kategori " +
                     "ORDER BY total DESC";
 
@@ -178,11 +194,11 @@ public class ChartFactory {
                 colorIndex++;
             }
 
-            return new ChartPanel(chart);
+            return chart;
 
         } catch (SQLException e) {
             logger.error("Error loading category distribution chart data", e);
-            return createErrorChart("Error loading category distribution");
+            return errorChart("Error loading category distribution");
         }
     }
 
@@ -190,6 +206,13 @@ public class ChartFactory {
      * Create top products bar chart
      */
     public static ChartPanel createTopProductsChart(Connection conn) {
+        return new ChartPanel(topProductsChart(conn));
+    }
+
+    /**
+     * Create top products bar chart - chart only, safe to build off the EDT
+     */
+    public static JFreeChart topProductsChart(Connection conn) {
         try {
             DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
@@ -198,7 +221,9 @@ public class ChartFactory {
                     "FROM tbl_transaksi_detail td " +
                     "JOIN tbl_menu m ON td.id_menu = m.id_menu " +
                     "JOIN tbl_transaksi_header th ON td.id_transaksi_header = th.id_transaksi_header " +
+                    "    AND td.tanggal = th.tanggal " +
                     "WHERE th.tanggal >= CURRENT_DATE - INTERVAL '30 days' " +
+                    "AND td.tanggal >= CURRENT_DATE - INTERVAL '30 days' " +
                     "GROUP BY m.nama_menu " +
                     "ORDER BY total_qty DESC " +
                     "LIMIT 10";
@@ -249,11 +274,11 @@ public class ChartFactory {
             rangeAxis.setTickLabelFont(new Font("Segoe UI", Font.PLAIN, 11));
             rangeAxis.setStandardTickUnits(NumberAxis.createIntegerTickUnits());
 
-            return new ChartPanel(chart);
+            return chart;
 
         } catch (SQLException e) {
             logger.error("Error loading top products chart data", e);
-            return createErrorChart("Error loading top products");
+            return errorChart("Error loading top products");
         }
     }
 
@@ -289,7 +314,7 @@ public class ChartFactory {
     /**
      * Create error chart when data loading fails
      */
-    private static ChartPanel createErrorChart(String errorMessage) {
+    private static JFreeChart errorChart(String errorMessage) {
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
         dataset.addValue(0, "Error", "Error");
 
@@ -300,6 +325,6 @@ public class ChartFactory {
                 dataset);
         customizeChart(chart);
 
-        return new ChartPanel(chart);
+        return chart;
     }
 }
@@ -1,5 +1,6 @@
 package com.kedaikopi.util;
 
+import com.kedaikopi.ui.components.ColumnarTableModel;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
@@ -211,7 +212,7 @@ public class ExcelExporter {
 
             for (int col = 0; col < model.getColumnCount(); col++) {
                 Cell cell = excelRow.createCell(col);
-                Object value = model.getValueAt(row, col);
+                Object value = exportValue(model, row, col);
 
                 if (value != null) {
                     if (value instanceof Number) {
@@ -314,7 +315,7 @@ public class ExcelExporter {
 
                 for (int col = 0; col < model.getColumnCount(); col++) {
                     Cell cell = excelRow.createCell(col);
-                    Object value = model.getValueAt(row, col);
+                    Object value = exportValue(model, row, col);
 
                     if (value != null) {
                         if (value instanceof Number) {
@@ -387,7 +388,7 @@ public class ExcelExporter {
 
                 for (int col = 0; col < model.getColumnCount(); col++) {
                     Cell cell = excelRow.createCell(col);
-                    Object value = model.getValueAt(row, col);
+                    Object value = exportValue(model, row, col);
 
                     if (value != null) {
                         if (value instanceof Number) {
@@ -539,4 +540,15 @@ public class ExcelExporter {
 
         return style;
     }
+
+    /**
+     * Cell value to export; columnar models give display text for formatted
+     * columns (amounts, times) instead of raw sen / millis
+     */
+    private static Object exportValue(TableModel model, int row, int col) {
+        if (model instanceof ColumnarTableModel) {
+            return ((ColumnarTableModel) model).getExportValue(row, col);
+        }
+        return model.getValueAt(row, col);
+    }
 }
@@ -2,11 +2,17 @@ package com.kedaikopi.util;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import javax.swing.*;
 
 /**
  * Centralized icon management - Creates custom icons using Graphics2D
  * Solves emoji display issues by drawing icons programmatically
+ * The get*Icon methods and getLogo draw or scale once per size and hand out
+ * the same icon afterwards (StartupWarmup fills them before the first frame).
  */
 public class IconManager {
 
@@ -23,6 +29,36 @@ public class IconManager {
     private static final Color ICON_INFO = new Color(33, 150, 243);
     private static final Color ICON_WHITE = Color.WHITE;
 
+    private static final String LOGO_RESOURCE = "/icons/coffee_logo.png";
+
+    // "name:size" -> icon, shared (icons are never modified after drawing)
+    private static final Map<String, ImageIcon> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Application logo scaled to size x size
+     *
+     * @return null when the logo resource is missing
+     */
+    public static ImageIcon getLogo(int size) {
+        String key = "logo:" + size;
+        ImageIcon logo = cache.get(key);
+        if (logo == null) {
+            URL resource = IconManager.class.getResource(LOGO_RESOURCE);
+            if (resource == null) {
+                return null;
+            }
+            // ImageIcon waits for the image, so the scaling is done here and not at first paint
+            Image scaled = new ImageIcon(resource).getImage().getScaledInstance(size, size, Image.SCALE_SMOOTH);
+            logo = new ImageIcon(scaled);
+            cache.put(key, logo);
+        }
+        return logo;
+    }
+
+    private static ImageIcon cached(String name, int size, Color color, BiFunction<Integer, Color, ImageIcon> draw) {
+        return cache.computeIfAbsent(name + ":" + size, k -> draw.apply(size, color));
+    }
+
     /**
      * Creates a coffee cup icon with improved quality
      */
@@ -378,50 +414,50 @@ public class IconManager {
 
     // Convenience methods with default colors
     public static ImageIcon getCoffeeIcon(int size) {
-        return createCoffeeIcon(size, ICON_ACCENT);
+        return cached("coffee", size, ICON_ACCENT, IconManager::createCoffeeIcon);
     }
 
     public static ImageIcon getDashboardIcon(int size) {
-        return createDashboardIcon(size, ICON_WHITE);
+        return cached("dashboard", size, ICON_WHITE, IconManager::createDashboardIcon);
     }
 
     public static ImageIcon getMoneyIcon(int size) {
-        return createMoneyIcon(size, ICON_WHITE);
+        return cached("money", size, ICON_WHITE, IconManager::createMoneyIcon);
     }
 
     public static ImageIcon getBoxIcon(int size) {
-        return createBoxIcon(size, ICON_WHITE);
+        return cached("box", size, ICON_WHITE, IconManager::createBoxIcon);
     }
 
     public static ImageIcon getTagIcon(int size) {
-        return createTagIcon(size, ICON_WHITE);
+        return cached("tag", size, ICON_WHITE, IconManager::createTagIcon);
     }
 
     public static ImageIcon getUserIcon(int size) {
-        return createUserIcon(size, ICON_WHITE);
+        return cached("user", size, ICON_WHITE, IconManager::createUserIcon);
     }
 
     public static ImageIcon getLogoutIcon(int size) {
-        return createLogoutIcon(size, ICON_WHITE);
+        return cached("logout", size, ICON_WHITE, IconManager::createLogoutIcon);
     }
 
     public static ImageIcon getAddIcon(int size) {
-        return createAddIcon(size, ICON_SUCCESS);
+        return cached("add", size, ICON_SUCCESS, IconManager::createAddIcon);
     }
 
     public static ImageIcon getEditIcon(int size) {
-        return createEditIcon(size, ICON_INFO);
+        return cached("edit", size, ICON_INFO, IconManager::createEditIcon);
     }
 
     public static ImageIcon getDeleteIcon(int size) {
-        return createDeleteIcon(size, ICON_DANGER);
+        return cached("delete", size, ICON_DANGER, IconManager::createDeleteIcon);
     }
 
     public static ImageIcon getRefreshIcon(int size) {
-        return createRefreshIcon(size, ICON_PRIMARY);
+        return cached("refresh", size, ICON_PRIMARY, IconManager::createRefreshIcon);
     }
 
     public static ImageIcon getSearchIcon(int size) {
-        return createSearchIcon(size, ICON_PRIMARY);
+        return cached("search", size, ICON_PRIMARY, IconManager::createSearchIcon);
     }
 }
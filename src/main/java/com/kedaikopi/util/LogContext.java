@@ -0,0 +1,56 @@
+package com.kedaikopi.util;
+
+import org.slf4j.MDC;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Log Context - id korelasi di setiap baris log
+ *
+ * - "sale": client key penjualan (sama dengan tbl_transaksi_header.client_key),
+ *   dipasang selama checkout diproses di thread mana pun
+ * - "terminal": nama host, dipasang oleh logback.xml untuk semua baris
+ *
+ * Usage: LogContext.withSale(key, () -> ...)
+ * The JSON log file carries both, so one sale can be followed from the
+ * kasir through the journal into the database.
+ */
+public final class LogContext {
+
+    public static final String SALE = "sale";
+
+    private LogContext() {
+    }
+
+    /**
+     * Run an action with the log lines of this thread tagged with the sale
+     */
+    public static void withSale(UUID clientKey, Runnable action) {
+        MDC.put(SALE, saleKey(clientKey));
+        try {
+            action.run();
+        } finally {
+            MDC.remove(SALE);
+        }
+    }
+
+    /**
+     * Same, for an action with a result
+     */
+    public static <T> T withSale(UUID clientKey, Supplier<T> action) {
+        MDC.put(SALE, saleKey(clientKey));
+        try {
+            return action.get();
+        } finally {
+            MDC.remove(SALE);
+        }
+    }
+
+    /**
+     * MDC value for a sale ("-" when it has no client key)
+     */
+    public static String saleKey(UUID clientKey) {
+        return clientKey != null ? clientKey.toString() : "-";
+    }
+}
@@ -0,0 +1,159 @@
+package com.kedaikopi.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Money - fixed-point rupiah arithmetic on primitive long
+ * Amounts are stored in sen (1/100 rupiah) so they map 1:1 to NUMERIC(x,2)
+ * columns. All arithmetic works on long values (no allocation, no rounding
+ * drift); BigDecimal is only created at the JDBC boundary.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final long ONE_RUPIAH = 100;
+    public static final long ZERO = 0;
+
+    private Money() {
+    }
+
+    // Conversion
+
+    /**
+     * Whole rupiah to sen
+     */
+    public static long ofRupiah(long rupiah) {
+        return Math.multiplyExact(rupiah, ONE_RUPIAH);
+    }
+
+    /**
+     * Legacy/UI double rupiah to sen (half-up to nearest sen)
+     */
+    public static long of(double rupiah) {
+        return Math.round(rupiah * ONE_RUPIAH);
+    }
+
+    /**
+     * Sen to double rupiah - for display and charts only, never for arithmetic
+     */
+    public static double toDouble(long sen) {
+        return sen / (double) ONE_RUPIAH;
+    }
+
+    public static BigDecimal toBigDecimal(long sen) {
+        return BigDecimal.valueOf(sen, SCALE);
+    }
+
+    public static long fromBigDecimal(BigDecimal value) {
+        if (value == null) {
+            return ZERO;
+        }
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // Arithmetic
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    public static long times(long sen, int qty) {
+        return Math.multiplyExact(sen, (long) qty);
+    }
+
+    /**
+     * amount * basisPoints / 10000, rounded with the given mode
+     * (1000 basis points = 10%)
+     */
+    public static long percent(long sen, int basisPoints, RoundingMode mode) {
+        return divide(Math.multiplyExact(sen, (long) basisPoints), 10_000, mode);
+    }
+
+    /**
+     * Round amount to a multiple of unit (e.g. ONE_RUPIAH, or ofRupiah(100) for
+     * cash rounding)
+     */
+    public static long roundTo(long sen, long unit, RoundingMode mode) {
+        if (unit <= 1) {
+            return sen;
+        }
+        return Math.multiplyExact(divide(sen, unit, mode), unit);
+    }
+
+    /**
+     * Integer division with BigDecimal-compatible rounding, without allocating
+     */
+    public static long divide(long numerator, long denominator, RoundingMode mode) {
+        if (denominator == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        int sign = ((numerator < 0) == (denominator < 0)) ? 1 : -1;
+        long twiceRemainder = Math.abs(remainder) * 2;
+        long absDenominator = Math.abs(denominator);
+
+        boolean roundAway;
+        switch (mode) {
+            case UP:
+                roundAway = true;
+                break;
+            case DOWN:
+                roundAway = false;
+                break;
+            case CEILING:
+                roundAway = sign > 0;
+                break;
+            case FLOOR:
+                roundAway = sign < 0;
+                break;
+            case HALF_UP:
+                roundAway = twiceRemainder >= absDenominator;
+                break;
+            case HALF_DOWN:
+                roundAway = twiceRemainder > absDenominator;
+                break;
+            case HALF_EVEN:
+                roundAway = twiceRemainder > absDenominator
+                        || (twiceRemainder == absDenominator && (quotient & 1) != 0);
+                break;
+            default:
+                throw new ArithmeticException("Rounding necessary");
+        }
+
+        return roundAway ? quotient + sign : quotient;
+    }
+
+    // JDBC
+
+    /**
+     * Bind amount to a NUMERIC parameter
+     */
+    public static void setNumeric(PreparedStatement stmt, int index, long sen) throws SQLException {
+        stmt.setBigDecimal(index, toBigDecimal(sen));
+    }
+
+    /**
+     * Read NUMERIC column as sen (NULL reads as zero)
+     */
+    public static long getNumeric(ResultSet rs, String column) throws SQLException {
+        return fromBigDecimal(rs.getBigDecimal(column));
+    }
+
+    public static long getNumeric(ResultSet rs, int column) throws SQLException {
+        return fromBigDecimal(rs.getBigDecimal(column));
+    }
+}
@@ -0,0 +1,238 @@
+package com.kedaikopi.util;
+
+import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.model.MonthSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Monthly Closing - tutup buku bulanan
+ * Singleton pattern
+ *
+ * - Bulan yang sudah lewat dihitung sekali lalu disimpan sebagai snapshot
+ * - Laporan bulan yang sudah ditutup dibaca dari snapshot, bulan berjalan
+ *   tetap dihitung langsung dari database
+ * - Snapshot bisa dihitung ulang (misalnya setelah koreksi data)
+ * - Bulan baru ditutup setelah GRACE_DAYS hari dan selama tidak ada penjualan
+ *   (SalesJournal) atau log aktivitas (ActivityLogWriter) yang belum terkirim
+ * - Penjualan offline yang baru tersimpan untuk bulan yang sudah ditutup
+ *   membuang snapshot bulan itu; dihitung ulang saat dipakai lagi
+ *
+ * One gzip'd file per month (YYYY-MM.snap) with a CRC32 trailer; a missing or
+ * damaged file just means the month is closed again on next use.
+ * Snapshots live on each till's own disk, so a late row stored by another
+ * till only drops that till's snapshot: the grace period is what keeps the
+ * other tills' closings right, and "Hitung Ulang" fixes one that is stale.
+ */
+public class MonthlyClosing {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyClosing.class);
+    private static MonthlyClosing instance;
+
+    private static final int MAGIC = 0x4B4B4D53; // "KKMS"
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".snap";
+    private static final int GRACE_DAYS = 3; // offline tills have this long to send their last sales
+
+    private final Path dir;
+    private final Map<YearMonth, MonthSnapshot> cache = new ConcurrentHashMap<>();
+
+    private MonthlyClosing() {
+        this.dir = Paths.get(System.getProperty("kedaikopi.snapshot.dir", "snapshots/monthly"));
+    }
+
+    public static synchronized MonthlyClosing getInstance() {
+        if (instance == null) {
+            instance = new MonthlyClosing();
+        }
+        return instance;
+    }
+
+    /**
+     * A month can be closed once its grace period is over and this till has
+     * nothing left to send
+     */
+    public static boolean isCompleted(YearMonth month) {
+        return LocalDate.now().isAfter(month.atEndOfMonth().plusDays(GRACE_DAYS))
+                && SalesJournal.getInstance().getPendingCount() == 0
+                && !ActivityLogWriter.getInstance().hasPending();
+    }
+
+    /**
+     * The month is over (it may still be open for closing)
+     */
+    public static boolean isPast(YearMonth month) {
+        return month.isBefore(YearMonth.now());
+    }
+
+    /**
+     * Stored snapshot of a month, or null if it has not been closed
+     */
+    public MonthSnapshot find(YearMonth month) {
+        MonthSnapshot snapshot = cache.get(month);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        snapshot = read(month);
+        if (snapshot != null) {
+            cache.put(month, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Snapshot of a completed month, closing it first if needed
+     */
+    public MonthSnapshot getOrClose(Connection conn, YearMonth month) throws SQLException {
+        MonthSnapshot snapshot = find(month);
+        return snapshot != null ? snapshot : close(conn, month);
+    }
+
+    /**
+     * Same as getOrClose(Connection, YearMonth) on a reporting connection
+     */
+    public MonthSnapshot getOrClose(YearMonth month) throws SQLException {
+        MonthSnapshot snapshot = find(month);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        try (Connection conn = DatabaseConfig.getInstance().getReportingConnection()) {
+            return close(conn, month);
+        }
+    }
+
+    /**
+     * Compute and store the snapshot of a completed month (replaces an existing
+     * one). If the file cannot be written the snapshot is still returned and
+     * kept in memory.
+     */
+    public MonthSnapshot close(Connection conn, YearMonth month) throws SQLException {
+        if (!isCompleted(month)) {
+            throw new IllegalArgumentException("Month not completed yet: " + month);
+        }
+
+        long start = System.nanoTime();
+        MonthSnapshot snapshot = MonthlyReport.compute(conn, month);
+        cache.put(month, snapshot);
+
+        try {
+            write(snapshot);
+            logger.info("Month {} closed in {} ms", month, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            logger.error("Failed to store snapshot of {}", month, e);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drop the snapshot of a month a late row was stored in; the month is
+     * closed again on next use
+     */
+    public void reopen(YearMonth month) {
+        if (cache.remove(month) == null && !Files.exists(fileOf(month))) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(fileOf(month));
+            logger.info("Snapshot of {} dropped, a late entry was stored", month);
+        } catch (IOException e) {
+            logger.error("Failed to drop snapshot of {}", month, e);
+        }
+    }
+
+    // Storage
+
+    private Path fileOf(YearMonth month) {
+        return dir.resolve(month + SUFFIX);
+    }
+
+    private void write(MonthSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(bytes)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            snapshot.writeTo(out);
+        }
+        byte[] body = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        ByteBuffer buffer = ByteBuffer.allocate(body.length + Long.BYTES);
+        buffer.put(body).putLong(crc.getValue()).flip();
+
+        Files.createDirectories(dir);
+        Path target = fileOf(snapshot.getMonth());
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private MonthSnapshot read(YearMonth month) {
+        Path file = fileOf(month);
+        try {
+            byte[] data = Files.readAllBytes(file);
+            if (data.length < Long.BYTES) {
+                throw new IOException("Truncated file");
+            }
+            int bodyLength = data.length - Long.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, bodyLength);
+            if (crc.getValue() != ByteBuffer.wrap(data, bodyLength, Long.BYTES).getLong()) {
+                throw new IOException("Checksum mismatch");
+            }
+
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new GZIPInputStream(new ByteArrayInputStream(data, 0, bodyLength))))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException("Unknown snapshot format");
+                }
+                MonthSnapshot snapshot = MonthSnapshot.readFrom(in);
+                if (!month.equals(snapshot.getMonth())) {
+                    throw new IOException("Snapshot is for " + snapshot.getMonth());
+                }
+                return snapshot;
+            }
+
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable snapshot {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.kedaikopi.util;
+
+import com.kedaikopi.model.MonthSnapshot;
+import com.kedaikopi.model.MonthSnapshot.Summary;
+import com.kedaikopi.model.MonthSnapshot.Table;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+
+/**
+ * Monthly Report - query laporan bulanan
+ * Each section is read over the half-open month range [first day, first day
+ * of next month), on both header and detail, so only that month's partitions
+ * are scanned. Used live for the running month and once by MonthlyClosing to
+ * build a snapshot of a completed month; a month already moved to schema
+ * arsip (see PartitionMaintenance) is read from its archived partitions.
+ */
+public final class MonthlyReport {
+
+    private static final String SUMMARY_SQL = "WITH sales AS ( " +
+            "    SELECT COUNT(*) AS total_transaksi, " +
+            "           COALESCE(SUM(grand_total), 0) AS laba_kotor, " +
+            "           COALESCE(SUM(pajak), 0) AS total_pajak " +
+            "    FROM tbl_transaksi_header " +
+            "    WHERE tanggal >= ? AND tanggal < ? " +
+            "), restock AS ( " +
+            "    SELECT COALESCE(SUM(rh.qty_added * m.harga), 0) AS pengeluaran " +
+            "    FROM tbl_restock_history rh " +
+            "    JOIN tbl_menu m ON rh.id_menu = m.id_menu " +
+            "    WHERE rh.created_at >= ? AND rh.created_at < ? " +
+            "), gaji AS ( " +
+            "    SELECT COALESCE(SUM(base_salary) FILTER (WHERE is_active = TRUE), 0) AS total_gaji " +
+            "    FROM tbl_user " +
+            ") " +
+            "SELECT s.total_transaksi, s.laba_kotor, r.pengeluaran, s.total_pajak, g.total_gaji " +
+            "FROM sales s, restock r, gaji g";
+
+    private static final String SALES_SQL = "SELECT th.tanggal, th.id_transaksi_header, th.nama_kasir, " +
+            "th.total_harga AS subtotal, th.pajak, th.grand_total, " +
+            "STRING_AGG(td.nama_menu || ' (' || td.qty || 'x)', ', ' ORDER BY td.nama_menu) AS menu_details, " +
+            "SUM(td.qty) AS total_items " +
+            "FROM tbl_transaksi_header th " +
+            "LEFT JOIN tbl_transaksi_detail td ON th.id_transaksi_header = td.id_transaksi_header " +
+            "    AND td.tanggal = th.tanggal AND td.tanggal >= ? AND td.tanggal < ? " +
+            "WHERE th.tanggal >= ? AND th.tanggal < ? " +
+            "GROUP BY th.id_transaksi_header, th.tanggal, th.nama_kasir, th.total_harga, th.pajak, th.grand_total " +
+            "ORDER BY th.tanggal DESC";
+
+    private static final String STOCK_IN_SQL = "SELECT " +
+            "    rh.created_at AS tanggal, " +
+            "    m.nama_menu, " +
+            "    rh.qty_added AS qty_ditambah, " +
+            "    rh.qty_before AS stok_sebelum, " +
+            "    rh.qty_after AS stok_setelah, " +
+            "    u.nama_lengkap AS user_name, " +
+            "    COALESCE(rh.notes, 'Penambahan stok') AS catatan " +
+            "FROM tbl_restock_history rh " +
+            "JOIN tbl_menu m ON rh.id_menu = m.id_menu " +
+            "JOIN tbl_user u ON rh.id_user = u.id_user " +
+            "WHERE rh.created_at >= ? AND rh.created_at < ? " +
+            "ORDER BY rh.created_at DESC";
+
+    private static final String STOCK_OUT_SQL = "SELECT " +
+            "    th.tanggal, " +
+            "    td.nama_menu, " +
+            "    td.qty AS qty_terjual, " +
+            "    th.nama_kasir, " +
+            "    th.id_transaksi_header " +
+            "FROM tbl_transaksi_header th " +
+            "JOIN tbl_transaksi_detail td ON th.id_transaksi_header = td.id_transaksi_header " +
+            "    AND td.tanggal = th.tanggal " +
+            "WHERE th.tanggal >= ? AND th.tanggal < ? AND td.tanggal >= ? AND td.tanggal < ? " +
+            "ORDER BY th.tanggal DESC";
+
+    private static final String MENU_SALES_SQL = "SELECT td.id_menu, td.nama_menu, " +
+            "SUM(td.qty) AS total_terjual, SUM(td.subtotal) AS total_revenue " +
+            "FROM tbl_transaksi_header th " +
+            "JOIN tbl_transaksi_detail td ON th.id_transaksi_header = td.id_transaksi_header " +
+            "    AND td.tanggal = th.tanggal " +
+            "WHERE th.tanggal >= ? AND th.tanggal < ? AND td.tanggal >= ? AND td.tanggal < ? " +
+            "GROUP BY td.id_menu, td.nama_menu " +
+            "ORDER BY total_terjual DESC, td.nama_menu";
+
+    private static final String ATTENDANCE_SQL = "SELECT u.id_user, u.nama_lengkap, u.role, " +
+            "COUNT(DISTINCT DATE(a.activity_time)) FILTER (WHERE a.activity_type = 'LOGIN') AS hari_hadir, " +
+            "u.base_salary " +
+            "FROM tbl_user_activity_log a " +
+            "JOIN tbl_user u ON a.id_user = u.id_user " +
+            "WHERE a.activity_time >= ? AND a.activity_time < ? " +
+            "GROUP BY u.id_user, u.nama_lengkap, u.role, u.base_salary " +
+            "ORDER BY u.nama_lengkap";
+
+    /** Column kinds of each section (see MonthSnapshot.Table) */
+    public static final String SALES_KINDS = "NITNNNTI";
+    public static final String STOCK_IN_KINDS = "NTIIITT";
+    public static final String STOCK_OUT_KINDS = "NTITI";
+    public static final String MENU_SALES_KINDS = "ITIN";
+    public static final String ATTENDANCE_KINDS = "ITTIN";
+
+    private MonthlyReport() {
+    }
+
+    public static Timestamp startOf(YearMonth month) {
+        return Timestamp.valueOf(month.atDay(1).atStartOfDay());
+    }
+
+    public static Timestamp endOf(YearMonth month) {
+        return Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+    }
+
+    /**
+     * Whole month in one consistent read (used when closing the month)
+     */
+    public static MonthSnapshot compute(Connection conn, YearMonth month) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        int isolation = conn.getTransactionIsolation();
+        conn.setAutoCommit(false);
+        conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        try {
+            MonthSnapshot snapshot = new MonthSnapshot(month, System.currentTimeMillis(),
+                    summary(conn, month), sales(conn, month), stockIn(conn, month), stockOut(conn, month),
+                    menuSales(conn, month), attendance(conn, month));
+            conn.commit();
+            return snapshot;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setTransactionIsolation(isolation);
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Whole summary in one statement: sales and restock aggregated over the
+     * month range, payroll of active employees via FILTER
+     */
+    public static Summary summary(Connection conn, YearMonth month) throws SQLException {
+        try (PreparedStatement stmt = prepare(conn, SUMMARY_SQL, month);
+                ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                return new Summary(0, 0, 0, 0, 0);
+            }
+            return new Summary(rs.getInt(1), Money.getNumeric(rs, 2), Money.getNumeric(rs, 3),
+                    Money.getNumeric(rs, 4), Money.getNumeric(rs, 5));
+        }
+    }
+
+    /**
+     * Tanggal, ID, Kasir, Subtotal, Pajak, Grand Total, Menu, Total Item
+     */
+    public static Table sales(Connection conn, YearMonth month) throws SQLException {
+        try (PreparedStatement stmt = prepare(conn, SALES_SQL, month);
+                ResultSet rs = stmt.executeQuery()) {
+            Table.Builder table = Table.builder(SALES_KINDS);
+            while (rs.next()) {
+                table.number(rs.getTimestamp(1).getTime())
+                        .integer(rs.getInt(2))
+                        .text(rs.getString(3))
+                        .number(Money.getNumeric(rs, 4))
+                        .number(Money.getNumeric(rs, 5))
+                        .number(Money.getNumeric(rs, 6))
+                        .text(rs.getString(7))
+                        .integer(rs.getInt(8))
+                        .endRow();
+            }
+            return table.build();
+        }
+    }
+
+    /**
+     * Tanggal, Menu, Qty Ditambah, Stok Sebelum, Stok Setelah, User, Catatan
+     */
+    public static Table stockIn(Connection conn, YearMonth month) throws SQLException {
+        try (PreparedStatement stmt = prepare(conn, STOCK_IN_SQL, month);
+                ResultSet rs = stmt.executeQuery()) {
+            Table.Builder table = Table.builder(STOCK_IN_KINDS);
+            while (rs.next()) {
+                table.number(rs.getTimestamp(1).getTime())
+                        .text(rs.getString(2))
+                        .integer(rs.getInt(3))
+                        .integer(rs.getInt(4))
+                        .integer(rs.getInt(5))
+                        .text(rs.getString(6))
+                        .text(rs.getString(7))
+                        .endRow();
+            }
+            return table.build();
+        }
+    }
+
+    /**
+     * Tanggal, Menu, Qty Terjual, Kasir, ID Transaksi
+     */
+    public static Table stockOut(Connection conn, YearMonth month) throws SQLException {
+        try (PreparedStatement stmt = prepare(conn, STOCK_OUT_SQL, month);
+                ResultSet rs = stmt.executeQuery()) {
+            Table.Builder table = Table.builder(STOCK_OUT_KINDS);
+            while (rs.next()) {
+                table.number(rs.getTimestamp(1).getTime())
+                        .text(rs.getString(2))
+                        .integer(rs.getInt(3))
+                        .text(rs.getString(4))
+                        .integer(rs.getInt(5))
+                        .endRow();
+            }
+            return table.build();
+        }
+    }
+
+    /**
+     * ID Menu, Menu, Total Terjual, Total Pendapatan
+     */
+    public static Table menuSales(Connection conn, YearMonth month) throws SQLException {
+        try (PreparedStatement stmt = prepare(conn, MENU_SALES_SQL, month);
+                ResultSet rs = stmt.executeQuery()) {
+            Table.Builder table = Table.builder(MENU_SALES_KINDS);
+            while (rs.next()) {
+                table.integer(rs.getInt(1))
+                        .text(rs.getString(2))
+                        .integer(rs.getInt(3))
+                        .number(Money.getNumeric(rs, 4))
+                        .endRow();
+            }
+            return table.build();
+        }
+    }
+
+    /**
+     * ID User, Nama, Role, Hari Hadir, Gaji Pokok - employees with activity in
+     * the month
+     */
+    public static Table attendance(Connection conn, YearMonth month) throws SQLException {
+        try (PreparedStatement stmt = prepare(conn, ATTENDANCE_SQL, month);
+                ResultSet rs = stmt.executeQuery()) {
+            Table.Builder table = Table.builder(ATTENDANCE_KINDS);
+            while (rs.next()) {
+                table.integer(rs.getInt(1))
+                        .text(rs.getString(2))
+                        .text(rs.getString(3))
+                        .integer(rs.getInt(4))
+                        .number(Money.getNumeric(rs, 5))
+                        .endRow();
+            }
+            return table.build();
+        }
+    }
+
+    /**
+     * Prepare a section query and bind the month range to every (from, to)
+     * parameter pair
+     */
+    private static PreparedStatement prepare(Connection conn, String sql, YearMonth month) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(forArchive(conn, sql, month));
+        try {
+            Timestamp from = startOf(month);
+            Timestamp to = endOf(month);
+            int parameters = (int) sql.chars().filter(ch -> ch == '?').count();
+            for (int i = 1; i < parameters; i += 2) {
+                stmt.setTimestamp(i, from);
+                stmt.setTimestamp(i + 1, to);
+            }
+            return stmt;
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Read an archived month straight from its partitions in schema arsip
+     */
+    private static String forArchive(Connection conn, String sql, YearMonth month) throws SQLException {
+        if (!MonthlyClosing.isPast(month)) {
+            return sql;
+        }
+
+        String suffix = String.format("_p%04d%02d", month.getYear(), month.getMonthValue());
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            stmt.setString(1, "arsip.tbl_transaksi_header" + suffix);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || !rs.getBoolean(1)) {
+                    return sql;
+                }
+            }
+        }
+
+        for (String table : PartitionMaintenance.PARTITIONED_TABLES) {
+            sql = sql.replaceAll("\\b" + table + "\\b", "arsip." + table + suffix);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,222 @@
+package com.kedaikopi.util;
+
+import com.kedaikopi.config.DatabaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partition Maintenance - partisi bulanan dan arsip data lama
+ * Singleton pattern
+ *
+ * - Membuat partisi bulan berjalan dan beberapa bulan ke depan
+ * - Partisi yang lebih tua dari masa simpan (setting archive_retention_months)
+ *   ditutup bukunya dulu (MonthlyClosing), lalu dipindah ke schema arsip
+ * - Hanya satu aplikasi yang menjalankan job sekaligus (advisory lock)
+ *
+ * Does nothing until database_partitioning.sql has been applied.
+ */
+public class PartitionMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenance.class);
+    private static PartitionMaintenance instance;
+
+    static final String[] PARTITIONED_TABLES = { "tbl_transaksi_header", "tbl_transaksi_detail",
+            "tbl_user_activity_log" };
+
+    private static final int MONTHS_AHEAD = 2;
+    private static final int DEFAULT_RETENTION_MONTHS = 24;
+    private static final long LOCK_KEY = 0x4B4B_5041_5254L; // "KKPART"
+    private static final long START_DELAY_MINUTES = 2;
+    private static final long INTERVAL_HOURS = 24;
+
+    private volatile boolean started = false;
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "partition-maintenance");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private PartitionMaintenance() {
+    }
+
+    public static synchronized PartitionMaintenance getInstance() {
+        if (instance == null) {
+            instance = new PartitionMaintenance();
+        }
+        return instance;
+    }
+
+    /**
+     * Schedule the daily run (first run a little after startup)
+     */
+    public synchronized void start() {
+        if (started || "memory".equalsIgnoreCase(System.getProperty("kedaikopi.repository"))) {
+            return;
+        }
+        started = true;
+        worker.scheduleWithFixedDelay(this::runSafely, START_DELAY_MINUTES, INTERVAL_HOURS * 60, TimeUnit.MINUTES);
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (SQLException | RuntimeException e) {
+            logger.error("Partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Create upcoming partitions and archive expired months
+     *
+     * @return number of months archived
+     */
+    public int run() throws SQLException {
+        try (Connection conn = DatabaseConfig.getInstance().getConnection()) {
+            if (!isPartitioned(conn)) {
+                logger.debug("Tables are not partitioned, skipping maintenance");
+                return 0;
+            }
+            if (!tryLock(conn)) {
+                logger.debug("Partition maintenance is running elsewhere");
+                return 0;
+            }
+
+            try {
+                createUpcomingPartitions(conn);
+
+                int retention = Math.max(1,
+                        AppSettings.getIntSetting("archive_retention_months", DEFAULT_RETENTION_MONTHS));
+                YearMonth cutoff = YearMonth.now().minusMonths(retention);
+                int archived = 0;
+                for (YearMonth month : expiredMonths(conn, cutoff)) {
+                    if (!MonthlyClosing.isCompleted(month)) {
+                        logger.info("Not archiving {} yet, it cannot be closed", month);
+                        continue;
+                    }
+                    archive(conn, month);
+                    archived++;
+                }
+                return archived;
+            } finally {
+                unlock(conn);
+            }
+        }
+    }
+
+    private void createUpcomingPartitions(Connection conn) throws SQLException {
+        YearMonth current = YearMonth.now();
+        createPartitions(conn, current, current.plusMonths(MONTHS_AHEAD));
+    }
+
+    /**
+     * Make sure every partitioned table has a partition for each month in
+     * [from, to] (used by bulk loads of historical data too)
+     */
+    public void createPartitions(Connection conn, YearMonth from, YearMonth to) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT kedaikopi_create_month_partition(?, ?)")) {
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                Date firstDay = Date.valueOf(month.atDay(1));
+                for (String table : PARTITIONED_TABLES) {
+                    stmt.setString(1, table);
+                    stmt.setDate(2, firstDay);
+                    stmt.execute(); // Returns the partition name, nothing to read
+                }
+            }
+        }
+    }
+
+    /**
+     * Months before the cutoff that still have live partitions, oldest first
+     */
+    private List<YearMonth> expiredMonths(Connection conn, YearMonth cutoff) throws SQLException {
+        String sql = "SELECT DISTINCT substring(c.relname from '_p([0-9]{6})$') " +
+                "FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ANY (?) AND c.relname ~ '_p[0-9]{6}$'";
+
+        TreeSet<YearMonth> months = new TreeSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, conn.createArrayOf("text", PARTITIONED_TABLES));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String yyyymm = rs.getString(1);
+                    YearMonth month = YearMonth.of(Integer.parseInt(yyyymm.substring(0, 4)),
+                            Integer.parseInt(yyyymm.substring(4)));
+                    if (month.isBefore(cutoff)) {
+                        months.add(month);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(months);
+    }
+
+    /**
+     * Close the month (so reports keep working from the snapshot), then move
+     * its partitions to schema arsip in one transaction
+     */
+    private void archive(Connection conn, YearMonth month) throws SQLException {
+        MonthlyClosing.getInstance().getOrClose(month);
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT kedaikopi_archive_month(?)")) {
+            stmt.setDate(1, Date.valueOf(month.atDay(1)));
+            int tables;
+            try (ResultSet rs = stmt.executeQuery()) {
+                tables = rs.next() ? rs.getInt(1) : 0;
+            }
+            conn.commit();
+            logger.info("Archived {} partition(s) of {}", tables, month);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Whether database_partitioning.sql has been applied
+     */
+    public boolean isPartitioned(Connection conn) throws SQLException {
+        String sql = "SELECT 1 FROM pg_partitioned_table pt " +
+                "JOIN pg_class c ON c.oid = pt.partrelid " +
+                "WHERE c.relname = 'tbl_transaksi_header'";
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next();
+        }
+    }
+
+    private boolean tryLock(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT pg_try_advisory_lock(" + LOCK_KEY + ")")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void unlock(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+        } catch (SQLException e) {
+            logger.warn("Failed to release partition maintenance lock", e);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.kedaikopi.util;
+
+import com.kedaikopi.config.DatabaseHealth;
+import com.kedaikopi.event.EventBus;
+import com.kedaikopi.event.PresenceChanged;
+import com.kedaikopi.event.UserLoggedIn;
+import com.kedaikopi.event.UserLoggedOut;
+import com.kedaikopi.repository.Repositories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Presence Heartbeat - tanda terminal ini sedang dipakai user yang login
+ * Singleton pattern
+ *
+ * - Login membuat sesi presence; selama masih login, masa berlakunya
+ *   diperbarui tiap BEAT_SECONDS
+ * - Logout menghapus sesinya; terminal yang crash berhenti heartbeat dan
+ *   sesinya kedaluwarsa sendiri setelah TTL_SECONDS
+ * - Presence yang kedaluwarsa dibersihkan berkala oleh terminal mana pun
+ *
+ * Driven by UserLoggedIn / UserLoggedOut, so login and logout code does not
+ * change. Those are published on the EDT, so the first beat and the logout
+ * are handed to the worker and never make the UI wait for the database;
+ * PresenceChanged follows once they are written. On exit the logout gets at
+ * most EXIT_WAIT_MILLIS before the JVM goes.
+ */
+public class PresenceHeartbeat {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceHeartbeat.class);
+    private static PresenceHeartbeat instance;
+
+    private static final int TTL_SECONDS = 90;
+    private static final long BEAT_SECONDS = 30;
+    private static final int BEATS_PER_PURGE = 10;
+    private static final long EXIT_WAIT_MILLIS = 2_000;
+
+    private final String terminal = terminalName();
+    private boolean started = false;
+
+    // Guarded by this
+    private UUID sessionKey;
+    private int idUser;
+    private ScheduledFuture<?> beats;
+    private int beatCount;
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "presence-heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private PresenceHeartbeat() {
+    }
+
+    public static synchronized PresenceHeartbeat getInstance() {
+        if (instance == null) {
+            instance = new PresenceHeartbeat();
+        }
+        return instance;
+    }
+
+    /**
+     * Follow logins and logouts of this terminal
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        EventBus.getInstance().subscribe(UserLoggedIn.class, e -> login(e.getIdUser()));
+        EventBus.getInstance().subscribe(UserLoggedOut.class, e -> logout());
+        Runtime.getRuntime().addShutdownHook(new Thread(this::awaitPending, "presence-drain"));
+    }
+
+    private synchronized void login(int idUser) {
+        logout(); // One user per terminal
+        UUID key = UUID.randomUUID();
+        this.sessionKey = key;
+        this.idUser = idUser;
+        this.beatCount = 0;
+        worker.execute(() -> {
+            try {
+                beat(key, idUser);
+                EventBus.getInstance().publish(new PresenceChanged(idUser, true));
+            } catch (RuntimeException e) {
+                logger.error("Presence login failed", e);
+            }
+        });
+        beats = worker.scheduleWithFixedDelay(this::beatSafely, BEAT_SECONDS, BEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private synchronized void logout() {
+        if (beats != null) {
+            beats.cancel(false);
+            beats = null;
+        }
+        UUID key = sessionKey;
+        int user = idUser;
+        sessionKey = null;
+        if (key == null) {
+            return;
+        }
+        worker.execute(() -> {
+            try {
+                if (DatabaseHealth.getInstance().isAvailable()) {
+                    Repositories.activityLogs().endSession(key);
+                } // Otherwise the session simply expires
+                EventBus.getInstance().publish(new PresenceChanged(user, false));
+            } catch (RuntimeException e) {
+                logger.error("Presence logout failed", e);
+            }
+        });
+    }
+
+    /**
+     * Shutdown: let a queued logout reach the database, bounded (the
+     * session expires after TTL_SECONDS anyway)
+     */
+    private void awaitPending() {
+        worker.shutdown(); // Drops the scheduled beats, keeps queued work
+        try {
+            if (!worker.awaitTermination(EXIT_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                logger.warn("Presence logout not written within {} ms, session will expire", EXIT_WAIT_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void beatSafely() {
+        UUID key;
+        int user;
+        boolean purge;
+        synchronized (this) {
+            if (sessionKey == null) {
+                return;
+            }
+            key = sessionKey;
+            user = idUser;
+            purge = ++beatCount % BEATS_PER_PURGE == 0;
+        }
+        try {
+            beat(key, user);
+            if (purge && DatabaseHealth.getInstance().isAvailable()) {
+                int purged = Repositories.activityLogs().purgeExpiredPresence();
+                if (purged > 0) {
+                    logger.info("{} expired presence session(s) deleted", purged);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Presence heartbeat failed", e);
+        }
+    }
+
+    /**
+     * Renew (or re-create, after the database was away) the session
+     */
+    private void beat(UUID key, int user) {
+        if (DatabaseHealth.getInstance().isAvailable()) {
+            Repositories.activityLogs().heartbeat(key, user, terminal, TTL_SECONDS);
+        }
+    }
+
+    private static String terminalName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
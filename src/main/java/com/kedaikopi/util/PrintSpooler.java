@@ -0,0 +1,419 @@
+package com.kedaikopi.util;
+
+import com.kedaikopi.model.TransaksiHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.print.DocFlavor;
+import javax.print.DocPrintJob;
+import javax.print.PrintException;
+import javax.print.PrintService;
+import javax.print.PrintServiceLookup;
+import javax.print.SimpleDoc;
+import java.awt.print.PrinterException;
+import java.awt.print.PrinterJob;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Print Spooler - antrian cetak struk di background
+ * Singleton pattern
+ *
+ * - Struk di-render dan ditulis ke folder spool segera setelah commit: ESC/POS
+ *   untuk mode "escpos", teks UTF-8 untuk mode "graphics" (huruf non-ASCII tetap utuh)
+ * - Worker thread mencetak tanpa dialog; checkout tidak menunggu printer
+ * - Gagal cetak di-retry dengan backoff; job tetap ada di disk jika aplikasi ditutup
+ * - Cetak ulang per ID transaksi dari spool (atau dari database jika sudah dibersihkan)
+ *
+ * Spool layout: pending/ (belum dicetak), printed/ (arsip 7 hari), failed/ (menyerah).
+ */
+public class PrintSpooler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrintSpooler.class);
+    private static PrintSpooler instance;
+
+    private static final String ESCPOS_SUFFIX = ".escpos";
+    private static final String TEXT_SUFFIX = ".txt";
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long RETRY_BASE_MILLIS = 5_000;
+    private static final long RETRY_MAX_MILLIS = 5 * 60_000;
+    private static final long PRINTED_RETENTION_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private final Path pendingDir;
+    private final Path printedDir;
+    private final Path failedDir;
+
+    private final Map<Integer, Integer> attempts = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean started = false;
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "print-spooler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private PrintSpooler() {
+        Path root = Paths.get(System.getProperty("kedaikopi.spool.dir", "spool/receipts"));
+        this.pendingDir = root.resolve("pending");
+        this.printedDir = root.resolve("printed");
+        this.failedDir = root.resolve("failed");
+    }
+
+    public static synchronized PrintSpooler getInstance() {
+        if (instance == null) {
+            instance = new PrintSpooler();
+        }
+        return instance;
+    }
+
+    /**
+     * Print outcome callbacks (called on the spooler thread)
+     */
+    public interface Listener {
+        void onPrinted(int idTransaksi);
+
+        void onFailed(int idTransaksi, String error, boolean willRetry);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Create spool folders and resume jobs left over from the previous run
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(pendingDir);
+            Files.createDirectories(printedDir);
+            Files.createDirectories(failedDir);
+        } catch (IOException e) {
+            logger.error("Cannot create spool directory {}", pendingDir.getParent(), e);
+            return;
+        }
+        started = true;
+
+        worker.execute(() -> {
+            purgePrinted();
+            List<Path> leftover = listJobs(pendingDir);
+            if (!leftover.isEmpty()) {
+                logger.info("Resuming {} pending receipt(s) from spool", leftover.size());
+            }
+            for (Path job : leftover) {
+                print(job);
+            }
+        });
+    }
+
+    /**
+     * Render receipt and put it on the queue. Only the render and a small file
+     * write happen on the caller's thread.
+     *
+     * @return true if the job was spooled
+     */
+    public boolean enqueue(TransaksiHeader transaction) {
+        start();
+
+        int id = transaction.getIdTransaksiHeader();
+        try {
+            Path job = writeJob(id, transaction);
+            attempts.remove(id);
+            worker.execute(() -> print(job));
+            logger.info("Receipt for transaction {} spooled", id);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to spool receipt for transaction {}", id, e);
+            return false;
+        }
+    }
+
+    /**
+     * Reprint receipt by transaction ID - from spool if still there, otherwise
+     * re-rendered from the database
+     */
+    public void reprint(int idTransaksi) {
+        start();
+
+        worker.execute(() -> {
+            attempts.remove(idTransaksi);
+
+            try {
+                for (String suffix : new String[] { TEXT_SUFFIX, ESCPOS_SUFFIX }) {
+                    Path name = Paths.get(jobName(idTransaksi, suffix));
+                    Path pending = pendingDir.resolve(name);
+                    if (Files.exists(pending)) {
+                        print(pending);
+                        return;
+                    }
+
+                    for (Path dir : new Path[] { printedDir, failedDir }) {
+                        Path existing = dir.resolve(name);
+                        if (Files.exists(existing)) {
+                            Files.copy(existing, pending, StandardCopyOption.REPLACE_EXISTING);
+                            print(pending);
+                            return;
+                        }
+                    }
+                }
+
+                TransaksiHeader transaction = TransaksiHeader.getById(idTransaksi);
+                if (transaction == null) {
+                    notifyFailed(idTransaksi, "Transaksi tidak ditemukan", false);
+                    return;
+                }
+                print(writeJob(idTransaksi, transaction));
+
+            } catch (IOException e) {
+                logger.error("Failed to reprint transaction {}", idTransaksi, e);
+                notifyFailed(idTransaksi, e.getMessage(), false);
+            }
+        });
+    }
+
+    /**
+     * Number of receipts waiting to be printed
+     */
+    public int getPendingCount() {
+        return listJobs(pendingDir).size();
+    }
+
+    // Worker
+
+    private void print(Path job) {
+        int id = idOf(job);
+        if (!Files.exists(job)) {
+            return; // Already printed by an earlier attempt
+        }
+
+        try {
+            byte[] data = Files.readAllBytes(job);
+            String name = job.getFileName().toString();
+            send(data, name.endsWith(TEXT_SUFFIX), "Receipt - " + name.substring(0, name.lastIndexOf('.')));
+
+            Files.move(job, printedDir.resolve(job.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            attempts.remove(id);
+            logger.info("Receipt printed for transaction {}", id);
+            for (Listener listener : listeners) {
+                listener.onPrinted(id);
+            }
+
+        } catch (IOException | PrintException | PrinterException | RuntimeException e) {
+            int attempt = attempts.merge(id, 1, Integer::sum);
+            boolean willRetry = attempt < MAX_ATTEMPTS;
+
+            if (willRetry) {
+                long delay = Math.min(RETRY_MAX_MILLIS, RETRY_BASE_MILLIS << (attempt - 1));
+                logger.warn("Printing transaction {} failed (attempt {}/{}), retry in {} s: {}",
+                        id, attempt, MAX_ATTEMPTS, delay / 1000, e.getMessage());
+                worker.schedule(() -> print(job), delay, TimeUnit.MILLISECONDS);
+            } else {
+                logger.error("Printing transaction {} failed after {} attempts, moved to failed/", id, attempt, e);
+                attempts.remove(id);
+                try {
+                    Files.move(job, failedDir.resolve(job.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException moveError) {
+                    logger.error("Cannot move failed job {}", job, moveError);
+                }
+            }
+            notifyFailed(id, e.getMessage(), willRetry);
+        }
+    }
+
+    /**
+     * Mode "escpos" sends raw bytes (thermal printers); "graphics" draws text
+     * through Java2D like the manual print button
+     */
+    private static boolean rawMode() {
+        return "escpos".equalsIgnoreCase(AppSettings.getSetting("receipt_print_mode", "graphics"));
+    }
+
+    /**
+     * Send job to the receipt printer without dialog. Printer name and mode
+     * come from tbl_app_settings (receipt_printer, receipt_print_mode).
+     * Text jobs are always drawn; an ESC/POS job spooled before the mode was
+     * switched to "graphics" is drawn from its stripped bytes.
+     */
+    private void send(byte[] data, boolean text, String jobName) throws PrintException, PrinterException {
+        PrintService service = findPrintService(AppSettings.getSetting("receipt_printer", ""));
+        if (service == null) {
+            throw new PrintException("Printer struk tidak ditemukan");
+        }
+
+        if (!text && rawMode()) {
+            DocFlavor flavor = DocFlavor.BYTE_ARRAY.AUTOSENSE;
+            if (!service.isDocFlavorSupported(flavor)) {
+                throw new PrintException("Printer " + service.getName() + " tidak mendukung raw ESC/POS");
+            }
+            DocPrintJob printJob = service.createPrintJob();
+            printJob.print(new SimpleDoc(data, flavor, null), null);
+        } else {
+            PrinterJob printerJob = PrinterJob.getPrinterJob();
+            printerJob.setPrintService(service);
+            printerJob.setJobName(jobName);
+            printerJob.setPrintable(ReceiptPrinter.createPrintable(text
+                    ? new String(data, StandardCharsets.UTF_8).split("\n")
+                    : toLines(data)));
+            printerJob.print();
+        }
+    }
+
+    private static PrintService findPrintService(String name) {
+        if (name == null || name.isBlank()) {
+            return PrintServiceLookup.lookupDefaultPrintService();
+        }
+        for (PrintService service : PrintServiceLookup.lookupPrintServices(null, null)) {
+            if (service.getName().toLowerCase().contains(name.toLowerCase())) {
+                return service;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Plain text lines from a spooled ESC/POS job (commands stripped)
+     */
+    static String[] toLines(byte[] escPos) {
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder(48);
+        int i = 0;
+        while (i < escPos.length) {
+            byte b = escPos[i];
+            if (b == 0x1B) {
+                // ESC @ (2 bytes), ESC E n / ESC d n (3 bytes)
+                i += (i + 1 < escPos.length && escPos[i + 1] == '@') ? 2 : 3;
+            } else if (b == 0x1D) {
+                // GS V m n
+                i += 4;
+            } else if (b == '\n') {
+                lines.add(line.toString());
+                line.setLength(0);
+                i++;
+            } else {
+                line.append((char) (b & 0xFF));
+                i++;
+            }
+        }
+        if (line.length() > 0) {
+            lines.add(line.toString());
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    // Spool files
+
+    /**
+     * Render the receipt for the current print mode and spool it
+     */
+    private Path writeJob(int idTransaksi, TransaksiHeader transaction) throws IOException {
+        if (rawMode()) {
+            return writeJob(jobName(idTransaksi, ESCPOS_SUFFIX), ReceiptPrinter.generateEscPos(transaction));
+        }
+        return writeJob(jobName(idTransaksi, TEXT_SUFFIX),
+                ReceiptPrinter.generateReceiptText(transaction).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write job atomically (temp file, fsync, rename) so a crash never leaves
+     * a half-written receipt in pending/
+     */
+    private Path writeJob(String jobName, byte[] data) throws IOException {
+        Files.createDirectories(pendingDir);
+        Path target = pendingDir.resolve(jobName);
+        Path temp = pendingDir.resolve(jobName + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    /**
+     * TRX-000123 for stored sales, OFF-000045 for offline sales (negative id,
+     * see SalesJournal)
+     */
+    private static String jobName(int idTransaksi, String suffix) {
+        return String.format("%s-%06d%s", idTransaksi < 0 ? "OFF" : "TRX", Math.abs(idTransaksi), suffix);
+    }
+
+    private static int idOf(Path job) {
+        String name = job.getFileName().toString();
+        try {
+            int id = Integer.parseInt(name.substring(4, name.lastIndexOf('.')));
+            return name.startsWith("OFF-") ? -id : id;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private static List<Path> listJobs(Path dir) {
+        List<Path> jobs = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return jobs;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "{TRX,OFF}-*{" + ESCPOS_SUFFIX + "," + TEXT_SUFFIX + "}")) {
+            for (Path job : stream) {
+                jobs.add(job);
+            }
+        } catch (IOException e) {
+            logger.error("Cannot list spool directory {}", dir, e);
+        }
+        jobs.sort(null);
+        return jobs;
+    }
+
+    private void purgePrinted() {
+        long cutoff = System.currentTimeMillis() - PRINTED_RETENTION_MILLIS;
+        int purged = 0;
+        for (Path job : listJobs(printedDir)) {
+            try {
+                if (Files.getLastModifiedTime(job).toMillis() < cutoff) {
+                    Files.delete(job);
+                    purged++;
+                }
+            } catch (IOException e) {
+                logger.warn("Cannot purge printed job {}: {}", job, e.getMessage());
+            }
+        }
+        if (purged > 0) {
+            logger.info("Purged {} printed receipt(s) older than 7 days", purged);
+        }
+    }
+
+    private void notifyFailed(int idTransaksi, String error, boolean willRetry) {
+        for (Listener listener : listeners) {
+            listener.onFailed(idTransaksi, error, willRetry);
+        }
+    }
+}
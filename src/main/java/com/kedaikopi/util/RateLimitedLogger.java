@@ -0,0 +1,75 @@
+package com.kedaikopi.util;
+
+import org.slf4j.Logger;
+
+/**
+ * Rate Limited Logger - batasi jumlah log di jalur panas
+ *
+ * - Paling banyak `limit` baris per jendela waktu, sisanya hanya dihitung
+ * - Baris pertama di jendela berikutnya didahului jumlah baris yang dilewati
+ *
+ * For INFO/DEBUG lines that fire per click or per cart line, so a busy till
+ * writes a steady trickle instead of one line per action. WARN and ERROR are
+ * never limited: log those on the Logger itself.
+ */
+public final class RateLimitedLogger {
+
+    private final Logger logger;
+    private final int limit;
+    private final long windowMillis;
+
+    // Guarded by this
+    private long windowStart;
+    private int logged;
+    private int skipped;
+
+    public RateLimitedLogger(Logger logger, int limit, long windowMillis) {
+        this.logger = logger;
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+    }
+
+    public void info(String format, Object arg) {
+        if (logger.isInfoEnabled() && admit()) {
+            logger.info(format, arg);
+        }
+    }
+
+    public void info(String format, Object arg1, Object arg2) {
+        if (logger.isInfoEnabled() && admit()) {
+            logger.info(format, arg1, arg2);
+        }
+    }
+
+    public void debug(String format, Object arg1, Object arg2) {
+        if (logger.isDebugEnabled() && admit()) {
+            logger.debug(format, arg1, arg2);
+        }
+    }
+
+    /**
+     * @return whether this line may be written (reports what the previous
+     *         window skipped first)
+     */
+    private boolean admit() {
+        int skippedBefore;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now - windowStart >= windowMillis) {
+                windowStart = now;
+                logged = 0;
+            }
+            if (logged >= limit) {
+                skipped++;
+                return false;
+            }
+            logged++;
+            skippedBefore = skipped;
+            skipped = 0;
+        }
+        if (skippedBefore > 0) {
+            logger.info("{} similar log line(s) skipped", skippedBefore);
+        }
+        return true;
+    }
+}
@@ -1,6 +1,5 @@
 package com.kedaikopi.util;
 
-import com.kedaikopi.model.TransaksiDetail;
 import com.kedaikopi.model.TransaksiHeader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,20 +9,22 @@ import java.awt.*;
 import java.awt.print.*;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
-import java.util.Locale;
+import java.util.Arrays;
 
 /**
  * Receipt Printer - Generates thermal printer-style receipts
  * 58mm thermal paper format (42 characters width)
+ * Layout comes from ReceiptTemplate (resources/receipt/receipt_template.txt)
  */
 public class ReceiptPrinter {
 
     private static final Logger logger = LoggerFactory.getLogger(ReceiptPrinter.class);
-    private static final int RECEIPT_WIDTH = 42; // Characters
-    private static final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.of("id", "ID"));
-    private static final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
+    private static final Font PRINT_FONT = new Font("Courier New", Font.PLAIN, 10);
+
+    // Template is compiled once; each thread reuses its own render buffers
+    private static final ThreadLocal<ReceiptRenderer> renderers = ThreadLocal
+            .withInitial(() -> new ReceiptRenderer(ReceiptTemplate.getDefault()));
+    private static volatile TaxRule taxRule = TaxRule.PPN_10;
 
     /**
      * Show print preview dialog (BLOCKING MODAL)
@@ -114,82 +115,30 @@ public class ReceiptPrinter {
      * Generate receipt text in thermal printer format
      */
     public static String generateReceiptText(TransaksiHeader transaction) {
-        StringBuilder receipt = new StringBuilder();
-
-        // Header
-        receipt.append(line("=")).append("\n");
-        receipt.append(center("KEDAI KOPI CAK BUDIBUD")).append("\n");
-        receipt.append(center("Jl. Soekarno Hatta No. 9")).append("\n");
-        receipt.append(center("Malang, Jawa Timur")).append("\n");
-        receipt.append(center("Telp: (0341) 404040")).append("\n");
-        receipt.append(line("=")).append("\n\n");
-
-        // Transaction info
-        String kasir = transaction.getUser().getNamaLengkap();
-        String tanggal = dateFormat.format(transaction.getTanggal());
-        String noTrx = String.format("TRX-%04d", transaction.getIdTransaksiHeader());
-
-        receipt.append(leftRight("Kasir", kasir)).append("\n");
-        receipt.append(leftRight("Tanggal", tanggal)).append("\n");
-        receipt.append(leftRight("No. Trx", noTrx)).append("\n\n");
-
-        // Items header
-        receipt.append(line("-")).append("\n");
-        receipt.append(String.format("%-24s %3s %10s\n", "Item", "Qty", "Subtotal"));
-        receipt.append(line("-")).append("\n");
-
-        // Items
-        for (TransaksiDetail detail : transaction.getDetails()) {
-            String nama = detail.getMenu().getNamaMenu();
-            if (nama.length() > 24) {
-                nama = nama.substring(0, 21) + "...";
-            }
-
-            int qty = detail.getQty();
-            double itemSubtotal = qty * detail.getSubtotal() / qty; // Subtotal per item
-
-            receipt.append(String.format("%-24s %3d %10s\n",
-                    nama, qty, formatCurrency(itemSubtotal)));
-        }
-
-        receipt.append(line("-")).append("\n\n");
-
-        // Summary - use transaction values directly
-        double transactionSubtotal = transaction.getTotalHarga();
-        double tax = transaction.getPajak();
-        double grandTotal = transaction.getGrandTotal();
-        double tunai = transaction.getTunai();
-        double kembalian = transaction.getKembalian();
-
-        receipt.append(leftRight("SUBTOTAL", formatCurrency(transactionSubtotal))).append("\n");
-        receipt.append(leftRight("PPN (10%)", formatCurrency(tax))).append("\n");
-        receipt.append(line("-")).append("\n");
-        receipt.append(leftRight("TOTAL", formatCurrency(grandTotal))).append("\n");
-        receipt.append(center("* Harga sudah termasuk pajak 10% *")).append("\n");
-        receipt.append(line("=")).append("\n\n");
-
-        // Payment - show method-specific info
-        String paymentMethod = transaction.getMetodePembayaran();
-        if (paymentMethod == null || paymentMethod.isEmpty()) {
-            paymentMethod = "Cash";
-        }
+        return render(transaction).toText();
+    }
 
-        receipt.append(leftRight(paymentMethod.toUpperCase(), formatCurrency(tunai))).append("\n");
+    /**
+     * Generate receipt as raw ESC/POS bytes for thermal printers
+     */
+    public static byte[] generateEscPos(TransaksiHeader transaction) {
+        ReceiptRenderer renderer = render(transaction);
+        return Arrays.copyOf(renderer.encodeEscPos(), renderer.getEscPosLength());
+    }
 
-        // Only show change for Cash payment
-        if ("Cash".equalsIgnoreCase(paymentMethod)) {
-            receipt.append(leftRight("KEMBALIAN", formatCurrency(kembalian))).append("\n\n");
-        } else {
-            receipt.append("\n"); // Just spacing for non-cash
+    /**
+     * Tax rule for the tax label on receipts (set by KasirPanel after loading settings)
+     */
+    public static void setTaxRule(TaxRule rule) {
+        if (rule != null) {
+            taxRule = rule;
         }
+    }
 
-        // Footer
-        receipt.append(line("=")).append("\n");
-        receipt.append(center("Terima Kasih Atas Kunjungan Anda")).append("\n");
-        receipt.append(center("Silakan Datang Kembali!")).append("\n");
-        receipt.append(line("=")).append("\n");
-
-        return receipt.toString();
+    private static ReceiptRenderer render(TransaksiHeader transaction) {
+        ReceiptRenderer renderer = renderers.get();
+        renderer.setTaxRule(taxRule);
+        return renderer.render(transaction);
     }
 
     /**
@@ -197,40 +146,13 @@ public class ReceiptPrinter {
      */
     public static void printReceipt(TransaksiHeader transaction) {
         try {
-            String receiptText = generateReceiptText(transaction);
+            // Split once; the Printable may be called several times per page
+            String[] lines = generateReceiptText(transaction).split("\n");
 
             PrinterJob printerJob = PrinterJob.getPrinterJob();
             printerJob.setJobName("Receipt - TRX-" + transaction.getIdTransaksiHeader());
 
-            printerJob.setPrintable(new Printable() {
-                @Override
-                public int print(Graphics graphics, PageFormat pageFormat, int pageIndex) throws PrinterException {
-                    if (pageIndex > 0) {
-                        return NO_SUCH_PAGE;
-                    }
-
-                    Graphics2D g2d = (Graphics2D) graphics;
-                    g2d.translate(pageFormat.getImageableX(), pageFormat.getImageableY());
-
-                    // Set font
-                    Font font = new Font("Courier New", Font.PLAIN, 10);
-                    g2d.setFont(font);
-                    g2d.setColor(Color.BLACK);
-
-                    // Print text line by line
-                    int y = 20;
-                    FontMetrics metrics = g2d.getFontMetrics(font);
-                    int lineHeight = metrics.getHeight();
-
-                    String[] lines = receiptText.split("\n");
-                    for (String line : lines) {
-                        g2d.drawString(line, 10, y);
-                        y += lineHeight;
-                    }
-
-                    return PAGE_EXISTS;
-                }
-            });
+            printerJob.setPrintable(createPrintable(lines));
 
             // Show print dialog
             if (printerJob.printDialog()) {
@@ -247,6 +169,35 @@ public class ReceiptPrinter {
         }
     }
 
+    /**
+     * Printable that draws pre-split receipt lines in a monospaced font
+     * (shared by the print button and the background PrintSpooler)
+     */
+    static Printable createPrintable(String[] lines) {
+        return (graphics, pageFormat, pageIndex) -> {
+            if (pageIndex > 0) {
+                return Printable.NO_SUCH_PAGE;
+            }
+
+            Graphics2D g2d = (Graphics2D) graphics;
+            g2d.translate(pageFormat.getImageableX(), pageFormat.getImageableY());
+
+            g2d.setFont(PRINT_FONT);
+            g2d.setColor(Color.BLACK);
+
+            // Print text line by line
+            int y = 20;
+            int lineHeight = g2d.getFontMetrics(PRINT_FONT).getHeight();
+
+            for (String line : lines) {
+                g2d.drawString(line, 10, y);
+                y += lineHeight;
+            }
+
+            return Printable.PAGE_EXISTS;
+        };
+    }
+
     /**
      * Save receipt to text file
      */
@@ -269,27 +220,4 @@ public class ReceiptPrinter {
             }
         }
     }
-
-    // Helper methods for formatting
-
-    private static String line(CharSequence charSequence) {
-        String ch = charSequence.toString();
-        return ch.repeat(RECEIPT_WIDTH);
-    }
-
-    private static String center(String text) {
-        int padding = (RECEIPT_WIDTH - text.length()) / 2;
-        return " ".repeat(Math.max(0, padding)) + text;
-    }
-
-    private static String leftRight(String left, String right) {
-        int spaces = RECEIPT_WIDTH - left.length() - right.length();
-        return left + " ".repeat(Math.max(1, spaces)) + right;
-    }
-
-    private static String formatCurrency(double amount) {
-        String formatted = currencyFormat.format(amount);
-        // Remove "Rp" prefix for compact display
-        return formatted.replace("Rp", "").trim();
-    }
 }
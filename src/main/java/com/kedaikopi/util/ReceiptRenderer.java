@@ -0,0 +1,487 @@
+package com.kedaikopi.util;
+
+import com.kedaikopi.model.TransaksiDetail;
+import com.kedaikopi.model.TransaksiHeader;
+import com.kedaikopi.model.User;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Receipt Renderer - render struk dari ReceiptTemplate ke buffer yang dipakai ulang
+ * Text goes into a growable char[] (line offsets kept for printing), ESC/POS
+ * bytes into a growable byte[]. Money, date and numbers are written digit by
+ * digit, so a warmed-up renderer allocates almost nothing per receipt.
+ * Not thread-safe: keep one instance per thread (see ReceiptPrinter).
+ */
+public class ReceiptRenderer {
+
+    // ESC/POS commands
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+    private static final byte LF = 0x0A;
+
+    private static final char[] ITEM_HEADER_NAME = "Item".toCharArray();
+    private static final char[] ITEM_HEADER_QTY = "Qty".toCharArray();
+    private static final char[] ITEM_HEADER_AMOUNT = "Subtotal".toCharArray();
+    private static final char[] ELLIPSIS = "...".toCharArray();
+    private static final char[] DEFAULT_METHOD = "Cash".toCharArray();
+
+    private final ReceiptTemplate template;
+
+    // Rendered text + line index
+    private final CharBuf text = new CharBuf(1024);
+    private int[] lineStarts = new int[64];
+    private boolean[] lineBold = new boolean[64];
+    private int lineCount;
+
+    // Scratch buffers for left/right parts of the current line
+    private final CharBuf left = new CharBuf(64);
+    private final CharBuf right = new CharBuf(64);
+
+    // ESC/POS output
+    private byte[] escPos = new byte[2048];
+    private int escPosLength;
+
+    private final char[] digits = new char[24];
+    private final Calendar calendar = Calendar.getInstance();
+
+    private TaxRule taxRule = TaxRule.PPN_10;
+    private char[] taxLabel = TaxRule.PPN_10.getDisplayLabel().toCharArray();
+
+    public ReceiptRenderer(ReceiptTemplate template) {
+        this.template = template;
+    }
+
+    /**
+     * Tax rule used for the {pajak_label} field
+     */
+    public void setTaxRule(TaxRule rule) {
+        if (rule != null && rule != taxRule) {
+            taxRule = rule;
+            taxLabel = rule.getDisplayLabel().toCharArray();
+        }
+    }
+
+    /**
+     * Render transaction into the internal text buffer
+     */
+    public ReceiptRenderer render(TransaksiHeader transaction) {
+        text.clear();
+        lineCount = 0;
+
+        boolean cash = isCash(transaction.getMetodePembayaran());
+
+        for (ReceiptTemplate.Line line : template.lines) {
+            if (line.cashOnly && !cash) {
+                continue;
+            }
+
+            switch (line.kind) {
+                case ReceiptTemplate.BLANK:
+                    beginLine(line.bold);
+                    break;
+                case ReceiptTemplate.SEPARATOR:
+                    beginLine(line.bold);
+                    text.repeat(line.separator, template.width);
+                    break;
+                case ReceiptTemplate.CENTER:
+                    left.clear();
+                    writeParts(line.left, transaction, left);
+                    beginLine(line.bold);
+                    text.repeat(' ', (template.width - left.length) / 2);
+                    text.append(left);
+                    break;
+                case ReceiptTemplate.LEFT_RIGHT:
+                    left.clear();
+                    right.clear();
+                    writeParts(line.left, transaction, left);
+                    writeParts(line.right, transaction, right);
+                    beginLine(line.bold);
+                    text.append(left);
+                    text.repeat(' ', Math.max(1, template.width - left.length - right.length));
+                    text.append(right);
+                    break;
+                case ReceiptTemplate.ITEMS_HEADER:
+                    beginLine(line.bold);
+                    System.arraycopy(ITEM_HEADER_QTY, 0, digits, digits.length - ITEM_HEADER_QTY.length,
+                            ITEM_HEADER_QTY.length);
+                    writeItemRow(ITEM_HEADER_NAME, ITEM_HEADER_NAME.length, ITEM_HEADER_QTY.length,
+                            ITEM_HEADER_AMOUNT, ITEM_HEADER_AMOUNT.length);
+                    break;
+                case ReceiptTemplate.ITEMS:
+                    writeItems(transaction, line.bold);
+                    break;
+                default:
+                    left.clear();
+                    writeParts(line.left, transaction, left);
+                    beginLine(line.bold);
+                    text.append(left);
+                    break;
+            }
+        }
+
+        return this;
+    }
+
+    // Text access
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public String getLine(int index) {
+        int start = lineStarts[index];
+        int end = index + 1 < lineCount ? lineStarts[index + 1] - 1 : text.length;
+        return new String(text.chars, start, end - start);
+    }
+
+    public boolean isLineBold(int index) {
+        return lineBold[index];
+    }
+
+    /**
+     * Rendered receipt as plain text (one '\n' after every line)
+     */
+    public String toText() {
+        if (lineCount == 0) {
+            return "";
+        }
+        text.append('\n');
+        String result = new String(text.chars, 0, text.length);
+        text.length--;
+        return result;
+    }
+
+    /**
+     * Encode the last rendered receipt as ESC/POS bytes: initialize, bold
+     * on/off per line, feed and partial cut. Non-ASCII is sent as '?'.
+     *
+     * @return internal buffer, valid up to getEscPosLength() until next call
+     */
+    public byte[] encodeEscPos() {
+        escPosLength = 0;
+        ensureEscPos(text.length + lineCount * 7 + 16);
+
+        putByte(ESC);
+        putByte((byte) '@');
+
+        for (int i = 0; i < lineCount; i++) {
+            int start = lineStarts[i];
+            int end = i + 1 < lineCount ? lineStarts[i + 1] - 1 : text.length;
+
+            if (lineBold[i]) {
+                putByte(ESC);
+                putByte((byte) 'E');
+                putByte((byte) 1);
+            }
+            for (int c = start; c < end; c++) {
+                char ch = text.chars[c];
+                putByte(ch < 0x80 ? (byte) ch : (byte) '?');
+            }
+            if (lineBold[i]) {
+                putByte(ESC);
+                putByte((byte) 'E');
+                putByte((byte) 0);
+            }
+            putByte(LF);
+        }
+
+        // Feed 3 lines, partial cut
+        putByte(ESC);
+        putByte((byte) 'd');
+        putByte((byte) 3);
+        putByte(GS);
+        putByte((byte) 'V');
+        putByte((byte) 66);
+        putByte((byte) 0);
+
+        return escPos;
+    }
+
+    public int getEscPosLength() {
+        return escPosLength;
+    }
+
+    // Line building
+
+    private void beginLine(boolean bold) {
+        if (lineCount > 0) {
+            text.append('\n');
+        }
+        if (lineCount == lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+            lineBold = Arrays.copyOf(lineBold, lineCount * 2);
+        }
+        lineStarts[lineCount] = text.length;
+        lineBold[lineCount] = bold;
+        lineCount++;
+    }
+
+    private void writeItems(TransaksiHeader transaction, boolean bold) {
+        List<TransaksiDetail> details = transaction.getDetails();
+        if (details == null) {
+            return;
+        }
+
+        for (TransaksiDetail detail : details) {
+            beginLine(bold);
+
+            String nama = detail.getMenu() != null ? detail.getMenu().getNamaMenu() : "";
+            left.clear();
+            left.append(nama);
+
+            right.clear();
+            appendMoney(right, detail.getSubtotalSen());
+
+            int qtyLength = formatLong(detail.getQty());
+            writeItemRow(left.chars, left.length, qtyLength, right.chars, right.length);
+        }
+    }
+
+    /**
+     * "%-{name}s %{qty}s %{amount}s" - qty is taken from the tail of digits[]
+     */
+    private void writeItemRow(char[] name, int nameLength, int qtyLength, char[] amount, int amountLength) {
+        int nameWidth = template.nameWidth;
+        if (nameLength > nameWidth) {
+            text.append(name, 0, nameWidth - ELLIPSIS.length);
+            text.append(ELLIPSIS, 0, ELLIPSIS.length);
+        } else {
+            text.append(name, 0, nameLength);
+            text.repeat(' ', nameWidth - nameLength);
+        }
+
+        text.append(' ');
+        text.repeat(' ', template.qtyWidth - qtyLength);
+        text.append(digits, digits.length - qtyLength, qtyLength);
+
+        text.append(' ');
+        text.repeat(' ', template.amountWidth - amountLength);
+        text.append(amount, 0, amountLength);
+    }
+
+    private void writeParts(ReceiptTemplate.Part[] parts, TransaksiHeader transaction, CharBuf out) {
+        for (ReceiptTemplate.Part part : parts) {
+            if (part.field == ReceiptTemplate.LITERAL) {
+                out.append(part.literal, 0, part.literal.length);
+            } else {
+                writeField(part.field, transaction, out);
+            }
+        }
+    }
+
+    private void writeField(int field, TransaksiHeader transaction, CharBuf out) {
+        switch (field) {
+            case ReceiptTemplate.F_KASIR:
+                User user = transaction.getUser();
+                if (user != null) {
+                    out.append(user.getNamaLengkap());
+                }
+                break;
+            case ReceiptTemplate.F_TANGGAL:
+                if (transaction.getTanggal() != null) {
+                    appendDate(out, transaction.getTanggal().getTime());
+                }
+                break;
+            case ReceiptTemplate.F_NO_TRX:
+                // Offline sales carry minus their journal number until stored
+                int idTransaksi = transaction.getIdTransaksiHeader();
+                if (idTransaksi < 0) {
+                    out.append('O').append('F').append('F').append('-');
+                } else {
+                    out.append('T').append('R').append('X').append('-');
+                }
+                int length = formatLong(Math.abs((long) idTransaksi));
+                out.repeat('0', 4 - length);
+                out.append(digits, digits.length - length, length);
+                break;
+            case ReceiptTemplate.F_SUBTOTAL:
+                appendMoney(out, transaction.getTotalHargaSen());
+                break;
+            case ReceiptTemplate.F_PAJAK_LABEL:
+                out.append(taxLabel, 0, taxLabel.length);
+                break;
+            case ReceiptTemplate.F_PAJAK:
+                appendMoney(out, transaction.getPajakSen());
+                break;
+            case ReceiptTemplate.F_TOTAL:
+                appendMoney(out, transaction.getGrandTotalSen());
+                break;
+            case ReceiptTemplate.F_METODE:
+                String method = transaction.getMetodePembayaran();
+                if (method == null || method.isEmpty()) {
+                    out.appendUpperCase(DEFAULT_METHOD);
+                } else {
+                    for (int i = 0; i < method.length(); i++) {
+                        out.append(Character.toUpperCase(method.charAt(i)));
+                    }
+                }
+                break;
+            case ReceiptTemplate.F_BAYAR:
+                appendMoney(out, transaction.getTunaiSen());
+                break;
+            case ReceiptTemplate.F_KEMBALIAN:
+                appendMoney(out, transaction.getKembalianSen());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static boolean isCash(String method) {
+        return method == null || method.isEmpty() || "Cash".equalsIgnoreCase(method);
+    }
+
+    // Number formatting (no allocation)
+
+    /**
+     * Write decimal digits of a non-negative value right-aligned into digits[]
+     *
+     * @return number of digits written
+     */
+    private int formatLong(long value) {
+        int pos = digits.length;
+        do {
+            digits[--pos] = (char) ('0' + (value % 10));
+            value /= 10;
+        } while (value > 0);
+        return digits.length - pos;
+    }
+
+    /**
+     * Rupiah in id-ID style without symbol, e.g. 25.000,00
+     */
+    private void appendMoney(CharBuf out, long sen) {
+        if (sen < 0) {
+            out.append('-');
+        }
+        long abs = Math.abs(sen);
+        long rupiah = abs / Money.ONE_RUPIAH;
+        int fraction = (int) (abs % Money.ONE_RUPIAH);
+
+        int length = formatLong(rupiah);
+        int start = digits.length - length;
+        for (int i = 0; i < length; i++) {
+            if (i > 0 && (length - i) % 3 == 0) {
+                out.append('.');
+            }
+            out.append(digits[start + i]);
+        }
+
+        out.append(',');
+        out.append((char) ('0' + fraction / 10));
+        out.append((char) ('0' + fraction % 10));
+    }
+
+    /**
+     * dd/MM/yyyy HH:mm:ss
+     */
+    private void appendDate(CharBuf out, long millis) {
+        calendar.setTimeInMillis(millis);
+        append2(out, calendar.get(Calendar.DAY_OF_MONTH));
+        out.append('/');
+        append2(out, calendar.get(Calendar.MONTH) + 1);
+        out.append('/');
+        int length = formatLong(calendar.get(Calendar.YEAR));
+        out.repeat('0', 4 - length);
+        out.append(digits, digits.length - length, length);
+        out.append(' ');
+        append2(out, calendar.get(Calendar.HOUR_OF_DAY));
+        out.append(':');
+        append2(out, calendar.get(Calendar.MINUTE));
+        out.append(':');
+        append2(out, calendar.get(Calendar.SECOND));
+    }
+
+    private static void append2(CharBuf out, int value) {
+        out.append((char) ('0' + value / 10));
+        out.append((char) ('0' + value % 10));
+    }
+
+    // Byte buffer
+
+    private void ensureEscPos(int capacity) {
+        if (escPos.length < capacity) {
+            escPos = Arrays.copyOf(escPos, Math.max(capacity, escPos.length * 2));
+        }
+    }
+
+    private void putByte(byte b) {
+        if (escPosLength == escPos.length) {
+            ensureEscPos(escPosLength + 1);
+        }
+        escPos[escPosLength++] = b;
+    }
+
+    /**
+     * Minimal growable char buffer
+     */
+    private static final class CharBuf {
+        char[] chars;
+        int length;
+
+        CharBuf(int capacity) {
+            chars = new char[capacity];
+        }
+
+        void clear() {
+            length = 0;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(length + extra, chars.length * 2));
+            }
+        }
+
+        CharBuf append(char c) {
+            ensure(1);
+            chars[length++] = c;
+            return this;
+        }
+
+        CharBuf append(char[] src, int offset, int count) {
+            ensure(count);
+            System.arraycopy(src, offset, chars, length, count);
+            length += count;
+            return this;
+        }
+
+        CharBuf append(char[] src) {
+            return append(src, 0, src.length);
+        }
+
+        CharBuf append(CharBuf other) {
+            return append(other.chars, 0, other.length);
+        }
+
+        CharBuf append(String s) {
+            if (s == null) {
+                return this;
+            }
+            int count = s.length();
+            ensure(count);
+            s.getChars(0, count, chars, length);
+            length += count;
+            return this;
+        }
+
+        void appendUpperCase(char[] src) {
+            ensure(src.length);
+            for (char c : src) {
+                chars[length++] = Character.toUpperCase(c);
+            }
+        }
+
+        void repeat(char c, int count) {
+            if (count <= 0) {
+                return;
+            }
+            ensure(count);
+            Arrays.fill(chars, length, length + count, c);
+            length += count;
+        }
+    }
+}
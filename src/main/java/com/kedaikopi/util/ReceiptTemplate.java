@@ -0,0 +1,284 @@
+package com.kedaikopi.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Receipt Template - layout struk yang sudah di-parse (compiled)
+ * Parsed once into an array of line ops with literal text pre-split into
+ * char[] parts, so rendering never re-parses or allocates strings.
+ * See resources/receipt/receipt_template.txt for the syntax.
+ */
+public final class ReceiptTemplate {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReceiptTemplate.class);
+    private static final String DEFAULT_RESOURCE = "/receipt/receipt_template.txt";
+    private static final String OVERRIDE_FILE = "receipt_template.txt";
+    private static ReceiptTemplate defaultTemplate;
+
+    // Line kinds
+    static final int TEXT = 0;
+    static final int CENTER = 1;
+    static final int LEFT_RIGHT = 2;
+    static final int SEPARATOR = 3;
+    static final int BLANK = 4;
+    static final int ITEMS = 5;
+    static final int ITEMS_HEADER = 6;
+
+    // Fields
+    static final int LITERAL = -1;
+    static final int F_KASIR = 0;
+    static final int F_TANGGAL = 1;
+    static final int F_NO_TRX = 2;
+    static final int F_SUBTOTAL = 3;
+    static final int F_PAJAK_LABEL = 4;
+    static final int F_PAJAK = 5;
+    static final int F_TOTAL = 6;
+    static final int F_METODE = 7;
+    static final int F_BAYAR = 8;
+    static final int F_KEMBALIAN = 9;
+
+    private static final String[] FIELD_NAMES = { "kasir", "tanggal", "no_trx", "subtotal", "pajak_label",
+            "pajak", "total", "metode", "bayar", "kembalian" };
+
+    final int width;
+    final int nameWidth;
+    final int qtyWidth;
+    final int amountWidth;
+    final Line[] lines;
+
+    private ReceiptTemplate(int width, int nameWidth, int qtyWidth, int amountWidth, Line[] lines) {
+        this.width = width;
+        this.nameWidth = nameWidth;
+        this.qtyWidth = qtyWidth;
+        this.amountWidth = amountWidth;
+        this.lines = lines;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Default template: receipt_template.txt in the working directory if present,
+     * otherwise the bundled resource. Parsed once.
+     */
+    public static synchronized ReceiptTemplate getDefault() {
+        if (defaultTemplate == null) {
+            defaultTemplate = loadDefault();
+        }
+        return defaultTemplate;
+    }
+
+    private static ReceiptTemplate loadDefault() {
+        Path override = Paths.get(OVERRIDE_FILE);
+        try {
+            if (Files.isRegularFile(override)) {
+                try (Reader reader = Files.newBufferedReader(override, StandardCharsets.UTF_8)) {
+                    logger.info("Using receipt template {}", override.toAbsolutePath());
+                    return parse(reader);
+                }
+            }
+
+            try (InputStream in = ReceiptTemplate.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+                if (in == null) {
+                    throw new IOException("Resource not found: " + DEFAULT_RESOURCE);
+                }
+                return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Failed to load receipt template", e);
+        }
+    }
+
+    public static ReceiptTemplate parse(String text) {
+        try {
+            return parse(new StringReader(text));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Parse template text into compiled line ops
+     */
+    public static ReceiptTemplate parse(Reader source) throws IOException {
+        int width = 42;
+        int[] columns = { 24, 3, 10 };
+        List<Line> lines = new ArrayList<>();
+        boolean inLayout = false;
+
+        BufferedReader reader = new BufferedReader(source);
+        String raw;
+        int lineNo = 0;
+        while ((raw = reader.readLine()) != null) {
+            lineNo++;
+
+            if (!inLayout) {
+                String trimmed = raw.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                if (trimmed.equals("[layout]")) {
+                    inLayout = true;
+                    continue;
+                }
+
+                int eq = trimmed.indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("Line " + lineNo + ": expected key=value");
+                }
+                String key = trimmed.substring(0, eq).trim();
+                String value = trimmed.substring(eq + 1).trim();
+                if (key.equals("width")) {
+                    width = Integer.parseInt(value);
+                } else if (key.equals("columns")) {
+                    String[] parts = value.split(",");
+                    if (parts.length != 3) {
+                        throw new IllegalArgumentException("Line " + lineNo + ": columns needs 3 widths");
+                    }
+                    for (int i = 0; i < 3; i++) {
+                        columns[i] = Integer.parseInt(parts[i].trim());
+                    }
+                } else {
+                    throw new IllegalArgumentException("Line " + lineNo + ": unknown setting " + key);
+                }
+                continue;
+            }
+
+            lines.add(parseLine(raw, lineNo));
+        }
+
+        if (columns[0] + columns[1] + columns[2] + 2 > width) {
+            throw new IllegalArgumentException("Item columns wider than receipt width " + width);
+        }
+
+        return new ReceiptTemplate(width, columns[0], columns[1], columns[2], lines.toArray(new Line[0]));
+    }
+
+    private static Line parseLine(String raw, int lineNo) {
+        Line line = new Line();
+        String text = raw;
+
+        // Prefix modifiers
+        boolean more = true;
+        while (more) {
+            if (text.startsWith("*")) {
+                line.bold = true;
+                text = text.substring(1);
+            } else if (text.startsWith("?cash ")) {
+                line.cashOnly = true;
+                text = text.substring(6);
+            } else {
+                more = false;
+            }
+        }
+
+        if (text.isEmpty()) {
+            line.kind = BLANK;
+        } else if (text.equals("=") || text.equals("-")) {
+            line.kind = SEPARATOR;
+            line.separator = text.charAt(0);
+        } else if (text.equals("@items")) {
+            line.kind = ITEMS;
+        } else if (text.equals("@items_header")) {
+            line.kind = ITEMS_HEADER;
+        } else if (text.startsWith("^")) {
+            line.kind = CENTER;
+            line.left = parseParts(text.substring(1), lineNo);
+        } else if (text.startsWith("<")) {
+            int bar = text.indexOf('|');
+            if (bar < 0) {
+                throw new IllegalArgumentException("Line " + lineNo + ": '<' needs left|right");
+            }
+            line.kind = LEFT_RIGHT;
+            line.left = parseParts(text.substring(1, bar), lineNo);
+            line.right = parseParts(text.substring(bar + 1), lineNo);
+        } else {
+            line.kind = TEXT;
+            line.left = parseParts(text, lineNo);
+        }
+
+        return line;
+    }
+
+    /**
+     * Split "Kasir {kasir}" into literal and field parts
+     */
+    private static Part[] parseParts(String text, int lineNo) {
+        List<Part> parts = new ArrayList<>();
+        int pos = 0;
+        while (pos < text.length()) {
+            int open = text.indexOf('{', pos);
+            if (open < 0) {
+                parts.add(Part.literal(text.substring(pos)));
+                break;
+            }
+            if (open > pos) {
+                parts.add(Part.literal(text.substring(pos, open)));
+            }
+            int close = text.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Line " + lineNo + ": unclosed {");
+            }
+            parts.add(Part.field(fieldId(text.substring(open + 1, close), lineNo)));
+            pos = close + 1;
+        }
+        return parts.toArray(new Part[0]);
+    }
+
+    private static int fieldId(String name, int lineNo) {
+        for (int i = 0; i < FIELD_NAMES.length; i++) {
+            if (FIELD_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Line " + lineNo + ": unknown field {" + name + "}");
+    }
+
+    /**
+     * One compiled layout line
+     */
+    static final class Line {
+        int kind;
+        boolean bold;
+        boolean cashOnly;
+        char separator;
+        Part[] left;
+        Part[] right;
+    }
+
+    /**
+     * Literal text or field reference
+     */
+    static final class Part {
+        final char[] literal;
+        final int field;
+
+        private Part(char[] literal, int field) {
+            this.literal = literal;
+            this.field = field;
+        }
+
+        static Part literal(String text) {
+            return new Part(text.toCharArray(), LITERAL);
+        }
+
+        static Part field(int field) {
+            return new Part(null, field);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.kedaikopi.util;
+
+import com.kedaikopi.config.DatabaseConfig;
+
+import javax.swing.SwingUtilities;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Report Executor - menjalankan query laporan secara paralel di background
+ * Singleton pattern
+ *
+ * Each task gets its own connection from the read-only reporting pool, and
+ * there are as many workers as reporting connections, so tasks never queue
+ * on the pool itself. Results are handed back with onEdt().
+ */
+public class ReportExecutor {
+
+    private static ReportExecutor instance;
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService workers = Executors.newFixedThreadPool(DatabaseConfig.REPORTING_POOL_SIZE, r -> {
+        Thread t = new Thread(r, "report-worker-" + threadCount.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Query work on one reporting connection
+     */
+    @FunctionalInterface
+    public interface SqlTask<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    private ReportExecutor() {
+    }
+
+    public static synchronized ReportExecutor getInstance() {
+        if (instance == null) {
+            instance = new ReportExecutor();
+        }
+        return instance;
+    }
+
+    /**
+     * Run task on a reporting connection in the background
+     *
+     * @return future completed with the task result, or exceptionally with the
+     *         SQLException
+     */
+    public <T> CompletableFuture<T> submit(SqlTask<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection conn = DatabaseConfig.getInstance().getReportingConnection()) {
+                return task.run(conn);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, workers);
+    }
+
+    /**
+     * Run work that needs no connection (e.g. reading a snapshot file) on the
+     * report workers
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, workers);
+    }
+
+    /**
+     * Executor for continuations that touch Swing components
+     */
+    public static Executor onEdt() {
+        return SwingUtilities::invokeLater;
+    }
+
+    /**
+     * Unwrap CompletionException to the original failure
+     */
+    public static Throwable cause(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
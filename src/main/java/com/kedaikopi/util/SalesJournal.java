@@ -0,0 +1,722 @@
+package com.kedaikopi.util;
+
+import com.kedaikopi.config.DatabaseHealth;
+import com.kedaikopi.event.DatabaseStateChanged;
+import com.kedaikopi.event.EventBus;
+import com.kedaikopi.model.MenuKopi;
+import com.kedaikopi.model.TransaksiDetail;
+import com.kedaikopi.model.TransaksiHeader;
+import com.kedaikopi.model.User;
+import com.kedaikopi.repository.Repositories;
+import com.kedaikopi.repository.SaveResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * Sales Journal - jurnal penjualan lokal untuk checkout offline
+ * Singleton pattern
+ *
+ * - Setiap penjualan ditulis dulu ke jurnal lokal (append + fsync, CRC32 per record)
+ * - Worker menyimpan jurnal ke database sesuai urutan; kasir menunggu jawaban
+ *   database, penjualan baru berlaku offline (struk OFF-n) bila circuit
+ *   DatabaseHealth terbuka, penyimpanan gagal, atau lewat ONLINE_WAIT_MILLIS
+ * - Stok lokal dikurangi sekali saja: saat penjualan jadi offline, lalu
+ *   dikoreksi ke nilai database (tanpa dikurangi lagi) saat tersimpan
+ * - Saat database tidak terhubung, worker mencoba lagi dengan backoff dan
+ *   mengirim semua penjualan offline begitu koneksi kembali
+ * - Replay aman diulang: setiap record membawa client key penjualan, yang
+ *   sudah tersimpan tidak disimpan lagi
+ *
+ * Layout: sales-<first seq>.journal segments plus applied.seq (last record
+ * stored). A torn record at the end of a segment (crash mid-write) is cut off
+ * on start; fully stored segments are deleted. Sales the database refuses
+ * for good (constraint, bad data) go to quarantine.journal instead of
+ * blocking the sales behind them; connection errors are retried.
+ */
+public class SalesJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesJournal.class);
+    private static SalesJournal instance;
+
+    private static final int RECORD_MAGIC = 0x4B4B534A; // "KKSJ"
+    private static final int RECORD_VERSION = 1;
+    private static final int FRAME_BYTES = Integer.BYTES * 2 + Long.BYTES; // magic, length, crc
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final long SEGMENT_BYTES = 1 << 20;
+    private static final String SEGMENT_PREFIX = "sales-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String QUARANTINE_FILE = "quarantine.journal";
+
+    // Last resort for a database that hangs without failing; well past the
+    // pool's 5 s connection timeout so a slow but healthy save is not OFFLINE
+    private static final long ONLINE_WAIT_MILLIS = 15_000;
+    private static final long RETRY_BASE_MILLIS = 2_000;
+    private static final long RETRY_MAX_MILLIS = 60_000;
+
+    // Pending states
+    private static final int WAITING = 0; // kasir waits for the database
+    private static final int OFFLINE = 1; // sale stands, stored whenever possible
+    private static final int DONE = 2;
+
+    private final Path dir;
+    private final Path checkpointFile;
+
+    private final NavigableMap<Long, Path> segments = new TreeMap<>(); // first seq -> file
+    private FileChannel active;
+    private long nextSeq = 1;
+    private volatile long appliedSeq;
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean started = false;
+    private volatile boolean offline = false;
+
+    // Worker thread only
+    private int failures;
+    private long retryAt;
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "sales-journal");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private SalesJournal() {
+        this.dir = Paths.get(System.getProperty("kedaikopi.journal.dir", "journal/sales"));
+        this.checkpointFile = dir.resolve("applied.seq");
+    }
+
+    public static synchronized SalesJournal getInstance() {
+        if (instance == null) {
+            instance = new SalesJournal();
+        }
+        return instance;
+    }
+
+    /**
+     * Database state callbacks (called on the journal thread)
+     */
+    public interface Listener {
+        void onConnectivityChanged(boolean offline, int pendingSales);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Outcome of a checkout as seen by the kasir
+     */
+    public static final class Checkout {
+
+        public enum Status {
+            /** Stored in the database */
+            SAVED,
+            /** Kept in the journal, stored once the database is back */
+            OFFLINE,
+            /** Rolled back, stock ran out meanwhile */
+            REJECTED,
+            /** Not stored at all */
+            FAILED
+        }
+
+        private final Status status;
+        private final int idTransaksi;
+
+        private Checkout(Status status, int idTransaksi) {
+            this.status = status;
+            this.idTransaksi = idTransaksi;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Transaction id (SAVED), or minus the journal number (OFFLINE)
+         */
+        public int getIdTransaksi() {
+            return idTransaksi;
+        }
+
+        @Override
+        public String toString() {
+            return status + " #" + idTransaksi;
+        }
+    }
+
+    /**
+     * Open the journal and replay sales left from the previous run
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(dir);
+            recover();
+        } catch (IOException e) {
+            logger.error("Cannot open sales journal {}", dir, e);
+            return;
+        }
+        started = true;
+
+        if (!queue.isEmpty()) {
+            logger.info("Replaying {} journaled sale(s)", queue.size());
+        }
+        EventBus.getInstance().subscribe(DatabaseStateChanged.class, this::onDatabaseState);
+        worker.execute(this::drain);
+    }
+
+    /**
+     * Record a sale and store it. The returned future completes with
+     * SAVED/REJECTED once the database answered, or OFFLINE (the sale is safe
+     * on disk and stored later) when the circuit is open, the save failed or
+     * ONLINE_WAIT_MILLIS passed without an answer.
+     * If the journal itself cannot be written the sale is saved directly on
+     * the journal worker.
+     */
+    public CompletableFuture<Checkout> submit(TransaksiHeader sale) {
+        start();
+        if (sale.getTanggal() == null) {
+            sale.setTanggal(new Timestamp(System.currentTimeMillis()));
+        }
+        if (sale.getClientKey() == null) {
+            sale.setClientKey(UUID.randomUUID());
+        }
+
+        Pending pending = null;
+        if (started) {
+            try {
+                pending = append(sale);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Cannot write sale to journal, saving directly", e);
+            }
+        }
+        if (pending == null) {
+            return CompletableFuture.supplyAsync(() -> LogContext.withSale(sale.getClientKey(), sale::save)
+                    ? new Checkout(Checkout.Status.SAVED, sale.getIdTransaksiHeader())
+                    : new Checkout(Checkout.Status.FAILED, 0), worker); // never on the caller's (EDT) thread
+        }
+
+        Pending submitted = pending;
+        if (offline || !DatabaseHealth.getInstance().isAvailable()) {
+            goOffline(submitted); // don't make the kasir wait for a database known to be down
+        } else {
+            CompletableFuture.delayedExecutor(ONLINE_WAIT_MILLIS, TimeUnit.MILLISECONDS)
+                    .execute(() -> goOffline(submitted));
+        }
+        worker.execute(this::drain);
+        return submitted.result;
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Sales in the journal not stored in the database yet
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Follow the database circuit: go offline at once when it opens (sales
+     * still waiting stand as offline sales), and store the backlog as soon as
+     * it closes instead of waiting out the retry backoff
+     */
+    private void onDatabaseState(DatabaseStateChanged event) {
+        if (!event.isAvailable()) {
+            releaseWaiting();
+            worker.execute(() -> setOffline(true));
+            return;
+        }
+        worker.execute(() -> {
+            retryAt = 0;
+            failures = 0;
+            drain();
+        });
+    }
+
+    /**
+     * Let the kasir go on without the database: the sale stands and its stock
+     * is taken from the local catalog now (once; storing it later only
+     * corrects the catalog to the database's values)
+     */
+    private void goOffline(Pending pending) {
+        synchronized (pending) {
+            if (!pending.state.compareAndSet(WAITING, OFFLINE)) {
+                return;
+            }
+            pending.sale.publishLocalStock();
+            pending.stockShown = true;
+        }
+        pending.result.complete(new Checkout(Checkout.Status.OFFLINE, (int) -pending.seq));
+    }
+
+    private void releaseWaiting() {
+        for (Pending pending : queue) {
+            goOffline(pending);
+        }
+    }
+
+    // Worker
+
+    /**
+     * Store queued sales in order. Stops at the first database error and
+     * tries again after a backoff.
+     */
+    private void drain() {
+        try {
+            storeQueued();
+        } finally {
+            MDC.remove(LogContext.SALE);
+        }
+    }
+
+    private void storeQueued() {
+        if (System.currentTimeMillis() < retryAt) {
+            return; // a retry is already scheduled
+        }
+
+        Pending pending;
+        while ((pending = queue.peek()) != null) {
+            MDC.put(LogContext.SALE, LogContext.saleKey(pending.sale.getClientKey())); // Repository lines too
+            boolean waiting = pending.state.get() == WAITING;
+            SaveResult saved = Repositories.transactions().save(pending.sale, !waiting);
+
+            switch (saved.getStatus()) {
+                case FAILED:
+                    scheduleRetry();
+                    return;
+
+                case INVALID:
+                    if (!quarantine(pending, "refused by the database")) {
+                        scheduleRetry(); // Never drop a journaled sale
+                        return;
+                    }
+                    if (pending.state.compareAndSet(WAITING, DONE)) {
+                        pending.result.complete(new Checkout(Checkout.Status.FAILED, 0));
+                    }
+                    break;
+
+                case SHORT_STOCK:
+                    if (waiting && pending.state.compareAndSet(WAITING, DONE)) {
+                        pending.result.complete(new Checkout(Checkout.Status.REJECTED, 0));
+                        logger.warn("Journaled sale {} rejected, insufficient stock", pending.seq);
+                        break;
+                    }
+                    if (waiting) {
+                        continue; // went offline meanwhile - the sale stands, store it without the stock check
+                    }
+                    // Already told the kasir it stands - park it for review, never drop it
+                    if (!quarantine(pending, "short on stock even with a forced take")) {
+                        scheduleRetry();
+                        return;
+                    }
+                    break;
+
+                default:
+                    boolean answered; // the kasir still waits: this side reports the receipt
+                    synchronized (pending) { // one winner against goOffline's timer
+                        answered = pending.state.compareAndSet(WAITING, DONE);
+                        pending.state.set(DONE);
+                        if (saved.getStatus() == SaveResult.Status.SAVED) {
+                            pending.sale.publishSaved(saved.getStockLeft(), pending.stockShown);
+                        }
+                    }
+                    YearMonth month = YearMonth.from(pending.sale.getTanggal().toLocalDateTime());
+                    if (MonthlyClosing.isPast(month)) {
+                        MonthlyClosing.getInstance().reopen(month); // a closed month got a late sale
+                    }
+                    if (answered) {
+                        pending.result.complete(new Checkout(Checkout.Status.SAVED, saved.getIdTransaksi()));
+                    } else {
+                        logger.info("Offline sale OFF-{} stored as transaction {}", pending.seq,
+                                saved.getIdTransaksi());
+                    }
+            }
+
+            queue.poll();
+            markApplied(pending.seq);
+            failures = 0;
+            retryAt = 0;
+        }
+        setOffline(false);
+    }
+
+    /**
+     * The database could not be reached (or was busy): keep the sale at the
+     * head of the queue and try again after a backoff
+     */
+    private void scheduleRetry() {
+        releaseWaiting(); // the kasir does not wait out the backoff
+        failures++;
+        long delay = Math.min(RETRY_MAX_MILLIS, RETRY_BASE_MILLIS << Math.min(failures - 1, 10));
+        retryAt = System.currentTimeMillis() + delay;
+        worker.schedule(this::drain, delay, TimeUnit.MILLISECONDS);
+        logger.warn("Database unavailable, {} sale(s) kept in journal, retry in {} s",
+                queue.size(), delay / 1000);
+        setOffline(true);
+    }
+
+    /**
+     * Move a sale the database will not take to quarantine.journal (same
+     * record format) so the sales behind it can be stored. Quarantined sales
+     * are never replayed automatically; they wait for manual review.
+     *
+     * @return false when the quarantine file cannot be written (the sale
+     *         then stays in the journal)
+     */
+    private boolean quarantine(Pending pending, String why) {
+        Path file = dir.resolve(QUARANTINE_FILE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = frame(encode(pending.seq, pending.sale));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            logger.error("Cannot quarantine journaled sale {}, kept in journal", pending.seq, e);
+            return false;
+        }
+        logger.error("Journaled sale {} ({}) {}, moved to {} for review", pending.seq,
+                pending.sale.getClientKey(), why, file);
+        return true;
+    }
+
+    private void setOffline(boolean value) {
+        if (offline == value) {
+            return;
+        }
+        offline = value;
+        if (value) {
+            logger.warn("Checkout switched to offline journal");
+        } else {
+            logger.info("Database reachable again, offline sales stored");
+        }
+        int pendingSales = queue.size();
+        for (Listener listener : listeners) {
+            listener.onConnectivityChanged(value, pendingSales);
+        }
+    }
+
+    // Journal files
+
+    /**
+     * Append a sale (fsync'd) and queue it for the worker
+     */
+    private synchronized Pending append(TransaksiHeader sale) throws IOException {
+        long seq = nextSeq;
+        byte[] payload = encode(seq, sale);
+
+        if (active != null && active.size() >= SEGMENT_BYTES) {
+            active.close();
+            active = null;
+        }
+        if (active == null) {
+            Path file = dir.resolve(segmentName(seq));
+            active = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            segments.put(seq, file);
+        }
+
+        ByteBuffer buffer = frame(payload);
+        while (buffer.hasRemaining()) {
+            active.write(buffer);
+        }
+        active.force(false);
+
+        nextSeq++;
+        Pending pending = new Pending(seq, decode(payload), WAITING);
+        queue.add(pending);
+        return pending;
+    }
+
+    /**
+     * Load unapplied records; cut torn tails, delete fully applied segments
+     */
+    private void recover() throws IOException {
+        appliedSeq = readCheckpoint();
+        long lastSeq = appliedSeq;
+
+        for (Path file : listSegments()) {
+            byte[] data = Files.readAllBytes(file);
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            long maxSeq = 0;
+            int validEnd = 0;
+
+            while (buffer.remaining() >= FRAME_BYTES) {
+                int magic = buffer.getInt();
+                int length = buffer.getInt();
+                long checksum = buffer.getLong();
+                if (magic != RECORD_MAGIC || length <= 0 || length > MAX_RECORD_BYTES
+                        || length > buffer.remaining()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if (crc.getValue() != checksum) {
+                    break;
+                }
+
+                Pending pending = new Pending(seqOf(payload), decode(payload), OFFLINE);
+                maxSeq = Math.max(maxSeq, pending.seq);
+                if (pending.seq > appliedSeq) {
+                    queue.add(pending);
+                }
+                validEnd = buffer.position();
+            }
+
+            if (validEnd < data.length) {
+                logger.warn("Sales journal {}: dropping {} damaged byte(s) at offset {}",
+                        file.getFileName(), data.length - validEnd, validEnd);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(validEnd);
+                    channel.force(true);
+                }
+            }
+
+            lastSeq = Math.max(lastSeq, maxSeq);
+            if (maxSeq <= appliedSeq) {
+                Files.deleteIfExists(file);
+            } else {
+                segments.put(firstSeqOf(file), file);
+            }
+        }
+        nextSeq = lastSeq + 1;
+    }
+
+    /**
+     * Remember the last stored record and drop segments no longer needed
+     */
+    private void markApplied(long seq) {
+        appliedSeq = seq;
+        try {
+            Path temp = dir.resolve(checkpointFile.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(Long.toString(seq).getBytes(StandardCharsets.US_ASCII));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Worst case the sale is replayed and recognised as already stored
+            logger.warn("Cannot write journal checkpoint: {}", e.getMessage());
+        }
+        deleteAppliedSegments();
+    }
+
+    private synchronized void deleteAppliedSegments() {
+        // A segment is done when every record before the next segment is stored
+        List<Long> done = new ArrayList<>();
+        Long previous = null;
+        for (Map.Entry<Long, Path> entry : segments.entrySet()) {
+            if (previous != null && entry.getKey() - 1 <= appliedSeq) {
+                done.add(previous);
+            }
+            previous = entry.getKey();
+        }
+        for (Long firstSeq : done) {
+            Path file = segments.remove(firstSeq);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Cannot delete journal segment {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private long readCheckpoint() {
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(checkpointFile), StandardCharsets.US_ASCII).trim());
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Unreadable journal checkpoint, replaying whole journal: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static String segmentName(long firstSeq) {
+        return String.format("%s%012d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX);
+    }
+
+    private static long firstSeqOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // Record payload
+
+    private static byte[] encode(long seq, TransaksiHeader sale) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_VERSION);
+            out.writeLong(seq);
+            out.writeLong(sale.getClientKey().getMostSignificantBits());
+            out.writeLong(sale.getClientKey().getLeastSignificantBits());
+            UUID reservationKey = sale.getReservationKey();
+            out.writeBoolean(reservationKey != null);
+            if (reservationKey != null) {
+                out.writeLong(reservationKey.getMostSignificantBits());
+                out.writeLong(reservationKey.getLeastSignificantBits());
+            }
+            out.writeLong(sale.getTanggal().getTime());
+            out.writeInt(sale.getTanggal().getNanos());
+            out.writeInt(sale.getIdUser());
+            out.writeUTF(sale.getUser() != null && sale.getUser().getNamaLengkap() != null
+                    ? sale.getUser().getNamaLengkap() : "");
+            out.writeUTF(sale.getMetodePembayaran() != null ? sale.getMetodePembayaran() : "Cash");
+            out.writeLong(sale.getTotalHargaSen());
+            out.writeLong(sale.getPajakSen());
+            out.writeLong(sale.getGrandTotalSen());
+            out.writeLong(sale.getTunaiSen());
+            out.writeLong(sale.getKembalianSen());
+
+            out.writeInt(sale.getDetails().size());
+            for (TransaksiDetail detail : sale.getDetails()) {
+                MenuKopi menu = detail.getMenu();
+                out.writeInt(detail.getIdMenu());
+                out.writeUTF(menu != null && menu.getNamaMenu() != null ? menu.getNamaMenu() : "");
+                out.writeInt(detail.getQty());
+                out.writeLong(detail.getHargaSatuanSen());
+                out.writeLong(detail.getSubtotalSen());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Magic, length and CRC32 ahead of the payload, ready to write
+     */
+    private static ByteBuffer frame(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(FRAME_BYTES + payload.length);
+        buffer.putInt(RECORD_MAGIC).putInt(payload.length).putLong(crc.getValue()).put(payload).flip();
+        return buffer;
+    }
+
+    private static long seqOf(byte[] payload) {
+        return ByteBuffer.wrap(payload, 1, Long.BYTES).getLong();
+    }
+
+    /**
+     * Sale as the worker stores it (independent copy of what the kasir sold)
+     */
+    private static TransaksiHeader decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int version = in.readByte();
+            if (version != RECORD_VERSION) {
+                throw new IOException("Unknown journal record version");
+            }
+            in.readLong(); // seq
+
+            TransaksiHeader sale = new TransaksiHeader();
+            sale.setClientKey(new UUID(in.readLong(), in.readLong()));
+            if (in.readBoolean()) {
+                sale.setReservationKey(new UUID(in.readLong(), in.readLong())); // The sale drops the cart's holds
+            }
+            Timestamp tanggal = new Timestamp(in.readLong());
+            tanggal.setNanos(in.readInt());
+            sale.setTanggal(tanggal);
+            sale.setIdUser(in.readInt());
+            sale.setUser(new User(sale.getIdUser(), null, null, in.readUTF()));
+            sale.setMetodePembayaran(in.readUTF());
+            sale.setTotalHargaSen(in.readLong());
+            sale.setPajakSen(in.readLong());
+            sale.setGrandTotalSen(in.readLong());
+            sale.setTunaiSen(in.readLong());
+            sale.setKembalianSen(in.readLong());
+
+            int lines = in.readInt();
+            List<TransaksiDetail> details = new ArrayList<>(lines);
+            for (int i = 0; i < lines; i++) {
+                int idMenu = in.readInt();
+                MenuKopi menu = new MenuKopi();
+                menu.setIdMenu(idMenu);
+                menu.setNamaMenu(in.readUTF());
+
+                TransaksiDetail detail = new TransaksiDetail(idMenu, in.readInt(), in.readLong());
+                detail.setSubtotalSen(in.readLong());
+                menu.setHargaSen(detail.getHargaSatuanSen());
+                detail.setMenu(menu);
+                details.add(detail);
+            }
+            sale.setDetails(details);
+            return sale;
+        }
+    }
+
+    private static final class Pending {
+        final long seq;
+        final TransaksiHeader sale;
+        final AtomicInteger state;
+        final CompletableFuture<Checkout> result = new CompletableFuture<>();
+        boolean stockShown; // Guarded by this: local stock already taken (goOffline)
+
+        Pending(long seq, TransaksiHeader sale, int state) {
+            this.seq = seq;
+            this.sale = sale;
+            this.state = new AtomicInteger(state);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.kedaikopi.util;
+
+import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.event.EventBus;
+import com.kedaikopi.event.SaleCompleted;
+import com.kedaikopi.event.UserLoggedIn;
+import com.kedaikopi.repository.Repositories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Startup Warmup - siapkan koneksi, katalog dan ikon selagi UI dibangun
+ * Singleton pattern
+ *
+ * - Pool database dibuat dan koneksinya dicek di background, bukan di EDT
+ *   saat LoginForm tampil
+ * - Katalog menu, kategori, user, shift dan setting dimuat ke cache begitu
+ *   database siap (query pertama kasir tidak lagi menunggu)
+ * - Logo diskalakan sekali sebelum frame pertama
+ * - Mencatat waktu ke frame pertama, login pertama dan penjualan pertama
+ *   (dihitung dari JVM start)
+ *
+ * Running the catalog reads once also loads the driver and repository code
+ * paths. It does not leave server-prepared statements behind: pgjdbc only
+ * prepares a statement on the server after prepareThreshold uses on the same
+ * connection. With -Dkedaikopi.repository=memory there is no
+ * database to warm. -Dkedaikopi.startup.training=true exits once the first
+ * frame is up and the warm-up is done: the class list run of the appcds
+ * profile (see pom.xml).
+ */
+public class StartupWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+    private static StartupWarmup instance;
+
+    private final boolean memory = "memory".equalsIgnoreCase(System.getProperty("kedaikopi.repository"));
+    private final boolean training = Boolean.getBoolean("kedaikopi.startup.training");
+    private final long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private boolean started = false;
+
+    // Guarded by this
+    private CompletableFuture<Boolean> database;
+    private CompletableFuture<Void> warmUp;
+
+    private volatile long firstLoginAt;
+    private volatile boolean frameShown = false;
+    private volatile boolean saleSeen = false;
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService worker = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "startup-warmup-" + threadCount.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private StartupWarmup() {
+    }
+
+    public static synchronized StartupWarmup getInstance() {
+        if (instance == null) {
+            instance = new StartupWarmup();
+        }
+        return instance;
+    }
+
+    /**
+     * Start the warm-up (returns at once; Main then builds the UI)
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        EventBus.getInstance().subscribe(UserLoggedIn.class, e -> firstLogin());
+        EventBus.getInstance().subscribe(SaleCompleted.class, e -> firstSale());
+
+        CompletableFuture<Void> icons = CompletableFuture.runAsync(StartupWarmup::preloadIcons, worker);
+        database = CompletableFuture.supplyAsync(this::connect, worker);
+        CompletableFuture<Void> catalog = database.thenAcceptAsync(connected -> {
+            if (connected) {
+                preloadCatalog();
+            }
+        }, worker);
+        warmUp = CompletableFuture.allOf(icons, catalog).whenComplete((done, error) -> {
+            if (error != null) {
+                logger.error("Startup warm-up failed", error);
+            } else {
+                logger.info("Startup warm-up done after {} ms", sinceJvmStart());
+            }
+        });
+    }
+
+    /**
+     * Whether the database can be reached (completes off the EDT). The first
+     * call answers with the startup check, later calls (login form shown
+     * again after logout) test again.
+     */
+    public synchronized CompletableFuture<Boolean> checkDatabase() {
+        start();
+        if (database.isDone()) {
+            database = CompletableFuture.supplyAsync(this::connect, worker);
+        }
+        return database;
+    }
+
+    /**
+     * Called by LoginForm once its window is open
+     */
+    public void firstFrameShown() {
+        if (frameShown) {
+            return;
+        }
+        frameShown = true;
+        logger.info("Time to first frame: {} ms", sinceJvmStart());
+
+        if (training) {
+            CompletableFuture<Void> done;
+            synchronized (this) {
+                done = warmUp;
+            }
+            done.whenComplete((ignored, error) -> {
+                logger.info("Training run finished, exiting");
+                System.exit(0);
+            });
+        }
+    }
+
+    private void firstLogin() {
+        if (firstLoginAt == 0) {
+            firstLoginAt = System.currentTimeMillis();
+            logger.info("Time to first login: {} ms", sinceJvmStart());
+        }
+    }
+
+    private void firstSale() {
+        if (saleSeen) {
+            return;
+        }
+        saleSeen = true;
+        long login = firstLoginAt;
+        logger.info("Time to first sale: {} ms ({} ms after login)", sinceJvmStart(),
+                login == 0 ? -1 : System.currentTimeMillis() - login);
+    }
+
+    private long sinceJvmStart() {
+        return System.currentTimeMillis() - jvmStart;
+    }
+
+    private boolean connect() {
+        if (memory) {
+            return true;
+        }
+        return DatabaseConfig.getInstance().warmUp();
+    }
+
+    /**
+     * Fill the repository caches kasir and login read first
+     */
+    private static void preloadCatalog() {
+        long startedAt = System.currentTimeMillis();
+        try {
+            int menus = Repositories.menus().findAllActive().size();
+            Repositories.menus().findAllCategories();
+            Repositories.users().findAll();
+            Repositories.users().findActiveShifts();
+            Repositories.settings().findAll();
+            logger.info("Catalog preloaded ({} active menus) in {} ms", menus,
+                    System.currentTimeMillis() - startedAt);
+        } catch (RuntimeException e) {
+            logger.warn("Catalog preload failed, views load it on first use", e);
+        }
+    }
+
+    private static void preloadIcons() {
+        IconManager.getLogo(80); // LoginForm and MainFrame sidebar
+    }
+}
@@ -0,0 +1,91 @@
+package com.kedaikopi.util;
+
+import com.kedaikopi.config.DatabaseConfig;
+import com.kedaikopi.config.DatabaseHealth;
+import com.kedaikopi.repository.jdbc.StockLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock Compaction - kembalikan stripe stok yang menganggur ke tbl_menu.stok
+ * Singleton pattern
+ *
+ * - Stripe terminal yang tidak dipakai selama IDLE_SECONDS dilipat kembali
+ *   ke cadangan, supaya stok tidak tertahan di terminal yang sudah tutup
+ * - Satu transaksi pendek per menu; menu yang sedang diisi ulang dilewati
+ * - Reservasi keranjang yang sudah kedaluwarsa ikut dihapus
+ * - Aman dijalankan di beberapa terminal sekaligus
+ */
+public class StockCompaction {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockCompaction.class);
+    private static StockCompaction instance;
+
+    private static final int IDLE_SECONDS = 10 * 60;
+    private static final long INTERVAL_MINUTES = 5;
+
+    private volatile boolean started = false;
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "stock-compaction");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private StockCompaction() {
+    }
+
+    public static synchronized StockCompaction getInstance() {
+        if (instance == null) {
+            instance = new StockCompaction();
+        }
+        return instance;
+    }
+
+    /**
+     * Schedule the periodic run
+     */
+    public synchronized void start() {
+        if (started || "memory".equalsIgnoreCase(System.getProperty("kedaikopi.repository"))) {
+            return;
+        }
+        started = true;
+        worker.scheduleWithFixedDelay(this::runSafely, INTERVAL_MINUTES, INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    private void runSafely() {
+        if (!DatabaseHealth.getInstance().isAvailable()) {
+            return;
+        }
+        try {
+            run();
+        } catch (SQLException | RuntimeException e) {
+            logger.error("Stock compaction failed", e);
+        }
+    }
+
+    /**
+     * Fold idle stripes now
+     *
+     * @return number of menus compacted
+     */
+    public int run() throws SQLException {
+        try (Connection conn = DatabaseConfig.getInstance().getConnection()) {
+            int compacted = StockLedger.compactIdle(conn, IDLE_SECONDS);
+            if (compacted > 0) {
+                logger.info("Idle stock stripes of {} menu(s) folded into tbl_menu.stok", compacted);
+            }
+            int purged = StockLedger.purgeExpiredReservations(conn);
+            if (purged > 0) {
+                logger.info("{} expired stock reservation(s) deleted", purged);
+            }
+            return compacted;
+        }
+    }
+}
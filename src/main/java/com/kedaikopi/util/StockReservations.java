@@ -0,0 +1,195 @@
+package com.kedaikopi.util;
+
+import com.kedaikopi.config.DatabaseHealth;
+import com.kedaikopi.repository.Repositories;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock Reservations - tahan stok untuk keranjang yang sedang terbuka
+ *
+ * - Satu instance per keranjang (KasirPanel); stok ditahan saat baris
+ *   ditambah atau diubah, jadi kekurangan stok ketahuan sebelum pembayaran
+ * - Selama keranjang menahan stok, masa berlakunya diperpanjang tiap
+ *   RENEW_SECONDS; keranjang yang ditinggal lepas sendiri setelah TTL_SECONDS
+ * - Kunci keranjang ikut ke transaksi (TransaksiHeader.reservationKey) dan
+ *   reservasinya menjadi penjualan dalam transaksi yang sama
+ *
+ * Calls of all carts run in order on one background thread, so the EDT never
+ * waits for the database; futures complete on that thread. While the database
+ * is unreachable nothing is held and every line is granted - the sale then
+ * goes through the offline journal anyway. Such lines are kept apart from the
+ * held ones and stored again with the next renewal; until then the sale only
+ * gets the stock no other cart holds.
+ */
+public class StockReservations {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservations.class);
+
+    private static final int TTL_SECONDS = 120;
+    private static final long RENEW_SECONDS = 30;
+
+    private static final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "stock-reservation");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Worker thread only
+    private final Map<Integer, Integer> held = new HashMap<>(); // id_menu -> qty held
+    private final Map<Integer, Integer> unheld = new HashMap<>(); // id_menu -> qty granted without a hold
+    private ScheduledFuture<?> renewal;
+
+    private volatile UUID cartKey = UUID.randomUUID();
+
+    /**
+     * Key the current cart's reservations are held under
+     */
+    public UUID getCartKey() {
+        return cartKey;
+    }
+
+    /**
+     * Hold qty of a menu for this cart, replacing what the line held before
+     * (qty 0 releases the line)
+     *
+     * @return quantity granted; less than qty when other carts hold the rest
+     */
+    public CompletableFuture<Integer> hold(int idMenu, int qty) {
+        return CompletableFuture.supplyAsync(() -> holdNow(idMenu, qty, false), worker);
+    }
+
+    /**
+     * Check every line against the database right before payment. Lines the
+     * cart no longer has are released.
+     *
+     * @param lines id_menu -> qty in the cart
+     * @return id_menu -> quantity granted, for the lines that are short only
+     */
+    public CompletableFuture<Map<Integer, Integer>> confirm(Map<Integer, Integer> lines) {
+        Map<Integer, Integer> wanted = new LinkedHashMap<>(lines);
+        return CompletableFuture.supplyAsync(() -> {
+            for (Integer idMenu : held.keySet().toArray(new Integer[0])) {
+                if (!wanted.containsKey(idMenu)) {
+                    holdNow(idMenu, 0, true);
+                }
+            }
+            Map<Integer, Integer> shortages = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Integer> line : wanted.entrySet()) {
+                int granted = holdNow(line.getKey(), line.getValue(), true);
+                if (granted < line.getValue()) {
+                    shortages.put(line.getKey(), granted);
+                }
+            }
+            return shortages;
+        }, worker);
+    }
+
+    /**
+     * Give back everything this cart holds (cart emptied, panel closed)
+     */
+    public void release() {
+        worker.execute(() -> {
+            if ((!held.isEmpty() || !unheld.isEmpty()) && DatabaseHealth.getInstance().isAvailable()) {
+                Repositories.menus().releaseReservations(cartKey);
+            }
+            forget();
+        });
+    }
+
+    /**
+     * The cart was sold; the next cart starts under a new key. The old key's
+     * holds are released too: the sale normally dropped them already, but an
+     * offline sale (or one the journal stores later) must not keep the stock
+     * held until the reservations expire.
+     */
+    public void reset() {
+        worker.execute(() -> {
+            if ((!held.isEmpty() || !unheld.isEmpty()) && DatabaseHealth.getInstance().isAvailable()) {
+                Repositories.menus().releaseReservations(cartKey);
+            }
+            forget();
+            cartKey = UUID.randomUUID();
+        });
+    }
+
+    private int holdNow(int idMenu, int qty, boolean recheck) {
+        Integer current = held.get(idMenu);
+        if (!recheck && !unheld.containsKey(idMenu) && (current != null ? current == qty : qty == 0)) {
+            return qty; // Already held, renewal keeps it alive
+        }
+        if (!DatabaseHealth.getInstance().isAvailable()) {
+            return grantUnheld(idMenu, qty);
+        }
+
+        int granted = Repositories.menus().reserveStock(cartKey, idMenu, qty, TTL_SECONDS);
+        if (granted < 0) {
+            return grantUnheld(idMenu, qty); // Store failed - never block the sale on a reservation
+        }
+        unheld.remove(idMenu);
+        if (granted == 0) {
+            held.remove(idMenu);
+        } else {
+            held.put(idMenu, granted);
+        }
+        if (granted < qty) {
+            logger.info("Menu {} reserved {} of {}", idMenu, granted, qty);
+        }
+        scheduleRenewal();
+        return granted;
+    }
+
+    /**
+     * Grant a line without a stored hold; the next renewal tries to store it
+     */
+    private int grantUnheld(int idMenu, int qty) {
+        if (qty == 0) {
+            unheld.remove(idMenu);
+        } else {
+            unheld.put(idMenu, qty);
+        }
+        scheduleRenewal();
+        return qty;
+    }
+
+    private void scheduleRenewal() {
+        if (renewal == null && (!held.isEmpty() || !unheld.isEmpty())) {
+            renewal = worker.scheduleWithFixedDelay(this::renew, RENEW_SECONDS, RENEW_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private void renew() {
+        if (held.isEmpty() && unheld.isEmpty()) {
+            forget();
+            return;
+        }
+        if (!DatabaseHealth.getInstance().isAvailable()) {
+            return;
+        }
+        if (!held.isEmpty()) {
+            Repositories.menus().renewReservations(cartKey, TTL_SECONDS);
+        }
+        for (Map.Entry<Integer, Integer> line : new HashMap<>(unheld).entrySet()) {
+            holdNow(line.getKey(), line.getValue(), true);
+        }
+    }
+
+    private void forget() {
+        held.clear();
+        unheld.clear();
+        if (renewal != null) {
+            renewal.cancel(false);
+            renewal = null;
+        }
+    }
+}
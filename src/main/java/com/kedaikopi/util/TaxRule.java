@@ -0,0 +1,96 @@
+package com.kedaikopi.util;
+
+import java.math.RoundingMode;
+
+/**
+ * Tax Rule - tarif pajak dan aturan pembulatan untuk transaksi
+ * Rate in basis points (1000 = 10%), rounded to a unit of sen with the
+ * configured rounding mode. Immutable and safe to share.
+ */
+public class TaxRule {
+
+    /**
+     * Default PPN 10%, rounded half-up to whole rupiah
+     */
+    public static final TaxRule PPN_10 = new TaxRule("PPN", 1000, RoundingMode.HALF_UP, Money.ONE_RUPIAH);
+
+    private final String label;
+    private final int rateBasisPoints;
+    private final RoundingMode roundingMode;
+    private final long roundingUnit;
+
+    public TaxRule(String label, int rateBasisPoints, RoundingMode roundingMode, long roundingUnit) {
+        this.label = label;
+        this.rateBasisPoints = rateBasisPoints;
+        this.roundingMode = roundingMode;
+        this.roundingUnit = roundingUnit;
+    }
+
+    /**
+     * Load tax rule from tbl_app_settings (tax_rate_bp, tax_rounding, tax_rounding_unit),
+     * falling back to PPN 10%
+     */
+    public static TaxRule load() {
+        try {
+            int rate = AppSettings.getIntSetting("tax_rate_bp", PPN_10.rateBasisPoints);
+            RoundingMode mode = RoundingMode.valueOf(
+                    AppSettings.getSetting("tax_rounding", PPN_10.roundingMode.name()));
+            long unit = AppSettings.getIntSetting("tax_rounding_unit", (int) PPN_10.roundingUnit);
+            return new TaxRule(PPN_10.label, rate, mode, unit);
+        } catch (IllegalArgumentException e) {
+            return PPN_10;
+        }
+    }
+
+    /**
+     * Tax amount for a subtotal (sen), rounded once straight to the rounding
+     * unit (rounding to sen first turns a tax of Rp49,995 into Rp50, which a
+     * Rp100 unit then rounds up to Rp100)
+     */
+    public long taxOn(long subtotal) {
+        long unit = Math.max(roundingUnit, 1);
+        return Money.divide(Math.multiplyExact(subtotal, (long) rateBasisPoints), 10_000L * unit,
+                roundingMode) * unit;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getRateBasisPoints() {
+        return rateBasisPoints;
+    }
+
+    /**
+     * Display label, e.g. "PPN (10%)"
+     */
+    public String getDisplayLabel() {
+        String percent = rateBasisPoints % 100 == 0
+                ? String.valueOf(rateBasisPoints / 100)
+                : String.valueOf(rateBasisPoints / 100.0);
+        return label + " (" + percent + "%)";
+    }
+
+    /**
+     * Note under the cart: the tax is added on top of menu prices,
+     * e.g. "Harga belum termasuk PPN (10%)"
+     */
+    public String getPriceNote() {
+        return rateBasisPoints == 0 ? "Harga tanpa pajak" : "Harga belum termasuk " + getDisplayLabel();
+    }
+
+    /**
+     * Note under the grand total, e.g. "Total sudah termasuk PPN (10%)"
+     */
+    public String getTotalNote() {
+        return rateBasisPoints == 0 ? "Total tanpa pajak" : "Total sudah termasuk " + getDisplayLabel();
+    }
+
+    public RoundingMode getRoundingMode() {
+        return roundingMode;
+    }
+
+    public long getRoundingUnit() {
+        return roundingUnit;
+    }
+}